@@ -11,12 +11,14 @@ package org.eclipse.hawkbit.autoconfigure.mgmt.ui;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.hawkbit.DistributedResourceBundleMessageSource;
+import org.eclipse.hawkbit.repository.event.EventInterestRegistry;
 import org.eclipse.hawkbit.ui.MgmtUiConfiguration;
 import org.eclipse.hawkbit.ui.UiProperties;
 import org.eclipse.hawkbit.ui.push.DelayedEventBusPushStrategy;
 import org.eclipse.hawkbit.ui.push.EventPushStrategy;
 import org.eclipse.hawkbit.ui.push.HawkbitEventProvider;
 import org.eclipse.hawkbit.ui.push.UIEventProvider;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -76,6 +78,9 @@ public class MgmtUiAutoConfiguration {
      *            the event provider
      * @param uiProperties
      *            the ui properties
+     * @param eventInterestRegistry
+     *            to register the interest in the events of the tenant of the
+     *            UI if available
      * @return the push strategy bean
      */
     @Bean
@@ -83,9 +88,11 @@ public class MgmtUiAutoConfiguration {
     @UIScope
     public EventPushStrategy eventPushStrategy(final ConfigurableApplicationContext applicationContext,
             final ScheduledExecutorService executorService, final UIEventBus eventBus,
-            final UIEventProvider eventProvider, final UiProperties uiProperties) {
+            final UIEventProvider eventProvider, final UiProperties uiProperties,
+            final ObjectProvider<EventInterestRegistry> eventInterestRegistry) {
         final DelayedEventBusPushStrategy delayedEventBusPushStrategy = new DelayedEventBusPushStrategy(executorService,
-                eventBus, eventProvider, uiProperties.getEvent().getPush().getDelay());
+                eventBus, eventProvider, uiProperties.getEvent().getPush().getDelay(),
+                eventInterestRegistry.getIfAvailable());
         applicationContext.addApplicationListener(delayedEventBusPushStrategy);
         return delayedEventBusPushStrategy;
     }
@@ -8,16 +8,22 @@
  */
 package org.eclipse.hawkbit.autoconfigure.repository;
 
+import javax.persistence.EntityManager;
+
 import org.eclipse.hawkbit.repository.jpa.RepositoryApplicationConfiguration;
+import org.eclipse.hawkbit.repository.jpa.lock.ClusterLockProperties;
+import org.eclipse.hawkbit.repository.jpa.lock.JpaLockRegistry;
 import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
 import org.eclipse.hawkbit.repository.rsql.VirtualPropertyResolver;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.integration.support.locks.DefaultLockRegistry;
 import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Auto-Configuration for enabling JPA repository.
@@ -38,9 +44,32 @@ public class JpaRepositoryAutoConfiguration {
         return new VirtualPropertyResolver();
     }
 
+    /**
+     *
+     * @return a {@link LockRegistry} that locks within this node
+     */
     @Bean
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.cluster-lock", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
     public LockRegistry lockRegistry() {
         return new DefaultLockRegistry();
     }
+
+    /**
+     * @param properties
+     *            of the locks
+     * @param entityManager
+     *            to execute the statements
+     * @param txManager
+     *            to run the statements
+     * @return a {@link LockRegistry} that locks for all nodes of the cluster
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.cluster-lock", name = "enabled")
+    public JpaLockRegistry jpaLockRegistry(final ClusterLockProperties properties,
+            final EntityManager entityManager, final PlatformTransactionManager txManager) {
+        return new JpaLockRegistry(properties, entityManager, txManager);
+    }
 }
@@ -10,6 +10,9 @@ package org.eclipse.hawkbit.autoconfigure.repository.event;
 
 import java.util.concurrent.Executor;
 
+import org.eclipse.hawkbit.event.BusEventInterestFilter;
+import org.eclipse.hawkbit.event.BusEventInterestProperties;
+import org.eclipse.hawkbit.event.BusEventInterestRegistry;
 import org.eclipse.hawkbit.event.BusProtoStuffMessageConverter;
 import org.eclipse.hawkbit.repository.event.ApplicationEventFilter;
 import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
@@ -19,10 +22,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.bus.ConditionalOnBusEnabled;
 import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.SpringCloudBusClient;
 import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
@@ -30,7 +38,9 @@ import org.springframework.context.event.ApplicationEventMulticaster;
 import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.ResolvableType;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.support.ChannelInterceptorAware;
 
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
@@ -150,4 +160,43 @@ public class EventPublisherAutoConfiguration {
 
     }
 
+    @ConditionalOnBusEnabled
+    @ConditionalOnProperty(prefix = "hawkbit.server.bus.interest", name = "enabled")
+    @EnableConfigurationProperties(BusEventInterestProperties.class)
+    protected static class BusEventInterestAutoConfiguration {
+
+        /**
+         * @param properties
+         *            of the interest filtering
+         * @param eventPublisher
+         *            to publish the advertisements
+         * @param applicationContext
+         *            to get the application ID of this node
+         * @return the registry of the event interests
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public BusEventInterestRegistry busEventInterestRegistry(final BusEventInterestProperties properties,
+                final ApplicationEventPublisher eventPublisher, final ApplicationContext applicationContext) {
+            return new BusEventInterestRegistry(properties, eventPublisher, applicationContext.getId());
+        }
+
+        /**
+         * @param registry
+         *            with the interests of the other nodes
+         * @param busOutput
+         *            the channel the filter is added to as first interceptor
+         * @return the filter of the bus output channel
+         */
+        @Bean
+        public BusEventInterestFilter busEventInterestFilter(final BusEventInterestRegistry registry,
+                @Qualifier(SpringCloudBusClient.OUTPUT) final MessageChannel busOutput) {
+            final BusEventInterestFilter filter = new BusEventInterestFilter(registry);
+            if (busOutput instanceof ChannelInterceptorAware) {
+                ((ChannelInterceptorAware) busOutput).addInterceptor(0, filter);
+            }
+            return filter;
+        }
+    }
+
 }
@@ -9,6 +9,12 @@
 package org.eclipse.hawkbit.ddi.rest.resource;
 
 import org.eclipse.hawkbit.rest.RestConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -22,6 +28,23 @@ import org.springframework.stereotype.Controller;
 @Configuration
 @ComponentScan
 @Import(RestConfiguration.class)
+@EnableConfigurationProperties(DownloadProgressProperties.class)
 public class DdiApiConfiguration {
 
+    /**
+     * @param properties
+     *            of the aggregation
+     * @param eventPublisher
+     *            to publish the events
+     * @param applicationContext
+     *            to get the application ID of this node
+     * @return the aggregator of the download progress
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.ddi.download.progress", name = "enabled")
+    public DownloadProgressAggregator downloadProgressAggregator(final DownloadProgressProperties properties,
+            final ApplicationEventPublisher eventPublisher, final ApplicationContext applicationContext) {
+        return new DownloadProgressAggregator(properties, eventPublisher, applicationContext.getId());
+    }
 }
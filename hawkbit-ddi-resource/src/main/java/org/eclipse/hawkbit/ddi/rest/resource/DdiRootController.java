@@ -108,6 +108,9 @@ public class DdiRootController implements DdiRootControllerRestApi {
     @Autowired
     private ArtifactUrlHandler artifactUrlHandler;
 
+    @Autowired(required = false)
+    private DownloadProgressAggregator downloadProgressAggregator;
+
     @Autowired
     private RequestResponseContextHolder requestResponseContextHolder;
 
@@ -182,15 +185,26 @@ public class DdiRootController implements DdiRootControllerRestApi {
                         artifact.getLastModifiedAt() != null ? artifact.getLastModifiedAt() : artifact.getCreatedAt(),
                         requestResponseContextHolder.getHttpServletResponse(),
                         requestResponseContextHolder.getHttpServletRequest(),
-                        (length, shippedSinceLastEvent, total) -> eventPublisher
-                                .publishEvent(new DownloadProgressEvent(tenantAware.getCurrentTenant(), statusId,
-                                        shippedSinceLastEvent, applicationContext.getId())));
+                        (length, shippedSinceLastEvent, total) -> publishProgress(statusId, length,
+                                shippedSinceLastEvent, total));
 
             }
         }
         return result;
     }
 
+    private void publishProgress(final Long statusId, final long length, final long shippedSinceLastEvent,
+            final long total) {
+        if (downloadProgressAggregator != null) {
+            downloadProgressAggregator.progress(tenantAware.getCurrentTenant(), statusId, shippedSinceLastEvent, total,
+                    length);
+            return;
+        }
+
+        eventPublisher.publishEvent(new DownloadProgressEvent(tenantAware.getCurrentTenant(), statusId,
+                shippedSinceLastEvent, applicationContext.getId()));
+    }
+
     private ActionStatus checkAndLogDownload(final HttpServletRequest request, final Target target, final Long module) {
         final Action action = controllerManagement
                 .getActionForDownloadByTargetAndSoftwareModule(target.getControllerId(), module)
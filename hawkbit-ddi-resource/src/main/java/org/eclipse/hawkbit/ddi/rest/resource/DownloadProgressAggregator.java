@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Folds the download progress of this node per {@link ActionStatus} and
+ * publishes it as at most one {@link DownloadProgressEvent} per download and
+ * interval. The completion of a download is published right away with the
+ * bytes that have not been published yet.
+ */
+public class DownloadProgressAggregator {
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadProgressAggregator.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String applicationId;
+
+    private final Map<String, Map<Long, Long>> progress = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the aggregation
+     * @param eventPublisher
+     *            to publish the events
+     * @param applicationId
+     *            application ID of this node
+     */
+    public DownloadProgressAggregator(final DownloadProgressProperties properties,
+            final ApplicationEventPublisher eventPublisher, final String applicationId) {
+        this.eventPublisher = eventPublisher;
+        this.applicationId = applicationId;
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("download-progress-%d").build());
+        executor.scheduleWithFixedDelay(this::publishProgress, properties.getInterval(), properties.getInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the publication of the progress.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Adds the progress of a download.
+     *
+     * @param tenant
+     *            of the download
+     * @param actionStatusId
+     *            of the {@link ActionStatus} the download belongs to
+     * @param shippedSinceLast
+     *            bytes since the last call for the download
+     * @param total
+     *            bytes shipped by the download
+     * @param length
+     *            of the download
+     */
+    public void progress(final String tenant, final Long actionStatusId, final long shippedSinceLast,
+            final long total, final long length) {
+        final Map<Long, Long> tenantProgress = progress.computeIfAbsent(tenant, key -> new ConcurrentHashMap<>());
+
+        if (total < length) {
+            tenantProgress.merge(actionStatusId, shippedSinceLast, Long::sum);
+            return;
+        }
+
+        final Long pending = tenantProgress.remove(actionStatusId);
+        eventPublisher.publishEvent(new DownloadProgressEvent(tenant, actionStatusId,
+                pending == null ? shippedSinceLast : pending + shippedSinceLast, applicationId));
+    }
+
+    void publishProgress() {
+        progress.forEach((tenant, tenantProgress) -> tenantProgress.keySet().forEach(actionStatusId -> {
+            // remove every entry on its own to not lose concurrent progress
+            final Long shipped = tenantProgress.remove(actionStatusId);
+            if (shipped == null) {
+                return;
+            }
+
+            try {
+                eventPublisher.publishEvent(new DownloadProgressEvent(tenant, actionStatusId, shipped,
+                        applicationId));
+            } catch (final RuntimeException e) {
+                LOG.error("Failed to publish the download progress of action status {}", actionStatusId, e);
+            }
+        }));
+    }
+}
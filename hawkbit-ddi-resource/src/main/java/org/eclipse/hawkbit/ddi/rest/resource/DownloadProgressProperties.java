@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the aggregation of the download progress.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.ddi.download.progress")
+public class DownloadProgressProperties {
+
+    /**
+     * Set to <code>true</code> to publish the download progress at most once
+     * per interval and download instead of an event at every 10 percent of
+     * each download.
+     */
+    private boolean enabled;
+
+    /**
+     * Time in milliseconds between two progress events of a download.
+     */
+    private long interval = TimeUnit.SECONDS.toMillis(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final long interval) {
+        this.interval = interval;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Direct Device Integration API")
+@Stories("Download Progress Aggregation")
+public class DownloadProgressAggregatorTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    private DownloadProgressAggregator underTest;
+
+    @After
+    public void after() {
+        underTest.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that the progress of a download is published at most once per interval and that a completed download is published right away.")
+    public void progressIsFoldedAndCompletionPublished() {
+        underTest = createAggregator();
+
+        underTest.progress(TENANT, 1L, 10L, 10L, 100L);
+        underTest.progress(TENANT, 1L, 10L, 20L, 100L);
+        underTest.progress(TENANT, 2L, 50L, 50L, 100L);
+        verify(eventPublisherMock, never()).publishEvent(any(ApplicationEvent.class));
+
+        underTest.publishProgress();
+        final ArgumentCaptor<DownloadProgressEvent> captor = ArgumentCaptor.forClass(DownloadProgressEvent.class);
+        verify(eventPublisherMock, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues()).extracting(DownloadProgressEvent::getTenant).containsOnly(TENANT);
+        assertThat(captor.getAllValues().stream().collect(Collectors.toMap(event -> (Long) event.getSource(),
+                DownloadProgressEvent::getShippedBytesSinceLast))).containsEntry(1L, 20L).containsEntry(2L, 50L)
+                        .hasSize(2);
+
+        underTest.progress(TENANT, 1L, 30L, 50L, 100L);
+        underTest.progress(TENANT, 1L, 50L, 100L, 100L);
+        verify(eventPublisherMock, times(3)).publishEvent(captor.capture());
+        final DownloadProgressEvent completion = captor.getValue();
+        assertThat(completion.getSource()).isEqualTo(1L);
+        assertThat(completion.getShippedBytesSinceLast()).isEqualTo(80L);
+
+        underTest.publishProgress();
+        verify(eventPublisherMock, times(3)).publishEvent(any(ApplicationEvent.class));
+    }
+
+    @Test
+    @Description("Verifies that a download that completes within an interval is published as one event.")
+    public void shortDownloadIsPublishedOnce() {
+        underTest = createAggregator();
+
+        underTest.progress(TENANT, 1L, 10L, 10L, 100L);
+        underTest.progress(TENANT, 1L, 90L, 100L, 100L);
+        underTest.publishProgress();
+
+        final ArgumentCaptor<DownloadProgressEvent> captor = ArgumentCaptor.forClass(DownloadProgressEvent.class);
+        verify(eventPublisherMock).publishEvent(captor.capture());
+        assertThat(captor.getValue().getShippedBytesSinceLast()).isEqualTo(100L);
+    }
+
+    private DownloadProgressAggregator createAggregator() {
+        final DownloadProgressProperties properties = new DownloadProgressProperties();
+        properties.setInterval(TimeUnit.HOURS.toMillis(1));
+        return new DownloadProgressAggregator(properties, eventPublisherMock, "node1");
+    }
+}
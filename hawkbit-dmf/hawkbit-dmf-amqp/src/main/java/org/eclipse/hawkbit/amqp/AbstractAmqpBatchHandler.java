@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects requests of DMF consumer threads per tenant and processes them in
+ * one transaction.
+ *
+ * The first thread that submits a request for a tenant opens a batch and
+ * waits for the batch to become full or for the configured time to pass. It
+ * then processes the batch in its own (tenant) security context. All other
+ * submitting threads block until their request is processed, i.e. the AMQP
+ * acknowledgement of every message still happens only after its request is
+ * committed. If the batch fails as a whole every request is retried
+ * separately so that only the erroneous message is rejected or requeued by the
+ * listener error handler.
+ *
+ * @param <T>
+ *            type of the requests
+ * @param <R>
+ *            type of the results
+ */
+public abstract class AbstractAmqpBatchHandler<T, R> {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractAmqpBatchHandler.class);
+
+    private final int maxSize;
+
+    private final long maxWait;
+
+    private final Map<String, Batch<T, R>> openBatches = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *            maximum number of requests per batch
+     * @param maxWait
+     *            in {@link TimeUnit#MILLISECONDS} to wait for further
+     *            requests before the batch is processed
+     */
+    protected AbstractAmqpBatchHandler(final int maxSize, final long maxWait) {
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Adds the given request to the open batch of the tenant and blocks until
+     * the batch has been processed.
+     *
+     * @param tenant
+     *            the request belongs to. The caller has to run in the security
+     *            context of the tenant.
+     * @param request
+     *            to process
+     * @return the result of the request
+     */
+    protected R submit(final String tenant, final T request) {
+        final BatchEntry<T, R> entry = new BatchEntry<>(request);
+        final Batch<T, R> batch;
+        final boolean leader;
+
+        synchronized (openBatches) {
+            final Batch<T, R> open = openBatches.get(tenant);
+            leader = open == null;
+            batch = leader ? new Batch<>() : open;
+            batch.entries.add(entry);
+
+            if (leader) {
+                openBatches.put(tenant, batch);
+            }
+            if (batch.entries.size() >= maxSize) {
+                close(tenant, batch);
+            }
+        }
+
+        if (leader) {
+            batch.awaitClosed(maxWait);
+            synchronized (openBatches) {
+                close(tenant, batch);
+            }
+            process(batch.entries);
+        }
+
+        return entry.get();
+    }
+
+    /**
+     * Processes the given requests in one transaction.
+     *
+     * @param requests
+     *            to process
+     * @return the results in the order of the requests
+     */
+    protected abstract List<R> processBatch(List<T> requests);
+
+    /**
+     * Processes a single request.
+     *
+     * @param request
+     *            to process
+     * @return the result
+     */
+    protected abstract R processSeparately(T request);
+
+    private void close(final String tenant, final Batch<T, R> batch) {
+        openBatches.remove(tenant, batch);
+        batch.closed.countDown();
+    }
+
+    private void process(final List<BatchEntry<T, R>> entries) {
+        try {
+            if (entries.size() == 1) {
+                processSeparately(entries);
+                return;
+            }
+
+            final List<R> results;
+            try {
+                results = processBatch(entries.stream().map(entry -> entry.request).collect(Collectors.toList()));
+            } catch (final RuntimeException e) {
+                LOG.warn("Batch of {} requests failed ({}). Processing them separately.", entries.size(),
+                        e.getMessage());
+                processSeparately(entries);
+                return;
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                entries.get(i).result.complete(results.get(i));
+            }
+        } finally {
+            // never leave a waiting consumer thread behind
+            entries.forEach(entry -> entry.result
+                    .completeExceptionally(new IllegalStateException("Batch was not processed")));
+        }
+    }
+
+    private void processSeparately(final List<BatchEntry<T, R>> entries) {
+        entries.forEach(entry -> {
+            try {
+                entry.result.complete(processSeparately(entry.request));
+            } catch (final RuntimeException e) {
+                entry.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static final class Batch<T, R> {
+        private final List<BatchEntry<T, R>> entries = new ArrayList<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private void awaitClosed(final long maxWait) {
+            try {
+                closed.await(maxWait, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                LOG.warn("Waiting for batch interrupted!", e);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class BatchEntry<T, R> {
+        private final T request;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private BatchEntry(final T request) {
+            this.request = request;
+        }
+
+        private R get() {
+            try {
+                return result.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
+import org.eclipse.hawkbit.repository.model.Action;
+
+/**
+ * Collects action status updates of DMF consumer threads per tenant and
+ * persists them with {@link ControllerManagement#addUpdateActionStatuses} in
+ * one transaction.
+ */
+public class AmqpActionStatusBatchHandler extends AbstractAmqpBatchHandler<ActionStatusCreate, Action> {
+
+    private final ControllerManagement controllerManagement;
+
+    /**
+     * Constructor.
+     *
+     * @param controllerManagement
+     *            to persist the status updates
+     * @param maxSize
+     *            maximum number of status updates per batch
+     * @param maxWait
+     *            in {@link TimeUnit#MILLISECONDS} to wait for further status
+     *            updates before the batch is persisted
+     */
+    public AmqpActionStatusBatchHandler(final ControllerManagement controllerManagement, final int maxSize,
+            final long maxWait) {
+        super(maxSize, maxWait);
+        this.controllerManagement = controllerManagement;
+    }
+
+    /**
+     * Adds the given status to the open batch of the tenant and blocks until
+     * the batch has been persisted.
+     *
+     * @param tenant
+     *            the status belongs to. The caller has to run in the security
+     *            context of the tenant.
+     * @param create
+     *            the action status to add
+     * @return the updated {@link Action}
+     */
+    public Action addUpdateActionStatus(final String tenant, final ActionStatusCreate create) {
+        return submit(tenant, create);
+    }
+
+    @Override
+    protected List<Action> processBatch(final List<ActionStatusCreate> requests) {
+        return controllerManagement.addUpdateActionStatuses(requests);
+    }
+
+    @Override
+    protected Action processSeparately(final ActionStatusCreate request) {
+        return controllerManagement.addUpdateActionStatus(request);
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Adapts the number of consumers and the prefetch count of the DMF receiver
+ * queue containers to the load of the database (AIMD). In every interval the
+ * connection pool usage, the average message handling time and the number of
+ * waiting messages are sampled:
+ * <ul>
+ * <li>If the pool usage or the handling time exceed their limits, consumers
+ * and prefetch are decreased multiplicatively.</li>
+ * <li>If more messages are waiting than the consumers may prefetch and the pool
+ * has capacity left, consumers and prefetch are increased additively.</li>
+ * <li>Otherwise nothing is changed.</li>
+ * </ul>
+ * The message handling time is measured by this class as advice of the
+ * listener containers. A changed prefetch count applies to consumers that are
+ * started afterwards.
+ */
+@ManagedResource(description = "Adaptive DMF consumer controller")
+public class AmqpAdaptiveConsumerController implements MethodInterceptor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AmqpAdaptiveConsumerController.class);
+
+    /**
+     * Decision of an adjustment.
+     */
+    enum Decision {
+        INCREASE, DECREASE, HOLD
+    }
+
+    private final AmqpAdaptiveConsumerProperties properties;
+
+    private final RabbitListenerEndpointRegistry registry;
+
+    private final RabbitAdmin rabbitAdmin;
+
+    private final String queue;
+
+    private final DataSourcePoolMetadata poolMetadata;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong handledCount = new AtomicLong();
+
+    private final AtomicLong handlingTime = new AtomicLong();
+
+    private final AtomicLong increaseCount = new AtomicLong();
+
+    private final AtomicLong decreaseCount = new AtomicLong();
+
+    private volatile int consumers;
+
+    private volatile int prefetch;
+
+    private int appliedConsumers = Integer.MAX_VALUE;
+
+    private volatile float lastPoolUsage = -1;
+
+    private volatile long lastAverageLatency = -1;
+
+    private volatile long lastQueueDepth = -1;
+
+    private volatile Decision lastDecision = Decision.HOLD;
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            with the bounds and limits
+     * @param registry
+     *            of the listener containers
+     * @param rabbitAdmin
+     *            to retrieve the queue depth
+     * @param queue
+     *            the DMF receiver queue
+     * @param poolMetadata
+     *            of the JDBC connection pool, might be <code>null</code> if
+     *            the pool usage is not available
+     */
+    public AmqpAdaptiveConsumerController(final AmqpAdaptiveConsumerProperties properties,
+            final RabbitListenerEndpointRegistry registry, final RabbitAdmin rabbitAdmin, final String queue,
+            final DataSourcePoolMetadata poolMetadata) {
+        this.properties = properties;
+        this.registry = registry;
+        this.rabbitAdmin = rabbitAdmin;
+        this.queue = queue;
+        this.poolMetadata = poolMetadata;
+        this.consumers = properties.getMinConsumers();
+        this.prefetch = properties.getMinPrefetch();
+
+        if (poolMetadata == null) {
+            LOGGER.warn("Connection pool usage is not available, DMF consumers are adapted to latency only.");
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("dmf-adaptive-consumer-%d").build());
+        executor.scheduleWithFixedDelay(this::adjust, properties.getInterval(), properties.getInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        // the advice chain is applied to the listener invocation of each
+        // received message, failed ones are measured as well
+        final long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            handlingTime.addAndGet(System.nanoTime() - start);
+            handledCount.incrementAndGet();
+        }
+    }
+
+    void adjust() {
+        try {
+            lastPoolUsage = getPoolUsage();
+            lastAverageLatency = takeAverageLatency();
+            lastQueueDepth = getQueueDepth();
+            lastDecision = decide(lastPoolUsage, lastAverageLatency, lastQueueDepth);
+
+            switch (lastDecision) {
+            case DECREASE:
+                decreaseCount.incrementAndGet();
+                consumers = Math.max(properties.getMinConsumers(),
+                        (int) (consumers * properties.getDecreaseFactor()));
+                prefetch = Math.max(properties.getMinPrefetch(), (int) (prefetch * properties.getDecreaseFactor()));
+                break;
+            case INCREASE:
+                increaseCount.incrementAndGet();
+                consumers = Math.min(properties.getMaxConsumers(), consumers + 1);
+                prefetch = Math.min(properties.getMaxPrefetch(), prefetch + properties.getPrefetchStep());
+                break;
+            default:
+                break;
+            }
+
+            LOGGER.debug("DMF consumer adjustment {} (pool usage {}, latency {} ms, queue depth {}): {} consumers, "
+                    + "prefetch {}", lastDecision, lastPoolUsage, lastAverageLatency, lastQueueDepth, consumers,
+                    prefetch);
+            applyToContainers();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to adapt DMF consumers", e);
+        }
+    }
+
+    private Decision decide(final float poolUsage, final long averageLatency, final long queueDepth) {
+        if (poolUsage >= properties.getPoolHighWatermark() || averageLatency > properties.getMaxLatency()) {
+            return Decision.DECREASE;
+        }
+
+        if (queueDepth > (long) consumers * prefetch && poolUsage < properties.getPoolLowWatermark()) {
+            return Decision.INCREASE;
+        }
+
+        return Decision.HOLD;
+    }
+
+    private void applyToContainers() {
+        final int count = consumers;
+        for (final MessageListenerContainer container : registry.getListenerContainers()) {
+            if (container instanceof SimpleMessageListenerContainer && Arrays
+                    .asList(((SimpleMessageListenerContainer) container).getQueueNames()).contains(queue)) {
+                apply((SimpleMessageListenerContainer) container, count);
+            }
+        }
+        appliedConsumers = count;
+    }
+
+    private void apply(final SimpleMessageListenerContainer container, final int count) {
+        container.setPrefetchCount(prefetch);
+        // the bounds are checked against each other, so the order depends on
+        // the direction. Initially the configured count is unknown.
+        if (count < appliedConsumers) {
+            container.setConcurrentConsumers(count);
+            container.setMaxConcurrentConsumers(count);
+        } else {
+            container.setMaxConcurrentConsumers(count);
+            container.setConcurrentConsumers(count);
+        }
+    }
+
+    private float getPoolUsage() {
+        if (poolMetadata == null) {
+            return -1;
+        }
+        final Float usage = poolMetadata.getUsage();
+        return usage == null ? -1 : usage;
+    }
+
+    private long takeAverageLatency() {
+        final long count = handledCount.getAndSet(0);
+        final long time = handlingTime.getAndSet(0);
+        return count == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(time / count);
+    }
+
+    private long getQueueDepth() {
+        try {
+            final Properties queueProperties = rabbitAdmin.getQueueProperties(queue);
+            if (queueProperties != null && queueProperties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT) != null) {
+                return ((Number) queueProperties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+            }
+        } catch (final AmqpException e) {
+            LOGGER.warn("Failed to retrieve depth of queue {}", queue, e);
+        }
+        return -1;
+    }
+
+    /**
+     * Stops the adjustments.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Current number of consumers")
+    public int getConsumers() {
+        return consumers;
+    }
+
+    @ManagedAttribute(description = "Current prefetch count per consumer")
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    @ManagedAttribute(description = "Connection pool usage of the last adjustment, -1 if not available")
+    public float getLastPoolUsage() {
+        return lastPoolUsage;
+    }
+
+    @ManagedAttribute(description = "Average message handling time in ms of the last adjustment, -1 if idle")
+    public long getLastAverageLatency() {
+        return lastAverageLatency;
+    }
+
+    @ManagedAttribute(description = "Waiting messages of the last adjustment, -1 if not available")
+    public long getLastQueueDepth() {
+        return lastQueueDepth;
+    }
+
+    @ManagedAttribute(description = "Decision of the last adjustment")
+    public String getLastDecision() {
+        return lastDecision.name();
+    }
+
+    @ManagedAttribute(description = "Total number of increase decisions")
+    public long getIncreaseCount() {
+        return increaseCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of decrease decisions")
+    public long getDecreaseCount() {
+        return decreaseCount.get();
+    }
+}
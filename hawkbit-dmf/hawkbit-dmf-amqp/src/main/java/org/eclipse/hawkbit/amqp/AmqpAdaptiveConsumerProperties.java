@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the adaptive
+ * consumer count and prefetch of the DMF receiver queue.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.adaptive")
+public class AmqpAdaptiveConsumerProperties {
+
+    private static final int DEFAULT_MAX_CONSUMERS = 10;
+
+    private static final int DEFAULT_MAX_PREFETCH = 50;
+
+    private static final int DEFAULT_PREFETCH_STEP = 5;
+
+    private static final float DEFAULT_POOL_HIGH_WATERMARK = 0.9F;
+
+    private static final float DEFAULT_POOL_LOW_WATERMARK = 0.7F;
+
+    private static final float DEFAULT_DECREASE_FACTOR = 0.5F;
+
+    private static final long DEFAULT_MAX_LATENCY = 500;
+
+    /**
+     * Set to <code>true</code> to adapt the number of consumers and the
+     * prefetch of the DMF receiver queue to the load of the database. They are
+     * increased additively as long as messages are waiting and decreased
+     * multiplicatively if the connection pool is saturated or the message
+     * handling gets slow.
+     */
+    private boolean enabled;
+
+    /**
+     * Time in milliseconds between two adjustments.
+     */
+    private long interval = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Minimum number of consumers.
+     */
+    private int minConsumers = 1;
+
+    /**
+     * Maximum number of consumers.
+     */
+    private int maxConsumers = DEFAULT_MAX_CONSUMERS;
+
+    /**
+     * Minimum prefetch count per consumer.
+     */
+    private int minPrefetch = 1;
+
+    /**
+     * Maximum prefetch count per consumer.
+     */
+    private int maxPrefetch = DEFAULT_MAX_PREFETCH;
+
+    /**
+     * Value the prefetch count is increased by per adjustment.
+     */
+    private int prefetchStep = DEFAULT_PREFETCH_STEP;
+
+    /**
+     * Connection pool usage (0..1) from which on consumers and prefetch are
+     * decreased.
+     */
+    private float poolHighWatermark = DEFAULT_POOL_HIGH_WATERMARK;
+
+    /**
+     * Connection pool usage (0..1) up to which consumers and prefetch may be
+     * increased.
+     */
+    private float poolLowWatermark = DEFAULT_POOL_LOW_WATERMARK;
+
+    /**
+     * Average message handling time in milliseconds from which on consumers
+     * and prefetch are decreased.
+     */
+    private long maxLatency = DEFAULT_MAX_LATENCY;
+
+    /**
+     * Factor consumers and prefetch are multiplied with on decrease.
+     */
+    private float decreaseFactor = DEFAULT_DECREASE_FACTOR;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final long interval) {
+        this.interval = interval;
+    }
+
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+
+    public void setMinConsumers(final int minConsumers) {
+        this.minConsumers = minConsumers;
+    }
+
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+
+    public void setMaxConsumers(final int maxConsumers) {
+        this.maxConsumers = maxConsumers;
+    }
+
+    public int getMinPrefetch() {
+        return minPrefetch;
+    }
+
+    public void setMinPrefetch(final int minPrefetch) {
+        this.minPrefetch = minPrefetch;
+    }
+
+    public int getMaxPrefetch() {
+        return maxPrefetch;
+    }
+
+    public void setMaxPrefetch(final int maxPrefetch) {
+        this.maxPrefetch = maxPrefetch;
+    }
+
+    public int getPrefetchStep() {
+        return prefetchStep;
+    }
+
+    public void setPrefetchStep(final int prefetchStep) {
+        this.prefetchStep = prefetchStep;
+    }
+
+    public float getPoolHighWatermark() {
+        return poolHighWatermark;
+    }
+
+    public void setPoolHighWatermark(final float poolHighWatermark) {
+        this.poolHighWatermark = poolHighWatermark;
+    }
+
+    public float getPoolLowWatermark() {
+        return poolLowWatermark;
+    }
+
+    public void setPoolLowWatermark(final float poolLowWatermark) {
+        this.poolLowWatermark = poolLowWatermark;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public void setMaxLatency(final long maxLatency) {
+        this.maxLatency = maxLatency;
+    }
+
+    public float getDecreaseFactor() {
+        return decreaseFactor;
+    }
+
+    public void setDecreaseFactor(final float decreaseFactor) {
+        this.decreaseFactor = decreaseFactor;
+    }
+}
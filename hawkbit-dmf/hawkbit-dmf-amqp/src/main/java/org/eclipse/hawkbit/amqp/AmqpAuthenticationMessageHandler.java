@@ -66,6 +66,8 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
 
     private final TenantAware tenantAware;
 
+    private final DmfDownloadAuthorizationCache authorizationCache;
+
     /**
      * @param rabbitTemplate
      *            the configured amqp template.
@@ -86,6 +88,34 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
             final AmqpControllerAuthentication authenticationManager, final ArtifactManagement artifactManagement,
             final DownloadIdCache cache, final HostnameResolver hostnameResolver,
             final ControllerManagement controllerManagement, final TenantAware tenantAware) {
+        this(rabbitTemplate, authenticationManager, artifactManagement, cache, hostnameResolver, controllerManagement,
+                tenantAware, null);
+    }
+
+    /**
+     * @param rabbitTemplate
+     *            the configured amqp template.
+     * @param artifactManagement
+     *            for artifact URI generation
+     * @param cache
+     *            for download Ids
+     * @param hostnameResolver
+     *            for resolving the host for downloads
+     * @param authenticationManager
+     *            for target authentication
+     * @param controllerManagement
+     *            for target repo access
+     * @param tenantAware
+     *            to access current tenant
+     * @param authorizationCache
+     *            for artifact metadata and authorization decisions, might be
+     *            <code>null</code>
+     */
+    public AmqpAuthenticationMessageHandler(final RabbitTemplate rabbitTemplate,
+            final AmqpControllerAuthentication authenticationManager, final ArtifactManagement artifactManagement,
+            final DownloadIdCache cache, final HostnameResolver hostnameResolver,
+            final ControllerManagement controllerManagement, final TenantAware tenantAware,
+            final DmfDownloadAuthorizationCache authorizationCache) {
         super(rabbitTemplate);
         this.authenticationManager = authenticationManager;
         this.artifactManagement = artifactManagement;
@@ -93,6 +123,7 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
         this.hostnameResolver = hostnameResolver;
         this.controllerManagement = controllerManagement;
         this.tenantAware = tenantAware;
+        this.authorizationCache = authorizationCache;
     }
 
     /**
@@ -104,7 +135,7 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
      */
     @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.authenticationReceiverQueue:authentication_receiver}", containerFactory = "listenerContainerFactory")
     public Message onAuthenticationRequest(final Message message) {
-        checkContentTypeJson(message);
+        checkContentTypeSupported(message);
         final SecurityContext oldContext = SecurityContextHolder.getContext();
         try {
             return handleAuthenticationMessage(message);
@@ -143,7 +174,11 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
     private void checkByTargetId(final String sha1Hash, final Long targetId) {
         LOG.debug("no anonymous download request, doing authentication check for target {} and artifact {}", targetId,
                 sha1Hash);
-        if (!controllerManagement.hasTargetArtifactAssigned(targetId, sha1Hash)) {
+        final boolean assigned = authorizationCache == null
+                ? controllerManagement.hasTargetArtifactAssigned(targetId, sha1Hash)
+                : authorizationCache.isArtifactAssigned(tenantAware.getCurrentTenant(), targetId, sha1Hash,
+                        () -> controllerManagement.hasTargetArtifactAssigned(targetId, sha1Hash));
+        if (!assigned) {
             LOG.info("target {} tried to download artifact {} which is not assigned to the target", targetId, sha1Hash);
             throw new EntityNotFoundException();
         }
@@ -153,7 +188,11 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
     private void checkByControllerId(final String sha1Hash, final String controllerId) {
         LOG.debug("no anonymous download request, doing authentication check for target {} and artifact {}",
                 controllerId, sha1Hash);
-        if (!controllerManagement.hasTargetArtifactAssigned(controllerId, sha1Hash)) {
+        final boolean assigned = authorizationCache == null
+                ? controllerManagement.hasTargetArtifactAssigned(controllerId, sha1Hash)
+                : authorizationCache.isArtifactAssigned(tenantAware.getCurrentTenant(), controllerId, sha1Hash,
+                        () -> controllerManagement.hasTargetArtifactAssigned(controllerId, sha1Hash));
+        if (!assigned) {
             LOG.info("target {} tried to download artifact {} which is not assigned to the target", controllerId,
                     sha1Hash);
             throw new EntityNotFoundException();
@@ -188,6 +227,27 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
         return Optional.empty();
     }
 
+    private DmfArtifact findArtifact(final FileResource fileResource) {
+        if (authorizationCache != null && fileResource != null && fileResource.getSha1() != null) {
+            return authorizationCache.getArtifact(tenantAware.getCurrentTenant(), fileResource.getSha1(),
+                    () -> loadArtifact(fileResource));
+        }
+        return loadArtifact(fileResource);
+    }
+
+    private DmfArtifact loadArtifact(final FileResource fileResource) {
+        final Artifact localArtifact = findArtifactByFileResource(fileResource)
+                .orElseThrow(EntityNotFoundException::new);
+        final String sha1Hash = localArtifact.getSha1Hash();
+        if (authorizationCache != null) {
+            authorizationCache.addModuleArtifact(tenantAware.getCurrentTenant(),
+                    localArtifact.getSoftwareModule().getId(), sha1Hash);
+        }
+
+        return convertDbArtifact(artifactManagement.loadArtifactBinary(sha1Hash)
+                .orElseThrow(() -> new EntityNotFoundException(Artifact.class, sha1Hash)));
+    }
+
     private static DmfArtifact convertDbArtifact(final AbstractDbArtifact dbArtifact) {
         final DmfArtifact artifact = new DmfArtifact();
         artifact.setSize(dbArtifact.getSize());
@@ -203,14 +263,11 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
         try {
             SecurityContextHolder.getContext().setAuthentication(authenticationManager.doAuthenticate(secruityToken));
 
-            final String sha1Hash = findArtifactByFileResource(fileResource).map(Artifact::getSha1Hash)
-                    .orElseThrow(EntityNotFoundException::new);
+            final DmfArtifact artifact = findArtifact(fileResource);
+            final String sha1Hash = artifact.getHashes().getSha1();
 
             checkIfArtifactIsAssignedToTarget(secruityToken, sha1Hash);
 
-            final DmfArtifact artifact = convertDbArtifact(artifactManagement.loadArtifactBinary(sha1Hash)
-                    .orElseThrow(() -> new EntityNotFoundException(Artifact.class, sha1Hash)));
-
             authentificationResponse.setArtifact(artifact);
             final String downloadId = UUID.randomUUID().toString();
             // SHA1 key is set, download by SHA1
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the cache of
+ * download authorization decisions.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.authorizationCache")
+public class AmqpAuthorizationCacheProperties {
+
+    private static final long DEFAULT_MAX_SIZE = 100_000;
+
+    private static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Set to <code>true</code> to cache the artifact metadata and the
+     * decisions if a target is permitted to download an artifact for
+     * authentication requests.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of cached decisions.
+     */
+    private long maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Time in milliseconds after which a decision or artifact metadata is
+     * retrieved again.
+     */
+    private long ttl = DEFAULT_TTL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(final long ttl) {
+        this.ttl = ttl;
+    }
+}
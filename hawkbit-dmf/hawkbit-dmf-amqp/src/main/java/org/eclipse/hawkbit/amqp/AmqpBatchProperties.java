@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the batched
+ * processing of incoming DMF action status and THING_CREATED messages.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.batch")
+public class AmqpBatchProperties {
+
+    private static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final long DEFAULT_MAX_WAIT = 50;
+
+    /**
+     * Set to <code>true</code> to persist UPDATE_ACTION_STATUS messages of the
+     * same tenant that arrive within {@link #maxWait} in one transaction. Note:
+     * the number of messages in one batch is limited by the number of
+     * concurrent consumers of the DMF receiver queue.
+     */
+    private boolean enabled;
+
+    /**
+     * Set to <code>true</code> to register the targets of THING_CREATED
+     * messages of the same tenant that arrive within {@link #maxWait} in one
+     * transaction and to look up their pending actions with one query.
+     */
+    private boolean registration;
+
+    /**
+     * Maximum number of messages that are persisted in one transaction.
+     */
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Maximum time in milliseconds a message waits for further messages
+     * before the batch is persisted.
+     */
+    private long maxWait = DEFAULT_MAX_WAIT;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRegistration() {
+        return registration;
+    }
+
+    public void setRegistration(final boolean registration) {
+        this.registration = registration;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(final long maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -9,8 +9,11 @@
 package org.eclipse.hawkbit.amqp;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
 import org.eclipse.hawkbit.api.HostnameResolver;
 import org.eclipse.hawkbit.cache.DownloadIdCache;
@@ -21,6 +24,7 @@ import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.event.EventDeliveryTracker;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -36,12 +40,16 @@ import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProviders;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.context.annotation.Bean;
@@ -57,7 +65,10 @@ import com.google.common.collect.Maps;
  * integration.
  *
  */
-@EnableConfigurationProperties({ AmqpProperties.class, AmqpDeadletterProperties.class })
+@EnableConfigurationProperties({ AmqpProperties.class, AmqpDeadletterProperties.class, AmqpBatchProperties.class,
+        AmqpSenderProperties.class, AmqpPayloadCacheProperties.class, AmqpShardingProperties.class,
+        AmqpEncodingProperties.class, AmqpAuthorizationCacheProperties.class,
+        AmqpAdaptiveConsumerProperties.class, AmqpRetryProperties.class })
 @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "enabled", matchIfMissing = true)
 @PropertySource("classpath:/hawkbit-dmf-defaults.properties")
 public class AmqpConfiguration {
@@ -70,12 +81,27 @@ public class AmqpConfiguration {
     @Autowired
     private AmqpDeadletterProperties amqpDeadletterProperties;
 
+    @Autowired
+    private AmqpBatchProperties amqpBatchProperties;
+
+    @Autowired
+    private AmqpSenderProperties amqpSenderProperties;
+
+    @Autowired
+    private AmqpShardingProperties amqpShardingProperties;
+
+    @Autowired
+    private AmqpEncodingProperties amqpEncodingProperties;
+
     @Autowired
     private ConnectionFactory rabbitConnectionFactory;
 
     @Autowired(required = false)
     private ServiceMatcher serviceMatcher;
 
+    @Autowired(required = false)
+    private Collection<DataSourcePoolMetadataProvider> poolMetadataProviders;
+
     /**
      * Register the bean for the custom error handler.
      *
@@ -103,12 +129,12 @@ public class AmqpConfiguration {
 
     /**
      * @return {@link RabbitTemplate} with automatic retry, published confirms
-     *         and {@link Jackson2JsonMessageConverter}.
+     *         and {@link DmfMessageConverter}.
      */
     @Bean
     public RabbitTemplate rabbitTemplate() {
         final RabbitTemplate rabbitTemplate = new RabbitTemplate(rabbitConnectionFactory);
-        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        rabbitTemplate.setMessageConverter(new DmfMessageConverter(amqpEncodingProperties));
 
         final RetryTemplate retryTemplate = new RetryTemplate();
         retryTemplate.setBackOffPolicy(new ExponentialBackOffPolicy());
@@ -160,12 +186,18 @@ public class AmqpConfiguration {
 
     /**
      * Create the Binding {@link AmqpConfiguration#dmfReceiverQueue()} to
-     * {@link AmqpConfiguration#dmfSenderExchange()}.
+     * {@link AmqpConfiguration#dmfSenderExchange()}. If sharding is enabled
+     * the queue is bound to the exchange for messages without thingId header
+     * instead (see {@link AmqpShardingConfiguration}).
      *
      * @return the binding and create the queue and exchange
      */
     @Bean
     public Binding bindDmfSenderExchangeToDmfQueue() {
+        if (amqpShardingProperties.isEnabled()) {
+            return BindingBuilder.bind(dmfReceiverQueue())
+                    .to(new FanoutExchange(amqpShardingProperties.getUnshardedExchange()));
+        }
         return BindingBuilder.bind(dmfReceiverQueue()).to(dmfSenderExchange());
     }
 
@@ -221,6 +253,18 @@ public class AmqpConfiguration {
         return BindingBuilder.bind(deadLetterQueue()).to(deadLetterExchange());
     }
 
+    /**
+     * Create the parking queue for outgoing DMF messages that could not be
+     * published by the {@link BatchingAmqpMessageSenderService}.
+     *
+     * @return the queue
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.sender", name = "enabled")
+    public Queue dmfSenderParkingQueue() {
+        return new Queue(amqpSenderProperties.getParkingQueue(), true);
+    }
+
     /**
      * Create AMQP handler service bean.
      *
@@ -239,8 +283,18 @@ public class AmqpConfiguration {
     public AmqpMessageHandlerService amqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
             final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+        final AmqpActionStatusBatchHandler actionStatusBatchHandler = amqpBatchProperties.isEnabled()
+                ? new AmqpActionStatusBatchHandler(controllerManagement, amqpBatchProperties.getMaxSize(),
+                        amqpBatchProperties.getMaxWait())
+                : null;
+        final AmqpTargetRegistrationBatchHandler targetRegistrationBatchHandler = amqpBatchProperties
+                .isRegistration()
+                        ? new AmqpTargetRegistrationBatchHandler(controllerManagement,
+                                amqpBatchProperties.getMaxSize(), amqpBatchProperties.getMaxWait())
+                        : null;
+
         return new AmqpMessageHandlerService(rabbitTemplate, amqpMessageDispatcherService, controllerManagement,
-                entityFactory);
+                entityFactory, actionStatusBatchHandler, targetRegistrationBatchHandler);
     }
 
     /**
@@ -252,32 +306,95 @@ public class AmqpConfiguration {
     AmqpAuthenticationMessageHandler amqpAuthenticationMessageHandler(final RabbitTemplate rabbitTemplate,
             final AmqpControllerAuthentication authenticationManager, final ArtifactManagement artifactManagement,
             final DownloadIdCache downloadIdCache, final HostnameResolver hostnameResolver,
-            final ControllerManagement controllerManagement, final TenantAware tenantAware) {
+            final ControllerManagement controllerManagement, final TenantAware tenantAware,
+            final ObjectProvider<DmfDownloadAuthorizationCache> authorizationCache) {
         return new AmqpAuthenticationMessageHandler(rabbitTemplate, authenticationManager, artifactManagement,
-                downloadIdCache, hostnameResolver, controllerManagement, tenantAware);
+                downloadIdCache, hostnameResolver, controllerManagement, tenantAware,
+                authorizationCache.getIfAvailable());
+    }
+
+    /**
+     * Create the cache for download authorization decisions if
+     * hawkbit.dmf.rabbitmq.authorizationCache.enabled is set.
+     *
+     * @param authorizationCacheProperties
+     *            to configure the cache
+     * @return the bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.authorizationCache", name = "enabled")
+    public DmfDownloadAuthorizationCache dmfDownloadAuthorizationCache(
+            final AmqpAuthorizationCacheProperties authorizationCacheProperties) {
+        return new DmfDownloadAuthorizationCache(authorizationCacheProperties.getMaxSize(),
+                authorizationCacheProperties.getTtl());
     }
 
     /**
-     * Create default amqp sender service bean.
+     * Create default amqp sender service bean. If
+     * hawkbit.dmf.rabbitmq.sender.enabled is set the messages are published
+     * asynchronously by a {@link BatchingAmqpMessageSenderService} with its
+     * own {@link RabbitTemplate}.
      *
      * @return the default amqp sender service bean
      */
     @Bean
     @ConditionalOnMissingBean
     public AmqpMessageSenderService amqpSenderServiceBean() {
+        if (amqpSenderProperties.isEnabled()) {
+            return new BatchingAmqpMessageSenderService(new RabbitTemplate(rabbitConnectionFactory),
+                    amqpSenderProperties);
+        }
         return new DefaultAmqpMessageSenderService(rabbitTemplate());
     }
 
     @Bean
     @ConditionalOnMissingBean(name = "listenerContainerFactory")
     public RabbitListenerContainerFactory<SimpleMessageListenerContainer> listenerContainerFactory(
-            final SimpleRabbitListenerContainerFactoryConfigurer configurer, final ErrorHandler errorHandler) {
+            final SimpleRabbitListenerContainerFactoryConfigurer configurer, final ErrorHandler errorHandler,
+            final ObjectProvider<AmqpAdaptiveConsumerController> adaptiveConsumerController,
+            final ObjectProvider<DmfRetryMessageRecoverer> retryMessageRecoverer) {
         final ConfigurableRabbitListenerContainerFactory factory = new ConfigurableRabbitListenerContainerFactory(
                 amqpProperties.isMissingQueuesFatal(), amqpProperties.getDeclarationRetries(), errorHandler);
         configurer.configure(factory, rabbitConnectionFactory);
+
+        final AmqpAdaptiveConsumerController controller = adaptiveConsumerController.getIfAvailable();
+        if (controller != null) {
+            factory.addAdvice(controller);
+        }
+        final DmfRetryMessageRecoverer recoverer = retryMessageRecoverer.getIfAvailable();
+        if (recoverer != null) {
+            factory.addMessageRecoverer(recoverer);
+        }
         return factory;
     }
 
+    /**
+     * Create the controller that adapts consumers and prefetch of the DMF
+     * receiver queue if hawkbit.dmf.rabbitmq.adaptive.enabled is set.
+     *
+     * @param adaptiveProperties
+     *            with the bounds of the adaption
+     * @param registry
+     *            of the listener containers
+     * @param dataSource
+     *            to monitor the connection pool of
+     * @return the bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.adaptive", name = "enabled")
+    public AmqpAdaptiveConsumerController amqpAdaptiveConsumerController(
+            final AmqpAdaptiveConsumerProperties adaptiveProperties, final RabbitListenerEndpointRegistry registry,
+            final ObjectProvider<DataSource> dataSource) {
+        final DataSource pool = dataSource.getIfAvailable();
+        final DataSourcePoolMetadata poolMetadata = pool == null || poolMetadataProviders == null ? null
+                : new DataSourcePoolMetadataProviders(poolMetadataProviders).getDataSourcePoolMetadata(pool);
+
+        return new AmqpAdaptiveConsumerController(adaptiveProperties, registry, rabbitAdmin(),
+                amqpProperties.getReceiverQueue(), poolMetadata);
+    }
+
     /**
      * create the authentication bean for controller over amqp.
      *
@@ -305,6 +422,21 @@ public class AmqpConfiguration {
                 tenantAware, ddiSecruityProperties, systemSecurityContext);
     }
 
+    /**
+     * Create the cache for DOWNLOAD_AND_INSTALL payload templates if
+     * hawkbit.dmf.rabbitmq.payloadCache.enabled is set.
+     *
+     * @param payloadCacheProperties
+     *            to configure the cache
+     * @return the bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.payloadCache", name = "enabled")
+    public DmfPayloadTemplateCache dmfPayloadTemplateCache(final AmqpPayloadCacheProperties payloadCacheProperties) {
+        return new DmfPayloadTemplateCache(payloadCacheProperties.getMaxSize(), payloadCacheProperties.getTtl());
+    }
+
     /**
      * Create the dispatcher bean.
      *
@@ -320,6 +452,10 @@ public class AmqpConfiguration {
      *            the systemManagement
      * @param targetManagement
      *            to access target information
+     * @param payloadTemplateCache
+     *            for DOWNLOAD_AND_INSTALL payloads, optional
+     * @param deliveryTracker
+     *            of the event outbox, optional
      * @return the bean
      */
     @Bean
@@ -327,9 +463,12 @@ public class AmqpConfiguration {
     public AmqpMessageDispatcherService amqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
             final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
-            final TargetManagement targetManagement) {
+            final TargetManagement targetManagement,
+            final ObjectProvider<DmfPayloadTemplateCache> payloadTemplateCache,
+            final ObjectProvider<EventDeliveryTracker> deliveryTracker) {
         return new AmqpMessageDispatcherService(rabbitTemplate, amqpSenderService, artifactUrlHandler,
-                systemSecurityContext, systemManagement, targetManagement, serviceMatcher);
+                systemSecurityContext, systemManagement, targetManagement, serviceMatcher,
+                payloadTemplateCache.getIfAvailable(), deliveryTracker.getIfAvailable());
     }
 
     private static Map<String, Object> getTTLMaxArgsAuthenticationQueue() {
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the encoding of
+ * DMF messages.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.encoding")
+public class AmqpEncodingProperties {
+
+    /**
+     * Set to <code>true</code> to accept and send DMF messages in the compact
+     * binary encodings CBOR (content_type application/cbor) and Smile
+     * (content_type application/x-jackson-smile) besides JSON. Incoming
+     * messages are decoded according to their content_type and responses are
+     * encoded like the request.
+     */
+    private boolean enabled;
+
+    /**
+     * Content type of the messages that are sent by hawkBit without a request
+     * of the device, e.g. DOWNLOAD_AND_INSTALL. Falls back to JSON if the
+     * content type is not supported.
+     */
+    private String defaultContentType = MessageProperties.CONTENT_TYPE_JSON;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDefaultContentType() {
+        return defaultContentType;
+    }
+
+    public void setDefaultContentType(final String defaultContentType) {
+        this.defaultContentType = defaultContentType;
+    }
+}
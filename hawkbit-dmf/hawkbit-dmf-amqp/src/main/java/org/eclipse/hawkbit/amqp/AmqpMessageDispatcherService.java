@@ -9,11 +9,17 @@
 package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.amqp.DmfPayloadTemplateCache.DownloadAndUpdateConverter;
+import org.eclipse.hawkbit.amqp.DmfPayloadTemplateCache.TemplateKey;
 import org.eclipse.hawkbit.api.ApiType;
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
@@ -28,12 +34,16 @@ import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.event.EventDeliveryTracker;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
@@ -46,6 +56,8 @@ import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.context.event.EventListener;
 
+import com.google.common.collect.Iterables;
+
 /**
  * {@link AmqpMessageDispatcherService} create all outgoing AMQP messages and
  * delegate the messages to a {@link AmqpMessageSenderService}.
@@ -58,12 +70,19 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
 
     private static final Logger LOG = LoggerFactory.getLogger(AmqpMessageDispatcherService.class);
 
+    /**
+     * Maximum number of targets retrieved at once for a bulk assignment.
+     */
+    private static final int MAX_TARGETS_PER_QUERY = 1000;
+
     private final ArtifactUrlHandler artifactUrlHandler;
     private final AmqpMessageSenderService amqpSenderService;
     private final SystemSecurityContext systemSecurityContext;
     private final SystemManagement systemManagement;
     private final TargetManagement targetManagement;
     private final ServiceMatcher serviceMatcher;
+    private final DmfPayloadTemplateCache payloadTemplateCache;
+    private final EventDeliveryTracker deliveryTracker;
 
     /**
      * Constructor.
@@ -88,6 +107,74 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             final AmqpMessageSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
             final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
             final TargetManagement targetManagement, final ServiceMatcher serviceMatcher) {
+        this(rabbitTemplate, amqpSenderService, artifactUrlHandler, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the rabbitTemplate
+     * @param amqpSenderService
+     *            to send AMQP message
+     * @param artifactUrlHandler
+     *            for generating download URLs
+     * @param systemSecurityContext
+     *            for execution with system permissions
+     * @param systemManagement
+     *            the systemManagement
+     * @param targetManagement
+     *            to access target information
+     * @param serviceMatcher
+     *            to check in cluster case if the message is from the same
+     *            cluster node
+     * @param payloadTemplateCache
+     *            to build the body of DOWNLOAD_AND_INSTALL messages once per
+     *            distribution set or <code>null</code> to build it for every
+     *            target
+     */
+    public AmqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
+            final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
+            final TargetManagement targetManagement, final ServiceMatcher serviceMatcher,
+            final DmfPayloadTemplateCache payloadTemplateCache) {
+        this(rabbitTemplate, amqpSenderService, artifactUrlHandler, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, payloadTemplateCache, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the rabbitTemplate
+     * @param amqpSenderService
+     *            to send AMQP message
+     * @param artifactUrlHandler
+     *            for generating download URLs
+     * @param systemSecurityContext
+     *            for execution with system permissions
+     * @param systemManagement
+     *            the systemManagement
+     * @param targetManagement
+     *            to access target information
+     * @param serviceMatcher
+     *            to check in cluster case if the message is from the same
+     *            cluster node
+     * @param payloadTemplateCache
+     *            to build the body of DOWNLOAD_AND_INSTALL messages once per
+     *            distribution set or <code>null</code> to build it for every
+     *            target
+     * @param deliveryTracker
+     *            to report when the broker has confirmed the messages of the
+     *            assignment and cancel events or <code>null</code> if the
+     *            delivery is not tracked
+     */
+    public AmqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
+            final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
+            final TargetManagement targetManagement, final ServiceMatcher serviceMatcher,
+            final DmfPayloadTemplateCache payloadTemplateCache, final EventDeliveryTracker deliveryTracker) {
         super(rabbitTemplate);
         this.artifactUrlHandler = artifactUrlHandler;
         this.amqpSenderService = amqpSenderService;
@@ -95,6 +182,14 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         this.systemManagement = systemManagement;
         this.targetManagement = targetManagement;
         this.serviceMatcher = serviceMatcher;
+        this.payloadTemplateCache = payloadTemplateCache;
+        this.deliveryTracker = deliveryTracker;
+
+        if (deliveryTracker != null) {
+            deliveryTracker.addParticipant(TargetAssignDistributionSetEvent.class);
+            deliveryTracker.addParticipant(BulkTargetAssignDistributionSetEvent.class);
+            deliveryTracker.addParticipant(CancelTargetAssignmentEvent.class);
+        }
     }
 
     /**
@@ -113,35 +208,116 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         LOG.debug("targetAssignDistributionSet retrieved for controller {}. I will forward it to DMF broker.",
                 assignedEvent.getControllerId());
 
-        targetManagement.getByControllerID(assignedEvent.getControllerId())
-                .ifPresent(target -> sendUpdateMessageToTarget(assignedEvent.getTenant(), target,
-                        assignedEvent.getActionId(), assignedEvent.getModules()));
+        reportDelivery(assignedEvent,
+                () -> targetManagement.getByControllerID(assignedEvent.getControllerId())
+                        .map(target -> sendUpdateMessageToTarget(assignedEvent.getTenant(), target,
+                                assignedEvent.getActionId(), assignedEvent.getModules()))
+                        .orElseGet(() -> CompletableFuture.completedFuture(Boolean.TRUE)));
+    }
 
+    /**
+     * Method to send a message to a RabbitMQ Exchange for every target after
+     * the Distribution set has been assigned to many targets at once. The
+     * targets are retrieved in chunks.
+     *
+     * @param assignedEvent
+     *            the object to be send.
+     */
+    @EventListener(classes = BulkTargetAssignDistributionSetEvent.class)
+    public void targetsAssignDistributionSet(final BulkTargetAssignDistributionSetEvent assignedEvent) {
+        if (isNotFromSelf(assignedEvent)) {
+            return;
+        }
+
+        final Map<String, Long> actions = assignedEvent.getActions();
+        LOG.debug("targetsAssignDistributionSet retrieved for {} controllers. I will forward it to DMF broker.",
+                actions.size());
+
+        reportDelivery(assignedEvent, () -> {
+            final List<CompletableFuture<Boolean>> deliveries = new ArrayList<>(actions.size());
+            Iterables.partition(actions.keySet(), MAX_TARGETS_PER_QUERY)
+                    .forEach(controllerIds -> targetManagement.getByControllerID(controllerIds)
+                            .forEach(target -> deliveries.add(sendUpdateMessageToTarget(assignedEvent.getTenant(),
+                                    target, actions.get(target.getControllerId()), assignedEvent.getModules()))));
+            return CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[deliveries.size()]))
+                    .thenApply(done -> deliveries.stream().allMatch(CompletableFuture::join));
+        });
     }
 
-    void sendUpdateMessageToTarget(final String tenant, final Target target, final Long actionId,
-            final Collection<SoftwareModule> modules) {
+    CompletableFuture<Boolean> sendUpdateMessageToTarget(final String tenant, final Target target,
+            final Long actionId, final Collection<SoftwareModule> modules) {
 
         final URI targetAdress = target.getAddress();
         if (!IpUtil.isAmqpUri(targetAdress)) {
-            return;
+            return CompletableFuture.completedFuture(Boolean.TRUE);
         }
 
-        final DmfDownloadAndUpdateRequest downloadAndUpdateRequest = new DmfDownloadAndUpdateRequest();
-        downloadAndUpdateRequest.setActionId(actionId);
-
         final String targetSecurityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
-        downloadAndUpdateRequest.setTargetSecurityToken(targetSecurityToken);
+        final MessageProperties messageProperties = createConnectorMessagePropertiesEvent(tenant,
+                target.getControllerId(), EventTopic.DOWNLOAD_AND_INSTALL);
+        final DownloadAndUpdateConverter converter = createDownloadAndUpdateConverter(modules);
+
+        final Message message;
+        if (payloadTemplateCache == null) {
+            message = converter.convert(target.getControllerId(), target.getId(), actionId, targetSecurityToken,
+                    messageProperties);
+        } else {
+            message = payloadTemplateCache.getDownloadAndUpdateMessage(
+                    new TemplateKey(tenant, modules, messageProperties.getContentType(), artifactUrlHandler), target,
+                    actionId, targetSecurityToken, messageProperties, converter);
+        }
+        return send(message, targetAdress);
+    }
 
-        for (final SoftwareModule softwareModule : modules) {
-            final DmfSoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(target, softwareModule);
-            downloadAndUpdateRequest.addSoftwareModule(amqpSoftwareModule);
+    /**
+     * Sends the message and waits for the confirmation of the broker only if
+     * the delivery is tracked.
+     */
+    private CompletableFuture<Boolean> send(final Message message, final URI address) {
+        if (deliveryTracker == null) {
+            amqpSenderService.sendMessage(message, address);
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+        return amqpSenderService.sendConfirmed(message, address);
+    }
+
+    private void reportDelivery(final RemoteApplicationEvent event,
+            final Supplier<CompletableFuture<Boolean>> sender) {
+        if (deliveryTracker == null) {
+            sender.get();
+            return;
         }
 
-        final Message message = getMessageConverter().toMessage(downloadAndUpdateRequest,
-                createConnectorMessagePropertiesEvent(tenant, target.getControllerId(),
-                        EventTopic.DOWNLOAD_AND_INSTALL));
-        amqpSenderService.sendMessage(message, targetAdress);
+        try {
+            deliveryTracker.reportDelivery(event, sender.get());
+        } catch (final RuntimeException e) {
+            deliveryTracker.reportDelivery(event, CompletableFuture.completedFuture(Boolean.FALSE));
+            throw e;
+        }
+    }
+
+    private DownloadAndUpdateConverter createDownloadAndUpdateConverter(final Collection<SoftwareModule> modules) {
+        return new DownloadAndUpdateConverter() {
+            private TenantMetaData tenantMetaData;
+
+            @Override
+            public Message convert(final String controllerId, final Long targetId, final Long actionId,
+                    final String targetSecurityToken, final MessageProperties messageProperties) {
+                final DmfDownloadAndUpdateRequest downloadAndUpdateRequest = new DmfDownloadAndUpdateRequest();
+                downloadAndUpdateRequest.setActionId(actionId);
+                downloadAndUpdateRequest.setTargetSecurityToken(targetSecurityToken);
+
+                if (!modules.isEmpty() && tenantMetaData == null) {
+                    tenantMetaData = systemManagement.getTenantMetadata();
+                }
+                for (final SoftwareModule module : modules) {
+                    downloadAndUpdateRequest.addSoftwareModule(
+                            convertToAmqpSoftwareModule(tenantMetaData, controllerId, targetId, module));
+                }
+
+                return getMessageConverter().toMessage(downloadAndUpdateRequest, messageProperties);
+            }
+        };
     }
 
     void sendPingReponseToDmfReceiver(final Message ping, final String tenant, final String virtualHost) {
@@ -168,8 +344,21 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
-        sendCancelMessageToTarget(cancelEvent.getTenant(), cancelEvent.getEntity().getControllerId(),
-                cancelEvent.getActionId(), cancelEvent.getEntity().getAddress());
+        reportDelivery(cancelEvent, () -> {
+            // the target is only loaded if the event has been sent without
+            // snapshot
+            if (cancelEvent.hasSnapshot()) {
+                return sendCancelMessageToTarget(cancelEvent.getTenant(), cancelEvent.getControllerId(),
+                        cancelEvent.getActionId(), toUri(cancelEvent.getAddress()));
+            }
+
+            return sendCancelMessageToTarget(cancelEvent.getTenant(), cancelEvent.getEntity().getControllerId(),
+                    cancelEvent.getActionId(), cancelEvent.getEntity().getAddress());
+        });
+    }
+
+    private static URI toUri(final String address) {
+        return address == null ? null : URI.create(address);
     }
 
     /**
@@ -188,6 +377,23 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         sendDeleteMessage(deleteEvent.getTenant(), deleteEvent.getControllerId(), deleteEvent.getTargetAddress());
     }
 
+    /**
+     * Method to send a message to a RabbitMQ Exchange for every target after
+     * many targets were deleted at once.
+     *
+     * @param deleteEvent
+     *            the BulkTargetDeletedEvent which holds the necessary data for
+     *            sending the target delete messages.
+     */
+    @EventListener(classes = BulkTargetDeletedEvent.class)
+    public void targetsDelete(final BulkTargetDeletedEvent deleteEvent) {
+        if (isNotFromSelf(deleteEvent)) {
+            return;
+        }
+        deleteEvent.getTargetAddresses().forEach((controllerId, targetAddress) -> sendDeleteMessage(
+                deleteEvent.getTenant(), controllerId, targetAddress));
+    }
+
     void sendDeleteMessage(final String tenant, final String controllerId, final String targetAddress) {
 
         if (!hasValidAddress(targetAddress)) {
@@ -206,19 +412,18 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return serviceMatcher != null && !serviceMatcher.isFromSelf(event);
     }
 
-    void sendCancelMessageToTarget(final String tenant, final String controllerId, final Long actionId,
-            final URI address) {
+    CompletableFuture<Boolean> sendCancelMessageToTarget(final String tenant, final String controllerId,
+            final Long actionId, final URI address) {
         if (!IpUtil.isAmqpUri(address)) {
-            return;
+            return CompletableFuture.completedFuture(Boolean.TRUE);
         }
         final Message message = getMessageConverter().toMessage(actionId,
                 createConnectorMessagePropertiesEvent(tenant, controllerId, EventTopic.CANCEL_DOWNLOAD));
 
-        amqpSenderService.sendMessage(message, address);
-
+        return send(message, address);
     }
 
-    private static MessageProperties createConnectorMessagePropertiesEvent(final String tenant,
+    private MessageProperties createConnectorMessagePropertiesEvent(final String tenant,
             final String controllerId, final EventTopic topic) {
         final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId);
         messageProperties.setHeader(MessageHeaderKey.TOPIC, topic);
@@ -226,48 +431,53 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
-    private static MessageProperties createConnectorMessagePropertiesDeleteThing(final String tenant,
+    private MessageProperties createConnectorMessagePropertiesDeleteThing(final String tenant,
             final String controllerId) {
         final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId);
         messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.THING_DELETED);
         return messageProperties;
     }
 
-    private static MessageProperties createConnectorMessageProperties(final String tenant, final String controllerId) {
+    private MessageProperties createConnectorMessageProperties(final String tenant, final String controllerId) {
         final MessageProperties messageProperties = new MessageProperties();
-        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
-        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, MessageProperties.CONTENT_TYPE_JSON);
+        final String contentType = getDefaultContentType();
+        messageProperties.setContentType(contentType);
+        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, contentType);
         messageProperties.setHeader(MessageHeaderKey.THING_ID, controllerId);
         messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
         return messageProperties;
     }
 
-    private DmfSoftwareModule convertToAmqpSoftwareModule(final Target target, final SoftwareModule softwareModule) {
+    private DmfSoftwareModule convertToAmqpSoftwareModule(final TenantMetaData tenantMetaData,
+            final String controllerId, final Long targetId, final SoftwareModule softwareModule) {
         final DmfSoftwareModule amqpSoftwareModule = new DmfSoftwareModule();
         amqpSoftwareModule.setModuleId(softwareModule.getId());
         amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
         amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
 
-        final List<DmfArtifact> artifacts = convertArtifacts(target, softwareModule.getArtifacts());
+        final List<DmfArtifact> artifacts = convertArtifacts(tenantMetaData, controllerId, targetId,
+                softwareModule.getArtifacts());
         amqpSoftwareModule.setArtifacts(artifacts);
         return amqpSoftwareModule;
     }
 
-    private List<DmfArtifact> convertArtifacts(final Target target, final List<Artifact> localArtifacts) {
+    private List<DmfArtifact> convertArtifacts(final TenantMetaData tenantMetaData, final String controllerId,
+            final Long targetId, final List<Artifact> localArtifacts) {
         if (localArtifacts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(target, localArtifact))
+        return localArtifacts.stream()
+                .map(localArtifact -> convertArtifact(tenantMetaData, controllerId, targetId, localArtifact))
                 .collect(Collectors.toList());
     }
 
-    private DmfArtifact convertArtifact(final Target target, final Artifact localArtifact) {
+    private DmfArtifact convertArtifact(final TenantMetaData tenantMetaData, final String controllerId,
+            final Long targetId, final Artifact localArtifact) {
         final DmfArtifact artifact = new DmfArtifact();
 
         artifact.setUrls(artifactUrlHandler
-                .getUrls(new URLPlaceholder(systemManagement.getTenantMetadata().getTenant(),
-                        systemManagement.getTenantMetadata().getId(), target.getControllerId(), target.getId(),
+                .getUrls(new URLPlaceholder(tenantMetaData.getTenant(), tenantMetaData.getId(), controllerId, targetId,
                         new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
                                 localArtifact.getId(), localArtifact.getSha1Hash())),
                         ApiType.DMF)
@@ -11,13 +11,16 @@ package org.eclipse.hawkbit.amqp;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.eclipse.hawkbit.amqp.AmqpTargetRegistrationBatchHandler.RegistrationResult;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
 import org.eclipse.hawkbit.dmf.json.model.DmfActionUpdateStatus;
 import org.eclipse.hawkbit.dmf.json.model.DmfAttributeUpdate;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
@@ -60,8 +63,20 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     private final ControllerManagement controllerManagement;
 
+    /**
+     * Status updates that can be persisted without loading the action
+     * upfront.
+     */
+    private static final EnumSet<DmfActionStatus> BATCHABLE_STATUS = EnumSet.of(DmfActionStatus.DOWNLOAD,
+            DmfActionStatus.RETRIEVED, DmfActionStatus.RUNNING, DmfActionStatus.FINISHED, DmfActionStatus.ERROR,
+            DmfActionStatus.WARNING);
+
     private final EntityFactory entityFactory;
 
+    private final AmqpActionStatusBatchHandler actionStatusBatchHandler;
+
+    private final AmqpTargetRegistrationBatchHandler targetRegistrationBatchHandler;
+
     /**
      * Constructor.
      * 
@@ -77,10 +92,61 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
             final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+        this(rabbitTemplate, amqpMessageDispatcherService, controllerManagement, entityFactory, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param rabbitTemplate
+     *            for converting messages
+     * @param amqpMessageDispatcherService
+     *            to sending events to DMF client
+     * @param controllerManagement
+     *            for target repo access
+     * @param entityFactory
+     *            to create entities
+     * @param actionStatusBatchHandler
+     *            to persist action status updates in batches or
+     *            <code>null</code> if every update is persisted separately
+     */
+    public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageDispatcherService amqpMessageDispatcherService,
+            final ControllerManagement controllerManagement, final EntityFactory entityFactory,
+            final AmqpActionStatusBatchHandler actionStatusBatchHandler) {
+        this(rabbitTemplate, amqpMessageDispatcherService, controllerManagement, entityFactory,
+                actionStatusBatchHandler, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param rabbitTemplate
+     *            for converting messages
+     * @param amqpMessageDispatcherService
+     *            to sending events to DMF client
+     * @param controllerManagement
+     *            for target repo access
+     * @param entityFactory
+     *            to create entities
+     * @param actionStatusBatchHandler
+     *            to persist action status updates in batches or
+     *            <code>null</code> if every update is persisted separately
+     * @param targetRegistrationBatchHandler
+     *            to register targets in batches or <code>null</code> if every
+     *            target is registered separately
+     */
+    public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageDispatcherService amqpMessageDispatcherService,
+            final ControllerManagement controllerManagement, final EntityFactory entityFactory,
+            final AmqpActionStatusBatchHandler actionStatusBatchHandler,
+            final AmqpTargetRegistrationBatchHandler targetRegistrationBatchHandler) {
         super(rabbitTemplate);
         this.amqpMessageDispatcherService = amqpMessageDispatcherService;
         this.controllerManagement = controllerManagement;
         this.entityFactory = entityFactory;
+        this.actionStatusBatchHandler = actionStatusBatchHandler;
+        this.targetRegistrationBatchHandler = targetRegistrationBatchHandler;
     }
 
     /**
@@ -121,14 +187,14 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
             final MessageType messageType = MessageType.valueOf(type);
             switch (messageType) {
             case THING_CREATED:
-                checkContentTypeJson(message);
+                checkContentTypeSupported(message);
                 setTenantSecurityContext(tenant);
-                registerTarget(message, virtualHost);
+                registerTarget(message, tenant, virtualHost);
                 break;
             case EVENT:
-                checkContentTypeJson(message);
+                checkContentTypeSupported(message);
                 setTenantSecurityContext(tenant);
-                handleIncomingEvent(message);
+                handleIncomingEvent(message, tenant);
                 break;
             case PING:
                 if (isCorrelationIdNotEmpty(message)) {
@@ -168,7 +234,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @param ip
      *            the ip of the target/thing
      */
-    private void registerTarget(final Message message, final String virtualHost) {
+    private void registerTarget(final Message message, final String tenant, final String virtualHost) {
         final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, "ThingId is null");
         final String replyTo = message.getMessageProperties().getReplyTo();
 
@@ -177,6 +243,15 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
 
         final URI amqpUri = IpUtil.createAmqpUri(virtualHost, replyTo);
+
+        if (targetRegistrationBatchHandler != null) {
+            final RegistrationResult registration = targetRegistrationBatchHandler.register(tenant, thingId,
+                    amqpUri);
+            LOG.debug("Target {} reported online state.", thingId);
+            sendUpdateOrCancelMessage(registration.getTarget(), registration.getOldestActiveAction());
+            return;
+        }
+
         final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(thingId, amqpUri);
         LOG.debug("Target {} reported online state.", thingId);
 
@@ -184,10 +259,10 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     }
 
     private void lookIfUpdateAvailable(final Target target) {
+        sendUpdateOrCancelMessage(target, controllerManagement.findOldestActiveActionByTarget(target.getControllerId()));
+    }
 
-        final Optional<Action> actionOptional = controllerManagement
-                .findOldestActiveActionByTarget(target.getControllerId());
-
+    private void sendUpdateOrCancelMessage(final Target target, final Optional<Action> actionOptional) {
         if (!actionOptional.isPresent()) {
             return;
         }
@@ -211,10 +286,10 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @param topic
      *            the topic of the event.
      */
-    private void handleIncomingEvent(final Message message) {
+    private void handleIncomingEvent(final Message message, final String tenant) {
         switch (EventTopic.valueOf(getStringHeaderKey(message, MessageHeaderKey.TOPIC, "EventTopic is null"))) {
         case UPDATE_ACTION_STATUS:
-            updateActionStatus(message);
+            updateActionStatus(message, tenant);
             break;
         case UPDATE_ATTRIBUTES:
             updateAttributes(message);
@@ -239,17 +314,18 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @param actionUpdateStatus
      *            the object form the ampq message
      */
-    private void updateActionStatus(final Message message) {
+    private void updateActionStatus(final Message message, final String tenant) {
         final DmfActionUpdateStatus actionUpdateStatus = convertMessage(message, DmfActionUpdateStatus.class);
-        final Action action = checkActionExist(message, actionUpdateStatus);
-
-        final List<String> messages = actionUpdateStatus.getMessage();
 
-        if (isCorrelationIdNotEmpty(message)) {
-            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
-                    + convertCorrelationId(message));
+        if (actionStatusBatchHandler != null && BATCHABLE_STATUS.contains(actionUpdateStatus.getActionStatus())) {
+            updateActionStatusInBatch(message, tenant, actionUpdateStatus);
+            return;
         }
 
+        final Action action = checkActionExist(message, actionUpdateStatus);
+
+        final List<String> messages = getStatusMessages(message, actionUpdateStatus);
+
         final Status status = mapStatus(message, actionUpdateStatus, action);
         final ActionStatusCreate actionStatus = entityFactory.actionStatus().create(action.getId()).status(status)
                 .messages(messages);
@@ -261,6 +337,32 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
     }
 
+    private void updateActionStatusInBatch(final Message message, final String tenant,
+            final DmfActionUpdateStatus actionUpdateStatus) {
+        LOG.debug("Target notifies intermediate about action {} with status {}.", actionUpdateStatus.getActionId(),
+                actionUpdateStatus.getActionStatus());
+
+        final ActionStatusCreate actionStatus = entityFactory.actionStatus().create(actionUpdateStatus.getActionId())
+                .status(mapStatus(message, actionUpdateStatus)).messages(getStatusMessages(message, actionUpdateStatus));
+
+        final Action addUpdateActionStatus = actionStatusBatchHandler.addUpdateActionStatus(tenant, actionStatus);
+
+        if (!addUpdateActionStatus.isActive()) {
+            lookIfUpdateAvailable(addUpdateActionStatus.getTarget());
+        }
+    }
+
+    private static List<String> getStatusMessages(final Message message,
+            final DmfActionUpdateStatus actionUpdateStatus) {
+        final List<String> messages = actionUpdateStatus.getMessage();
+
+        if (isCorrelationIdNotEmpty(message)) {
+            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
+                    + convertCorrelationId(message));
+        }
+        return messages;
+    }
+
     private static boolean isCorrelationIdNotEmpty(final Message message) {
         return message.getMessageProperties().getCorrelationId() != null
                 && message.getMessageProperties().getCorrelationId().length > 0;
@@ -268,6 +370,13 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     private Status mapStatus(final Message message, final DmfActionUpdateStatus actionUpdateStatus,
             final Action action) {
+        if (DmfActionStatus.CANCEL_REJECTED.equals(actionUpdateStatus.getActionStatus())) {
+            return hanldeCancelRejectedState(message, action);
+        }
+        return mapStatus(message, actionUpdateStatus);
+    }
+
+    private static Status mapStatus(final Message message, final DmfActionUpdateStatus actionUpdateStatus) {
         Status status = null;
         switch (actionUpdateStatus.getActionStatus()) {
         case DOWNLOAD:
@@ -291,9 +400,6 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         case WARNING:
             status = Status.WARNING;
             break;
-        case CANCEL_REJECTED:
-            status = hanldeCancelRejectedState(message, action);
-            break;
         default:
             logAndThrowMessageError(message, "Status for action does not exisit.");
         }
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.constraints.NotNull;
 
@@ -31,4 +32,21 @@ public interface AmqpMessageSenderService {
      */
     void sendMessage(@NotNull final Message message, @NotNull final URI replyTo);
 
+    /**
+     * Send the given message to the given uri and reports when the message
+     * has been delivered to the broker. By default the message counts as
+     * delivered as soon as it has been sent.
+     * 
+     * @param message
+     *            the amqp message
+     * @param replyTo
+     *            the reply to uri
+     * @return completes with <code>true</code> after the message has been
+     *         delivered, with <code>false</code> if it has been dropped
+     */
+    default CompletableFuture<Boolean> sendConfirmed(@NotNull final Message message, @NotNull final URI replyTo) {
+        sendMessage(message, replyTo);
+        return CompletableFuture.completedFuture(Boolean.TRUE);
+    }
+
 }
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the cache of
+ * DOWNLOAD_AND_INSTALL payload templates.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.payloadCache")
+public class AmqpPayloadCacheProperties {
+
+    private static final long DEFAULT_MAX_SIZE = 1_000;
+
+    private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Set to <code>true</code> to build the JSON body of a
+     * DOWNLOAD_AND_INSTALL message only once per tenant and set of software
+     * modules and to fill in the target specific values for every target.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of cached payload templates.
+     */
+    private long maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Time in milliseconds after which a payload template is built again.
+     */
+    private long ttl = DEFAULT_TTL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(final long ttl) {
+        this.ttl = ttl;
+    }
+}
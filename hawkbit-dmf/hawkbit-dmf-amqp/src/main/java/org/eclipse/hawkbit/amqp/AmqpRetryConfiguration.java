@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.HeadersExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Spring configuration for the delayed retry of failed DMF messages. Every
+ * configured delay has its own retry queue with a message TTL. The retry
+ * queues are bound to a headers exchange and dead letter the expired messages
+ * to the default exchange, i.e. with their routing key back to the receiver
+ * queue they came from. Messages that still fail after the last retry are
+ * moved to the parking queue.
+ */
+@ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.retry", name = "enabled")
+public class AmqpRetryConfiguration {
+
+    private static final String DEFAULT_EXCHANGE = "";
+
+    @Autowired
+    private AmqpProperties amqpProperties;
+
+    @Autowired
+    private AmqpShardingProperties amqpShardingProperties;
+
+    @Autowired
+    private AmqpRetryProperties amqpRetryProperties;
+
+    /**
+     * Create the headers exchange for the retry queues.
+     *
+     * @return the exchange
+     */
+    @Bean
+    public HeadersExchange dmfRetryExchange() {
+        return new HeadersExchange(amqpRetryProperties.getExchange());
+    }
+
+    /**
+     * Create the retry queues and their bindings to the
+     * {@link #dmfRetryExchange()}.
+     *
+     * @return the queues and bindings
+     */
+    @Bean
+    public List<Declarable> dmfRetryQueues() {
+        final List<Declarable> declarables = new ArrayList<>(amqpRetryProperties.getDelays().size() * 2);
+        for (final Long delay : amqpRetryProperties.getDelays()) {
+            final String name = amqpRetryProperties.getRetryQueue(delay);
+            final Map<String, Object> args = Maps.newHashMapWithExpectedSize(2);
+            args.put("x-message-ttl", delay);
+            args.put("x-dead-letter-exchange", DEFAULT_EXCHANGE);
+            final Queue queue = new Queue(name, true, false, false, args);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(dmfRetryExchange())
+                    .where(DmfRetryMessageRecoverer.RETRY_QUEUE_HEADER).matches(name));
+        }
+        return declarables;
+    }
+
+    /**
+     * Create the parking queue.
+     *
+     * @return the queue
+     */
+    @Bean
+    public Queue dmfParkingQueue() {
+        return new Queue(amqpRetryProperties.getParkingQueue(), true);
+    }
+
+    /**
+     * Create the recoverer that moves failed messages of the receiver queues
+     * to the retry queues.
+     *
+     * @param rabbitTemplate
+     *            to publish the messages
+     * @return the recoverer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DmfRetryMessageRecoverer dmfRetryMessageRecoverer(final RabbitTemplate rabbitTemplate) {
+        final List<String> queues = new ArrayList<>();
+        queues.add(amqpProperties.getReceiverQueue());
+        if (amqpShardingProperties.isEnabled()) {
+            for (int shard = 0; shard < amqpShardingProperties.getShards(); shard++) {
+                queues.add(amqpShardingProperties.getQueuePrefix() + shard);
+            }
+        }
+        return new DmfRetryMessageRecoverer(rabbitTemplate, amqpRetryProperties, queues);
+    }
+
+    /**
+     * Create the management endpoint of the parking queue.
+     *
+     * @param rabbitTemplate
+     *            to access the parking queue
+     * @param rabbitAdmin
+     *            to retrieve the queue depth
+     * @return the endpoint
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DmfParkingQueueManager dmfParkingQueueManager(final RabbitTemplate rabbitTemplate,
+            final RabbitAdmin rabbitAdmin) {
+        return new DmfParkingQueueManager(rabbitTemplate, rabbitAdmin, amqpRetryProperties.getParkingQueue());
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the delayed retry
+ * of failed DMF messages.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.retry")
+public class AmqpRetryProperties {
+
+    /**
+     * Set to <code>true</code> to retry failed DMF messages with escalating
+     * delays instead of requeuing them onto the receiver queue. Messages that
+     * still fail after the last delay are moved to the parking queue.
+     */
+    private boolean enabled;
+
+    /**
+     * Delays in milliseconds of the retry queues, one queue per delay.
+     */
+    private List<Long> delays = Arrays.asList(TimeUnit.SECONDS.toMillis(1), TimeUnit.SECONDS.toMillis(10),
+            TimeUnit.MINUTES.toMillis(1));
+
+    /**
+     * Name of the headers exchange that routes the messages to the retry
+     * queues.
+     */
+    private String exchange = "dmf.receiver.retry";
+
+    /**
+     * Prefix of the retry queues, the delay is appended.
+     */
+    private String queuePrefix = "dmf_receiver_retry_";
+
+    /**
+     * Queue for messages that failed after the last retry.
+     */
+    private String parkingQueue = "dmf_receiver_parking";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Long> getDelays() {
+        return delays;
+    }
+
+    public void setDelays(final List<Long> delays) {
+        this.delays = delays;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(final String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getQueuePrefix() {
+        return queuePrefix;
+    }
+
+    public void setQueuePrefix(final String queuePrefix) {
+        this.queuePrefix = queuePrefix;
+    }
+
+    public String getParkingQueue() {
+        return parkingQueue;
+    }
+
+    public void setParkingQueue(final String parkingQueue) {
+        this.parkingQueue = parkingQueue;
+    }
+
+    /**
+     * @param delay
+     *            of the retry queue
+     * @return the name of the retry queue
+     */
+    public String getRetryQueue(final long delay) {
+        return queuePrefix + delay;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the asynchronous
+ * publishing of outgoing DMF messages.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.sender")
+public class AmqpSenderProperties {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final int DEFAULT_PUBLISHER_THREADS = 2;
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1_000;
+
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    /**
+     * Set to <code>true</code> to publish DMF messages asynchronously in
+     * batches by {@link #publisherThreads} instead of sending them on the
+     * calling (event) thread. Note: confirms are only tracked if publisher
+     * confirms are enabled on the connection factory
+     * (spring.rabbitmq.publisher-confirms=true). Otherwise a message counts as
+     * confirmed as soon as it has been sent.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of messages waiting to be published, split evenly over
+     * the {@link #publisherThreads}. Senders block up to the
+     * {@link #enqueueTimeout} if the queue is full.
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Time in milliseconds a sender blocks on a full queue. Afterwards the
+     * message is sent synchronously, i.e. it may overtake the queued messages
+     * of its thing.
+     */
+    private long enqueueTimeout = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Maximum number of messages published by one publisher thread in a row.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Number of threads publishing the queued messages. Every thread
+     * publishes the messages of its share of the things in order.
+     */
+    private int publisherThreads = DEFAULT_PUBLISHER_THREADS;
+
+    /**
+     * Maximum number of published but not yet confirmed messages. Publishing
+     * pauses if the limit is reached, i.e. if the broker is slow.
+     */
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    /**
+     * Time in milliseconds after which an unconfirmed message is published
+     * again.
+     */
+    private long confirmTimeout = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Number of times a negatively or not confirmed message is published
+     * again before it is moved to the {@link #parkingQueue}. A message that
+     * fails as often on the parking queue is dropped.
+     */
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Time in milliseconds before the first retry of a message. The delay
+     * doubles with every further retry.
+     */
+    private long retryDelay = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * Maximum time in milliseconds between two retries of a message.
+     */
+    private long maxRetryDelay = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Durable queue for the messages that could not be published after all
+     * retries. The original exchange is kept in the x-dmf-exchange header.
+     */
+    private String parkingQueue = "dmf_sender_parking";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getEnqueueTimeout() {
+        return enqueueTimeout;
+    }
+
+    public void setEnqueueTimeout(final long enqueueTimeout) {
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getPublisherThreads() {
+        return publisherThreads;
+    }
+
+    public void setPublisherThreads(final int publisherThreads) {
+        this.publisherThreads = publisherThreads;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(final int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public long getConfirmTimeout() {
+        return confirmTimeout;
+    }
+
+    public void setConfirmTimeout(final long confirmTimeout) {
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(final int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(final long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public long getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(final long maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    public String getParkingQueue() {
+        return parkingQueue;
+    }
+
+    public void setParkingQueue(final String parkingQueue) {
+        this.parkingQueue = parkingQueue;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+
+/**
+ * Registers one listener container per sharded DMF receiver queue that
+ * forwards the messages to the {@link AmqpMessageHandlerService}. The
+ * containers are created by a factory with exactly one consumer so that the
+ * messages of a shard are processed in order.
+ */
+public class AmqpShardedReceiverConfigurer implements RabbitListenerConfigurer {
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+
+    private final RabbitListenerContainerFactory<?> containerFactory;
+
+    private final String virtualHost;
+
+    private final AmqpShardingProperties shardingProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param amqpMessageHandlerService
+     *            to handle the messages
+     * @param containerFactory
+     *            single consumer container factory
+     * @param virtualHost
+     *            the virtual host of the receiver queues
+     * @param shardingProperties
+     *            with the number and names of the receiver queues
+     */
+    public AmqpShardedReceiverConfigurer(final AmqpMessageHandlerService amqpMessageHandlerService,
+            final RabbitListenerContainerFactory<?> containerFactory, final String virtualHost,
+            final AmqpShardingProperties shardingProperties) {
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
+        this.containerFactory = containerFactory;
+        this.virtualHost = virtualHost;
+        this.shardingProperties = shardingProperties;
+    }
+
+    @Override
+    public void configureRabbitListeners(final RabbitListenerEndpointRegistrar registrar) {
+        final MessageListener listener = this::onMessage;
+
+        for (int shard = 0; shard < shardingProperties.getShards(); shard++) {
+            final String queue = shardingProperties.getQueuePrefix() + shard;
+            final SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(queue);
+            endpoint.setQueueNames(queue);
+            endpoint.setMessageListener(listener);
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+
+    private void onMessage(final Message message) {
+        amqpMessageHandlerService.onMessage(message, getHeader(message, MessageHeaderKey.TYPE),
+                getHeader(message, MessageHeaderKey.TENANT), virtualHost);
+    }
+
+    private static String getHeader(final Message message, final String key) {
+        final Object header = message.getMessageProperties().getHeaders().get(key);
+        if (header == null) {
+            throw new AmqpRejectAndDontRequeueException("Invalid message! Header " + key + " is missing.");
+        }
+        return header.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ErrorHandler;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Spring configuration for sharded DMF receiver queues. The DMF exchange is
+ * bound to a consistent hash exchange that distributes the messages by their
+ * thingId header on a fixed number of receiver queues. Every receiver queue
+ * is consumed by exactly one consumer so that the messages of a thing are
+ * processed in the order they were sent.
+ *
+ * Messages without thingId header are not routable by the consistent hash
+ * exchange and are forwarded to its alternate exchange, which is bound to the
+ * regular receiver queue.
+ */
+@ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.sharding", name = "enabled")
+public class AmqpShardingConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AmqpShardingConfiguration.class);
+
+    private static final String CONSISTENT_HASH_EXCHANGE_TYPE = "x-consistent-hash";
+
+    /**
+     * All shards have the same weight on the hash ring.
+     */
+    private static final String SHARD_WEIGHT = "1";
+
+    @Autowired
+    private AmqpProperties amqpProperties;
+
+    @Autowired
+    private AmqpDeadletterProperties amqpDeadletterProperties;
+
+    @Autowired
+    private AmqpShardingProperties amqpShardingProperties;
+
+    /**
+     * Create the consistent hash exchange for the sharded receiver queues.
+     *
+     * @return the exchange
+     */
+    @Bean
+    public CustomExchange dmfShardingExchange() {
+        final Map<String, Object> args = Maps.newHashMapWithExpectedSize(2);
+        args.put("hash-header", MessageHeaderKey.THING_ID);
+        args.put("alternate-exchange", amqpShardingProperties.getUnshardedExchange());
+        return new CustomExchange(amqpShardingProperties.getExchange(), CONSISTENT_HASH_EXCHANGE_TYPE, true, false,
+                args);
+    }
+
+    /**
+     * Create the exchange for messages without thingId header.
+     *
+     * @return the fanout exchange
+     */
+    @Bean
+    public FanoutExchange dmfUnshardedExchange() {
+        return new FanoutExchange(amqpShardingProperties.getUnshardedExchange());
+    }
+
+    /**
+     * Create the Binding of the DMF exchange to the
+     * {@link #dmfShardingExchange()}.
+     *
+     * @return the binding
+     */
+    @Bean
+    public Binding bindDmfSenderExchangeToShardingExchange() {
+        return BindingBuilder.bind(dmfShardingExchange()).to(new FanoutExchange(AmqpSettings.DMF_EXCHANGE));
+    }
+
+    /**
+     * Create the sharded receiver queues and their bindings to the
+     * {@link #dmfShardingExchange()}.
+     *
+     * @return the queues and bindings
+     */
+    @Bean
+    public List<Declarable> dmfReceiverShards() {
+        final List<Declarable> declarables = new ArrayList<>(amqpShardingProperties.getShards() * 2);
+        for (int shard = 0; shard < amqpShardingProperties.getShards(); shard++) {
+            final Queue queue = new Queue(amqpShardingProperties.getQueuePrefix() + shard, true, false, false,
+                    amqpDeadletterProperties.getDeadLetterExchangeArgs(amqpProperties.getDeadLetterExchange()));
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(dmfShardingExchange()).with(SHARD_WEIGHT).noargs());
+        }
+        return declarables;
+    }
+
+    /**
+     * Registers one single consumer listener container per shard.
+     *
+     * @param amqpMessageHandlerService
+     *            to handle the messages
+     * @param rabbitTemplate
+     *            to determine the virtual host
+     * @param configurer
+     *            to apply the spring.rabbitmq.listener properties
+     * @param errorHandler
+     *            the error handler of the listener containers
+     * @param retryMessageRecoverer
+     *            to retry failed messages with delay if enabled
+     * @return the listener configurer
+     */
+    @Bean
+    public RabbitListenerConfigurer dmfReceiverShardListenerConfigurer(
+            final AmqpMessageHandlerService amqpMessageHandlerService, final RabbitTemplate rabbitTemplate,
+            final SimpleRabbitListenerContainerFactoryConfigurer configurer, final ErrorHandler errorHandler,
+            final ObjectProvider<DmfRetryMessageRecoverer> retryMessageRecoverer) {
+        final ConfigurableRabbitListenerContainerFactory factory = new ConfigurableRabbitListenerContainerFactory(
+                amqpProperties.isMissingQueuesFatal(), amqpProperties.getDeclarationRetries(), errorHandler);
+        configurer.configure(factory, rabbitTemplate.getConnectionFactory());
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        final DmfRetryMessageRecoverer recoverer = retryMessageRecoverer.getIfAvailable();
+        if (recoverer != null) {
+            factory.addMessageRecoverer(recoverer);
+        }
+
+        return new AmqpShardedReceiverConfigurer(amqpMessageHandlerService, factory,
+                rabbitTemplate.getConnectionFactory().getVirtualHost(), amqpShardingProperties);
+    }
+
+    /**
+     * Removes the direct binding of the receiver queue to the DMF exchange
+     * that exists on brokers which were used without sharding before.
+     * Otherwise every message would be received twice.
+     *
+     * @param rabbitConnectionFactory
+     *            to register the listener on
+     * @param rabbitAdmin
+     *            to remove the binding
+     * @return the connection listener
+     */
+    @Bean
+    public ConnectionListener unshardedBindingRemover(final ConnectionFactory rabbitConnectionFactory,
+            final RabbitAdmin rabbitAdmin) {
+        final ConnectionListener listener = new ConnectionListener() {
+            @Override
+            public void onCreate(final Connection connection) {
+                try {
+                    rabbitAdmin.removeBinding(new Binding(amqpProperties.getReceiverQueue(),
+                            Binding.DestinationType.QUEUE, AmqpSettings.DMF_EXCHANGE, "", null));
+                } catch (final AmqpException e) {
+                    LOGGER.warn("Failed to remove binding of {} to {}", amqpProperties.getReceiverQueue(),
+                            AmqpSettings.DMF_EXCHANGE, e);
+                }
+            }
+
+            @Override
+            public void onClose(final Connection connection) {
+                // nothing to do
+            }
+        };
+        rabbitConnectionFactory.addConnectionListener(listener);
+        return listener;
+    }
+}
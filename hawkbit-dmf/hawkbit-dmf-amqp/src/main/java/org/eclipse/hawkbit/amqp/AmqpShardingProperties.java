@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring sharded DMF
+ * receiver queues. Sharding requires the rabbitmq_consistent_hash_exchange
+ * plugin on the broker.
+ */
+@ConfigurationProperties("hawkbit.dmf.rabbitmq.sharding")
+public class AmqpShardingProperties {
+
+    private static final int DEFAULT_SHARDS = 4;
+
+    /**
+     * Set to <code>true</code> to distribute incoming DMF messages by their
+     * thingId header on {@link #shards} receiver queues with one consumer
+     * each, i.e. the messages of one thing are processed in order. Messages
+     * without thingId header are routed to the receiver queue as before.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of receiver queues.
+     */
+    private int shards = DEFAULT_SHARDS;
+
+    /**
+     * Consistent hash exchange that distributes the messages on the receiver
+     * queues.
+     */
+    private String exchange = "dmf.receiver.sharding";
+
+    /**
+     * Exchange for messages without thingId header. It is bound to the
+     * receiver queue.
+     */
+    private String unshardedExchange = "dmf.receiver.unsharded";
+
+    /**
+     * Prefix of the receiver queue names, followed by the shard number.
+     */
+    private String queuePrefix = "dmf_receiver_shard_";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(final int shards) {
+        this.shards = shards;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(final String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getUnshardedExchange() {
+        return unshardedExchange;
+    }
+
+    public void setUnshardedExchange(final String unshardedExchange) {
+        this.unshardedExchange = unshardedExchange;
+    }
+
+    public String getQueuePrefix() {
+        return queuePrefix;
+    }
+
+    public void setQueuePrefix(final String queuePrefix) {
+        this.queuePrefix = queuePrefix;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.amqp.AmqpTargetRegistrationBatchHandler.Registration;
+import org.eclipse.hawkbit.amqp.AmqpTargetRegistrationBatchHandler.RegistrationResult;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Collects THING_CREATED registrations of DMF consumer threads per tenant and
+ * registers the targets with
+ * {@link ControllerManagement#findOrRegisterTargetsIfTheyDoNotExist(Map)} in
+ * one transaction. The pending actions of all targets of the batch are
+ * retrieved with one query.
+ */
+public class AmqpTargetRegistrationBatchHandler extends AbstractAmqpBatchHandler<Registration, RegistrationResult> {
+
+    private final ControllerManagement controllerManagement;
+
+    /**
+     * Constructor.
+     *
+     * @param controllerManagement
+     *            to register the targets
+     * @param maxSize
+     *            maximum number of registrations per batch
+     * @param maxWait
+     *            in {@link TimeUnit#MILLISECONDS} to wait for further
+     *            registrations before the batch is persisted
+     */
+    public AmqpTargetRegistrationBatchHandler(final ControllerManagement controllerManagement, final int maxSize,
+            final long maxWait) {
+        super(maxSize, maxWait);
+        this.controllerManagement = controllerManagement;
+    }
+
+    /**
+     * Adds the given target to the open batch of the tenant and blocks until
+     * the batch has been persisted.
+     *
+     * @param tenant
+     *            the target belongs to. The caller has to run in the security
+     *            context of the tenant.
+     * @param controllerId
+     *            of the target
+     * @param address
+     *            of the target
+     * @return the registered target and its oldest active action
+     */
+    public RegistrationResult register(final String tenant, final String controllerId, final URI address) {
+        return submit(tenant, new Registration(controllerId, address));
+    }
+
+    @Override
+    protected List<RegistrationResult> processBatch(final List<Registration> requests) {
+        final Map<String, URI> addresses = new LinkedHashMap<>();
+        requests.forEach(request -> addresses.put(request.controllerId, request.address));
+
+        final Map<String, Target> targets = controllerManagement.findOrRegisterTargetsIfTheyDoNotExist(addresses)
+                .stream().collect(Collectors.toMap(Target::getControllerId, Function.identity()));
+        final Map<String, Action> actions = controllerManagement.findOldestActiveActionsByTargets(addresses.keySet());
+
+        return requests.stream()
+                .map(request -> new RegistrationResult(targets.get(request.controllerId),
+                        Optional.ofNullable(actions.get(request.controllerId))))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected RegistrationResult processSeparately(final Registration request) {
+        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(request.controllerId,
+                request.address);
+        return new RegistrationResult(target,
+                controllerManagement.findOldestActiveActionByTarget(target.getControllerId()));
+    }
+
+    /**
+     * A target that reported online state.
+     */
+    public static final class Registration {
+        private final String controllerId;
+        private final URI address;
+
+        private Registration(final String controllerId, final URI address) {
+            this.controllerId = controllerId;
+            this.address = address;
+        }
+    }
+
+    /**
+     * A registered {@link Target} with its oldest active {@link Action}.
+     */
+    public static final class RegistrationResult {
+        private final Target target;
+        private final Optional<Action> oldestActiveAction;
+
+        private RegistrationResult(final Target target, final Optional<Action> oldestActiveAction) {
+            this.target = target;
+            this.oldestActiveAction = oldestActiveAction;
+        }
+
+        public Target getTarget() {
+            return target;
+        }
+
+        public Optional<Action> getOldestActiveAction() {
+            return oldestActiveAction;
+        }
+    }
+}
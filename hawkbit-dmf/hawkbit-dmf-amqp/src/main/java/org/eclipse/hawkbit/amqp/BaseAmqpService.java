@@ -40,12 +40,28 @@ public class BaseAmqpService {
         this.rabbitTemplate = rabbitTemplate;
     }
 
-    protected static void checkContentTypeJson(final Message message) {
-        final MessageProperties messageProperties = message.getMessageProperties();
-        if (messageProperties.getContentType() != null && messageProperties.getContentType().contains("json")) {
+    protected void checkContentTypeSupported(final Message message) {
+        final String contentType = message.getMessageProperties().getContentType();
+        final MessageConverter messageConverter = getMessageConverter();
+        final boolean supported = messageConverter instanceof DmfMessageConverter
+                ? ((DmfMessageConverter) messageConverter).isSupported(contentType)
+                : contentType != null && contentType.contains("json");
+        if (supported) {
             return;
         }
-        throw new AmqpRejectAndDontRequeueException("Content-Type is not JSON compatible");
+        throw new AmqpRejectAndDontRequeueException("Content-Type " + contentType + " is not supported");
+    }
+
+    /**
+     * @return the content type of messages that are sent without a request
+     *         of the device
+     */
+    protected String getDefaultContentType() {
+        final MessageConverter messageConverter = getMessageConverter();
+        if (messageConverter instanceof DmfMessageConverter) {
+            return ((DmfMessageConverter) messageConverter).getDefaultContentType();
+        }
+        return MessageProperties.CONTENT_TYPE_JSON;
     }
 
     /**
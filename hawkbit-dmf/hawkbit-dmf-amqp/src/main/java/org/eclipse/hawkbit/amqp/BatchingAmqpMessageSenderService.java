@@ -0,0 +1,454 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate.ConfirmCallback;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link AmqpMessageSenderService} that decouples the callers from the broker.
+ * Messages are partitioned by their thing (or by their exchange if they do not
+ * address a thing) and every partition is published in batches by its own
+ * publisher thread on the (cached) channels of the connection factory, so the
+ * messages of one thing keep their order.
+ *
+ * A batch contains at most one message per thing and the next batch of a
+ * partition is published after the broker has confirmed the previous one.
+ * Messages that the broker rejects or does not confirm in time are published
+ * again in place with an exponential backoff. Messages that still fail after
+ * all retries are moved to the parking queue. Only messages that cannot be
+ * moved to the parking queue either are dropped.
+ * {@link #sendConfirmed(Message, URI)} reports when the broker has confirmed
+ * the message, i.e. to its exchange or to the parking queue, or when it has
+ * been dropped.
+ *
+ * Backpressure is applied in two stages: publishing pauses if too many
+ * messages are unconfirmed and callers block up to the enqueue timeout if the
+ * queue of the partition is full. Afterwards the message is sent
+ * synchronously.
+ */
+@ManagedResource(description = "Asynchronous DMF message publisher")
+public class BatchingAmqpMessageSenderService extends DefaultAmqpMessageSenderService implements ConfirmCallback {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingAmqpMessageSenderService.class);
+
+    private static final long POLL_TIMEOUT = 500;
+
+    private static final String DEFAULT_EXCHANGE = "";
+
+    /**
+     * Header of a parked message that holds the exchange the message was
+     * addressed to.
+     */
+    public static final String EXCHANGE_HEADER = "x-dmf-exchange";
+
+    private final AmqpSenderProperties senderProperties;
+
+    private final boolean confirmsEnabled;
+
+    private final List<BlockingQueue<PendingMessage>> partitions;
+
+    private final Semaphore inFlightPermits;
+
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService publisherExecutor;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+
+    private final AtomicLong confirmedCount = new AtomicLong();
+
+    private final AtomicLong retriedCount = new AtomicLong();
+
+    private final AtomicLong parkedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the AMQP template that is exclusively used by this sender,
+     *            i.e. which has no other {@link ConfirmCallback}
+     * @param senderProperties
+     *            to configure queue, batch size and publisher confirms
+     */
+    public BatchingAmqpMessageSenderService(final RabbitTemplate rabbitTemplate,
+            final AmqpSenderProperties senderProperties) {
+        super(rabbitTemplate);
+        this.senderProperties = senderProperties;
+        this.inFlightPermits = new Semaphore(senderProperties.getMaxInFlight());
+        this.confirmsEnabled = rabbitTemplate.getConnectionFactory() instanceof CachingConnectionFactory
+                && ((CachingConnectionFactory) rabbitTemplate.getConnectionFactory()).isPublisherConfirms();
+
+        if (confirmsEnabled) {
+            rabbitTemplate.setConfirmCallback(this);
+        } else {
+            LOGGER.warn("Publisher confirms are disabled, DMF messages count as confirmed as soon as they are sent.");
+        }
+
+        final int partitionCount = senderProperties.getPublisherThreads();
+        final int partitionCapacity = Math.max(1, senderProperties.getQueueCapacity() / partitionCount);
+        partitions = new ArrayList<>(partitionCount);
+        publisherExecutor = Executors.newFixedThreadPool(partitionCount,
+                new ThreadFactoryBuilder().setNameFormat("dmf-publisher-%d").build());
+        for (int i = 0; i < partitionCount; i++) {
+            final BlockingQueue<PendingMessage> partition = new ArrayBlockingQueue<>(partitionCapacity);
+            partitions.add(partition);
+            publisherExecutor.execute(() -> publishQueuedMessages(partition));
+        }
+    }
+
+    @Override
+    public void sendMessage(final Message message, final URI sendTo) {
+        sendConfirmed(message, sendTo);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendConfirmed(final Message message, final URI sendTo) {
+        if (!IpUtil.isAmqpUri(sendTo)) {
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+
+        if (isCorrelationIdEmpty(message)) {
+            message.getMessageProperties()
+                    .setCorrelationId(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        final PendingMessage pendingMessage = new PendingMessage(message, sendTo.getPath().substring(1));
+        final BlockingQueue<PendingMessage> partition = partitions
+                .get(Math.floorMod(pendingMessage.key.hashCode(), partitions.size()));
+        try {
+            if (!running) {
+                LOGGER.warn("DMF publisher is stopped, sending message to exchange {} synchronously.",
+                        pendingMessage.exchange);
+            } else if (partition.offer(pendingMessage, senderProperties.getEnqueueTimeout(), TimeUnit.MILLISECONDS)) {
+                return pendingMessage.delivery;
+            } else {
+                // the message may overtake the queued messages of its thing,
+                // which is preferred to blocking the caller without limit
+                LOGGER.warn("DMF publisher queue is full, sending message to exchange {} synchronously.",
+                        pendingMessage.exchange);
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Enqueuing of DMF message interrupted!", e);
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            super.sendMessage(message, sendTo);
+        } catch (final RuntimeException e) {
+            pendingMessage.delivery.complete(Boolean.FALSE);
+            throw e;
+        }
+        pendingMessage.delivery.complete(Boolean.TRUE);
+        return pendingMessage.delivery;
+    }
+
+    @Override
+    public void confirm(final CorrelationData correlationData, final boolean ack, final String cause) {
+        if (correlationData == null) {
+            return;
+        }
+
+        final CompletableFuture<Boolean> confirmation = inFlight.remove(correlationData.getId());
+        if (confirmation == null) {
+            // already handled by the confirm timeout
+            return;
+        }
+
+        if (ack) {
+            confirmedCount.incrementAndGet();
+            LOGGER.debug("Message with {} confirmed by broker.", correlationData);
+        } else {
+            LOGGER.warn("Broker is unable to handle message with {} : {}", correlationData, cause);
+        }
+        confirmation.complete(ack);
+    }
+
+    private void publishQueuedMessages(final BlockingQueue<PendingMessage> partition) {
+        final List<PendingMessage> batch = new ArrayList<>(senderProperties.getBatchSize());
+        final Set<String> keys = new HashSet<>();
+        while (running) {
+            try {
+                final PendingMessage first = partition.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                keys.add(first.key);
+
+                // the batch ends before the second message of a thing, so that
+                // it is published after the first one has been confirmed
+                PendingMessage next;
+                while (batch.size() < senderProperties.getBatchSize() && (next = partition.peek()) != null
+                        && keys.add(next.key)) {
+                    batch.add(partition.poll());
+                }
+
+                deliver(batch);
+            } catch (final InterruptedException e) {
+                LOGGER.debug("DMF publisher interrupted.", e);
+                Thread.currentThread().interrupt();
+                batch.stream().filter(pendingMessage -> !pendingMessage.isConfirmed())
+                        .forEach(this::sendSynchronously);
+                return;
+            } finally {
+                batch.clear();
+                keys.clear();
+            }
+        }
+    }
+
+    /**
+     * Publishes the batch and publishes the failed messages of the batch again
+     * until all of them are confirmed, parked or dropped.
+     */
+    private void deliver(final List<PendingMessage> batch) throws InterruptedException {
+        List<PendingMessage> outstanding = batch;
+        while (!outstanding.isEmpty()) {
+            final List<PendingMessage> failed = new ArrayList<>();
+            for (final PendingMessage pendingMessage : outstanding) {
+                publish(pendingMessage);
+            }
+            for (final PendingMessage pendingMessage : outstanding) {
+                if (awaitConfirm(pendingMessage)) {
+                    pendingMessage.delivery.complete(Boolean.TRUE);
+                } else {
+                    failed.add(pendingMessage);
+                }
+            }
+
+            final List<PendingMessage> retried = new ArrayList<>(failed.size());
+            int attempts = 0;
+            for (final PendingMessage pendingMessage : failed) {
+                if (retry(pendingMessage)) {
+                    retried.add(pendingMessage);
+                    attempts = Math.max(attempts, pendingMessage.attempts);
+                } else {
+                    pendingMessage.delivery.complete(Boolean.FALSE);
+                }
+            }
+            if (!retried.isEmpty()) {
+                TimeUnit.MILLISECONDS.sleep(getRetryDelay(attempts));
+            }
+            outstanding = retried;
+        }
+    }
+
+    private void publish(final PendingMessage pendingMessage) throws InterruptedException {
+        inFlightPermits.acquire();
+        pendingMessage.correlationId = UUID.randomUUID().toString();
+        pendingMessage.confirmation = new CompletableFuture<>();
+        inFlight.put(pendingMessage.correlationId, pendingMessage.confirmation);
+
+        try {
+            LOGGER.debug("Sending message to exchange {} with correlationId {}", pendingMessage.exchange,
+                    pendingMessage.correlationId);
+            getRabbitTemplate().send(pendingMessage.getTargetExchange(), pendingMessage.getTargetRoutingKey(),
+                    pendingMessage.message, new CorrelationData(pendingMessage.correlationId));
+            publishedCount.incrementAndGet();
+        } catch (final AmqpException e) {
+            LOGGER.warn("Failed to send message to exchange {}", pendingMessage.getTargetExchange(), e);
+            inFlight.remove(pendingMessage.correlationId);
+            pendingMessage.confirmation.complete(false);
+            return;
+        }
+
+        if (!confirmsEnabled) {
+            confirm(new CorrelationData(pendingMessage.correlationId), true, null);
+        }
+    }
+
+    private boolean awaitConfirm(final PendingMessage pendingMessage) throws InterruptedException {
+        try {
+            return pendingMessage.confirmation.get(senderProperties.getConfirmTimeout(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("Message with correlationId {} not confirmed in time.", pendingMessage.correlationId);
+            inFlight.remove(pendingMessage.correlationId);
+            return false;
+        } catch (final ExecutionException e) {
+            LOGGER.warn("Confirmation of message with correlationId {} failed.", pendingMessage.correlationId, e);
+            return false;
+        } finally {
+            inFlightPermits.release();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the message has to be published again,
+     *         <code>false</code> if it has been dropped as it could neither be
+     *         published to its exchange nor to the parking queue
+     */
+    private boolean retry(final PendingMessage pendingMessage) {
+        pendingMessage.attempts++;
+        if (pendingMessage.attempts > senderProperties.getMaxRetries()) {
+            if (pendingMessage.isParked()) {
+                LOGGER.error("Dropping DMF message to exchange {} after {} attempts to move it to parking queue {}.",
+                        pendingMessage.exchange, pendingMessage.attempts, senderProperties.getParkingQueue());
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            LOGGER.error("Moving DMF message to exchange {} to parking queue {} after {} attempts.",
+                    pendingMessage.exchange, senderProperties.getParkingQueue(), pendingMessage.attempts);
+            pendingMessage.park(senderProperties.getParkingQueue());
+            parkedCount.incrementAndGet();
+        }
+        retriedCount.incrementAndGet();
+        return true;
+    }
+
+    private long getRetryDelay(final int attempts) {
+        final long delay = senderProperties.getRetryDelay() << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(delay, senderProperties.getMaxRetryDelay());
+    }
+
+    private void sendSynchronously(final PendingMessage pendingMessage) {
+        try {
+            getRabbitTemplate().send(pendingMessage.getTargetExchange(), pendingMessage.getTargetRoutingKey(),
+                    pendingMessage.message, new CorrelationData(UUID.randomUUID().toString()));
+        } catch (final RuntimeException e) {
+            pendingMessage.delivery.complete(Boolean.FALSE);
+            throw e;
+        }
+        pendingMessage.delivery.complete(Boolean.TRUE);
+    }
+
+    /**
+     * Stops the publisher threads and sends the remaining queued messages
+     * synchronously.
+     */
+    public void shutdown() {
+        running = false;
+        publisherExecutor.shutdown();
+        try {
+            if (!publisherExecutor.awaitTermination(POLL_TIMEOUT * 2, TimeUnit.MILLISECONDS)) {
+                publisherExecutor.shutdownNow();
+                publisherExecutor.awaitTermination(POLL_TIMEOUT * 2, TimeUnit.MILLISECONDS);
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Shutdown of DMF publisher interrupted!", e);
+            Thread.currentThread().interrupt();
+        }
+
+        partitions.forEach(partition -> {
+            final List<PendingMessage> remaining = new ArrayList<>(partition.size());
+            partition.drainTo(remaining);
+            remaining.forEach(this::sendSynchronously);
+        });
+    }
+
+    @ManagedAttribute(description = "Number of messages waiting to be published")
+    public int getQueueSize() {
+        return partitions.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    @ManagedAttribute(description = "Number of published but not yet confirmed messages")
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @ManagedAttribute(description = "Total number of published messages")
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of confirmed messages")
+    public long getConfirmedCount() {
+        return confirmedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of messages that have been published again")
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of messages that have been moved to the parking queue")
+    public long getParkedCount() {
+        return parkedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of messages that could not be moved to the parking queue either")
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private static final class PendingMessage {
+        private final Message message;
+        private final String exchange;
+        private final String key;
+        private final CompletableFuture<Boolean> delivery = new CompletableFuture<>();
+        private String parkingQueue;
+        private int attempts;
+        private String correlationId;
+        private CompletableFuture<Boolean> confirmation;
+
+        private PendingMessage(final Message message, final String exchange) {
+            this.message = message;
+            this.exchange = exchange;
+            final Object thingId = message.getMessageProperties().getHeaders().get(MessageHeaderKey.THING_ID);
+            this.key = thingId != null ? exchange + '/' + thingId : exchange;
+        }
+
+        private void park(final String parkingQueue) {
+            this.parkingQueue = parkingQueue;
+            this.attempts = 0;
+            message.getMessageProperties().setHeader(EXCHANGE_HEADER, exchange);
+        }
+
+        private boolean isConfirmed() {
+            return confirmation != null && confirmation.getNow(Boolean.FALSE);
+        }
+
+        private boolean isParked() {
+            return parkingQueue != null;
+        }
+
+        private String getTargetExchange() {
+            return isParked() ? DEFAULT_EXCHANGE : exchange;
+        }
+
+        private String getTargetRoutingKey() {
+            return parkingQueue;
+        }
+    }
+}
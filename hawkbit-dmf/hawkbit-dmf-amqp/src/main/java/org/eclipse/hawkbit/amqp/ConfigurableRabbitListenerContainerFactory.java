@@ -8,9 +8,14 @@
  */
 package org.eclipse.hawkbit.amqp;
 
+import java.util.Arrays;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -21,6 +26,8 @@ import org.springframework.util.ErrorHandler;
 public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitListenerContainerFactory {
     private final int declarationRetries;
 
+    private Advice[] adviceChain = new Advice[0];
+
     /**
      * Constructor.
      * 
@@ -40,6 +47,37 @@ public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitList
         setMissingQueuesFatal(missingQueuesFatal);
     }
 
+    @Override
+    public void setAdviceChain(final Advice... adviceChain) {
+        this.adviceChain = adviceChain;
+        super.setAdviceChain(adviceChain);
+    }
+
+    /**
+     * Appends an advice to the advice chain of the containers, e.g. to the
+     * retry advice set by the spring.rabbitmq.listener properties.
+     *
+     * @param advice
+     *            to append
+     */
+    public void addAdvice(final Advice advice) {
+        final Advice[] chain = Arrays.copyOf(adviceChain, adviceChain.length + 1);
+        chain[adviceChain.length] = advice;
+        setAdviceChain(chain);
+    }
+
+    /**
+     * Appends an advice that hands messages whose processing failed to a
+     * recoverer instead of the error handler. The message is acknowledged if
+     * the recoverer returns normally.
+     *
+     * @param recoverer
+     *            to hand the failed messages to
+     */
+    public void addMessageRecoverer(final MessageRecoverer recoverer) {
+        addAdvice(RetryInterceptorBuilder.stateless().maxAttempts(1).recoverer(recoverer).build());
+    }
+
     @Override
     // Exception squid:UnusedProtectedMethod - called by
     // AbstractRabbitListenerContainerFactory
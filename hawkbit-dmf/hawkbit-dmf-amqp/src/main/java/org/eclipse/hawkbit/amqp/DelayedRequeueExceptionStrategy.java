@@ -46,7 +46,7 @@ public class DelayedRequeueExceptionStrategy extends ConditionalRejectingErrorHa
 
     @Override
     protected boolean isUserCauseFatal(final Throwable cause) {
-        if (invalidMessage(cause)) {
+        if (isInvalidMessage(cause)) {
             return true;
         }
 
@@ -62,23 +62,31 @@ public class DelayedRequeueExceptionStrategy extends ConditionalRejectingErrorHa
         return false;
     }
 
-    private boolean invalidMessage(final Throwable cause) {
+    /**
+     * Checks if a message can never be processed successfully, i.e. it makes
+     * no sense to retry it.
+     *
+     * @param cause
+     *            of the failed processing
+     * @return <code>true</code> if the message is invalid
+     */
+    static boolean isInvalidMessage(final Throwable cause) {
         return doesNotExist(cause) || quotaHit(cause) || invalidContent(cause) || invalidState(cause);
     }
 
-    private boolean invalidState(final Throwable cause) {
+    private static boolean invalidState(final Throwable cause) {
         return cause instanceof CancelActionNotAllowedException;
     }
 
-    private boolean quotaHit(final Throwable cause) {
+    private static boolean quotaHit(final Throwable cause) {
         return cause instanceof QuotaExceededException;
     }
 
-    private boolean doesNotExist(final Throwable cause) {
+    private static boolean doesNotExist(final Throwable cause) {
         return cause instanceof TenantNotExistException || cause instanceof EntityNotFoundException;
     }
 
-    private boolean invalidContent(final Throwable cause) {
+    private static boolean invalidContent(final Throwable cause) {
         return cause instanceof ConstraintViolationException || cause instanceof InvalidTargetAddressException
                 || cause instanceof MessageConversionException || cause instanceof MessageHandlingException;
     }
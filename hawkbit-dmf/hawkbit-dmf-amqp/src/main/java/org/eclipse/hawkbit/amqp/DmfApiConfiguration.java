@@ -17,7 +17,7 @@ import org.springframework.context.annotation.Import;
  */
 @Configuration
 @ComponentScan
-@Import(AmqpConfiguration.class)
+@Import({ AmqpConfiguration.class, AmqpShardingConfiguration.class, AmqpRetryConfiguration.class })
 public class DmfApiConfiguration {
 
 }
@@ -0,0 +1,418 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.SoftwareModuleDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Cache for download authentication requests of the
+ * {@link AmqpAuthenticationMessageHandler}. During a rollout all targets ask
+ * for the same artifacts, so the artifact metadata per SHA1 and the decision
+ * if a target is permitted to download an artifact are kept for a short time.
+ *
+ * A target is permitted to download an artifact if it has been assigned to
+ * the target once. The decision can only change by a new assignment, the
+ * deletion of the target or a change of the artifacts of a software module.
+ * The corresponding events evict the affected entries only, which are found
+ * by an index of the decisions per target and per artifact. The artifacts of
+ * a software module are taken from the update event and from the artifacts
+ * the cache has been loaded with, so removed artifacts are evicted as well.
+ */
+public class DmfDownloadAuthorizationCache {
+
+    private final Cache<DecisionKey, Boolean> decisions;
+
+    private final Cache<ArtifactKey, DmfArtifact> artifacts;
+
+    private final Cache<ModuleKey, Set<String>> moduleArtifacts;
+
+    private final ConcurrentMap<DecisionKey, Set<DecisionKey>> decisionsByTarget = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<ArtifactKey, Set<DecisionKey>> decisionsByArtifact = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *            maximum number of cached decisions
+     * @param ttl
+     *            in {@link TimeUnit#MILLISECONDS} after which a decision or
+     *            artifact metadata is retrieved again
+     */
+    public DmfDownloadAuthorizationCache(final long maxSize, final long ttl) {
+        decisions = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .<DecisionKey, Boolean> removalListener(this::onDecisionRemoval).build();
+        artifacts = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .build();
+        // outlives the decisions as removed artifacts are known from here only
+        moduleArtifacts = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the metadata of an artifact.
+     *
+     * @param tenant
+     *            the artifact belongs to
+     * @param sha1Hash
+     *            of the artifact
+     * @param loader
+     *            to retrieve the metadata if it is not cached
+     * @return the artifact metadata
+     */
+    DmfArtifact getArtifact(final String tenant, final String sha1Hash, final Supplier<DmfArtifact> loader) {
+        final ArtifactKey key = new ArtifactKey(tenant, sha1Hash);
+        final DmfArtifact cached = artifacts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final DmfArtifact artifact = loader.get();
+        artifacts.put(key, artifact);
+        return artifact;
+    }
+
+    /**
+     * Remembers that an artifact belongs to a software module, so the
+     * decisions on the artifact are evicted if it is removed from the module.
+     *
+     * @param tenant
+     *            the software module belongs to
+     * @param moduleId
+     *            of the software module
+     * @param sha1Hash
+     *            of the artifact
+     */
+    void addModuleArtifact(final String tenant, final Long moduleId, final String sha1Hash) {
+        moduleArtifacts.asMap().compute(new ModuleKey(tenant, moduleId), (key, sha1Hashes) -> {
+            final Set<String> added = sha1Hashes == null ? new HashSet<>() : new HashSet<>(sha1Hashes);
+            added.add(sha1Hash);
+            return added;
+        });
+    }
+
+    /**
+     * Checks if an artifact is assigned to a target identified by its
+     * controller ID.
+     *
+     * @param tenant
+     *            the target belongs to
+     * @param controllerId
+     *            of the target
+     * @param sha1Hash
+     *            of the artifact
+     * @param check
+     *            to decide if the decision is not cached
+     * @return <code>true</code> if the artifact is assigned to the target
+     */
+    boolean isArtifactAssigned(final String tenant, final String controllerId, final String sha1Hash,
+            final BooleanSupplier check) {
+        final DecisionKey key = new DecisionKey(tenant, controllerId, null, sha1Hash);
+        final Boolean cached = decisions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean assigned = check.getAsBoolean();
+        putDecision(key, assigned);
+        return assigned;
+    }
+
+    /**
+     * Checks if an artifact is assigned to a target identified by its ID.
+     * Only positive decisions are cached as assignment events do not contain
+     * the target ID.
+     *
+     * @param tenant
+     *            the target belongs to
+     * @param targetId
+     *            of the target
+     * @param sha1Hash
+     *            of the artifact
+     * @param check
+     *            to decide if the decision is not cached
+     * @return <code>true</code> if the artifact is assigned to the target
+     */
+    boolean isArtifactAssigned(final String tenant, final Long targetId, final String sha1Hash,
+            final BooleanSupplier check) {
+        final DecisionKey key = new DecisionKey(tenant, null, targetId, sha1Hash);
+        if (decisions.getIfPresent(key) != null) {
+            return true;
+        }
+
+        final boolean assigned = check.getAsBoolean();
+        if (assigned) {
+            putDecision(key, Boolean.TRUE);
+        }
+        return assigned;
+    }
+
+    private void putDecision(final DecisionKey key, final Boolean assigned) {
+        // indexed first, so that the removal listener always finds the key
+        index(decisionsByTarget, key.getTarget(), key);
+        index(decisionsByArtifact, key.getArtifact(), key);
+        decisions.put(key, assigned);
+    }
+
+    private void onDecisionRemoval(final RemovalNotification<DecisionKey, Boolean> notification) {
+        if (notification.getCause() == RemovalCause.REPLACED) {
+            return;
+        }
+        final DecisionKey key = notification.getKey();
+        unindex(decisionsByTarget, key.getTarget(), key);
+        unindex(decisionsByArtifact, key.getArtifact(), key);
+    }
+
+    private static <I> void index(final ConcurrentMap<I, Set<DecisionKey>> index, final I indexKey,
+            final DecisionKey key) {
+        index.compute(indexKey, (k, keys) -> {
+            final Set<DecisionKey> indexed = keys == null ? new HashSet<>() : keys;
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private static <I> void unindex(final ConcurrentMap<I, Set<DecisionKey>> index, final I indexKey,
+            final DecisionKey key) {
+        index.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private <I> void evict(final ConcurrentMap<I, Set<DecisionKey>> index, final I indexKey) {
+        final Set<DecisionKey> keys = index.remove(indexKey);
+        if (keys != null) {
+            decisions.invalidateAll(keys);
+        }
+    }
+
+    private void evictTarget(final String tenant, final String controllerId, final Long targetId) {
+        if (controllerId != null) {
+            evict(decisionsByTarget, new DecisionKey(tenant, controllerId, null, null));
+        }
+        if (targetId != null) {
+            evict(decisionsByTarget, new DecisionKey(tenant, null, targetId, null));
+        }
+    }
+
+    private void evictArtifact(final String tenant, final String sha1Hash) {
+        final ArtifactKey key = new ArtifactKey(tenant, sha1Hash);
+        evict(decisionsByArtifact, key);
+        artifacts.invalidate(key);
+    }
+
+    /**
+     * Evicts the decisions of a target that got a new assignment.
+     *
+     * @param event
+     *            the assignment event
+     */
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    public void evictAssignedTarget(final TargetAssignDistributionSetEvent event) {
+        evictTarget(event.getTenant(), event.getControllerId(), null);
+    }
+
+    /**
+     * Evicts the decisions of targets that got a new assignment at once.
+     *
+     * @param event
+     *            the bulk assignment event
+     */
+    @EventListener(classes = BulkTargetAssignDistributionSetEvent.class)
+    public void evictAssignedTargets(final BulkTargetAssignDistributionSetEvent event) {
+        event.getActions().keySet().forEach(controllerId -> evictTarget(event.getTenant(), controllerId, null));
+    }
+
+    /**
+     * Evicts the decisions of a deleted target.
+     *
+     * @param event
+     *            the deletion event
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void evictDeletedTarget(final TargetDeletedEvent event) {
+        evictTarget(event.getTenant(), event.getControllerId(), event.getEntityId());
+    }
+
+    /**
+     * Evicts the decisions of targets that were deleted at once.
+     *
+     * @param event
+     *            the bulk deletion event
+     */
+    @EventListener(classes = BulkTargetDeletedEvent.class)
+    public void evictDeletedTargets(final BulkTargetDeletedEvent event) {
+        event.getControllerIds()
+                .forEach((targetId, controllerId) -> evictTarget(event.getTenant(), controllerId, targetId));
+    }
+
+    /**
+     * Evicts the decisions and metadata of the current and former artifacts
+     * of an updated software module.
+     *
+     * @param event
+     *            the update event
+     */
+    @EventListener(classes = SoftwareModuleUpdatedEvent.class)
+    public void evictUpdatedSoftwareModule(final SoftwareModuleUpdatedEvent event) {
+        final ModuleKey key = new ModuleKey(event.getTenant(), event.getEntityId());
+        final Set<String> sha1Hashes = new HashSet<>();
+        final Set<String> known = moduleArtifacts.getIfPresent(key);
+        if (known != null) {
+            sha1Hashes.addAll(known);
+        }
+        final SoftwareModule module = event.getEntity();
+        if (module != null) {
+            final Set<String> current = module.getArtifacts().stream().map(Artifact::getSha1Hash)
+                    .collect(Collectors.toSet());
+            sha1Hashes.addAll(current);
+            moduleArtifacts.put(key, current);
+        }
+        sha1Hashes.forEach(sha1Hash -> evictArtifact(event.getTenant(), sha1Hash));
+    }
+
+    /**
+     * Evicts the decisions and metadata of the artifacts of a deleted software
+     * module.
+     *
+     * @param event
+     *            the deletion event
+     */
+    @EventListener(classes = SoftwareModuleDeletedEvent.class)
+    public void evictDeletedSoftwareModule(final SoftwareModuleDeletedEvent event) {
+        final ModuleKey key = new ModuleKey(event.getTenant(), event.getEntityId());
+        final Set<String> known = moduleArtifacts.getIfPresent(key);
+        moduleArtifacts.invalidate(key);
+        if (known != null) {
+            known.forEach(sha1Hash -> evictArtifact(event.getTenant(), sha1Hash));
+        }
+    }
+
+    private static final class ModuleKey {
+        private final String tenant;
+        private final Long moduleId;
+
+        private ModuleKey(final String tenant, final Long moduleId) {
+            this.tenant = tenant.toUpperCase();
+            this.moduleId = moduleId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, moduleId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ModuleKey other = (ModuleKey) obj;
+            return tenant.equals(other.tenant) && Objects.equals(moduleId, other.moduleId);
+        }
+    }
+
+    private static final class ArtifactKey {
+        private final String tenant;
+        private final String sha1Hash;
+
+        private ArtifactKey(final String tenant, final String sha1Hash) {
+            this.tenant = tenant.toUpperCase();
+            this.sha1Hash = sha1Hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, sha1Hash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ArtifactKey other = (ArtifactKey) obj;
+            return tenant.equals(other.tenant) && sha1Hash.equals(other.sha1Hash);
+        }
+    }
+
+    /**
+     * Key of a decision or, without SHA1, of all decisions of a target.
+     */
+    private static final class DecisionKey {
+        private final String tenant;
+        private final String controllerId;
+        private final Long targetId;
+        private final String sha1Hash;
+
+        private DecisionKey(final String tenant, final String controllerId, final Long targetId,
+                final String sha1Hash) {
+            this.tenant = tenant.toUpperCase();
+            this.controllerId = controllerId;
+            this.targetId = targetId;
+            this.sha1Hash = sha1Hash;
+        }
+
+        private DecisionKey getTarget() {
+            return new DecisionKey(tenant, controllerId, targetId, null);
+        }
+
+        private ArtifactKey getArtifact() {
+            return new ArtifactKey(tenant, sha1Hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId, targetId, sha1Hash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final DecisionKey other = (DecisionKey) obj;
+            return tenant.equals(other.tenant) && Objects.equals(controllerId, other.controllerId)
+                    && Objects.equals(targetId, other.targetId) && Objects.equals(sha1Hash, other.sha1Hash);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Message converter for DMF messages that selects the encoding by the
+ * content_type of the message. JSON is the default, CBOR and Smile are
+ * supported as compact binary encodings if enabled by
+ * {@link AmqpEncodingProperties}.
+ */
+public class DmfMessageConverter extends ContentTypeDelegatingMessageConverter {
+
+    /**
+     * Content type of CBOR encoded messages.
+     */
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    /**
+     * Content type of Smile encoded messages.
+     */
+    public static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+
+    private final Set<String> binaryContentTypes = new HashSet<>();
+
+    private final String defaultContentType;
+
+    /**
+     * Constructor.
+     *
+     * @param encodingProperties
+     *            to configure the supported encodings
+     */
+    public DmfMessageConverter(final AmqpEncodingProperties encodingProperties) {
+        super(new Jackson2JsonMessageConverter());
+
+        if (encodingProperties.isEnabled()) {
+            addBinaryDelegate(CONTENT_TYPE_CBOR, new ObjectMapper(new CBORFactory()));
+            addBinaryDelegate(CONTENT_TYPE_SMILE, new ObjectMapper(new SmileFactory()));
+        }
+
+        defaultContentType = isSupported(encodingProperties.getDefaultContentType())
+                ? encodingProperties.getDefaultContentType() : MessageProperties.CONTENT_TYPE_JSON;
+    }
+
+    private void addBinaryDelegate(final String contentType, final ObjectMapper objectMapper) {
+        addDelegate(contentType, new JacksonBinaryMessageConverter(objectMapper, contentType));
+        binaryContentTypes.add(contentType);
+    }
+
+    /**
+     * @param contentType
+     *            of a message
+     * @return <code>true</code> if messages with the given content type can be
+     *         converted
+     */
+    public boolean isSupported(final String contentType) {
+        return contentType != null && (contentType.contains("json") || binaryContentTypes.contains(contentType));
+    }
+
+    /**
+     * @return the content type of messages that are sent by hawkBit without a
+     *         request of the device
+     */
+    public String getDefaultContentType() {
+        return defaultContentType;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+
+/**
+ * Management endpoint of the DMF parking queue, i.e. the queue for messages
+ * that failed after the last retry (see {@link DmfRetryMessageRecoverer}).
+ * The parked messages can be inspected and replayed onto the queue they have
+ * been received from, e.g. after the cause of the failure has been fixed.
+ */
+@ManagedResource(description = "DMF parking queue")
+public class DmfParkingQueueManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DmfParkingQueueManager.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final RabbitAdmin rabbitAdmin;
+
+    private final String parkingQueue;
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            to access the parking queue
+     * @param rabbitAdmin
+     *            to retrieve the queue depth
+     * @param parkingQueue
+     *            name of the parking queue
+     */
+    public DmfParkingQueueManager(final RabbitTemplate rabbitTemplate, final RabbitAdmin rabbitAdmin,
+            final String parkingQueue) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.rabbitAdmin = rabbitAdmin;
+        this.parkingQueue = parkingQueue;
+    }
+
+    /**
+     * @return number of parked messages, -1 if not available
+     */
+    @ManagedAttribute(description = "Number of parked messages, -1 if not available")
+    public long getMessageCount() {
+        final Properties queueProperties = rabbitAdmin.getQueueProperties(parkingQueue);
+        if (queueProperties == null || queueProperties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT) == null) {
+            return -1;
+        }
+        return ((Number) queueProperties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue();
+    }
+
+    /**
+     * Returns a summary of the oldest parked messages without removing them
+     * from the queue.
+     *
+     * @param max
+     *            number of messages
+     * @return one line per message with the original queue, the DMF headers
+     *         and the exception of the last attempt
+     */
+    @ManagedOperation(description = "Lists the oldest parked messages")
+    @ManagedOperationParameters({ @ManagedOperationParameter(name = "max", description = "Number of messages") })
+    public List<String> inspect(final int max) {
+        return rabbitTemplate.execute(channel -> {
+            final List<String> messages = new ArrayList<>(max);
+            long lastDeliveryTag = -1;
+            for (int i = 0; i < max; i++) {
+                final GetResponse response = channel.basicGet(parkingQueue, false);
+                if (response == null) {
+                    break;
+                }
+                lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+                messages.add(summarize(response.getProps()));
+            }
+            if (lastDeliveryTag >= 0) {
+                // return the messages in their order
+                channel.basicNack(lastDeliveryTag, true, true);
+            }
+            return messages;
+        });
+    }
+
+    /**
+     * Moves the oldest parked messages back to the queue they have been
+     * received from. The retry count is reset.
+     *
+     * @param max
+     *            number of messages
+     * @return number of replayed messages
+     */
+    @ManagedOperation(description = "Replays the oldest parked messages onto their original queue")
+    @ManagedOperationParameters({ @ManagedOperationParameter(name = "max", description = "Number of messages") })
+    public int replay(final int max) {
+        final int replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            for (; count < max; count++) {
+                final GetResponse response = channel.basicGet(parkingQueue, false);
+                if (response == null) {
+                    break;
+                }
+
+                final AMQP.BasicProperties props = response.getProps();
+                final Map<String, Object> headers = props.getHeaders() == null ? new HashMap<>()
+                        : new HashMap<>(props.getHeaders());
+                final Object originalQueue = headers.remove(DmfRetryMessageRecoverer.ORIGINAL_QUEUE_HEADER);
+                if (originalQueue == null) {
+                    // not parked by the recoverer, leave it for manual
+                    // inspection
+                    channel.basicNack(response.getEnvelope().getDeliveryTag(), false, true);
+                    break;
+                }
+                headers.remove(DmfRetryMessageRecoverer.RETRY_COUNT_HEADER);
+                headers.remove(DmfRetryMessageRecoverer.EXCEPTION_HEADER);
+
+                channel.basicPublish("", originalQueue.toString(), props.builder().headers(headers).build(),
+                        response.getBody());
+                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+            }
+            return count;
+        });
+        LOGGER.info("Replayed {} messages from {}", replayed, parkingQueue);
+        return replayed;
+    }
+
+    private static String summarize(final AMQP.BasicProperties props) {
+        final Map<String, Object> headers = props.getHeaders() == null ? new HashMap<>() : props.getHeaders();
+        return String.format("queue=%s, type=%s, topic=%s, tenant=%s, thingId=%s, exception=%s",
+                headers.get(DmfRetryMessageRecoverer.ORIGINAL_QUEUE_HEADER), headers.get(MessageHeaderKey.TYPE),
+                headers.get(MessageHeaderKey.TOPIC), headers.get(MessageHeaderKey.TENANT),
+                headers.get(MessageHeaderKey.THING_ID), headers.get(DmfRetryMessageRecoverer.EXCEPTION_HEADER));
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.Base62Util;
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
+import org.eclipse.hawkbit.repository.event.remote.SoftwareModuleDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.context.event.EventListener;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache for the serialized body of DOWNLOAD_AND_INSTALL messages. The body is
+ * built once per tenant, set of software modules (i.e. distribution set),
+ * content type and {@link ArtifactUrlHandler} with placeholder values for the
+ * target specific fields. The template is split at the placeholders into
+ * literal parts and slots, so for every target only the action ID, security
+ * token, controller ID and target ID are filled into the slots.
+ *
+ * The template is built with two different sets of placeholder values that
+ * have to result in the same parts and slots, i.e. a placeholder value that
+ * also occurs by chance in the payload is detected. As
+ * {@link ArtifactUrlHandler} implementations are free in how they use the
+ * target values, the template is verified against a regular build for the
+ * first target as well. If any of these checks fail the body is built for
+ * every target as before.
+ *
+ * Only JSON bodies are templated, as binary encodings prefix strings with
+ * their length. Targets whose controller ID contains characters that might be
+ * encoded in an URL are built regularly as well.
+ */
+public class DmfPayloadTemplateCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DmfPayloadTemplateCache.class);
+
+    private static final Pattern TEMPLATE_CONTROLLER_ID = Pattern.compile("[A-Za-z0-9._~-]+");
+
+    private static final Placeholders FIRST_PLACEHOLDERS = new Placeholders("dmfTemplateControllerIdA",
+            7_346_019_582_913_407L, 8_163_274_950_118_293L, "dmfTemplateSecurityTokenA");
+
+    private static final Placeholders SECOND_PLACEHOLDERS = new Placeholders("dmfTemplateControllerIdB",
+            6_219_485_730_264_811L, 9_052_371_846_530_127L, "dmfTemplateSecurityTokenB");
+
+    private static final PayloadTemplate NOT_APPLICABLE = new PayloadTemplate(Collections.emptyList(),
+            Collections.emptyList(), null);
+
+    private final Cache<TemplateKey, PayloadTemplate> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *            maximum number of cached templates
+     * @param ttl
+     *            in {@link TimeUnit#MILLISECONDS} after which a template is
+     *            built again
+     */
+    public DmfPayloadTemplateCache(final long maxSize, final long ttl) {
+        cache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Returns the DOWNLOAD_AND_INSTALL message for the given target.
+     *
+     * @param key
+     *            of the template
+     * @param target
+     *            the message is addressed to
+     * @param actionId
+     *            of the assignment
+     * @param targetSecurityToken
+     *            of the target
+     * @param messageProperties
+     *            of the message to the target
+     * @param converter
+     *            to build the message for given target specific values
+     * @return the message for the target
+     */
+    Message getDownloadAndUpdateMessage(final TemplateKey key, final Target target, final Long actionId,
+            final String targetSecurityToken, final MessageProperties messageProperties,
+            final DownloadAndUpdateConverter converter) {
+        if (actionId == null || targetSecurityToken == null || !isJson(key.contentType)
+                || !TEMPLATE_CONTROLLER_ID.matcher(target.getControllerId()).matches()) {
+            return converter.convert(target.getControllerId(), target.getId(), actionId, targetSecurityToken,
+                    messageProperties);
+        }
+
+        final PayloadTemplate template = cache.getIfPresent(key);
+        if (template == null) {
+            return buildTemplate(key, target, actionId, targetSecurityToken, messageProperties, converter);
+        }
+        if (template == NOT_APPLICABLE) {
+            return converter.convert(target.getControllerId(), target.getId(), actionId, targetSecurityToken,
+                    messageProperties);
+        }
+        return template.render(getValues(target.getControllerId(), target.getId(), actionId, targetSecurityToken),
+                messageProperties);
+    }
+
+    private static boolean isJson(final String contentType) {
+        return contentType != null && contentType.contains("json");
+    }
+
+    private Message buildTemplate(final TemplateKey key, final Target target, final Long actionId,
+            final String targetSecurityToken, final MessageProperties messageProperties,
+            final DownloadAndUpdateConverter converter) {
+        final Message message = converter.convert(target.getControllerId(), target.getId(), actionId,
+                targetSecurityToken, messageProperties);
+        final PayloadTemplate template = compile(key, FIRST_PLACEHOLDERS, converter);
+
+        if (template.isSameAs(compile(key, SECOND_PLACEHOLDERS, converter))
+                && Arrays.equals(message.getBody(), template.render(
+                        getValues(target.getControllerId(), target.getId(), actionId, targetSecurityToken)))) {
+            cache.put(key, template);
+        } else {
+            LOG.debug("DOWNLOAD_AND_INSTALL messages of tenant {} cannot be built from a template.", key.tenant);
+            cache.put(key, NOT_APPLICABLE);
+        }
+
+        return message;
+    }
+
+    private static PayloadTemplate compile(final TemplateKey key, final Placeholders placeholders,
+            final DownloadAndUpdateConverter converter) {
+        final MessageProperties templateProperties = new MessageProperties();
+        templateProperties.setContentType(key.contentType);
+        final Message templateMessage = converter.convert(placeholders.controllerId, placeholders.targetId,
+                placeholders.actionId, placeholders.targetSecurityToken, templateProperties);
+        final Charset charset = getCharset(templateMessage.getMessageProperties());
+        final String body = new String(templateMessage.getBody(), charset);
+
+        final List<String> literals = new ArrayList<>();
+        final List<Slot> slots = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        while (index < body.length()) {
+            final Map.Entry<String, Slot> placeholder = placeholders.findAt(body, index);
+            if (placeholder == null) {
+                index++;
+                continue;
+            }
+            literals.add(body.substring(literalStart, index));
+            slots.add(placeholder.getValue());
+            index += placeholder.getKey().length();
+            literalStart = index;
+        }
+        literals.add(body.substring(literalStart));
+
+        return new PayloadTemplate(literals, slots, templateMessage.getMessageProperties());
+    }
+
+    private static Charset getCharset(final MessageProperties messageProperties) {
+        return messageProperties.getContentEncoding() == null ? StandardCharsets.UTF_8
+                : Charset.forName(messageProperties.getContentEncoding());
+    }
+
+    private static Map<Slot, String> getValues(final String controllerId, final Long targetId, final Long actionId,
+            final String targetSecurityToken) {
+        final Map<Slot, String> values = new EnumMap<>(Slot.class);
+        values.put(Slot.CONTROLLER_ID, controllerId);
+        values.put(Slot.TARGET_ID, String.valueOf(targetId));
+        values.put(Slot.TARGET_ID_BASE62, Base62Util.fromBase10(targetId));
+        values.put(Slot.ACTION_ID, String.valueOf(actionId));
+        values.put(Slot.TARGET_SECURITY_TOKEN,
+                String.valueOf(JsonStringEncoder.getInstance().quoteAsString(targetSecurityToken)));
+        return values;
+    }
+
+    /**
+     * Evicts the templates that contain an updated or deleted software
+     * module.
+     *
+     * @param event
+     *            the {@link SoftwareModuleUpdatedEvent} or
+     *            {@link SoftwareModuleDeletedEvent}
+     */
+    @EventListener(classes = { SoftwareModuleUpdatedEvent.class, SoftwareModuleDeletedEvent.class })
+    public void evictSoftwareModule(final RemoteIdEvent event) {
+        cache.asMap().keySet().removeIf(key -> key.contains(event.getTenant(), event.getEntityId()));
+    }
+
+    /**
+     * Builds a DOWNLOAD_AND_INSTALL message for the given target specific
+     * values.
+     */
+    @FunctionalInterface
+    interface DownloadAndUpdateConverter {
+        Message convert(String controllerId, Long targetId, Long actionId, String targetSecurityToken,
+                MessageProperties messageProperties);
+    }
+
+    /**
+     * Target specific fields of a DOWNLOAD_AND_INSTALL message.
+     */
+    private enum Slot {
+        CONTROLLER_ID, TARGET_ID, TARGET_ID_BASE62, ACTION_ID, TARGET_SECURITY_TOKEN
+    }
+
+    private static final class Placeholders {
+        private final String controllerId;
+        private final Long targetId;
+        private final Long actionId;
+        private final String targetSecurityToken;
+        private final Map<String, Slot> slots = new HashMap<>();
+
+        private Placeholders(final String controllerId, final Long targetId, final Long actionId,
+                final String targetSecurityToken) {
+            this.controllerId = controllerId;
+            this.targetId = targetId;
+            this.actionId = actionId;
+            this.targetSecurityToken = targetSecurityToken;
+            getValues(controllerId, targetId, actionId, targetSecurityToken)
+                    .forEach((slot, value) -> slots.put(value, slot));
+        }
+
+        /**
+         * @return the longest placeholder that starts at the given index of
+         *         the body or <code>null</code>
+         */
+        private Map.Entry<String, Slot> findAt(final String body, final int index) {
+            Map.Entry<String, Slot> found = null;
+            for (final Map.Entry<String, Slot> placeholder : slots.entrySet()) {
+                if (body.startsWith(placeholder.getKey(), index)
+                        && (found == null || placeholder.getKey().length() > found.getKey().length())) {
+                    found = placeholder;
+                }
+            }
+            return found;
+        }
+    }
+
+    private static final class PayloadTemplate {
+        private final List<String> literals;
+        private final List<Slot> slots;
+        private final Charset charset;
+        private final String contentEncoding;
+        private final Map<String, Object> headers;
+
+        private PayloadTemplate(final List<String> literals, final List<Slot> slots,
+                final MessageProperties templateProperties) {
+            this.literals = literals;
+            this.slots = slots;
+            if (templateProperties == null) {
+                charset = StandardCharsets.UTF_8;
+                contentEncoding = null;
+                headers = Collections.emptyMap();
+            } else {
+                charset = getCharset(templateProperties);
+                contentEncoding = templateProperties.getContentEncoding();
+                headers = new HashMap<>(templateProperties.getHeaders());
+            }
+        }
+
+        private boolean isSameAs(final PayloadTemplate other) {
+            return literals.equals(other.literals) && slots.equals(other.slots);
+        }
+
+        private byte[] render(final Map<Slot, String> values) {
+            final StringBuilder body = new StringBuilder();
+            for (int i = 0; i < slots.size(); i++) {
+                body.append(literals.get(i)).append(values.get(slots.get(i)));
+            }
+            body.append(literals.get(literals.size() - 1));
+            return body.toString().getBytes(charset);
+        }
+
+        private Message render(final Map<Slot, String> values, final MessageProperties messageProperties) {
+            final byte[] body = render(values);
+            headers.forEach(messageProperties::setHeader);
+            messageProperties.setContentEncoding(contentEncoding);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+    }
+
+    /**
+     * Identifies the DOWNLOAD_AND_INSTALL messages that share a template.
+     */
+    static final class TemplateKey {
+        private final String tenant;
+        private final Set<Long> moduleIds;
+        private final String contentType;
+        private final ArtifactUrlHandler urlHandler;
+
+        /**
+         * Constructor.
+         *
+         * @param tenant
+         *            the modules belong to
+         * @param modules
+         *            to be installed
+         * @param contentType
+         *            the message is encoded with
+         * @param urlHandler
+         *            that builds the artifact URLs
+         */
+        TemplateKey(final String tenant, final Collection<SoftwareModule> modules, final String contentType,
+                final ArtifactUrlHandler urlHandler) {
+            this.tenant = tenant.toUpperCase();
+            this.moduleIds = modules.stream().map(SoftwareModule::getId).collect(Collectors.toSet());
+            this.contentType = contentType;
+            this.urlHandler = urlHandler;
+        }
+
+        private boolean contains(final String tenant, final Long moduleId) {
+            return this.tenant.equalsIgnoreCase(tenant) && moduleIds.contains(moduleId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, moduleIds, contentType, urlHandler);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final TemplateKey other = (TemplateKey) obj;
+            return tenant.equals(other.tenant) && moduleIds.equals(other.moduleIds)
+                    && Objects.equals(contentType, other.contentType) && Objects.equals(urlHandler, other.urlHandler);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * {@link MessageRecoverer} that moves failed DMF messages to retry queues with
+ * escalating delays instead of requeuing them onto the receiver queue, so that
+ * a failing message does not starve the healthy traffic. A retry queue has a
+ * message TTL and dead letters the expired messages back to the queue they
+ * were received from. The number of retries is kept in a header. After the
+ * last retry the message is moved to the parking queue, which can be inspected
+ * and replayed by the {@link DmfParkingQueueManager}.
+ *
+ * Invalid messages are still rejected to the dead letter queue and messages of
+ * other queues are handled by the error handler as before.
+ */
+@ManagedResource(description = "DMF retry message recoverer")
+public class DmfRetryMessageRecoverer implements MessageRecoverer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DmfRetryMessageRecoverer.class);
+
+    /**
+     * Header with the number of retries of a message.
+     */
+    public static final String RETRY_COUNT_HEADER = "x-dmf-retry-count";
+
+    /**
+     * Header with the retry queue a message is routed to.
+     */
+    public static final String RETRY_QUEUE_HEADER = "x-dmf-retry-queue";
+
+    /**
+     * Header with the queue a parked message has been received from.
+     */
+    public static final String ORIGINAL_QUEUE_HEADER = "x-dmf-original-queue";
+
+    /**
+     * Header with the exception of the last attempt of a parked message.
+     */
+    public static final String EXCEPTION_HEADER = "x-dmf-exception";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final AmqpRetryProperties properties;
+
+    private final Collection<String> queues;
+
+    private final AtomicLong retriedCount = new AtomicLong();
+
+    private final AtomicLong parkedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            to publish the messages
+     * @param properties
+     *            with the retry topology
+     * @param queues
+     *            the DMF receiver queues whose messages are retried
+     */
+    public DmfRetryMessageRecoverer(final RabbitTemplate rabbitTemplate, final AmqpRetryProperties properties,
+            final Collection<String> queues) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.queues = queues;
+    }
+
+    @Override
+    public void recover(final Message message, final Throwable cause) {
+        final String queue = message.getMessageProperties().getConsumerQueue();
+        if (!queues.contains(queue)) {
+            throw asRuntimeException(cause);
+        }
+
+        if (isRejected(cause) || DelayedRequeueExceptionStrategy.isInvalidMessage(cause)
+                || DelayedRequeueExceptionStrategy.isInvalidMessage(cause.getCause())) {
+            throw new AmqpRejectAndDontRequeueException("Invalid message", cause);
+        }
+
+        final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        final int retries = getRetries(headers);
+        final List<Long> delays = properties.getDelays();
+
+        if (retries < delays.size()) {
+            final String retryQueue = properties.getRetryQueue(delays.get(retries));
+            LOGGER.warn("Failed to handle message from {}, retry {} in {} ms", queue, retries + 1,
+                    delays.get(retries), cause);
+            headers.put(RETRY_COUNT_HEADER, retries + 1);
+            headers.put(RETRY_QUEUE_HEADER, retryQueue);
+            // the retry queue dead letters with the routing key, i.e. back to
+            // the original queue
+            rabbitTemplate.send(properties.getExchange(), queue, message);
+            retriedCount.incrementAndGet();
+            return;
+        }
+
+        LOGGER.error("Failed to handle message from {} after {} retries, moving it to {}", queue, retries,
+                properties.getParkingQueue(), cause);
+        headers.remove(RETRY_QUEUE_HEADER);
+        headers.put(ORIGINAL_QUEUE_HEADER, queue);
+        headers.put(EXCEPTION_HEADER, getRootCauseMessage(cause));
+        rabbitTemplate.send("", properties.getParkingQueue(), message);
+        parkedCount.incrementAndGet();
+    }
+
+    private static int getRetries(final Map<String, Object> headers) {
+        final Object retries = headers.get(RETRY_COUNT_HEADER);
+        return retries instanceof Number ? ((Number) retries).intValue() : 0;
+    }
+
+    private static boolean isRejected(final Throwable cause) {
+        Throwable current = cause;
+        while (current != null) {
+            if (current instanceof AmqpRejectAndDontRequeueException) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private static String getRootCauseMessage(final Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getClass().getName() + ": " + root.getMessage();
+    }
+
+    private static RuntimeException asRuntimeException(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new AmqpException(cause);
+    }
+
+    @ManagedAttribute(description = "Total number of messages moved to a retry queue")
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of messages moved to the parking queue")
+    public long getParkedCount() {
+        return parkedCount.get();
+    }
+}
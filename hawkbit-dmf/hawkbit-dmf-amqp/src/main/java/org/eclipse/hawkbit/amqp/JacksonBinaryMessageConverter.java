@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link AbstractMessageConverter} for binary Jackson data formats, e.g. CBOR
+ * or Smile. The Jackson2JsonMessageConverter of Spring AMQP converts the
+ * payload to a {@link String} and is therefore not applicable for binary
+ * formats.
+ *
+ * The target type of an incoming message is taken from the
+ * {@link AbstractJavaTypeMapper#DEFAULT_CLASSID_FIELD_NAME} header which is
+ * set by {@link BaseAmqpService#convertMessage(Message, Class)}.
+ */
+public class JacksonBinaryMessageConverter extends AbstractMessageConverter {
+
+    private final ObjectMapper objectMapper;
+
+    private final String contentType;
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper
+     *            based on the binary
+     *            {@link com.fasterxml.jackson.core.JsonFactory}
+     * @param contentType
+     *            of the messages created by this converter
+     */
+    public JacksonBinaryMessageConverter(final ObjectMapper objectMapper, final String contentType) {
+        this.objectMapper = objectMapper;
+        this.contentType = contentType;
+    }
+
+    @Override
+    protected Message createMessage(final Object object, final MessageProperties messageProperties) {
+        final byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(object);
+        } catch (final IOException e) {
+            throw new MessageConversionException("Failed to convert object to " + contentType, e);
+        }
+        messageProperties.setContentType(contentType);
+        messageProperties.setContentLength(body.length);
+        messageProperties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, object.getClass().getName());
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(final Message message) {
+        final Object typeId = message.getMessageProperties().getHeaders()
+                .get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        if (typeId == null) {
+            throw new MessageConversionException("Missing type header in " + contentType + " message");
+        }
+
+        try {
+            return objectMapper.readValue(message.getBody(),
+                    ClassUtils.forName(typeId.toString(), ClassUtils.getDefaultClassLoader()));
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new MessageConversionException("Failed to convert " + contentType + " message", e);
+        }
+    }
+}
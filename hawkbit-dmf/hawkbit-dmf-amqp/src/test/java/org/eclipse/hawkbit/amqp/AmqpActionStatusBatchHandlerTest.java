@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpMessage Handler Service Test")
+public class AmqpActionStatusBatchHandlerTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    @Mock
+    private ControllerManagement controllerManagementMock;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @Description("Verifies that concurrently submitted status updates are persisted in one batch.")
+    public void concurrentUpdatesArePersistedInOneBatch() throws Exception {
+        final AmqpActionStatusBatchHandler batchHandler = new AmqpActionStatusBatchHandler(controllerManagementMock,
+                3, 10_000);
+        final Action action = mock(Action.class);
+        final List<Action> batchResult = new ArrayList<>();
+        batchResult.add(action);
+        batchResult.add(action);
+        batchResult.add(action);
+        when(controllerManagementMock.addUpdateActionStatuses(anyListOf(ActionStatusCreate.class)))
+                .thenReturn(batchResult);
+
+        final List<Future<Action>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(
+                    () -> batchHandler.addUpdateActionStatus(TENANT, mock(ActionStatusCreate.class))));
+        }
+
+        for (final Future<Action> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(action);
+        }
+        verify(controllerManagementMock, times(1)).addUpdateActionStatuses(anyListOf(ActionStatusCreate.class));
+        verify(controllerManagementMock, never()).addUpdateActionStatus(any(ActionStatusCreate.class));
+    }
+
+    @Test
+    @Description("Verifies that a single status update is persisted separately after the wait time has passed.")
+    public void singleUpdateIsPersistedAfterWaitTime() {
+        final AmqpActionStatusBatchHandler batchHandler = new AmqpActionStatusBatchHandler(controllerManagementMock,
+                10, 10);
+        final Action action = mock(Action.class);
+        final ActionStatusCreate create = mock(ActionStatusCreate.class);
+        when(controllerManagementMock.addUpdateActionStatus(create)).thenReturn(action);
+
+        assertThat(batchHandler.addUpdateActionStatus(TENANT, create)).isSameAs(action);
+    }
+
+    @Test
+    @Description("Verifies that a failed batch is processed separately so that only the erroneous update fails.")
+    public void failedBatchIsProcessedSeparately() throws Exception {
+        final AmqpActionStatusBatchHandler batchHandler = new AmqpActionStatusBatchHandler(controllerManagementMock,
+                2, 10_000);
+        final Action action = mock(Action.class);
+        final ActionStatusCreate valid = mock(ActionStatusCreate.class);
+        final ActionStatusCreate invalid = mock(ActionStatusCreate.class);
+        when(controllerManagementMock.addUpdateActionStatuses(anyListOf(ActionStatusCreate.class)))
+                .thenThrow(new EntityNotFoundException());
+        when(controllerManagementMock.addUpdateActionStatus(valid)).thenReturn(action);
+        when(controllerManagementMock.addUpdateActionStatus(invalid)).thenThrow(new EntityNotFoundException());
+
+        final Future<Action> validResult = executor.submit(() -> batchHandler.addUpdateActionStatus(TENANT, valid));
+        final Future<Action> invalidResult = executor
+                .submit(() -> batchHandler.addUpdateActionStatus(TENANT, invalid));
+
+        assertThat(validResult.get(5, TimeUnit.SECONDS)).isSameAs(action);
+        try {
+            invalidResult.get(5, TimeUnit.SECONDS);
+            fail("EntityNotFoundException was expected for the invalid status update");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(EntityNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Adaptive Consumer Controller Test")
+public class AmqpAdaptiveConsumerControllerTest {
+
+    private static final String QUEUE = "dmf_receiver";
+
+    @Mock
+    private RabbitListenerEndpointRegistry registryMock;
+
+    @Mock
+    private RabbitAdmin rabbitAdminMock;
+
+    @Mock
+    private DataSourcePoolMetadata poolMetadataMock;
+
+    @Mock
+    private SimpleMessageListenerContainer containerMock;
+
+    @Mock
+    private MethodInvocation invocationMock;
+
+    private AmqpAdaptiveConsumerController controller;
+
+    @Before
+    public void before() {
+        final AmqpAdaptiveConsumerProperties properties = new AmqpAdaptiveConsumerProperties();
+        properties.setInterval(TimeUnit.HOURS.toMillis(1));
+        properties.setMaxLatency(10);
+
+        when(containerMock.getQueueNames()).thenReturn(new String[] { QUEUE });
+        when(registryMock.getListenerContainers())
+                .thenReturn(Collections.<MessageListenerContainer> singletonList(containerMock));
+
+        controller = new AmqpAdaptiveConsumerController(properties, registryMock, rabbitAdminMock, QUEUE,
+                poolMetadataMock);
+    }
+
+    @After
+    public void after() {
+        controller.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that consumers and prefetch are increased additively if messages are waiting and the connection pool has capacity left.")
+    public void increaseOnBacklog() {
+        setQueueDepth(1_000);
+        when(poolMetadataMock.getUsage()).thenReturn(0.2F);
+
+        controller.adjust();
+        controller.adjust();
+
+        assertThat(controller.getConsumers()).isEqualTo(3);
+        assertThat(controller.getPrefetch()).isEqualTo(11);
+        assertThat(controller.getLastDecision()).isEqualTo("INCREASE");
+        assertThat(controller.getIncreaseCount()).isEqualTo(2);
+        verify(containerMock).setConcurrentConsumers(3);
+        verify(containerMock).setPrefetchCount(11);
+    }
+
+    @Test
+    @Description("Verifies that consumers and prefetch are decreased multiplicatively if the connection pool is saturated.")
+    public void decreaseOnPoolSaturation() {
+        setQueueDepth(1_000);
+        when(poolMetadataMock.getUsage()).thenReturn(0.2F);
+        for (int i = 0; i < 4; i++) {
+            controller.adjust();
+        }
+        assertThat(controller.getConsumers()).isEqualTo(5);
+
+        when(poolMetadataMock.getUsage()).thenReturn(0.95F);
+        controller.adjust();
+
+        assertThat(controller.getConsumers()).isEqualTo(2);
+        assertThat(controller.getPrefetch()).isEqualTo(10);
+        assertThat(controller.getLastDecision()).isEqualTo("DECREASE");
+        assertThat(controller.getLastPoolUsage()).isEqualTo(0.95F);
+        // first on the way up, then on decrease
+        verify(containerMock, times(2)).setConcurrentConsumers(2);
+        verify(containerMock, times(2)).setMaxConcurrentConsumers(2);
+    }
+
+    @Test
+    @Description("Verifies that consumers are decreased if the message handling exceeds the maximum latency and that nothing changes if the queue is empty.")
+    public void decreaseOnLatencyAndHoldIfIdle() throws Throwable {
+        setQueueDepth(1_000);
+        when(poolMetadataMock.getUsage()).thenReturn(0.2F);
+        controller.adjust();
+        controller.adjust();
+
+        when(invocationMock.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return null;
+        });
+        controller.invoke(invocationMock);
+        controller.adjust();
+
+        assertThat(controller.getLastDecision()).isEqualTo("DECREASE");
+        assertThat(controller.getLastAverageLatency()).isGreaterThanOrEqualTo(20);
+        assertThat(controller.getConsumers()).isEqualTo(1);
+
+        setQueueDepth(0);
+        controller.adjust();
+
+        assertThat(controller.getLastDecision()).isEqualTo("HOLD");
+        assertThat(controller.getLastAverageLatency()).isEqualTo(-1);
+        assertThat(controller.getConsumers()).isEqualTo(1);
+    }
+
+    private void setQueueDepth(final int depth) {
+        final Properties queueProperties = new Properties();
+        queueProperties.put(RabbitAdmin.QUEUE_MESSAGE_COUNT, depth);
+        when(rabbitAdminMock.getQueueProperties(QUEUE)).thenReturn(queueProperties);
+    }
+}
@@ -14,6 +14,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -85,6 +87,7 @@ public class AmqpControllerAuthenticationTest {
     private static final Long TARGET_ID = 123L;
     private AmqpMessageHandlerService amqpMessageHandlerService;
     private AmqpAuthenticationMessageHandler amqpAuthenticationMessageHandlerService;
+    private AmqpAuthenticationMessageHandler cachedAmqpAuthenticationMessageHandlerService;
 
     private MessageConverter messageConverter;
 
@@ -173,6 +176,10 @@ public class AmqpControllerAuthenticationTest {
                 authenticationManager, artifactManagementMock, cacheMock, hostnameResolverMock,
                 controllerManagementMock, tenantAware);
 
+        cachedAmqpAuthenticationMessageHandlerService = new AmqpAuthenticationMessageHandler(rabbitTemplate,
+                authenticationManager, artifactManagementMock, cacheMock, hostnameResolverMock,
+                controllerManagementMock, tenantAware, new DmfDownloadAuthorizationCache(100, 60_000));
+
         when(hostnameResolverMock.resolveHostname()).thenReturn(new URL("http://localhost"));
 
         when(controllerManagementMock.hasTargetArtifactAssigned(TARGET_ID, SHA1)).thenReturn(true);
@@ -349,6 +356,33 @@ public class AmqpControllerAuthenticationTest {
 
     }
 
+    @Test
+    @Description("Tests that repeated authentication messages for the same artifact are answered from the authorization cache")
+    public void repeatedMessageAuthenticationIsCached() {
+        final DmfTenantSecurityToken securityToken = new DmfTenantSecurityToken(TENANT, null, CONTROLLER_ID, null,
+                FileResource.createFileResourceBySha1(SHA1));
+        when(tenantConfigurationManagementMock.getConfigurationValue(
+                eq(TenantConfigurationKey.AUTHENTICATION_MODE_TARGET_SECURITY_TOKEN_ENABLED), eq(Boolean.class)))
+                        .thenReturn(CONFIG_VALUE_TRUE);
+        securityToken.putHeader(DmfTenantSecurityToken.AUTHORIZATION_HEADER, "TargetToken " + CONTROLLER_ID);
+
+        for (int i = 0; i < 3; i++) {
+            final Message message = amqpMessageHandlerService.getMessageConverter().toMessage(securityToken,
+                    createMessageProperties(null));
+            final Message onMessage = cachedAmqpAuthenticationMessageHandlerService
+                    .onAuthenticationRequest(message);
+
+            final DmfDownloadResponse downloadResponse = (DmfDownloadResponse) messageConverter
+                    .fromMessage(onMessage);
+            assertThat(downloadResponse.getResponseCode()).isEqualTo(HttpStatus.OK.value());
+            assertThat(downloadResponse.getArtifact().getSize()).isEqualTo(ARTIFACT_SIZE);
+        }
+
+        verify(artifactManagementMock, times(1)).findFirstBySHA1(SHA1);
+        verify(artifactManagementMock, times(1)).loadArtifactBinary(SHA1);
+        verify(controllerManagementMock, times(1)).hasTargetArtifactAssigned(CONTROLLER_ID, SHA1);
+    }
+
     private MessageProperties createMessageProperties(final MessageType type) {
         return createMessageProperties(type, "MyTest");
     }
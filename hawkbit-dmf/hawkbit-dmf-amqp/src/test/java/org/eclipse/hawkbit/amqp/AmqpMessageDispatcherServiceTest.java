@@ -24,6 +24,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
@@ -35,6 +37,9 @@ import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.event.EventDeliveryTracker;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
@@ -58,6 +63,8 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.google.common.collect.ImmutableMap;
+
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
@@ -127,6 +134,68 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
                 downloadAndUpdateRequest.getSoftwareModules().isEmpty());
     }
 
+    @Test
+    @Description("Verifies that a bulk assignment event sends a download and install message to every known target.")
+    public void sendDownloadRequestsForBulkAssignment() {
+        final BulkTargetAssignDistributionSetEvent bulkEvent = new BulkTargetAssignDistributionSetEvent("DEFAULT", 1L,
+                ImmutableMap.of(CONTROLLER_ID, 1L, "unknown", 2L), serviceMatcher.getServiceId());
+        amqpMessageDispatcherService.targetsAssignDistributionSet(bulkEvent);
+
+        final Message sendMessage = createArgumentCapture(testTarget.getAddress());
+        assertDownloadAndInstallMessage(sendMessage, 1L);
+        Mockito.verifyNoMoreInteractions(senderService);
+    }
+
+    @Test
+    @Description("Verifies that a bulk deletion event sends a delete message to the targets with an address.")
+    public void sendDeleteRequestsForBulkDeletion() {
+        final String amqpUri = "amqp://anyhost";
+        final BulkTargetDeletedEvent bulkEvent = new BulkTargetDeletedEvent(TENANT,
+                ImmutableMap.of(1L, CONTROLLER_ID, 2L, "noAddress"), ImmutableMap.of(CONTROLLER_ID, amqpUri),
+                serviceMatcher.getServiceId());
+
+        amqpMessageDispatcherService.targetsDelete(bulkEvent);
+
+        final Message sendMessage = createArgumentCapture(URI.create(amqpUri));
+        assertDeleteMessage(sendMessage);
+        Mockito.verifyNoMoreInteractions(senderService);
+    }
+
+    @Test
+    @Description("Verifies that the dispatcher reports to the delivery tracker that the broker did not accept the "
+            + "message of an assignment event.")
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void failedBrokerSendIsReportedToDeliveryTracker() throws Exception {
+        final EventDeliveryTracker deliveryTracker = Mockito.mock(EventDeliveryTracker.class);
+        final List<Message> sentMessages = new ArrayList<>();
+        final AmqpMessageSenderService rejectingSenderService = new AmqpMessageSenderService() {
+            @Override
+            public void sendMessage(final Message message, final URI replyTo) {
+                throw new UnsupportedOperationException("tracked messages have to be sent with confirmation");
+            }
+
+            @Override
+            public CompletableFuture<Boolean> sendConfirmed(final Message message, final URI replyTo) {
+                sentMessages.add(message);
+                return CompletableFuture.completedFuture(Boolean.FALSE);
+            }
+        };
+        final AmqpMessageDispatcherService trackedDispatcherService = new AmqpMessageDispatcherService(
+                rabbitTemplate, rejectingSenderService, Mockito.mock(ArtifactUrlHandler.class),
+                systemSecurityContext, systemManagement, targetManagement, serviceMatcher, null, deliveryTracker);
+        Mockito.verify(deliveryTracker).addParticipant(TargetAssignDistributionSetEvent.class);
+
+        final TargetAssignDistributionSetEvent event = new TargetAssignDistributionSetEvent("DEFAULT", 1L, 1L,
+                CONTROLLER_ID, serviceMatcher.getServiceId());
+        trackedDispatcherService.targetAssignDistributionSet(event);
+
+        final ArgumentCaptor<CompletionStage<Boolean>> deliveryCaptor = ArgumentCaptor
+                .forClass((Class) CompletionStage.class);
+        Mockito.verify(deliveryTracker).reportDelivery(eq(event), deliveryCaptor.capture());
+        assertThat(deliveryCaptor.getValue().toCompletableFuture().get()).isFalse();
+        assertThat(sentMessages).hasSize(1);
+    }
+
     private Message getCaptureAdressEvent(final TargetAssignDistributionSetEvent targetAssignDistributionSetEvent) {
         final Target target = targetManagement.getByControllerID(targetAssignDistributionSetEvent.getControllerId())
                 .get();
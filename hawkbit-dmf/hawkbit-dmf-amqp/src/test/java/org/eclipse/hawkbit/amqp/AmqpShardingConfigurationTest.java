@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Binding.DestinationType;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ErrorHandler;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Sharding Configuration Test")
+public class AmqpShardingConfigurationTest {
+
+    private static final int SHARDS = 3;
+
+    private static final int PREFETCH = 20;
+
+    @Mock
+    private AmqpMessageHandlerService amqpMessageHandlerServiceMock;
+
+    @Mock
+    private RabbitTemplate rabbitTemplateMock;
+
+    @Mock
+    private ConnectionFactory connectionFactoryMock;
+
+    @Mock
+    private ErrorHandler errorHandlerMock;
+
+    @Mock
+    private ObjectProvider<DmfRetryMessageRecoverer> retryMessageRecovererMock;
+
+    @Mock
+    private RabbitListenerEndpointRegistrar registrarMock;
+
+    private final AmqpProperties amqpProperties = new AmqpProperties();
+
+    private final AmqpShardingProperties shardingProperties = new AmqpShardingProperties();
+
+    private AmqpShardingConfiguration configuration;
+
+    @Before
+    public void before() {
+        shardingProperties.setEnabled(true);
+        shardingProperties.setShards(SHARDS);
+        shardingProperties.setExchange("test.sharding");
+        shardingProperties.setUnshardedExchange("test.unsharded");
+        shardingProperties.setQueuePrefix("test_shard_");
+
+        configuration = new AmqpShardingConfiguration();
+        ReflectionTestUtils.setField(configuration, "amqpProperties", amqpProperties);
+        ReflectionTestUtils.setField(configuration, "amqpDeadletterProperties", new AmqpDeadletterProperties());
+        ReflectionTestUtils.setField(configuration, "amqpShardingProperties", shardingProperties);
+
+        when(rabbitTemplateMock.getConnectionFactory()).thenReturn(connectionFactoryMock);
+        when(connectionFactoryMock.getVirtualHost()).thenReturn("/");
+    }
+
+    @Test
+    @Description("Verifies that the consistent hash exchange hashes on the thingId header and forwards unroutable "
+            + "messages to the unsharded exchange.")
+    public void shardingExchangeHashesOnThingId() {
+        final CustomExchange exchange = configuration.dmfShardingExchange();
+
+        assertThat(exchange.getName()).isEqualTo("test.sharding");
+        assertThat(exchange.getType()).isEqualTo("x-consistent-hash");
+        assertThat(exchange.isDurable()).isTrue();
+        assertThat(exchange.getArguments()).containsEntry("hash-header", MessageHeaderKey.THING_ID)
+                .containsEntry("alternate-exchange", "test.unsharded");
+        assertThat(configuration.dmfUnshardedExchange().getName()).isEqualTo("test.unsharded");
+
+        final Binding binding = configuration.bindDmfSenderExchangeToShardingExchange();
+        assertThat(binding.getExchange()).isEqualTo(AmqpSettings.DMF_EXCHANGE);
+        assertThat(binding.getDestination()).isEqualTo("test.sharding");
+        assertThat(binding.getDestinationType()).isEqualTo(DestinationType.EXCHANGE);
+    }
+
+    @Test
+    @Description("Verifies that one durable queue with dead letter exchange is declared and bound to the consistent "
+            + "hash exchange per shard.")
+    public void oneQueueAndBindingPerShard() {
+        final List<Declarable> declarables = configuration.dmfReceiverShards();
+
+        final List<Queue> queues = declarables.stream().filter(Queue.class::isInstance).map(Queue.class::cast)
+                .collect(Collectors.toList());
+        assertThat(queues).extracting(Queue::getName).containsExactly("test_shard_0", "test_shard_1",
+                "test_shard_2");
+        assertThat(queues).allMatch(Queue::isDurable);
+        assertThat(queues).allMatch(queue -> amqpProperties.getDeadLetterExchange()
+                .equals(queue.getArguments().get("x-dead-letter-exchange")));
+
+        final List<Binding> bindings = declarables.stream().filter(Binding.class::isInstance)
+                .map(Binding.class::cast).collect(Collectors.toList());
+        assertThat(bindings).extracting(Binding::getDestination).containsExactly("test_shard_0", "test_shard_1",
+                "test_shard_2");
+        assertThat(bindings).allMatch(binding -> "test.sharding".equals(binding.getExchange())
+                && "1".equals(binding.getRoutingKey()) && binding.getDestinationType() == DestinationType.QUEUE);
+    }
+
+    @Test
+    @Description("Verifies that one listener container per shard is registered with exactly one consumer and the "
+            + "prefetch of the spring.rabbitmq.listener properties.")
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void listenerContainersHaveOneConsumerAndConfiguredPrefetch() {
+        final RabbitProperties rabbitProperties = new RabbitProperties();
+        rabbitProperties.getListener().setConcurrency(5);
+        rabbitProperties.getListener().setMaxConcurrency(10);
+        rabbitProperties.getListener().setPrefetch(PREFETCH);
+        final SimpleRabbitListenerContainerFactoryConfigurer configurer = createConfigurer(rabbitProperties);
+
+        final RabbitListenerConfigurer listenerConfigurer = configuration.dmfReceiverShardListenerConfigurer(
+                amqpMessageHandlerServiceMock, rabbitTemplateMock, configurer, errorHandlerMock,
+                retryMessageRecovererMock);
+        listenerConfigurer.configureRabbitListeners(registrarMock);
+
+        final ArgumentCaptor<SimpleRabbitListenerEndpoint> endpoints = ArgumentCaptor
+                .forClass(SimpleRabbitListenerEndpoint.class);
+        final ArgumentCaptor<RabbitListenerContainerFactory> factories = ArgumentCaptor
+                .forClass(RabbitListenerContainerFactory.class);
+        verify(registrarMock, times(SHARDS)).registerEndpoint(endpoints.capture(), factories.capture());
+        verify(retryMessageRecovererMock).getIfAvailable();
+
+        assertThat(endpoints.getAllValues()).extracting(SimpleRabbitListenerEndpoint::getQueueNames)
+                .containsExactly(new String[] { "test_shard_0" }, new String[] { "test_shard_1" },
+                        new String[] { "test_shard_2" });
+
+        for (final SimpleRabbitListenerEndpoint endpoint : endpoints.getAllValues()) {
+            final SimpleMessageListenerContainer container = (SimpleMessageListenerContainer) factories.getValue()
+                    .createListenerContainer(endpoint);
+            assertThat(ReflectionTestUtils.getField(container, "concurrentConsumers")).isEqualTo(1);
+            assertThat(ReflectionTestUtils.getField(container, "maxConcurrentConsumers")).isEqualTo(1);
+            assertThat(ReflectionTestUtils.getField(container, "prefetchCount")).isEqualTo(PREFETCH);
+            assertThat(container.getConnectionFactory()).isSameAs(connectionFactoryMock);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the retry recoverer is added to the listener containers if available.")
+    public void retryRecovererIsAddedIfAvailable() {
+        when(retryMessageRecovererMock.getIfAvailable())
+                .thenReturn(new DmfRetryMessageRecoverer(rabbitTemplateMock, new AmqpRetryProperties(),
+                        Collections.singletonList(amqpProperties.getReceiverQueue())));
+        final SimpleRabbitListenerContainerFactoryConfigurer configurer = createConfigurer(new RabbitProperties());
+
+        configuration.dmfReceiverShardListenerConfigurer(amqpMessageHandlerServiceMock, rabbitTemplateMock,
+                configurer, errorHandlerMock, retryMessageRecovererMock).configureRabbitListeners(registrarMock);
+
+        final ArgumentCaptor<ConfigurableRabbitListenerContainerFactory> factory = ArgumentCaptor
+                .forClass(ConfigurableRabbitListenerContainerFactory.class);
+        verify(registrarMock, times(SHARDS)).registerEndpoint(any(SimpleRabbitListenerEndpoint.class),
+                factory.capture());
+        assertThat((Object[]) ReflectionTestUtils.getField(factory.getValue(), "adviceChain")).hasSize(1);
+    }
+
+    private static SimpleRabbitListenerContainerFactoryConfigurer createConfigurer(
+            final RabbitProperties rabbitProperties) {
+        final SimpleRabbitListenerContainerFactoryConfigurer configurer = //
+                new SimpleRabbitListenerContainerFactoryConfigurer();
+        // the properties are set by the spring boot auto configuration
+        ReflectionTestUtils.setField(configurer, "rabbitProperties", rabbitProperties);
+        return configurer;
+    }
+}
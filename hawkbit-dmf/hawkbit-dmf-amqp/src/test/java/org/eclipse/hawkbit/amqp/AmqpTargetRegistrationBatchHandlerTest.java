@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.amqp.AmqpTargetRegistrationBatchHandler.RegistrationResult;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.util.IpUtil;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpMessage Handler Service Test")
+public class AmqpTargetRegistrationBatchHandlerTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private static final URI AMQP_URI = IpUtil.createAmqpUri("vHost", "replyTo");
+
+    @Mock
+    private ControllerManagement controllerManagementMock;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @Description("Verifies that concurrently created things are registered in one batch and their pending actions are retrieved with one query.")
+    public void concurrentRegistrationsArePersistedInOneBatch() throws Exception {
+        final AmqpTargetRegistrationBatchHandler batchHandler = new AmqpTargetRegistrationBatchHandler(
+                controllerManagementMock, 2, 10_000);
+        final Target target1 = createTarget("thing1");
+        final Target target2 = createTarget("thing2");
+        final Action action = mock(Action.class);
+        final List<Target> batchResult = new ArrayList<>();
+        batchResult.add(target1);
+        batchResult.add(target2);
+        when(controllerManagementMock.findOrRegisterTargetsIfTheyDoNotExist(anyMapOf(String.class, URI.class)))
+                .thenReturn(batchResult);
+        when(controllerManagementMock.findOldestActiveActionsByTargets(anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonMap("thing2", action));
+
+        final Future<RegistrationResult> result1 = executor
+                .submit(() -> batchHandler.register(TENANT, "thing1", AMQP_URI));
+        final Future<RegistrationResult> result2 = executor
+                .submit(() -> batchHandler.register(TENANT, "thing2", AMQP_URI));
+
+        assertThat(result1.get(5, TimeUnit.SECONDS).getTarget()).isSameAs(target1);
+        assertThat(result1.get().getOldestActiveAction()).isEmpty();
+        assertThat(result2.get(5, TimeUnit.SECONDS).getTarget()).isSameAs(target2);
+        assertThat(result2.get().getOldestActiveAction()).contains(action);
+        verify(controllerManagementMock, times(1))
+                .findOrRegisterTargetsIfTheyDoNotExist(anyMapOf(String.class, URI.class));
+        verify(controllerManagementMock, never()).findOrRegisterTargetIfItDoesNotexist(any(), any());
+    }
+
+    @Test
+    @Description("Verifies that a single created thing is registered separately after the wait time has passed.")
+    public void singleRegistrationIsPersistedAfterWaitTime() {
+        final AmqpTargetRegistrationBatchHandler batchHandler = new AmqpTargetRegistrationBatchHandler(
+                controllerManagementMock, 10, 10);
+        final Target target = createTarget("thing1");
+        when(controllerManagementMock.findOrRegisterTargetIfItDoesNotexist("thing1", AMQP_URI)).thenReturn(target);
+        when(controllerManagementMock.findOldestActiveActionByTarget("thing1")).thenReturn(Optional.empty());
+
+        final RegistrationResult result = batchHandler.register(TENANT, "thing1", AMQP_URI);
+
+        assertThat(result.getTarget()).isSameAs(target);
+        assertThat(result.getOldestActiveAction()).isEmpty();
+    }
+
+    private static Target createTarget(final String controllerId) {
+        final Target target = mock(Target.class);
+        when(target.getControllerId()).thenReturn(controllerId);
+        return target;
+    }
+}
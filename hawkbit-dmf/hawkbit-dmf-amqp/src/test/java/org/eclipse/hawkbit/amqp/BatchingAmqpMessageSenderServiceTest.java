@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpMessage Sender Service Test")
+public class BatchingAmqpMessageSenderServiceTest {
+
+    private static final URI AMQP_URI = URI.create("amqp://vHost/exchange");
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private CachingConnectionFactory connectionFactory;
+
+    private BatchingAmqpMessageSenderService senderService;
+
+    @Before
+    public void before() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+
+        final AmqpSenderProperties senderProperties = new AmqpSenderProperties();
+        senderProperties.setPublisherThreads(1);
+        senderProperties.setMaxRetries(1);
+        senderProperties.setRetryDelay(10);
+        senderService = new BatchingAmqpMessageSenderService(rabbitTemplate, senderProperties);
+    }
+
+    @After
+    public void after() {
+        senderService.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that a queued message is published asynchronously and tracked until the broker confirms it.")
+    public void messageIsPublishedAndConfirmed() throws Exception {
+        final Message message = new Message(new byte[0], new MessageProperties());
+
+        final CompletableFuture<Boolean> delivery = senderService.sendConfirmed(message, AMQP_URI);
+
+        final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(5_000)).send(eq("exchange"), anyString(), eq(message),
+                correlationCaptor.capture());
+        assertThat(message.getMessageProperties().getCorrelationId()).isNotEmpty();
+        assertThat(senderService.getInFlightCount()).isEqualTo(1);
+        assertThat(delivery).isNotDone();
+
+        senderService.confirm(correlationCaptor.getValue(), true, null);
+
+        assertThat(senderService.getInFlightCount()).isZero();
+        assertThat(senderService.getConfirmedCount()).isEqualTo(1);
+        assertThat(delivery.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that a message is published again if the broker rejects it and moved to the parking "
+            + "queue after all retries.")
+    public void rejectedMessageIsPublishedAgainAndParked() {
+        final Message message = new Message(new byte[0], new MessageProperties());
+
+        senderService.sendMessage(message, AMQP_URI);
+
+        final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(5_000)).send(eq("exchange"), anyString(), eq(message),
+                correlationCaptor.capture());
+        senderService.confirm(correlationCaptor.getValue(), false, "rejected");
+
+        verify(rabbitTemplate, timeout(5_000).times(2)).send(eq("exchange"), anyString(), eq(message),
+                correlationCaptor.capture());
+        senderService.confirm(correlationCaptor.getValue(), false, "rejected");
+
+        verify(rabbitTemplate, timeout(5_000)).send(eq(""), eq("dmf_sender_parking"), eq(message),
+                correlationCaptor.capture());
+        senderService.confirm(correlationCaptor.getValue(), true, null);
+
+        assertThat(message.getMessageProperties().getHeaders())
+                .containsEntry(BatchingAmqpMessageSenderService.EXCHANGE_HEADER, "exchange");
+        assertThat(senderService.getRetriedCount()).isEqualTo(2);
+        assertThat(senderService.getParkedCount()).isEqualTo(1);
+        verify(rabbitTemplate, times(3)).send(anyString(), anyString(), any(Message.class),
+                any(CorrelationData.class));
+    }
+
+    @Test
+    @Description("Verifies that a message that is rejected by the parking queue as well is dropped after all retries "
+            + "instead of being published again forever.")
+    public void messageRejectedByParkingQueueIsDropped() throws Exception {
+        final Message message = new Message(new byte[0], new MessageProperties());
+
+        final CompletableFuture<Boolean> delivery = senderService.sendConfirmed(message, AMQP_URI);
+
+        final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            verify(rabbitTemplate, timeout(5_000).times(attempt)).send(anyString(), anyString(), eq(message),
+                    correlationCaptor.capture());
+            senderService.confirm(correlationCaptor.getValue(), false, "rejected");
+        }
+
+        verify(rabbitTemplate, after(200).times(4)).send(anyString(), anyString(), any(Message.class),
+                any(CorrelationData.class));
+        assertThat(senderService.getParkedCount()).isEqualTo(1);
+        assertThat(senderService.getDroppedCount()).isEqualTo(1);
+        assertThat(delivery.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that a message is sent synchronously if the queue is still full after the enqueue "
+            + "timeout.")
+    public void messageIsSentSynchronouslyIfQueueIsFull() {
+        senderService.shutdown();
+        final AmqpSenderProperties senderProperties = new AmqpSenderProperties();
+        senderProperties.setPublisherThreads(1);
+        senderProperties.setQueueCapacity(1);
+        senderProperties.setBatchSize(1);
+        senderProperties.setEnqueueTimeout(10);
+        senderService = new BatchingAmqpMessageSenderService(rabbitTemplate, senderProperties);
+
+        final Message unconfirmed = new Message(new byte[0], new MessageProperties());
+        final Message queued = new Message(new byte[0], new MessageProperties());
+        final Message overflow = new Message(new byte[0], new MessageProperties());
+        senderService.sendMessage(unconfirmed, AMQP_URI);
+        verify(rabbitTemplate, timeout(5_000)).send(eq("exchange"), anyString(), eq(unconfirmed),
+                any(CorrelationData.class));
+        senderService.sendMessage(queued, AMQP_URI);
+
+        senderService.sendMessage(overflow, AMQP_URI);
+
+        verify(rabbitTemplate).send(eq("exchange"), anyString(), eq(overflow), any(CorrelationData.class));
+        assertThat(senderService.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that the messages of a thing are published in order, also if the first one has to be "
+            + "published again.")
+    public void messagesOfThingKeepTheirOrder() {
+        final Message download = createThingMessage("thing1");
+        final Message cancel = createThingMessage("thing1");
+
+        senderService.sendMessage(download, AMQP_URI);
+        senderService.sendMessage(cancel, AMQP_URI);
+
+        final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(5_000)).send(eq("exchange"), (String) isNull(), eq(download),
+                correlationCaptor.capture());
+        verify(rabbitTemplate, after(200).never()).send(anyString(), anyString(), eq(cancel),
+                any(CorrelationData.class));
+        senderService.confirm(correlationCaptor.getValue(), false, "rejected");
+
+        verify(rabbitTemplate, timeout(5_000).times(2)).send(eq("exchange"), (String) isNull(), eq(download),
+                correlationCaptor.capture());
+        senderService.confirm(correlationCaptor.getValue(), true, null);
+
+        verify(rabbitTemplate, timeout(5_000)).send(eq("exchange"), (String) isNull(), eq(cancel),
+                any(CorrelationData.class));
+        final InOrder inOrder = inOrder(rabbitTemplate);
+        inOrder.verify(rabbitTemplate, times(2)).send(anyString(), anyString(), eq(download),
+                any(CorrelationData.class));
+        inOrder.verify(rabbitTemplate).send(anyString(), anyString(), eq(cancel), any(CorrelationData.class));
+    }
+
+    private static Message createThingMessage(final String thingId) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        return new Message(new byte[0], messageProperties);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("Download authorization cache")
+public class DmfDownloadAuthorizationCacheTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private static final String SHA1 = "sha1";
+
+    private static final String OTHER_SHA1 = "otherSha1";
+
+    private final DmfDownloadAuthorizationCache cache = new DmfDownloadAuthorizationCache(100, 60_000);
+
+    private final List<String> checks = new ArrayList<>();
+
+    @Test
+    @Description("Verifies that an assignment evicts the decisions of the assigned target only.")
+    public void assignmentEvictsDecisionsOfTarget() {
+        isAssigned("target1", SHA1);
+        isAssigned("target2", SHA1);
+
+        cache.evictAssignedTarget(new TargetAssignDistributionSetEvent(TENANT, 1L, 2L, "target1", "application"));
+        isAssigned("target1", SHA1);
+        isAssigned("target2", SHA1);
+
+        assertThat(checks).containsExactly("target1", "target2", "target1");
+    }
+
+    @Test
+    @Description("Verifies that the deletion of targets evicts their decisions by controller ID and target ID.")
+    public void deletionEvictsDecisionsOfTargets() {
+        isAssigned("target1", SHA1);
+        isAssigned(1L, SHA1);
+        isAssigned("target2", SHA1);
+
+        cache.evictDeletedTargets(new BulkTargetDeletedEvent(TENANT, Collections.singletonMap(1L, "target1"),
+                Collections.emptyMap(), "application"));
+        isAssigned("target1", SHA1);
+        isAssigned(1L, SHA1);
+        isAssigned("target2", SHA1);
+
+        assertThat(checks).containsExactly("target1", "1", "target2", "target1", "1");
+    }
+
+    @Test
+    @Description("Verifies that the update of a software module evicts the decisions and metadata of its current and "
+            + "removed artifacts but not of other artifacts.")
+    public void softwareModuleUpdateEvictsItsArtifacts() {
+        cache.addModuleArtifact(TENANT, 5L, SHA1);
+        isAssigned("target1", SHA1);
+        isAssigned("target1", OTHER_SHA1);
+        getArtifact(SHA1);
+        getArtifact(OTHER_SHA1);
+
+        // the artifact has been removed from the module
+        final SoftwareModule module = mock(SoftwareModule.class);
+        when(module.getTenant()).thenReturn(TENANT);
+        when(module.getId()).thenReturn(5L);
+        when(module.getArtifacts()).thenReturn(Collections.emptyList());
+        cache.evictUpdatedSoftwareModule(new SoftwareModuleUpdatedEvent(module, "application"));
+        isAssigned("target1", SHA1);
+        isAssigned("target1", OTHER_SHA1);
+        getArtifact(SHA1);
+        getArtifact(OTHER_SHA1);
+
+        assertThat(checks).containsExactly("target1", "target1", SHA1, OTHER_SHA1, "target1", SHA1);
+    }
+
+    @Test
+    @Description("Verifies that the update of a software module evicts the decisions of newly added artifacts.")
+    public void softwareModuleUpdateEvictsAddedArtifacts() {
+        isAssigned("target1", SHA1);
+
+        final Artifact artifact = mock(Artifact.class);
+        when(artifact.getSha1Hash()).thenReturn(SHA1);
+        final SoftwareModule module = mock(SoftwareModule.class);
+        when(module.getTenant()).thenReturn(TENANT);
+        when(module.getId()).thenReturn(5L);
+        when(module.getArtifacts()).thenReturn(Collections.singletonList(artifact));
+        cache.evictUpdatedSoftwareModule(new SoftwareModuleUpdatedEvent(module, "application"));
+        isAssigned("target1", SHA1);
+
+        assertThat(checks).containsExactly("target1", "target1");
+    }
+
+    private void isAssigned(final String controllerId, final String sha1Hash) {
+        cache.isArtifactAssigned(TENANT, controllerId, sha1Hash, () -> checks.add(controllerId));
+    }
+
+    private void isAssigned(final Long targetId, final String sha1Hash) {
+        cache.isArtifactAssigned(TENANT, targetId, sha1Hash, () -> checks.add(String.valueOf(targetId)));
+    }
+
+    private void getArtifact(final String sha1Hash) {
+        cache.getArtifact(TENANT, sha1Hash, () -> {
+            checks.add(sha1Hash);
+            return new DmfArtifact();
+        });
+    }
+}
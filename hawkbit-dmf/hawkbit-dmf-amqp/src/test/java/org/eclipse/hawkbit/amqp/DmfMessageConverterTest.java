@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionUpdateStatus;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Dmf Message Converter Test")
+public class DmfMessageConverterTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Test
+    @Description("Verifies that messages are encoded and decoded according to their content type.")
+    public void binaryMessagesAreConvertedByContentType() {
+        final BaseAmqpService baseAmqpService = createService(true, MessageProperties.CONTENT_TYPE_JSON);
+        final DmfActionUpdateStatus actionUpdateStatus = createActionStatus();
+
+        final Message json = toMessage(actionUpdateStatus, MessageProperties.CONTENT_TYPE_JSON);
+        final Message cbor = toMessage(actionUpdateStatus, DmfMessageConverter.CONTENT_TYPE_CBOR);
+        final Message smile = toMessage(actionUpdateStatus, DmfMessageConverter.CONTENT_TYPE_SMILE);
+
+        for (final Message message : new Message[] { json, cbor, smile }) {
+            baseAmqpService.checkContentTypeSupported(message);
+            assertThat(baseAmqpService.convertMessage(message, DmfActionUpdateStatus.class))
+                    .isEqualToComparingFieldByField(actionUpdateStatus);
+        }
+        assertThat(cbor.getBody().length).isLessThan(json.getBody().length);
+        assertThat(smile.getBody().length).isLessThan(json.getBody().length);
+    }
+
+    @Test
+    @Description("Verifies that binary messages are rejected if the binary encodings are not enabled.")
+    public void binaryMessagesAreRejectedIfDisabled() {
+        final BaseAmqpService baseAmqpService = createService(false, DmfMessageConverter.CONTENT_TYPE_CBOR);
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(DmfMessageConverter.CONTENT_TYPE_CBOR);
+
+        try {
+            baseAmqpService.checkContentTypeSupported(new Message(new byte[] { 1 }, messageProperties));
+            fail("AmqpRejectAndDontRequeueException was expected due to unsupported content type");
+        } catch (final AmqpRejectAndDontRequeueException e) {
+            // expected
+        }
+        assertThat(baseAmqpService.getDefaultContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    @Description("Verifies that the configured default content type is used for messages sent by hawkBit.")
+    public void defaultContentTypeIsConfigurable() {
+        final BaseAmqpService baseAmqpService = createService(true, DmfMessageConverter.CONTENT_TYPE_SMILE);
+
+        assertThat(baseAmqpService.getDefaultContentType()).isEqualTo(DmfMessageConverter.CONTENT_TYPE_SMILE);
+    }
+
+    private BaseAmqpService createService(final boolean enabled, final String defaultContentType) {
+        final AmqpEncodingProperties encodingProperties = new AmqpEncodingProperties();
+        encodingProperties.setEnabled(enabled);
+        encodingProperties.setDefaultContentType(defaultContentType);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new DmfMessageConverter(encodingProperties));
+        return new BaseAmqpService(rabbitTemplate);
+    }
+
+    private Message toMessage(final Object object, final String contentType) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(contentType);
+        return rabbitTemplate.getMessageConverter().toMessage(object, messageProperties);
+    }
+
+    private static DmfActionUpdateStatus createActionStatus() {
+        final DmfActionUpdateStatus actionUpdateStatus = new DmfActionUpdateStatus(1L, DmfActionStatus.RUNNING);
+        actionUpdateStatus.setSoftwareModuleId(2L);
+        actionUpdateStatus.addMessage("Message 1");
+        actionUpdateStatus.addMessage("Message 2");
+        return actionUpdateStatus;
+    }
+}
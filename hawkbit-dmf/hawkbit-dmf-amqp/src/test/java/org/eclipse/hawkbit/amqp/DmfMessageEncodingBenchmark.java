@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifactHash;
+import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+
+/**
+ * Benchmark of the encode and decode cost of a DOWNLOAD_AND_INSTALL message
+ * with the supported DMF encodings. The payload size of each encoding is
+ * logged before the benchmark is started.
+ *
+ * Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DmfMessageEncodingBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DmfMessageEncodingBenchmark.class);
+
+    private static final int MODULES = 3;
+
+    private static final int ARTIFACTS_PER_MODULE = 2;
+
+    @Param({ MessageProperties.CONTENT_TYPE_JSON, DmfMessageConverter.CONTENT_TYPE_CBOR,
+            DmfMessageConverter.CONTENT_TYPE_SMILE })
+    private String contentType;
+
+    private DmfMessageConverter converter;
+
+    private DmfDownloadAndUpdateRequest request;
+
+    private Message message;
+
+    /**
+     * Prepares the converter and an encoded message.
+     */
+    @Setup
+    public void setup() {
+        converter = createConverter();
+        request = createRequest();
+        message = encode(converter, request, contentType);
+    }
+
+    /**
+     * @return the encoded request
+     */
+    @Benchmark
+    public Message encode() {
+        return encode(converter, request, contentType);
+    }
+
+    /**
+     * @return the decoded request
+     */
+    @Benchmark
+    public Object decode() {
+        message.getMessageProperties().setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                DmfDownloadAndUpdateRequest.class.getName());
+        return converter.fromMessage(message);
+    }
+
+    /**
+     * Logs the payload sizes and runs the benchmark.
+     *
+     * @param args
+     *            not used
+     * @throws RunnerException
+     *             if the benchmark failed
+     */
+    public static void main(final String[] args) throws RunnerException {
+        final DmfMessageConverter converter = createConverter();
+        final DmfDownloadAndUpdateRequest request = createRequest();
+        for (final String type : new String[] { MessageProperties.CONTENT_TYPE_JSON,
+                DmfMessageConverter.CONTENT_TYPE_CBOR, DmfMessageConverter.CONTENT_TYPE_SMILE }) {
+            LOGGER.info("{}: {} bytes", type, encode(converter, request, type).getBody().length);
+        }
+
+        new Runner(new OptionsBuilder().include(DmfMessageEncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static Message encode(final DmfMessageConverter converter, final DmfDownloadAndUpdateRequest request,
+            final String contentType) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(contentType);
+        return converter.toMessage(request, messageProperties);
+    }
+
+    private static DmfMessageConverter createConverter() {
+        final AmqpEncodingProperties encodingProperties = new AmqpEncodingProperties();
+        encodingProperties.setEnabled(true);
+        return new DmfMessageConverter(encodingProperties);
+    }
+
+    private static DmfDownloadAndUpdateRequest createRequest() {
+        final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
+        request.setActionId(4711L);
+        request.setTargetSecurityToken("8f2d4b7c1e0a4c6d9b3f5e7a2c1d0b9e");
+
+        for (int module = 0; module < MODULES; module++) {
+            final DmfSoftwareModule softwareModule = new DmfSoftwareModule();
+            softwareModule.setModuleId((long) module);
+            softwareModule.setModuleType("os");
+            softwareModule.setModuleVersion("1.0." + module);
+
+            final List<DmfArtifact> artifacts = new ArrayList<>();
+            for (int artifact = 0; artifact < ARTIFACTS_PER_MODULE; artifact++) {
+                artifacts.add(createArtifact(module, artifact));
+            }
+            softwareModule.setArtifacts(artifacts);
+            request.addSoftwareModule(softwareModule);
+        }
+        return request;
+    }
+
+    private static DmfArtifact createArtifact(final int module, final int artifact) {
+        final String path = "/DEFAULT/controller/v1/thing123/softwaremodules/" + module + "/artifacts/file" + artifact
+                + ".bin";
+        final Map<String, String> urls = new HashMap<>();
+        urls.put("HTTP", "http://localhost:8080" + path);
+        urls.put("HTTPS", "https://localhost:8080" + path);
+
+        final DmfArtifact dmfArtifact = new DmfArtifact();
+        dmfArtifact.setFilename("file" + artifact + ".bin");
+        dmfArtifact.setSize(1_048_576L);
+        dmfArtifact.setHashes(
+                new DmfArtifactHash("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", "9e107d9d372bb6826bd81d3542a419d6"));
+        dmfArtifact.setUrls(urls);
+        return dmfArtifact;
+    }
+}
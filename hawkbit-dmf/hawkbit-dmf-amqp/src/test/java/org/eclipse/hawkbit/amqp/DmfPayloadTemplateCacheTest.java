@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.eclipse.hawkbit.amqp.DmfPayloadTemplateCache.DownloadAndUpdateConverter;
+import org.eclipse.hawkbit.amqp.DmfPayloadTemplateCache.TemplateKey;
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.Base62Util;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
+import org.eclipse.hawkbit.repository.event.remote.SoftwareModuleDeletedEvent;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpMessage Dispatcher Service Test")
+public class DmfPayloadTemplateCacheTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private final DmfPayloadTemplateCache cache = new DmfPayloadTemplateCache(100, 60_000);
+
+    private final List<SoftwareModule> modules = Collections.singletonList(createSoftwareModule(3L));
+
+    private final ArtifactUrlHandler urlHandler = mock(ArtifactUrlHandler.class);
+
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private final List<String> convertedControllerIds = new ArrayList<>();
+
+    @Test
+    @Description("Verifies that the body is built once and the target values are filled in for further targets.")
+    public void payloadIsBuiltOnceAndRenderedPerTarget() {
+        final DownloadAndUpdateConverter converter = createConverter((controllerId, targetId) -> "https://host/"
+                + controllerId + "/" + targetId + "/" + Base62Util.fromBase10(targetId));
+
+        final Message first = getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        final Message second = getMessage(createTarget("second", 62L), 11L, "to\"ken2", converter);
+
+        assertThat(getUrl(first)).isEqualTo("https://host/first/1/1");
+        assertThat(getUrl(second)).isEqualTo("https://host/second/62/10");
+        assertThat(second.getBody()).isEqualTo(convert(converter, "second", 62L, 11L, "to\"ken2").getBody());
+        assertThat(second.getMessageProperties().getContentLength()).isEqualTo(second.getBody().length);
+        assertThat(second.getMessageProperties().getHeaders())
+                .containsAllEntriesOf(first.getMessageProperties().getHeaders());
+        assertThat(convertedControllerIds).hasSize(3).startsWith("first").doesNotContain("second");
+    }
+
+    @Test
+    @Description("Verifies that the body is built for every target if the URLs cannot be built from a template.")
+    public void payloadIsBuiltPerTargetIfUrlsAreNotSubstitutable() {
+        final DownloadAndUpdateConverter converter = createConverter(
+                (controllerId, targetId) -> "https://host/" + controllerId.hashCode());
+
+        getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        final Message second = getMessage(createTarget("second", 2L), 11L, "token2", converter);
+
+        assertThat(getUrl(second)).isEqualTo("https://host/" + "second".hashCode());
+        assertThat(convertedControllerIds).hasSize(4).endsWith("second");
+    }
+
+    @Test
+    @Description("Verifies that a value that occurs by chance in the payload is not mistaken for a placeholder.")
+    public void payloadIsBuiltPerTargetIfPlaceholderIsAmbiguous() {
+        final DownloadAndUpdateConverter converter = createConverter(
+                (controllerId, targetId) -> "https://host/" + controllerId + "/7346019582913407");
+
+        getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        final Message second = getMessage(createTarget("second", 2L), 11L, "token2", converter);
+
+        assertThat(getUrl(second)).isEqualTo("https://host/second/7346019582913407");
+        assertThat(convertedControllerIds).endsWith("second");
+    }
+
+    @Test
+    @Description("Verifies that targets with controller IDs that might be encoded in an URL are built regularly.")
+    public void payloadIsBuiltForControllerIdWithSpecialCharacters() {
+        final DownloadAndUpdateConverter converter = createConverter(
+                (controllerId, targetId) -> "https://host/" + controllerId);
+
+        getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        final Message second = getMessage(createTarget("sec ond", 2L), 11L, "token2", converter);
+
+        assertThat(getUrl(second)).isEqualTo("https://host/sec ond");
+        assertThat(convertedControllerIds).hasSize(4).endsWith("sec ond");
+    }
+
+    @Test
+    @Description("Verifies that the body is built again for another content type or URL handler.")
+    public void payloadIsBuiltPerContentTypeAndUrlHandler() {
+        final DownloadAndUpdateConverter converter = createConverter(
+                (controllerId, targetId) -> "https://host/" + controllerId);
+
+        getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        cache.getDownloadAndUpdateMessage(
+                new TemplateKey(TENANT, modules, MessageProperties.CONTENT_TYPE_JSON, mock(ArtifactUrlHandler.class)),
+                createTarget("second", 2L), 11L, "token2", createMessageProperties(), converter);
+        cache.getDownloadAndUpdateMessage(new TemplateKey(TENANT, modules, "application/cbor", urlHandler),
+                createTarget("third", 3L), 12L, "token3", createMessageProperties(), converter);
+
+        assertThat(convertedControllerIds).hasSize(7).contains("second", "third");
+    }
+
+    @Test
+    @Description("Verifies that the body is built again after one of its software modules has been deleted.")
+    public void payloadIsEvictedOnSoftwareModuleDeletion() {
+        final DownloadAndUpdateConverter converter = createConverter(
+                (controllerId, targetId) -> "https://host/" + controllerId);
+
+        getMessage(createTarget("first", 1L), 10L, "token1", converter);
+        cache.evictSoftwareModule(
+                new SoftwareModuleDeletedEvent(TENANT, 3L, SoftwareModule.class.getName(), "application"));
+        getMessage(createTarget("second", 2L), 11L, "token2", converter);
+
+        assertThat(convertedControllerIds).hasSize(6).contains("second");
+    }
+
+    private Message getMessage(final Target target, final Long actionId, final String targetSecurityToken,
+            final DownloadAndUpdateConverter converter) {
+        return cache.getDownloadAndUpdateMessage(
+                new TemplateKey(TENANT, modules, MessageProperties.CONTENT_TYPE_JSON, urlHandler), target, actionId,
+                targetSecurityToken, createMessageProperties(), converter);
+    }
+
+    private static Message convert(final DownloadAndUpdateConverter converter, final String controllerId,
+            final Long targetId, final Long actionId, final String targetSecurityToken) {
+        return converter.convert(controllerId, targetId, actionId, targetSecurityToken, createMessageProperties());
+    }
+
+    private static MessageProperties createMessageProperties() {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return messageProperties;
+    }
+
+    private DownloadAndUpdateConverter createConverter(final BiFunction<String, Long, String> urlBuilder) {
+        return (controllerId, targetId, actionId, targetSecurityToken, messageProperties) -> {
+            convertedControllerIds.add(controllerId);
+
+            final DmfArtifact artifact = new DmfArtifact();
+            artifact.setFilename("file");
+            artifact.setUrls(Collections.singletonMap("HTTPS", urlBuilder.apply(controllerId, targetId)));
+            final DmfSoftwareModule softwareModule = new DmfSoftwareModule();
+            softwareModule.setModuleId(3L);
+            softwareModule.setArtifacts(Collections.singletonList(artifact));
+            final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
+            request.setActionId(actionId);
+            request.setTargetSecurityToken(targetSecurityToken);
+            request.addSoftwareModule(softwareModule);
+            return messageConverter.toMessage(request, messageProperties);
+        };
+    }
+
+    private String getUrl(final Message message) {
+        final DmfDownloadAndUpdateRequest request = (DmfDownloadAndUpdateRequest) messageConverter
+                .fromMessage(message);
+        return request.getSoftwareModules().get(0).getArtifacts().get(0).getUrls().get("HTTPS");
+    }
+
+    private static SoftwareModule createSoftwareModule(final Long id) {
+        final SoftwareModule softwareModule = mock(SoftwareModule.class);
+        when(softwareModule.getId()).thenReturn(id);
+        return softwareModule;
+    }
+
+    private static Target createTarget(final String controllerId, final Long id) {
+        final Target target = mock(Target.class);
+        when(target.getControllerId()).thenReturn(controllerId);
+        when(target.getId()).thenReturn(id);
+        return target;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Retry Message Recoverer Test")
+public class DmfRetryMessageRecovererTest {
+
+    private static final String QUEUE = "dmf_receiver";
+
+    @Mock
+    private RabbitTemplate rabbitTemplateMock;
+
+    private AmqpRetryProperties properties;
+
+    private DmfRetryMessageRecoverer recoverer;
+
+    @Before
+    public void before() {
+        properties = new AmqpRetryProperties();
+        properties.setDelays(Arrays.asList(100L, 1_000L));
+        recoverer = new DmfRetryMessageRecoverer(rabbitTemplateMock, properties, Arrays.asList(QUEUE));
+    }
+
+    @Test
+    @Description("Verifies that a failed message is moved to the retry queues with escalating delays.")
+    public void failedMessageIsRetriedWithEscalatingDelay() {
+        final Message message = createMessage(QUEUE);
+
+        recoverer.recover(message, new OptimisticLockingFailureException("lock"));
+        assertThat(message.getMessageProperties().getHeaders())
+                .containsEntry(DmfRetryMessageRecoverer.RETRY_COUNT_HEADER, 1)
+                .containsEntry(DmfRetryMessageRecoverer.RETRY_QUEUE_HEADER, "dmf_receiver_retry_100");
+
+        recoverer.recover(message, new OptimisticLockingFailureException("lock"));
+        assertThat(message.getMessageProperties().getHeaders())
+                .containsEntry(DmfRetryMessageRecoverer.RETRY_COUNT_HEADER, 2)
+                .containsEntry(DmfRetryMessageRecoverer.RETRY_QUEUE_HEADER, "dmf_receiver_retry_1000");
+
+        verify(rabbitTemplateMock, times(2)).send(properties.getExchange(), QUEUE, message);
+        assertThat(recoverer.getRetriedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verifies that a message is moved to the parking queue after the last retry.")
+    public void messageIsParkedAfterLastRetry() {
+        final Message message = createMessage(QUEUE);
+        message.getMessageProperties().setHeader(DmfRetryMessageRecoverer.RETRY_COUNT_HEADER, 2);
+
+        recoverer.recover(message, new OptimisticLockingFailureException("lock"));
+
+        verify(rabbitTemplateMock).send("", properties.getParkingQueue(), message);
+        assertThat(message.getMessageProperties().getHeaders())
+                .containsEntry(DmfRetryMessageRecoverer.ORIGINAL_QUEUE_HEADER, QUEUE)
+                .doesNotContainKey(DmfRetryMessageRecoverer.RETRY_QUEUE_HEADER);
+        assertThat((String) message.getMessageProperties().getHeaders().get(DmfRetryMessageRecoverer.EXCEPTION_HEADER))
+                .contains("lock");
+        assertThat(recoverer.getParkedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that invalid messages are rejected and messages of other queues are left to the error handler.")
+    public void invalidAndForeignMessagesAreNotRetried() {
+        try {
+            recoverer.recover(createMessage(QUEUE), new MessageConversionException("invalid"));
+            fail("AmqpRejectAndDontRequeueException was expected");
+        } catch (final AmqpRejectAndDontRequeueException e) {
+            assertThat(e.getCause()).isInstanceOf(MessageConversionException.class);
+        }
+
+        final OptimisticLockingFailureException cause = new OptimisticLockingFailureException("lock");
+        try {
+            recoverer.recover(createMessage("authentication_receiver"), cause);
+            fail("OptimisticLockingFailureException was expected");
+        } catch (final OptimisticLockingFailureException e) {
+            assertThat(e).isSameAs(cause);
+        }
+
+        verifyZeroInteractions(rabbitTemplateMock);
+    }
+
+    private static Message createMessage(final String queue) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setConsumerQueue(queue);
+        return new Message(new byte[0], messageProperties);
+    }
+}
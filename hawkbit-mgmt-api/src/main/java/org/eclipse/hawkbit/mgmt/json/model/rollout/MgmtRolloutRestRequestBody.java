@@ -34,6 +34,10 @@ public class MgmtRolloutRestRequestBody extends AbstractMgmtRolloutConditionsEnt
 
     private Long startAt;
 
+    private Integer activationsPerMinute;
+
+    private Integer maxRunningActions;
+
     private MgmtActionType type;
 
     private List<MgmtRolloutGroup> groups;
@@ -141,4 +145,34 @@ public class MgmtRolloutRestRequestBody extends AbstractMgmtRolloutConditionsEnt
     public void setStartAt(Long startAt) {
         this.startAt = startAt;
     }
+
+    /**
+     * @return the maximum number of actions started per minute or null
+     */
+    public Integer getActivationsPerMinute() {
+        return activationsPerMinute;
+    }
+
+    /**
+     * @param activationsPerMinute
+     *            the maximum number of actions started per minute or null
+     */
+    public void setActivationsPerMinute(final Integer activationsPerMinute) {
+        this.activationsPerMinute = activationsPerMinute;
+    }
+
+    /**
+     * @return the maximum number of running actions or null
+     */
+    public Integer getMaxRunningActions() {
+        return maxRunningActions;
+    }
+
+    /**
+     * @param maxRunningActions
+     *            the maximum number of running actions or null
+     */
+    public void setMaxRunningActions(final Integer maxRunningActions) {
+        this.maxRunningActions = maxRunningActions;
+    }
 }
@@ -102,7 +102,9 @@ final class MgmtRolloutMapper {
         return entityFactory.rollout().create().name(restRequest.getName()).description(restRequest.getDescription())
                 .set(distributionSet).targetFilterQuery(restRequest.getTargetFilterQuery())
                 .actionType(MgmtRestModelMapper.convertActionType(restRequest.getType()))
-                .forcedTime(restRequest.getForcetime()).startAt(restRequest.getStartAt());
+                .forcedTime(restRequest.getForcetime()).startAt(restRequest.getStartAt())
+                .activationsPerMinute(restRequest.getActivationsPerMinute())
+                .maxRunningActions(restRequest.getMaxRunningActions());
     }
 
     static RolloutGroupCreate fromRequest(final EntityFactory entityFactory, final MgmtRolloutGroup restRequest) {
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.repository;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -117,6 +118,30 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Action addUpdateActionStatus(@NotNull ActionStatusCreate create);
 
+    /**
+     * Adds multiple {@link ActionStatus} entries for update {@link Action}s
+     * within one transaction. The referenced {@link Action}s are resolved with
+     * a single query and every entry is handled like
+     * {@link #addUpdateActionStatus(ActionStatusCreate)}, i.e. including
+     * potential state changes for the targets and the {@link Action}s
+     * themselves.
+     *
+     * @param creates
+     *            to be added
+     * @return the updated {@link Action}s in the order of the given creates
+     *
+     * @throws QuotaExceededException
+     *             if more than the allowed number of status entries or messages
+     *             per entry are inserted
+     * @throws EntityNotFoundException
+     *             if one of the referenced actions does not exist
+     * @throws ConstraintViolationException
+     *             if fields are not filled as specified. Check
+     *             {@link ActionStatusCreate} for field constraints.
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    List<Action> addUpdateActionStatuses(@NotEmpty Collection<ActionStatusCreate> creates);
+
     /**
      * Retrieves oldest {@link Action} that is active and assigned to a
      * {@link Target}.
@@ -133,6 +158,18 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Optional<Action> findOldestActiveActionByTarget(@NotNull String controllerId);
 
+    /**
+     * Retrieves the oldest {@link Action} that is active for each of the given
+     * {@link Target}s with one query.
+     *
+     * @param controllerIds
+     *            identifies the targets to retrieve the actions from
+     * @return the oldest active action per controller ID. Targets without an
+     *         active action are not contained.
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    Map<String, Action> findOldestActiveActionsByTargets(@NotEmpty Collection<String> controllerIds);
+
     /**
      * Get the {@link Action} entity for given actionId with all lazy
      * attributes.
@@ -176,6 +213,24 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Target findOrRegisterTargetIfItDoesNotexist(@NotEmpty String controllerId, @NotNull URI address);
 
+    /**
+     * Bulk variant of
+     * {@link #findOrRegisterTargetIfItDoesNotexist(String, URI)} for many
+     * targets connecting at the same time, e.g. after an outage. New and
+     * changed targets are saved in one transaction. For targets that only
+     * reconnect with an unchanged address the
+     * {@link Target#getLastTargetQuery()} is updated with one statement.
+     * Instead of events per target one BulkTargetCreatedEvent,
+     * BulkTargetUpdatedEvent and BulkTargetPollEvent is published for the
+     * whole batch.
+     *
+     * @param addresses
+     *            the client addresses by controller ID
+     * @return the target references
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    List<Target> findOrRegisterTargetsIfTheyDoNotExist(@NotEmpty Map<String, URI> addresses);
+
     /**
      * Retrieves last {@link Action} for a download of an artifact of given
      * module and target if exists and is not canceled.
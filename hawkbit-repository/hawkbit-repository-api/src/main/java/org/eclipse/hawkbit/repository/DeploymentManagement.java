@@ -409,6 +409,24 @@ public interface DeploymentManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     long startScheduledActionsByRolloutGroupParent(@NotNull Long rolloutId, Long rolloutGroupParentId);
 
+    /**
+     * Starts at most the given number of scheduled actions of an RolloutGroup
+     * parent, e.g. to spread the start of a large group over time. The
+     * actions are started in the transaction of the caller, so the caller can
+     * record the started actions in the same transaction.
+     *
+     * @param rolloutId
+     *            the rollout the actions belong to
+     * @param rolloutGroupParentId
+     *            the parent rollout group the actions should reference. null
+     *            references the first group
+     * @param limit
+     *            the maximum number of actions to start
+     * @return the amount of started actions
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    long startScheduledActionsByRolloutGroupParent(@NotNull Long rolloutId, Long rolloutGroupParentId, long limit);
+
     /**
      * All {@link ActionStatus} entries in the repository.
      *
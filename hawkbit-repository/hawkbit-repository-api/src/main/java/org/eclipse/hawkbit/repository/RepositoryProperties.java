@@ -34,6 +34,23 @@ public class RepositoryProperties {
      */
     private boolean publishTargetPollEvent = true;
 
+    /**
+     * Set to <code>true</code> if the repository should publish one bulk event
+     * for assignments and target deletions that affect many targets instead of
+     * an event per target. Listeners of the per target events are not notified
+     * in that case.
+     */
+    private boolean publishBulkEvents;
+
+    /**
+     * Set to <code>true</code> if the repository should create the scheduled
+     * actions of rollout groups and start them with set based statements
+     * instead of handling every action as an entity. The set based statements
+     * bypass the entity listeners, so one bulk event per rollout group is
+     * published instead of an event per action.
+     */
+    private boolean setBasedRolloutActions;
+
     public boolean isRejectActionStatusForClosedAction() {
         return rejectActionStatusForClosedAction;
     }
@@ -50,4 +67,20 @@ public class RepositoryProperties {
         this.publishTargetPollEvent = publishTargetPollEvent;
     }
 
+    public boolean isPublishBulkEvents() {
+        return publishBulkEvents;
+    }
+
+    public void setPublishBulkEvents(final boolean publishBulkEvents) {
+        this.publishBulkEvents = publishBulkEvents;
+    }
+
+    public boolean isSetBasedRolloutActions() {
+        return setBasedRolloutActions;
+    }
+
+    public void setSetBasedRolloutActions(final boolean setBasedRolloutActions) {
+        this.setBasedRolloutActions = setBasedRolloutActions;
+    }
+
 }
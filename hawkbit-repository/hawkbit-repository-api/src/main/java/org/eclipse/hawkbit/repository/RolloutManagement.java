@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,6 +75,21 @@ public interface RolloutManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_WRITE)
     void handleRollouts();
 
+    /**
+     * Evaluates the given {@link RolloutGroup}s that are
+     * {@link RolloutGroupStatus#RUNNING} in a {@link RolloutStatus#RUNNING}
+     * rollout, i.e. checks their error and success conditions and finishes
+     * the groups and the rollout. Allows to react on changed actions instead
+     * of evaluating all rollouts with {@link #handleRollouts()}.
+     * 
+     * @param rolloutGroupIds
+     *            of the groups to evaluate
+     * @return <code>false</code> if the rollouts of the tenant are currently
+     *         handled elsewhere and the evaluation has to be retried
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_WRITE)
+    boolean handleRolloutGroups(@NotNull Collection<Long> rolloutGroupIds);
+
     /**
      * Counts all {@link Rollout}s in the repository that are not marked as
      * deleted.
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.repository.builder;
 
 import java.util.Optional;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -86,6 +87,20 @@ public interface RolloutCreate {
      */
     RolloutCreate startAt(Long startAt);
 
+    /**
+     * @param activationsPerMinute
+     *            for {@link Rollout#getActivationsPerMinute()}
+     * @return updated builder instance
+     */
+    RolloutCreate activationsPerMinute(@Min(1) Integer activationsPerMinute);
+
+    /**
+     * @param maxRunningActions
+     *            for {@link Rollout#getMaxRunningActions()}
+     * @return updated builder instance
+     */
+    RolloutCreate maxRunningActions(@Min(1) Integer maxRunningActions);
+
     /**
      * @return peek on current state of {@link Rollout} in the builder
      */
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.builder;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -63,4 +64,18 @@ public interface RolloutUpdate {
      */
     RolloutUpdate startAt(Long startAt);
 
+    /**
+     * @param activationsPerMinute
+     *            for {@link Rollout#getActivationsPerMinute()}
+     * @return updated builder instance
+     */
+    RolloutUpdate activationsPerMinute(@Min(1) Integer activationsPerMinute);
+
+    /**
+     * @param maxRunningActions
+     *            for {@link Rollout#getMaxRunningActions()}
+     * @return updated builder instance
+     */
+    RolloutUpdate maxRunningActions(@Min(1) Integer maxRunningActions);
+
 }
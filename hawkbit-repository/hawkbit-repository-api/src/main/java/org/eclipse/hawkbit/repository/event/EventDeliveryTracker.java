@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event;
+
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Tracks if the remote events this node publishes have been delivered to the
+ * external systems they are forwarded to, e.g. to the DMF broker. A component
+ * that forwards events registers as participant for the event types it
+ * forwards and reports the delivery of every such event, also if there was
+ * nothing to forward.
+ *
+ * Registrations are counted, i.e. every participant has to call
+ * {@link #addParticipant(Class)} once per event type.
+ */
+public interface EventDeliveryTracker {
+
+    /**
+     * Registers a participant that reports the delivery of the given event
+     * type.
+     *
+     * @param eventType
+     *            the type of the remote event
+     */
+    void addParticipant(Class<? extends RemoteApplicationEvent> eventType);
+
+    /**
+     * Reports the delivery of an event by a participant. Events that are not
+     * tracked, e.g. events received from the bus, are ignored.
+     *
+     * @param event
+     *            the forwarded event
+     * @param delivery
+     *            completes with <code>true</code> if the event has been
+     *            delivered, with <code>false</code> or exceptionally if not
+     */
+    void reportDelivery(RemoteApplicationEvent event, CompletionStage<Boolean> delivery);
+}
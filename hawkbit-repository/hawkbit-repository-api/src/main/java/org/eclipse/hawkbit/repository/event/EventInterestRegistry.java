@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Registry of the remote events this node consumes. The interests are
+ * advertised to the other nodes of the cluster, which only send event types
+ * that are filtered by interest to nodes that have registered for them.
+ *
+ * Registrations are counted, i.e. every {@link #subscribe(Class, String)} has
+ * to be followed by an {@link #unsubscribe(Class, String)} with the same
+ * arguments.
+ */
+public interface EventInterestRegistry {
+
+    /**
+     * Registers the interest in an event type.
+     *
+     * @param eventType
+     *            the type of the remote event
+     * @param tenant
+     *            the tenant the events belong to or <code>null</code> for the
+     *            events of all tenants
+     */
+    void subscribe(Class<? extends RemoteApplicationEvent> eventType, String tenant);
+
+    /**
+     * Removes an interest registered by {@link #subscribe(Class, String)}.
+     *
+     * @param eventType
+     *            the type of the remote event
+     * @param tenant
+     *            the tenant the events belong to or <code>null</code> for the
+     *            events of all tenants
+     */
+    void unsubscribe(Class<? extends RemoteApplicationEvent> eventType, String tenant);
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+
+/**
+ * TenantAwareEvent that gets sent once when many {@link Action}s of a
+ * {@link RolloutGroup} have been changed by a bulk operation. The actions are
+ * not part of the event and have to be loaded by the receiver.
+ */
+public abstract class AbstractBulkActionEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long rolloutId;
+
+    private Long rolloutGroupId;
+
+    private long actions;
+
+    /**
+     * Default constructor.
+     */
+    protected AbstractBulkActionEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param rolloutId
+     *            of the {@link Rollout} the actions belong to
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup} the actions belong to
+     * @param actions
+     *            number of changed actions
+     * @param applicationId
+     *            the application id.
+     */
+    protected AbstractBulkActionEvent(final String tenant, final Long rolloutId, final Long rolloutGroupId,
+            final long actions, final String applicationId) {
+        super(rolloutGroupId, tenant, applicationId);
+        this.rolloutId = rolloutId;
+        this.rolloutGroupId = rolloutGroupId;
+        this.actions = actions;
+    }
+
+    public Long getRolloutId() {
+        return rolloutId;
+    }
+
+    public Long getRolloutGroupId() {
+        return rolloutGroupId;
+    }
+
+    /**
+     * @return number of changed actions
+     */
+    public long getActions() {
+        return actions;
+    }
+}
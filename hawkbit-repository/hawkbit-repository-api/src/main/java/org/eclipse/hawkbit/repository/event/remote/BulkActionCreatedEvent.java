@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+
+/**
+ * TenantAwareEvent that gets sent once when the scheduled actions of a
+ * {@link RolloutGroup} have been created in bulk, instead of an
+ * {@link ActionCreatedEvent} per action.
+ */
+public class BulkActionCreatedEvent extends AbstractBulkActionEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default constructor.
+     */
+    public BulkActionCreatedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param rolloutId
+     *            of the {@link Rollout} the actions belong to
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup} the actions belong to
+     * @param actions
+     *            number of created actions
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkActionCreatedEvent(final String tenant, final Long rolloutId, final Long rolloutGroupId,
+            final long actions, final String applicationId) {
+        super(tenant, rolloutId, rolloutGroupId, actions, applicationId);
+    }
+}
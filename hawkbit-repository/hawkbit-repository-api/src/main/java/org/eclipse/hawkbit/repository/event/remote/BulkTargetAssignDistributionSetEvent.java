@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * TenantAwareEvent that gets sent once when a distribution set gets assigned
+ * to many targets, instead of a {@link TargetAssignDistributionSetEvent} per
+ * target.
+ */
+public class BulkTargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long distributionSetId;
+
+    private Map<String, Long> actions;
+
+    private transient Collection<SoftwareModule> modules;
+
+    /**
+     * Default constructor.
+     */
+    public BulkTargetAssignDistributionSetEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param distributionSet
+     *            the assigned {@link DistributionSet}
+     * @param actions
+     *            the actions of the assignment
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkTargetAssignDistributionSetEvent(final DistributionSet distributionSet,
+            final Collection<? extends Action> actions, final String applicationId) {
+        this(distributionSet.getTenant(), distributionSet.getId(), toActionMap(actions), applicationId);
+        this.modules = distributionSet.getModules();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param distributionSetId
+     *            of the assigned {@link DistributionSet}
+     * @param actions
+     *            {@link Target#getControllerId()} to {@link Action#getId()} of
+     *            the assignment
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkTargetAssignDistributionSetEvent(final String tenant, final Long distributionSetId,
+            final Map<String, Long> actions, final String applicationId) {
+        super(distributionSetId, tenant, applicationId);
+        this.distributionSetId = distributionSetId;
+        this.actions = actions;
+    }
+
+    private static Map<String, Long> toActionMap(final Collection<? extends Action> actions) {
+        final Map<String, Long> result = new LinkedHashMap<>(actions.size());
+        actions.forEach(action -> result.put(action.getTarget().getControllerId(), action.getId()));
+        return result;
+    }
+
+    public Long getDistributionSetId() {
+        return distributionSetId;
+    }
+
+    /**
+     * @return {@link Target#getControllerId()} to {@link Action#getId()} of
+     *         the assignment
+     */
+    public Map<String, Long> getActions() {
+        if (actions == null) {
+            return Collections.emptyMap();
+        }
+
+        return actions;
+    }
+
+    /**
+     * @return modules if Event has been published by same node otherwise empty.
+     */
+    @JsonIgnore
+    public Collection<SoftwareModule> getModules() {
+        if (modules == null) {
+            return Collections.emptyList();
+        }
+
+        return modules;
+    }
+}
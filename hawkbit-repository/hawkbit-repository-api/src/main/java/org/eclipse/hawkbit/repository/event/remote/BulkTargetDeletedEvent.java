@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * TenantAwareEvent that gets sent once when many targets have been deleted,
+ * instead of a {@link TargetDeletedEvent} per target.
+ */
+public class BulkTargetDeletedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Map<Long, String> controllerIds;
+
+    private Map<String, String> targetAddresses;
+
+    /**
+     * Default constructor.
+     */
+    public BulkTargetDeletedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param controllerIds
+     *            {@link Target#getId()} to {@link Target#getControllerId()}
+     *            of the deleted targets
+     * @param targetAddresses
+     *            {@link Target#getControllerId()} to
+     *            {@link Target#getAddress()} of the deleted targets that have
+     *            an address
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkTargetDeletedEvent(final String tenant, final Map<Long, String> controllerIds,
+            final Map<String, String> targetAddresses, final String applicationId) {
+        super(tenant, tenant, applicationId);
+        this.controllerIds = controllerIds;
+        this.targetAddresses = targetAddresses;
+    }
+
+    /**
+     * @return {@link Target#getId()} to {@link Target#getControllerId()} of
+     *         the deleted targets
+     */
+    public Map<Long, String> getControllerIds() {
+        if (controllerIds == null) {
+            return Collections.emptyMap();
+        }
+
+        return controllerIds;
+    }
+
+    /**
+     * @return {@link Target#getControllerId()} to {@link Target#getAddress()}
+     *         of the deleted targets that have an address
+     */
+    public Map<String, String> getTargetAddresses() {
+        if (targetAddresses == null) {
+            return Collections.emptyMap();
+        }
+
+        return targetAddresses;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Event that gets sent once when many targets have polled at once through
+ * DMF, instead of a {@link TargetPollEvent} per target.
+ */
+public class BulkTargetPollEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Map<String, String> targetAddresses;
+
+    /**
+     * Default constructor.
+     */
+    public BulkTargetPollEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param targetAddresses
+     *            {@link Target#getControllerId()} to
+     *            {@link Target#getAddress()} of the polled targets
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkTargetPollEvent(final String tenant, final Map<String, String> targetAddresses,
+            final String applicationId) {
+        super(tenant, tenant, applicationId);
+        this.targetAddresses = targetAddresses;
+    }
+
+    /**
+     * @return {@link Target#getControllerId()} to {@link Target#getAddress()}
+     *         of the polled targets
+     */
+    public Map<String, String> getTargetAddresses() {
+        if (targetAddresses == null) {
+            return Collections.emptyMap();
+        }
+
+        return targetAddresses;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * TenantAwareEvent that gets sent once when many targets have been updated by
+ * a bulk operation, instead of a {@link TargetUpdatedEvent} per target. The
+ * targets are not part of the event and have to be loaded by the receiver.
+ */
+public class BulkTargetUpdatedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> targetIds;
+
+    /**
+     * Default constructor.
+     */
+    public BulkTargetUpdatedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param targetIds
+     *            of the updated {@link Target}s
+     * @param applicationId
+     *            the application id.
+     */
+    public BulkTargetUpdatedEvent(final String tenant, final Collection<Long> targetIds,
+            final String applicationId) {
+        super(tenant, tenant, applicationId);
+        this.targetIds = new ArrayList<>(targetIds);
+    }
+
+    /**
+     * @return IDs of the updated {@link Target}s
+     */
+    public List<Long> getTargetIds() {
+        if (targetIds == null) {
+            return Collections.emptyList();
+        }
+
+        return targetIds;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.event.EventInterestRegistry;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Event which advertises the interests registered at the
+ * {@link EventInterestRegistry} of a node to the other nodes of the cluster.
+ */
+public class EventInterestEvent extends RemoteApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<String> interests;
+
+    private boolean request;
+
+    /**
+     * Default constructor.
+     */
+    public EventInterestEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param interests
+     *            of the advertising node
+     * @param request
+     *            <code>true</code> if the other nodes should answer with
+     *            their interests
+     * @param applicationId
+     *            the application id.
+     */
+    public EventInterestEvent(final Collection<String> interests, final boolean request, final String applicationId) {
+        super(applicationId, applicationId, "**");
+        this.interests = new ArrayList<>(interests);
+        this.request = request;
+    }
+
+    /**
+     * @return interests of the advertising node
+     */
+    public List<String> getInterests() {
+        if (interests == null) {
+            return Collections.emptyList();
+        }
+
+        return interests;
+    }
+
+    /**
+     * @return <code>true</code> if the other nodes should answer with their
+     *         interests
+     */
+    public boolean isRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote.entity;
+
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+
+/**
+ * Defines the remote event of a {@link Target} which carries a snapshot of
+ * the target fields the UI uses, so it does not have to reload the target.
+ *
+ * Protostuff numbers the fields in the order they are declared, starting with
+ * the fields of the super classes. The snapshot fields are therefore only
+ * compatible with older nodes for subclasses that declare no fields of their
+ * own, new fields have to be appended to the subclasses.
+ */
+public abstract class AbstractTargetEvent extends RemoteEntityEvent<Target> {
+    private static final long serialVersionUID = 1L;
+
+    private String controllerId;
+    private String name;
+    private String address;
+    private TargetUpdateStatus updateStatus;
+
+    /**
+     * Default constructor.
+     */
+    public AbstractTargetEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param baseEntity
+     *            the target
+     * @param applicationId
+     *            the origin application id
+     */
+    public AbstractTargetEvent(final Target baseEntity, final String applicationId) {
+        super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+        this.name = baseEntity.getName();
+        this.address = baseEntity.getAddress() == null ? null : baseEntity.getAddress().toString();
+        this.updateStatus = baseEntity.getUpdateStatus();
+    }
+
+    /**
+     * @return the controller ID of the target or <code>null</code> if the
+     *         event has been sent without snapshot
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public TargetUpdateStatus getUpdateStatus() {
+        return updateStatus;
+    }
+
+    /**
+     * @return <code>true</code> if the event carries the snapshot of the
+     *         target
+     */
+    public boolean hasSnapshot() {
+        return controllerId != null;
+    }
+
+}
@@ -12,7 +12,12 @@ import org.eclipse.hawkbit.repository.model.Target;
 
 /**
  * Event that gets sent when the assignment of a distribution set to a target
- * gets canceled.
+ * gets canceled. It carries a snapshot of the target fields the DMF dispatcher
+ * uses, so the dispatcher does not have to reload the target.
+ *
+ * Protostuff numbers the fields in the order they are declared, so the
+ * snapshot fields are declared after the action ID to keep the event readable
+ * by older nodes.
  */
 public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
 
@@ -20,6 +25,10 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
 
     private Long actionId;
 
+    private String controllerId;
+
+    private String address;
+
     /**
      * Default constructor.
      */
@@ -40,6 +49,8 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
     public CancelTargetAssignmentEvent(final Target baseEntity, final Long actionId, final String applicationId) {
         super(baseEntity, applicationId);
         this.actionId = actionId;
+        this.controllerId = baseEntity.getControllerId();
+        this.address = baseEntity.getAddress() == null ? null : baseEntity.getAddress().toString();
     }
 
     /**
@@ -49,4 +60,24 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
         return actionId;
     }
 
+    /**
+     * @return the controller ID of the target or <code>null</code> if the
+     *         event has been sent without snapshot
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @return <code>true</code> if the event carries the snapshot of the
+     *         target
+     */
+    public boolean hasSnapshot() {
+        return controllerId != null;
+    }
+
 }
@@ -14,7 +14,7 @@ import org.eclipse.hawkbit.repository.model.Target;
  * Defines the remote event of creating a new {@link Target}.
  *
  */
-public class TargetCreatedEvent extends RemoteEntityEvent<Target> {
+public class TargetCreatedEvent extends AbstractTargetEvent {
     private static final long serialVersionUID = 1L;
 
     /**
@@ -14,7 +14,7 @@ import org.eclipse.hawkbit.repository.model.Target;
  * Defines the remote event for updating a {@link Target}.
  *
  */
-public class TargetUpdatedEvent extends RemoteEntityEvent<Target> {
+public class TargetUpdatedEvent extends AbstractTargetEvent {
 
     private static final long serialVersionUID = 1L;
 
@@ -65,6 +65,20 @@ public interface Rollout extends NamedEntity {
      */
     Long getStartAt();
 
+    /**
+     * @return maximum number of {@link Action}s that are started per minute,
+     *         independent of the size of the groups. <code>null</code> if the
+     *         rollout is not throttled by rate.
+     */
+    Integer getActivationsPerMinute();
+
+    /**
+     * @return maximum number of active {@link Action}s of the rollout at the
+     *         same time. <code>null</code> if the rollout is not throttled by
+     *         concurrency.
+     */
+    Integer getMaxRunningActions();
+
     /**
      * @return number of {@link Target}s in this rollout.
      */
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+
+/**
+ * Interceptor of the bus output channel which drops remote events no other
+ * node is interested in. It has to be the first interceptor of the channel, so
+ * that the events are dropped before they are serialized.
+ */
+public class BusEventInterestFilter extends ChannelInterceptorAdapter {
+    private static final Logger LOG = LoggerFactory.getLogger(BusEventInterestFilter.class);
+
+    private final BusEventInterestRegistry registry;
+
+    /**
+     * Constructor.
+     *
+     * @param registry
+     *            with the interests of the other nodes
+     */
+    public BusEventInterestFilter(final BusEventInterestRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Message<?> preSend(final Message<?> message, final MessageChannel channel) {
+        final Object payload = message.getPayload();
+        if (payload instanceof RemoteApplicationEvent && !registry.isInterested((RemoteApplicationEvent) payload)) {
+            LOG.trace("Dropped {}, no other node is interested in it", payload);
+            return null;
+        }
+        return message;
+    }
+}
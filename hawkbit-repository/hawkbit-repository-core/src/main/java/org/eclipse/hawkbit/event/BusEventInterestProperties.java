@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the interest based filtering of remote events
+ * before they are sent to the bus.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.bus.interest")
+public class BusEventInterestProperties {
+
+    /**
+     * Set to <code>true</code> to send the event types listed in
+     * {@link #events} only if another node has registered its interest in
+     * them. Has to be enabled on all nodes of the cluster, as nodes without it
+     * do not advertise their interests.
+     */
+    private boolean enabled;
+
+    /**
+     * Simple class names of the event types which are filtered by interest.
+     * Only list types whose remote consumers register at the
+     * EventInterestRegistry, all other types are always sent.
+     */
+    private List<String> events = new ArrayList<>(Arrays.asList("DownloadProgressEvent", "TargetPollEvent",
+            "BulkTargetPollEvent"));
+
+    /**
+     * Time in milliseconds after which a node advertises its interests again.
+     */
+    private long advertiseInterval = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Time in milliseconds after which the interests of a node expire if it
+     * has not advertised them again.
+     */
+    private long timeout = TimeUnit.SECONDS.toMillis(90);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void setEvents(final List<String> events) {
+        this.events = events;
+    }
+
+    public long getAdvertiseInterval() {
+        return advertiseInterval;
+    }
+
+    public void setAdvertiseInterval(final long advertiseInterval) {
+        this.advertiseInterval = advertiseInterval;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.EventInterestRegistry;
+import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.EventInterestEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link EventInterestRegistry} which advertises the interests of this node
+ * with an {@link EventInterestEvent} in a fixed interval and collects the
+ * interests advertised by the other nodes. The first advertisement after the start requests
+ * the interests of the other nodes, so that a starting node knows them
+ * without waiting for the interval.
+ *
+ * An interest is encoded as the {@link EventType} value and the tenant, e.g.
+ * <code>20@DEFAULT</code> with the tenant in upper case, or <code>20@*</code> for all tenants.
+ */
+public class BusEventInterestRegistry implements EventInterestRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(BusEventInterestRegistry.class);
+
+    private static final String ALL_TENANTS = "*";
+
+    private final BusEventInterestProperties properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String applicationId;
+
+    private final Set<Class<?>> filteredTypes;
+
+    private final Map<String, AtomicInteger> localInterests = new ConcurrentHashMap<>();
+
+    private final Map<String, NodeInterests> remoteInterests = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the interest filtering
+     * @param eventPublisher
+     *            to publish the advertisements
+     * @param applicationId
+     *            application ID of this node
+     */
+    public BusEventInterestRegistry(final BusEventInterestProperties properties,
+            final ApplicationEventPublisher eventPublisher, final String applicationId) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.applicationId = applicationId;
+        this.filteredTypes = ImmutableSet.copyOf(EventType.getTypes().values().stream()
+                .filter(type -> properties.getEvents().contains(type.getSimpleName())).collect(Collectors.toList()));
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("bus-event-interest-%d").build());
+        executor.scheduleWithFixedDelay(this::advertise, properties.getAdvertiseInterval(),
+                properties.getAdvertiseInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the first advertisement as soon as the bus is available.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(this::advertise);
+    }
+
+    /**
+     * Stops the advertisement.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void subscribe(final Class<? extends RemoteApplicationEvent> eventType, final String tenant) {
+        final String interest = toInterest(eventType, tenant);
+        if (interest == null) {
+            return;
+        }
+
+        if (localInterests.computeIfAbsent(interest, key -> new AtomicInteger()).incrementAndGet() == 1) {
+            // advertise new interests right away, removed ones expire with
+            // the next advertisement
+            executor.execute(this::advertise);
+        }
+    }
+
+    @Override
+    public void unsubscribe(final Class<? extends RemoteApplicationEvent> eventType, final String tenant) {
+        final String interest = toInterest(eventType, tenant);
+        if (interest == null) {
+            return;
+        }
+
+        localInterests.computeIfPresent(interest, (key, count) -> count.decrementAndGet() > 0 ? count : null);
+    }
+
+    /**
+     * Stores the interests advertised by another node.
+     *
+     * @param event
+     *            the advertisement
+     */
+    @EventListener(classes = EventInterestEvent.class)
+    public void onInterestEvent(final EventInterestEvent event) {
+        if (applicationId.equals(event.getOriginService())) {
+            return;
+        }
+
+        remoteInterests.put(event.getOriginService(),
+                new NodeInterests(ImmutableSet.copyOf(event.getInterests()), System.currentTimeMillis()));
+
+        if (event.isRequest()) {
+            executor.execute(this::advertise);
+        }
+    }
+
+    /**
+     * @param event
+     *            to send
+     * @return <code>true</code> if the event has to be sent to the bus
+     */
+    public boolean isInterested(final RemoteApplicationEvent event) {
+        if (!filteredTypes.contains(event.getClass())) {
+            return true;
+        }
+
+        final int type = EventType.from(event.getClass()).getValue();
+        final String allTenants = type + "@" + ALL_TENANTS;
+        final String eventTenant = event instanceof TenantAwareEvent ? ((TenantAwareEvent) event).getTenant() : null;
+        final String tenant = eventTenant == null ? allTenants : type + "@" + eventTenant.toUpperCase();
+        final long expired = System.currentTimeMillis() - properties.getTimeout();
+
+        return remoteInterests.values().stream().filter(node -> node.received > expired)
+                .anyMatch(node -> node.interests.contains(tenant) || node.interests.contains(allTenants));
+    }
+
+    void advertise() {
+        try {
+            final long expired = System.currentTimeMillis() - properties.getTimeout();
+            remoteInterests.values().removeIf(node -> node.received <= expired);
+
+            eventPublisher.publishEvent(
+                    new EventInterestEvent(localInterests.keySet(), requested.compareAndSet(false, true), applicationId));
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to advertise the event interests", e);
+        }
+    }
+
+    private static String toInterest(final Class<?> eventType, final String tenant) {
+        final EventType type = EventType.from(eventType);
+        if (type == null) {
+            // not sent by the protostuff converter, hence never filtered
+            LOG.debug("Ignored interest in {} without EventType", eventType);
+            return null;
+        }
+        return type.getValue() + "@" + (tenant == null ? ALL_TENANTS : tenant.toUpperCase());
+    }
+
+    private static final class NodeInterests {
+        private final Set<String> interests;
+        private final long received;
+
+        private NodeInterests(final Set<String> interests, final long received) {
+            this.interests = interests;
+            this.received = received;
+        }
+    }
+}
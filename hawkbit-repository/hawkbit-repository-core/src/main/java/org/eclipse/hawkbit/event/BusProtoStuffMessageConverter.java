@@ -8,6 +8,10 @@
  */
 package org.eclipse.hawkbit.event;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
@@ -19,8 +23,9 @@ import org.springframework.util.MimeType;
 
 import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtobufIOUtil;
-import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.ProtostuffOutput;
 import io.protostuff.Schema;
+import io.protostuff.WireFormat;
 import io.protostuff.runtime.RuntimeSchema;
 
 /**
@@ -34,6 +39,11 @@ import io.protostuff.runtime.RuntimeSchema;
  * information about the event-type is encoded in the payload of the message
  * directly using the encoded values of {@link EventType}.
  *
+ * The schemas of all {@link EventType}s are created once when the class is
+ * loaded. Header and content are written in one pass into a buffer that is
+ * reused per thread, so that the resulting byte array is the only allocation
+ * of the framing. The encoding is the same as the one of the
+ * {@link EventType} message, so the payload stays readable by older nodes.
  */
 public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
 
@@ -44,6 +54,34 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
      */
     private static final byte EVENT_TYPE_LENGTH = 2;
 
+    /**
+     * Tag of the value field of the {@link EventType} message.
+     */
+    private static final int EVENT_TYPE_TAG = WireFormat.makeTag(1, WireFormat.WIRETYPE_VARINT);
+
+    /**
+     * The highest value that fits into a single byte varint and thereby into
+     * {@link #EVENT_TYPE_LENGTH}.
+     */
+    private static final int MAX_EVENT_TYPE_VALUE = 0x7F;
+
+    private static final Schema<?>[] SCHEMAS = new Schema<?>[MAX_EVENT_TYPE_VALUE + 1];
+
+    private static final Map<Class<?>, Integer> EVENT_TYPE_VALUES = new HashMap<>();
+
+    private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal.withInitial(LinkedBuffer::allocate);
+
+    static {
+        EventType.getTypes().forEach((value, clazz) -> {
+            if (value <= 0 || value > MAX_EVENT_TYPE_VALUE) {
+                throw new IllegalStateException("EventType value " + value + " of " + clazz
+                        + " does not fit into the event type header");
+            }
+            SCHEMAS[value] = RuntimeSchema.getSchema(clazz);
+            EVENT_TYPE_VALUES.put(clazz, value);
+        });
+    }
+
     /**
      * Constructor.
      */
@@ -61,13 +99,8 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
             final Object conversionHint) {
         final Object objectPayload = message.getPayload();
         if (objectPayload instanceof byte[]) {
-
             final byte[] payload = (byte[]) objectPayload;
-            final byte[] clazzHeader = extractClazzHeader(payload);
-            final byte[] content = extraxtContent(payload);
-
-            final EventType eventType = readClassHeader(clazzHeader);
-            return readContent(eventType, content);
+            return readContent(getSchema(readClassHeader(payload)), payload);
         }
         return null;
     }
@@ -75,82 +108,55 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
     @Override
     protected Object convertToInternal(final Object payload, final MessageHeaders headers,
             final Object conversionHint) {
+        final int eventType = getEventType(payload.getClass());
+        @SuppressWarnings("unchecked")
+        final Schema<Object> schema = (Schema<Object>) SCHEMAS[eventType];
 
-        final byte[] clazzHeader = writeClassHeader(payload.getClass());
-
-        final byte[] writeContent = writeContent(payload);
-
-        return mergeClassHeaderAndContent(clazzHeader, writeContent);
+        final LinkedBuffer buffer = BUFFER.get();
+        try {
+            final ProtostuffOutput output = new ProtostuffOutput(buffer);
+            output.writeInt32(1, eventType, false);
+            schema.writeTo(output, payload);
+            return output.toByteArray();
+        } catch (final IOException e) {
+            throw new MessageConversionException("Failed to write event " + payload.getClass(), e);
+        } finally {
+            buffer.clear();
+        }
     }
 
-    private static Object readContent(final EventType eventType, final byte[] content) {
-        final Class<?> targetClass = eventType.getTargetClass();
-        if (targetClass == null) {
-            LOG.error("Cannot read clazz header for given EventType value {}, missing mapping", eventType.getValue());
-            throw new MessageConversionException("Missing mapping of EventType for value " + eventType.getValue());
-        }
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(targetClass);
+    private static Object readContent(final Schema<Object> schema, final byte[] payload) {
         final Object deserializeEvent = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(content, deserializeEvent, schema);
+        ProtobufIOUtil.mergeFrom(payload, EVENT_TYPE_LENGTH, payload.length - EVENT_TYPE_LENGTH, deserializeEvent,
+                schema);
         return deserializeEvent;
     }
 
-    private static byte[] mergeClassHeaderAndContent(final byte[] clazzHeader, final byte[] writeContent) {
-        final byte[] body = new byte[clazzHeader.length + writeContent.length];
-        System.arraycopy(clazzHeader, 0, body, 0, clazzHeader.length);
-        System.arraycopy(writeContent, 0, body, clazzHeader.length, writeContent.length);
-        return body;
-    }
-
-    private static byte[] extractClazzHeader(final byte[] payload) {
-        final byte[] clazzHeader = new byte[EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, 0, clazzHeader, 0, EVENT_TYPE_LENGTH);
-        return clazzHeader;
-    }
-
-    private static byte[] extraxtContent(final byte[] payload) {
-        final byte[] content = new byte[payload.length - EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, EVENT_TYPE_LENGTH, content, 0, content.length);
-        return content;
-    }
-
-    private static EventType readClassHeader(final byte[] typeInformation) {
-        final Schema<EventType> schema = RuntimeSchema.getSchema(EventType.class);
-        final EventType deserializedType = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(typeInformation, deserializedType, schema);
-        return deserializedType;
-    }
-
-    private static byte[] writeContent(final Object payload) {
-        final Class<? extends Object> serializeClass = payload.getClass();
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(serializeClass);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return writeProtoBuf(payload, schema, buffer);
+    private static int readClassHeader(final byte[] payload) {
+        if (payload.length < EVENT_TYPE_LENGTH || payload[0] != EVENT_TYPE_TAG
+                || (payload[1] & 0xFF) > MAX_EVENT_TYPE_VALUE) {
+            LOG.error("Cannot read clazz header of payload with length {}", payload.length);
+            throw new MessageConversionException("Missing or invalid EventType header");
+        }
+        return payload[1];
     }
 
-    private static byte[] writeClassHeader(final Class<?> clazz) {
-        final EventType clazzEventType = EventType.from(clazz);
-        if (clazzEventType == null) {
-            LOG.error("There is no mapping to EventType for the given clazz {}", clazzEventType);
-            throw new MessageConversionException("Missing EventType for given class : " + clazz);
+    @SuppressWarnings("unchecked")
+    private static Schema<Object> getSchema(final int eventType) {
+        final Schema<Object> schema = (Schema<Object>) SCHEMAS[eventType];
+        if (schema == null) {
+            LOG.error("Cannot read clazz header for given EventType value {}, missing mapping", eventType);
+            throw new MessageConversionException("Missing mapping of EventType for value " + eventType);
         }
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema
-                .getSchema((Class<? extends Object>) EventType.class);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return writeProtoBuf(clazzEventType, schema, buffer);
+        return schema;
     }
 
-    private static byte[] writeProtoBuf(final Object payload, final Schema<Object> schema, final LinkedBuffer buffer) {
-        final byte[] serializeByte;
-        try {
-            serializeByte = ProtostuffIOUtil.toByteArray(payload, schema, buffer);
-        } finally {
-            buffer.clear();
+    private static int getEventType(final Class<?> clazz) {
+        final Integer eventType = EVENT_TYPE_VALUES.get(clazz);
+        if (eventType == null) {
+            LOG.error("There is no mapping to EventType for the given clazz {}", clazz);
+            throw new MessageConversionException("Missing EventType for given class : " + clazz);
         }
-
-        return serializeByte;
+        return eventType;
     }
 }
@@ -8,13 +8,21 @@
  */
 package org.eclipse.hawkbit.event;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
+import org.eclipse.hawkbit.repository.event.remote.BulkActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.event.remote.EventInterestEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutGroupDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.SoftwareModuleDeletedEvent;
@@ -52,6 +60,8 @@ public class EventType {
 
     private static final Map<Integer, Class<?>> TYPES = new HashMap<>();
 
+    private static final Map<Class<?>, Integer> VALUES = new HashMap<>();
+
     /**
      * The associated event-type-value must remain the same as initially
      * declared. Otherwise messages cannot correctly de-serialized.
@@ -101,6 +111,19 @@ public class EventType {
         TYPES.put(24, TargetPollEvent.class);
         TYPES.put(25, RolloutDeletedEvent.class);
         TYPES.put(26, RolloutGroupDeletedEvent.class);
+
+        // bulk events
+        TYPES.put(27, BulkTargetAssignDistributionSetEvent.class);
+        TYPES.put(28, BulkTargetUpdatedEvent.class);
+        TYPES.put(29, BulkTargetDeletedEvent.class);
+
+        TYPES.put(30, EventInterestEvent.class);
+        TYPES.put(32, BulkActionCreatedEvent.class);
+        TYPES.put(33, BulkActionUpdatedEvent.class);
+        TYPES.put(34, BulkTargetCreatedEvent.class);
+        TYPES.put(35, BulkTargetPollEvent.class);
+
+        TYPES.forEach((value, clazz) -> VALUES.put(clazz, value));
     }
 
     private int value;
@@ -140,11 +163,17 @@ public class EventType {
      *         does not have a {@link EventType}.
      */
     public static EventType from(final Class<?> clazz) {
-        final Optional<Integer> foundEventType = TYPES.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(clazz)).map(entry -> entry.getKey()).findAny();
-        if (!foundEventType.isPresent()) {
+        final Integer value = VALUES.get(clazz);
+        if (value == null) {
             return null;
         }
-        return new EventType(foundEventType.get());
+        return new EventType(value);
+    }
+
+    /**
+     * @return all declared event-type values and their corresponding classes
+     */
+    static Map<Integer, Class<?>> getTypes() {
+        return Collections.unmodifiableMap(TYPES);
     }
 }
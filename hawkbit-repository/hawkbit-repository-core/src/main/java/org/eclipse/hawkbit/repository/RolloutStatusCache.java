@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.cache.TenancyCacheManager;
 import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
+import org.eclipse.hawkbit.repository.event.remote.AbstractBulkActionEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutGroupDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
@@ -211,6 +212,16 @@ public class RolloutStatusCache {
         }
     }
 
+    @EventListener(classes = AbstractBulkActionEvent.class)
+    void invalidateCachedTotalTargetCountOnBulkActionChange(final AbstractBulkActionEvent event) {
+        final Cache rolloutCache = tenantAware.runAsTenant(event.getTenant(),
+                () -> cacheManager.getCache(CACHE_RO_NAME));
+        rolloutCache.evict(event.getRolloutId());
+
+        final Cache groupCache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_GR_NAME));
+        groupCache.evict(event.getRolloutGroupId());
+    }
+
     @EventListener(classes = RolloutDeletedEvent.class)
     void invalidateCachedTotalTargetCountOnRolloutDelete(final RolloutDeletedEvent event) {
         final Cache cache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_RO_NAME));
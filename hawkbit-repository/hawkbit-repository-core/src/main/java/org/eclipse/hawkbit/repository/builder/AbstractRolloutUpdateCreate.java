@@ -24,6 +24,8 @@ public abstract class AbstractRolloutUpdateCreate<T> extends AbstractNamedEntity
     protected ActionType actionType;
     protected Long forcedTime;
     protected Long startAt;
+    protected Integer activationsPerMinute;
+    protected Integer maxRunningActions;
 
     public T set(final long set) {
         this.set = set;
@@ -50,6 +52,16 @@ public abstract class AbstractRolloutUpdateCreate<T> extends AbstractNamedEntity
         return (T) this;
     }
 
+    public T activationsPerMinute(final Integer activationsPerMinute) {
+        this.activationsPerMinute = activationsPerMinute;
+        return (T) this;
+    }
+
+    public T maxRunningActions(final Integer maxRunningActions) {
+        this.maxRunningActions = maxRunningActions;
+        return (T) this;
+    }
+
     public Optional<Long> getSet() {
         return Optional.ofNullable(set);
     }
@@ -65,4 +77,12 @@ public abstract class AbstractRolloutUpdateCreate<T> extends AbstractNamedEntity
     public Optional<Long> getStartAt() {
         return Optional.ofNullable(startAt);
     }
+
+    public Optional<Integer> getActivationsPerMinute() {
+        return Optional.ofNullable(activationsPerMinute);
+    }
+
+    public Optional<Integer> getMaxRunningActions() {
+        return Optional.ofNullable(maxRunningActions);
+    }
 }
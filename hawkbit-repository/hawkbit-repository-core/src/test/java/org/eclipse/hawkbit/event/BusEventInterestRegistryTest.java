@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.event.remote.EventInterestEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Repository")
+@Stories("Bus Event Interest")
+public class BusEventInterestRegistryTest {
+
+    private static final String SELF = "node1";
+
+    private static final String OTHER = "node2";
+
+    private static final int DOWNLOAD_PROGRESS = EventType.from(DownloadProgressEvent.class).getValue();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    private BusEventInterestRegistry underTest;
+
+    @Before
+    public void before() {
+        underTest = new BusEventInterestRegistry(new BusEventInterestProperties(), eventPublisherMock, SELF);
+    }
+
+    @After
+    public void after() {
+        underTest.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that filtered events are only sent if another node has advertised its interest in the tenant of the event")
+    public void filteredEventIsSentOnlyToInterestedTenant() {
+        final DownloadProgressEvent event = new DownloadProgressEvent("DEFAULT", 1L, 100L, SELF);
+        assertThat(underTest.isInterested(event)).isFalse();
+
+        underTest.onInterestEvent(
+                new EventInterestEvent(Collections.singletonList(DOWNLOAD_PROGRESS + "@OTHER"), false, OTHER));
+        assertThat(underTest.isInterested(event)).isFalse();
+
+        underTest.onInterestEvent(new EventInterestEvent(
+                Arrays.asList(DOWNLOAD_PROGRESS + "@OTHER", DOWNLOAD_PROGRESS + "@DEFAULT"), false, OTHER));
+        assertThat(underTest.isInterested(event)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that events which are not filtered by interest are always sent and that own advertisements are ignored")
+    public void unfilteredEventIsAlwaysSent() {
+        underTest.onInterestEvent(
+                new EventInterestEvent(Collections.singletonList(DOWNLOAD_PROGRESS + "@*"), false, SELF));
+
+        assertThat(underTest.isInterested(new DownloadProgressEvent("DEFAULT", 1L, 100L, SELF))).isFalse();
+        assertThat(underTest.isInterested(new TargetDeletedEvent("DEFAULT", 1L, "controller", null, "JpaTarget", SELF)))
+                .isTrue();
+    }
+
+    @Test
+    @Description("Verifies that a new local interest is advertised and that counted interests are removed with the last unsubscribe")
+    public void subscriptionIsAdvertised() {
+        underTest.subscribe(DownloadProgressEvent.class, "default");
+        underTest.subscribe(DownloadProgressEvent.class, "default");
+
+        final ArgumentCaptor<EventInterestEvent> captor = ArgumentCaptor.forClass(EventInterestEvent.class);
+        verify(eventPublisherMock, timeout(5_000)).publishEvent(captor.capture());
+        assertThat(captor.getValue().getInterests()).containsExactly(DOWNLOAD_PROGRESS + "@DEFAULT");
+        assertThat(captor.getValue().getOriginService()).isEqualTo(SELF);
+
+        underTest.unsubscribe(DownloadProgressEvent.class, "default");
+        underTest.advertise();
+        underTest.unsubscribe(DownloadProgressEvent.class, "default");
+        underTest.advertise();
+
+        verify(eventPublisherMock, timeout(5_000).times(3)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues().get(captor.getAllValues().size() - 2).getInterests())
+                .containsExactly(DOWNLOAD_PROGRESS + "@DEFAULT");
+        assertThat(captor.getValue().getInterests()).isEmpty();
+    }
+}
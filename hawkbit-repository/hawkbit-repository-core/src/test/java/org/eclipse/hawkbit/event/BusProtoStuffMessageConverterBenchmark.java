@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Benchmark of the events per second the {@link BusProtoStuffMessageConverter}
+ * encodes and decodes. The bytes allocated per event are reported by the
+ * {@link GCProfiler} as gc.alloc.rate.norm.
+ *
+ * Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusProtoStuffMessageConverterBenchmark {
+
+    @Param({ "single", "bulk" })
+    private String event;
+
+    private BusProtoStuffMessageConverter converter;
+
+    private RemoteApplicationEvent payload;
+
+    private MessageHeaders headers;
+
+    private Message<byte[]> message;
+
+    /**
+     * Prepares the converter and an encoded message.
+     */
+    @Setup
+    public void setup() {
+        converter = new BusProtoStuffMessageConverter();
+        headers = new MessageHeaders(new HashMap<>());
+        payload = "single".equals(event)
+                ? new TargetDeletedEvent("DEFAULT", 4711L, "controller4711", "amqp://DEFAULT/controller4711",
+                        "org.eclipse.hawkbit.repository.jpa.model.JpaTarget", "bus-node-1")
+                : new BulkTargetUpdatedEvent("DEFAULT", Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L),
+                        "bus-node-1");
+        message = MessageBuilder.withPayload(encode()).build();
+    }
+
+    /**
+     * @return the encoded event
+     */
+    @Benchmark
+    public byte[] encode() {
+        return (byte[]) converter.convertToInternal(payload, headers, null);
+    }
+
+    /**
+     * @return the decoded event
+     */
+    @Benchmark
+    public Object decode() {
+        return converter.convertFromInternal(message, RemoteApplicationEvent.class, null);
+    }
+
+    /**
+     * Runs the benchmark with the GC profiler.
+     *
+     * @param args
+     *            not used
+     * @throws RunnerException
+     *             if the benchmark failed
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BusProtoStuffMessageConverterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
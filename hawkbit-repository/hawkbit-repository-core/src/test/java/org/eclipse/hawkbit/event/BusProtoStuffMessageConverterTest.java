@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.event;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.assertj.core.api.Assertions;
@@ -27,6 +28,10 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.MessageConversionException;
 
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
 import ru.yandex.qatools.allure.annotations.Description;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -73,6 +78,31 @@ public class BusProtoStuffMessageConverterTest {
         }
     }
 
+    @Test
+    @Description("Verifies that the event-type header is encoded like the EventType message, so that the payload stays readable by other versions")
+    public void eventTypeHeaderIsEncodedAsEventTypeMessage() {
+        final TargetCreatedEvent targetCreatedEvent = new TargetCreatedEvent(targetMock, "1");
+        final byte[] serializedEvent = (byte[]) underTest.convertToInternal(targetCreatedEvent,
+                new MessageHeaders(new HashMap<>()), null);
+
+        final Schema<EventType> schema = RuntimeSchema.getSchema(EventType.class);
+        final byte[] header = ProtostuffIOUtil.toByteArray(EventType.from(TargetCreatedEvent.class), schema,
+                LinkedBuffer.allocate());
+        assertThat(Arrays.copyOf(serializedEvent, header.length)).isEqualTo(header);
+    }
+
+    @Test
+    @Description("Verifies that a MessageConversationException is thrown on a payload without valid event-type header")
+    public void invalidEventTypeHeaderThrowsMessageConversationException() {
+        when(messageMock.getPayload()).thenReturn(new byte[] { 8, 0, 1 });
+        try {
+            underTest.convertFromInternal(messageMock, RemoteApplicationEvent.class, null);
+            Assertions.fail("Missing MessageConversationException for un-defined event-type");
+        } catch (final MessageConversionException e) {
+            // expected exception
+        }
+    }
+
     /**
      * Test event with which non-existing mapping to serialize.
      */
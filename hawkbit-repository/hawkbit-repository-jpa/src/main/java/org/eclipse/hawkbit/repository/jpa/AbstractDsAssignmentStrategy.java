@@ -12,13 +12,19 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.RepositoryConstants;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutbox;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
@@ -45,17 +51,22 @@ public abstract class AbstractDsAssignmentStrategy {
     protected final ApplicationContext applicationContext;
     private final ActionRepository actionRepository;
     private final ActionStatusRepository actionStatusRepository;
+    private final EventOutbox eventOutbox;
+    private final RepositoryProperties repositoryProperties;
 
     AbstractDsAssignmentStrategy(final TargetRepository targetRepository,
             final AfterTransactionCommitExecutor afterCommit, final ApplicationEventPublisher eventPublisher,
             final ApplicationContext applicationContext, final ActionRepository actionRepository,
-            final ActionStatusRepository actionStatusRepository) {
+            final ActionStatusRepository actionStatusRepository, final EventOutbox eventOutbox,
+            final RepositoryProperties repositoryProperties) {
         this.targetRepository = targetRepository;
         this.afterCommit = afterCommit;
         this.eventPublisher = eventPublisher;
         this.applicationContext = applicationContext;
         this.actionRepository = actionRepository;
         this.actionStatusRepository = actionStatusRepository;
+        this.eventOutbox = eventOutbox;
+        this.repositoryProperties = repositoryProperties;
     }
 
     /**
@@ -121,8 +132,46 @@ public abstract class AbstractDsAssignmentStrategy {
             final Map<String, JpaAction> controllerIdsToActions);
 
     protected void sendTargetAssignDistributionSetEvent(final Action action) {
-        afterCommit.afterCommit(() -> eventPublisher
-                .publishEvent(new TargetAssignDistributionSetEvent(action, applicationContext.getId())));
+        publishAssignmentEvent(() -> new TargetAssignDistributionSetEvent(action, applicationContext.getId()));
+    }
+
+    /**
+     * Sends the assignment events of the given actions, either as one
+     * {@link BulkTargetAssignDistributionSetEvent} if bulk events are enabled
+     * or as a {@link TargetAssignDistributionSetEvent} per action.
+     *
+     * @param actions
+     *            of the same {@link DistributionSet}
+     */
+    protected void sendTargetAssignDistributionSetEvents(final List<? extends Action> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        if (!repositoryProperties.isPublishBulkEvents()) {
+            actions.forEach(this::sendTargetAssignDistributionSetEvent);
+            return;
+        }
+
+        final DistributionSet set = actions.get(0).getDistributionSet();
+        publishAssignmentEvent(
+                () -> new BulkTargetAssignDistributionSetEvent(set, actions, applicationContext.getId()));
+    }
+
+    /**
+     * Publishes an event the controller has to be notified with. If the
+     * {@link EventOutbox} is enabled the event is written in the same
+     * transaction, otherwise it is published after the commit.
+     *
+     * @param event
+     *            supplier of the event
+     */
+    private void publishAssignmentEvent(final Supplier<? extends RemoteTenantAwareEvent> event) {
+        if (eventOutbox != null) {
+            eventOutbox.publish(event);
+        } else {
+            afterCommit.afterCommit(() -> eventPublisher.publishEvent(event.get()));
+        }
     }
 
     protected void sendTargetUpdatedEvent(final JpaTarget target) {
@@ -130,6 +179,30 @@ public abstract class AbstractDsAssignmentStrategy {
                 () -> eventPublisher.publishEvent(new TargetUpdatedEvent(target, applicationContext.getId())));
     }
 
+    /**
+     * Sends the update events of the given targets, either as one
+     * {@link BulkTargetUpdatedEvent} if bulk events are enabled or as a
+     * {@link TargetUpdatedEvent} per target.
+     *
+     * @param targets
+     *            the updated targets
+     */
+    protected void sendTargetUpdatedEvents(final List<JpaTarget> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        if (!repositoryProperties.isPublishBulkEvents()) {
+            targets.forEach(this::sendTargetUpdatedEvent);
+            return;
+        }
+
+        final String tenant = targets.get(0).getTenant();
+        final List<Long> targetIds = targets.stream().map(Target::getId).collect(Collectors.toList());
+        afterCommit.afterCommit(() -> eventPublisher
+                .publishEvent(new BulkTargetUpdatedEvent(tenant, targetIds, applicationContext.getId())));
+    }
+
     /**
      * Cancels {@link Action}s that are no longer necessary and sends
      * cancellations to the controller.
@@ -198,8 +271,7 @@ public abstract class AbstractDsAssignmentStrategy {
      *            the action id of the assignment
      */
     void cancelAssignDistributionSetEvent(final Target target, final Long actionId) {
-        afterCommit.afterCommit(() -> eventPublisher
-                .publishEvent(new CancelTargetAssignmentEvent(target, actionId, applicationContext.getId())));
+        publishAssignmentEvent(() -> new CancelTargetAssignmentEvent(target, actionId, applicationContext.getId()));
     }
 
     JpaAction createTargetAction(final Map<String, TargetWithActionType> targetsWithActionMap, final JpaTarget target,
@@ -116,6 +116,19 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     @EntityGraph(value = "Action.ds", type = EntityGraphType.LOAD)
     Optional<Action> findFirstByTargetControllerIdAndActive(final Sort sort, final String controllerId, boolean active);
 
+    /**
+     * Retrieves all active {@link Action}s of the given {@link Target}s order
+     * by ID ascending.
+     *
+     * @param controllerIds
+     *            the targets to find assigned actions
+     *
+     * @return the found {@link Action}s
+     */
+    @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
+    @Query("SELECT a FROM JpaAction a WHERE a.active = true AND a.target.controllerId IN :controllerIds ORDER BY a.id")
+    List<JpaAction> findActiveByTargetControllerIdIn(@Param("controllerIds") Collection<String> controllerIds);
+
     /**
      * Checks if an active action exists for given
      * {@link Target#getControllerId()}.
@@ -206,6 +219,33 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     void switchStatus(@Param("statusToSet") Action.Status statusToSet, @Param("targetsIds") List<Long> targetIds,
             @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
 
+    /**
+     * Switches the status and the active flag of the given actions, only if
+     * the actions are in a specific status. This should be a atomar operation.
+     * The revision of the actions is incremented, so that concurrent updates
+     * of the actions fail with an optimistic lock exception.
+     *
+     * @param statusToSet
+     *            the new status the actions should get
+     * @param active
+     *            the new active flag of the actions
+     * @param lastModifiedAt
+     *            current time
+     * @param lastModifiedBy
+     *            current auditor
+     * @param actionIds
+     *            the IDs of the actions which are affected
+     * @param currentStatus
+     *            the current status of the actions which are affected
+     * @return number of updated actions
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaAction a SET a.status = :statusToSet, a.active = :active, a.lastModifiedAt = :lastModifiedAt, a.lastModifiedBy = :lastModifiedBy, a.optLockRevision = a.optLockRevision + 1 WHERE a.id IN :actionIds AND a.status = :currentStatus")
+    int switchStatusAndActive(@Param("statusToSet") Action.Status statusToSet, @Param("active") boolean active,
+            @Param("lastModifiedAt") long lastModifiedAt, @Param("lastModifiedBy") String lastModifiedBy,
+            @Param("actionIds") List<Long> actionIds, @Param("currentStatus") Action.Status currentStatus);
+
     /**
      *
      * Retrieves all {@link Action}s which are active and referring to the given
@@ -321,6 +361,35 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
      */
     Long countByRolloutIdAndStatus(Long rolloutId, Action.Status status);
 
+    /**
+     * Counts all active or inactive actions referring to a given rollout.
+     *
+     * @param rolloutId
+     *            the ID of the rollout the actions belong to
+     * @param active
+     *            flag the actions should have
+     * @return the count of actions referring to a rollout with the given
+     *         active flag
+     */
+    Long countByRolloutIdAndActive(Long rolloutId, boolean active);
+
+    /**
+     * Counts all actions referring to a given rollout, rolloutgroup parent and
+     * status.
+     *
+     * @param rolloutId
+     *            the ID of the rollout the actions belong to
+     * @param rolloutGroupParentId
+     *            the parent rolloutgroup of the rolloutgroup the actions
+     *            belong to
+     * @param status
+     *            the status the actions should have
+     * @return the count of actions referring to a rollout, the children of a
+     *         rolloutgroup and are in a given status
+     */
+    Long countByRolloutIdAndRolloutGroupParentIdAndStatus(Long rolloutId, Long rolloutGroupParentId,
+            Action.Status status);
+
     /**
      * Returns {@code true} if actions for the given rollout exists, otherwise
      * {@code false}
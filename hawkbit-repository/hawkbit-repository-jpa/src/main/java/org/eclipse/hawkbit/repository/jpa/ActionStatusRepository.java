@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -39,6 +42,18 @@ public interface ActionStatusRepository
      */
     Long countByAction(JpaAction action);
 
+    /**
+     * Counts {@link ActionStatus} entries of the given {@link Action}s in
+     * repository with one query.
+     *
+     * @param actionIds
+     *            of the actions to count status entries for
+     * @return list of action ID and number of status entries pairs. Actions
+     *         without status entries are not part of the result.
+     */
+    @Query("SELECT a.action.id, COUNT(a.id) FROM JpaActionStatus a WHERE a.action.id IN :actionIds GROUP BY a.action.id")
+    List<Object[]> countByActionIdIn(@Param("actionIds") Collection<Long> actionIds);
+
     /**
      * Retrieves all {@link ActionStatus} entries from repository of given
      * ActionId.
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaEventOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring data repository for {@link JpaEventOutboxEntry}.
+ *
+ */
+@Transactional(readOnly = true)
+public interface EventOutboxRepository extends CrudRepository<JpaEventOutboxEntry, Long> {
+
+    /**
+     * Retrieves the IDs of the oldest entries a relay can claim, i.e. the
+     * entries it owns and the entries whose lease has expired.
+     *
+     * @param owner
+     *            of the relay
+     * @param now
+     *            current time in milliseconds
+     * @param pageable
+     *            to limit the number of entries
+     * @return the IDs in the order the entries have been written
+     */
+    @Query("SELECT e.id FROM JpaEventOutboxEntry e WHERE e.parked = false AND (e.owner = ?1 OR e.leaseUntil < ?2)"
+            + " ORDER BY e.id ASC")
+    List<Long> findClaimableIds(String owner, long now, Pageable pageable);
+
+    /**
+     * Claims the given entries if they are still owned by the relay or their
+     * lease has expired in the meantime, i.e. no other relay has claimed them.
+     *
+     * @param ids
+     *            of the entries to claim
+     * @param owner
+     *            of the relay
+     * @param leaseUntil
+     *            end of the new lease in milliseconds
+     * @param now
+     *            current time in milliseconds
+     * @return number of claimed entries
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaEventOutboxEntry e SET e.owner = ?2, e.leaseUntil = ?3 WHERE e.id IN ?1 AND e.parked = false"
+            + " AND (e.owner = ?2 OR e.leaseUntil < ?4)")
+    int claim(Collection<Long> ids, String owner, long leaseUntil, long now);
+
+    /**
+     * Retrieves the given entries that are owned by a relay.
+     *
+     * @param ids
+     *            of the entries
+     * @param owner
+     *            of the relay
+     * @return the entries in the order they have been written
+     */
+    List<JpaEventOutboxEntry> findByIdInAndOwnerOrderByIdAsc(Collection<Long> ids, String owner);
+
+    /**
+     * Releases an entry whose publication failed so that any relay can retry
+     * it after the given time.
+     *
+     * @param id
+     *            of the entry
+     * @param attempts
+     *            number of failed attempts
+     * @param leaseUntil
+     *            time in milliseconds after which the entry is retried
+     * @param parked
+     *            <code>true</code> if the entry must not be retried anymore
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaEventOutboxEntry e SET e.owner = NULL, e.attempts = ?2, e.leaseUntil = ?3, e.parked = ?4"
+            + " WHERE e.id = ?1")
+    void release(Long id, int attempts, long leaseUntil, boolean parked);
+
+    /**
+     * Counts the entries that are parked or still have to be relayed.
+     *
+     * @param parked
+     *            <code>true</code> to count the parked entries
+     * @return number of entries
+     */
+    long countByParked(boolean parked);
+
+    /**
+     * Deletes all entries with the given IDs.
+     *
+     * @param ids
+     *            of the relayed entries
+     */
+    @Modifying
+    @Transactional
+    // Workaround for https://bugs.eclipse.org/bugs/show_bug.cgi?id=349477
+    @Query("DELETE FROM JpaEventOutboxEntry e WHERE e.id IN ?1")
+    void deleteByIdIn(Collection<Long> ids);
+}
@@ -9,10 +9,18 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -26,6 +34,9 @@ import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
@@ -48,6 +59,7 @@ import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +79,8 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.Lists;
+
 /**
  * JPA based {@link ControllerManagement} implementation.
  *
@@ -115,6 +129,9 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private TenantAware tenantAware;
+
     @Override
     public String getPollingTime() {
         return systemSecurityContext.runAsSystem(() -> tenantConfigurationManagement
@@ -178,6 +195,17 @@ public class JpaControllerManagement implements ControllerManagement {
                 true);
     }
 
+    @Override
+    public Map<String, Action> findOldestActiveActionsByTargets(final Collection<String> controllerIds) {
+        final Map<String, Action> oldestActions = new HashMap<>(controllerIds.size());
+
+        Lists.partition(new ArrayList<>(controllerIds), Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(partition -> actionRepository.findActiveByTargetControllerIdIn(partition)
+                        .forEach(action -> oldestActions.putIfAbsent(action.getTarget().getControllerId(), action)));
+
+        return oldestActions;
+    }
+
     @Override
     public Optional<Action> findActionWithDetails(final Long actionId) {
         return actionRepository.getById(actionId);
@@ -208,6 +236,85 @@ public class JpaControllerManagement implements ControllerManagement {
         return updateTargetStatus(target, address);
     }
 
+    @Override
+    @Transactional
+    @Retryable(include = {
+            ConcurrencyFailureException.class }, maxAttempts = Constants.TX_RT_MAX, backoff = @Backoff(delay = Constants.TX_RT_DELAY))
+    public List<Target> findOrRegisterTargetsIfTheyDoNotExist(final Map<String, URI> addresses) {
+        final Map<String, JpaTarget> existingTargets = Lists
+                .partition(new ArrayList<>(addresses.keySet()), Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(partition -> targetRepository.findByControllerIdIn(partition).stream())
+                .collect(Collectors.toMap(JpaTarget::getControllerId, Function.identity()));
+
+        final long now = System.currentTimeMillis();
+        final List<JpaTarget> created = new ArrayList<>();
+        final List<JpaTarget> updated = new ArrayList<>();
+        final List<Long> polledOnly = new ArrayList<>();
+        final List<Target> result = new ArrayList<>(addresses.size());
+
+        addresses.forEach((controllerId, address) -> {
+            final String addressString = Optional.ofNullable(address).map(URI::toString).orElse(null);
+            final JpaTarget target = existingTargets.get(controllerId);
+
+            if (target == null) {
+                created.add((JpaTarget) entityFactory.target().create().controllerId(controllerId)
+                        .description("Plug and Play target: " + controllerId).name(controllerId)
+                        .status(TargetUpdateStatus.REGISTERED).lastTargetQuery(now).address(addressString).build());
+            } else if (TargetUpdateStatus.UNKNOWN.equals(target.getUpdateStatus())
+                    || !Objects.equals(address, target.getAddress())) {
+                if (TargetUpdateStatus.UNKNOWN.equals(target.getUpdateStatus())) {
+                    target.setUpdateStatus(TargetUpdateStatus.REGISTERED);
+                }
+                target.setAddress(addressString);
+                target.setLastTargetQuery(now);
+                updated.add(target);
+            } else {
+                polledOnly.add(target.getId());
+                result.add(target);
+            }
+        });
+
+        Lists.partition(polledOnly, Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(partition -> targetRepository.setLastTargetQuery(now, partition));
+
+        created.forEach(JpaTarget::setPublishedInBulk);
+        updated.forEach(JpaTarget::setPublishedInBulk);
+        final List<JpaTarget> savedCreated = targetRepository.save(created);
+        final List<JpaTarget> savedUpdated = targetRepository.save(updated);
+        result.addAll(savedCreated);
+        result.addAll(savedUpdated);
+
+        sendBulkTargetEvents(savedCreated, savedUpdated, result);
+
+        return result;
+    }
+
+    /**
+     * Publishes the events of a bulk registration after commit, when the IDs
+     * of the created targets are assigned.
+     */
+    private void sendBulkTargetEvents(final List<JpaTarget> created, final List<JpaTarget> updated,
+            final List<Target> polled) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final String applicationId = applicationContext.getId();
+
+        afterCommit.afterCommit(() -> {
+            if (!created.isEmpty()) {
+                eventPublisher.publishEvent(new BulkTargetCreatedEvent(tenant,
+                        created.stream().map(Target::getId).collect(Collectors.toList()), applicationId));
+            }
+            if (!updated.isEmpty()) {
+                eventPublisher.publishEvent(new BulkTargetUpdatedEvent(tenant,
+                        updated.stream().map(Target::getId).collect(Collectors.toList()), applicationId));
+            }
+
+            final Map<String, String> targetAddresses = new HashMap<>(polled.size());
+            polled.forEach(target -> targetAddresses.put(target.getControllerId(),
+                    Optional.ofNullable(target.getAddress()).map(URI::toString).orElse(null)));
+            eventPublisher.publishEvent(new BulkTargetPollEvent(tenant, targetAddresses, applicationId));
+        });
+    }
+
     private Target updateTargetStatus(final JpaTarget toUpdate, final URI address) {
 
         if (TargetUpdateStatus.UNKNOWN.equals(toUpdate.getUpdateStatus())) {
@@ -296,7 +403,55 @@ public class JpaControllerManagement implements ControllerManagement {
                     actionStatus.getStatus(), action.getId());
             return action;
         }
-        return handleAddUpdateActionStatus(actionStatus, action);
+        return handleAddUpdateActionStatus(actionStatus, action, () -> actionStatusRepository.countByAction(action));
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Retryable(include = {
+            ConcurrencyFailureException.class }, maxAttempts = Constants.TX_RT_MAX, backoff = @Backoff(delay = Constants.TX_RT_DELAY))
+    public List<Action> addUpdateActionStatuses(final Collection<ActionStatusCreate> creates) {
+        final List<JpaActionStatusCreate> jpaCreates = creates.stream().map(JpaActionStatusCreate.class::cast)
+                .collect(Collectors.toList());
+        final Map<Long, JpaAction> actions = getActionsAndThrowExceptionIfNotFound(
+                jpaCreates.stream().map(JpaActionStatusCreate::getActionId).collect(Collectors.toSet()));
+        final Map<Long, Long> statusCounts = countStatusEntries(actions.keySet());
+
+        return jpaCreates.stream().map(create -> {
+            final JpaAction action = actions.get(create.getActionId());
+            final JpaActionStatus actionStatus = create.build();
+
+            if (actionIsNotActiveButIntermediateFeedbackStillAllowed(actionStatus, action.isActive())) {
+                LOG.debug("Update of actionStatus {} for action {} not possible since action not active anymore.",
+                        actionStatus.getStatus(), action.getId());
+                return action;
+            }
+
+            // entries of the same action within the batch count as well
+            return handleAddUpdateActionStatus(actionStatus, action,
+                    () -> statusCounts.merge(action.getId(), 1L, Long::sum) - 1);
+        }).collect(Collectors.toList());
+    }
+
+    private Map<Long, JpaAction> getActionsAndThrowExceptionIfNotFound(final Set<Long> actionIds) {
+        final Map<Long, JpaAction> actions = new HashMap<>(actionIds.size());
+        actionRepository.findAll(actionIds).forEach(action -> actions.put(action.getId(), action));
+
+        actionIds.stream().filter(actionId -> !actions.containsKey(actionId)).findAny().ifPresent(actionId -> {
+            throw new EntityNotFoundException(Action.class, actionId);
+        });
+
+        return actions;
+    }
+
+    private Map<Long, Long> countStatusEntries(final Set<Long> actionIds) {
+        final Map<Long, Long> statusCounts = new HashMap<>(actionIds.size());
+        if (quotaManagement.getMaxStatusEntriesPerAction() > 0) {
+            actionIds.forEach(actionId -> statusCounts.put(actionId, 0L));
+            actionStatusRepository.countByActionIdIn(actionIds)
+                    .forEach(count -> statusCounts.put((Long) count[0], (Long) count[1]));
+        }
+        return statusCounts;
     }
 
     private boolean actionIsNotActiveButIntermediateFeedbackStillAllowed(final ActionStatus actionStatus,
@@ -308,7 +463,8 @@ public class JpaControllerManagement implements ControllerManagement {
     /**
      * Sets {@link TargetUpdateStatus} based on given {@link ActionStatus}.
      */
-    private Action handleAddUpdateActionStatus(final JpaActionStatus actionStatus, final JpaAction action) {
+    private Action handleAddUpdateActionStatus(final JpaActionStatus actionStatus, final JpaAction action,
+            final LongSupplier statusCount) {
         LOG.debug("addUpdateActionStatus for action {}", action.getId());
 
         switch (actionStatus.getStatus()) {
@@ -322,7 +478,7 @@ public class JpaControllerManagement implements ControllerManagement {
             break;
         default:
             // information status entry - check for a potential DOS attack
-            checkForTooManyStatusEntries(action);
+            checkForTooManyStatusEntries(statusCount);
             checkForTooManyStatusMessages(actionStatus);
             break;
         }
@@ -344,9 +500,13 @@ public class JpaControllerManagement implements ControllerManagement {
     }
 
     private void checkForTooManyStatusEntries(final JpaAction action) {
+        checkForTooManyStatusEntries(() -> actionStatusRepository.countByAction(action));
+    }
+
+    private void checkForTooManyStatusEntries(final LongSupplier countStatusEntries) {
         if (quotaManagement.getMaxStatusEntriesPerAction() > 0) {
 
-            final Long statusCount = actionStatusRepository.countByAction(action);
+            final long statusCount = countStatusEntries.getAsLong();
 
             if (statusCount >= quotaManagement.getMaxStatusEntriesPerAction()) {
                 throw new QuotaExceededException(ActionStatus.class, statusCount,
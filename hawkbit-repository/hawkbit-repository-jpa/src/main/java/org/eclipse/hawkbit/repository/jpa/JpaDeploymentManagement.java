@@ -11,8 +11,10 @@ package org.eclipse.hawkbit.repository.jpa;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -29,14 +31,17 @@ import javax.validation.constraints.NotNull;
 import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.event.remote.BulkActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.exception.ForceQuitActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.IncompleteDistributionSetException;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutbox;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
@@ -45,6 +50,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaAction_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
@@ -114,6 +120,8 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     private final OfflineDsAssignmentStrategy offlineDsAssignmentStrategy;
     private final TenantConfigurationManagement tenantConfigurationManagement;
     private final SystemSecurityContext systemSecurityContext;
+    private final RepositoryProperties repositoryProperties;
+    private final RolloutStatusCounter rolloutStatusCounter;
 
     JpaDeploymentManagement(final EntityManager entityManager, final ActionRepository actionRepository,
             final DistributionSetRepository distributionSetRepository, final TargetRepository targetRepository,
@@ -122,7 +130,8 @@ public class JpaDeploymentManagement implements DeploymentManagement {
             final ApplicationContext applicationContext, final AfterTransactionCommitExecutor afterCommit,
             final VirtualPropertyReplacer virtualPropertyReplacer, final PlatformTransactionManager txManager,
             final TenantConfigurationManagement tenantConfigurationManagement,
-            final SystemSecurityContext systemSecurityContext) {
+            final SystemSecurityContext systemSecurityContext, final EventOutbox eventOutbox,
+            final RepositoryProperties repositoryProperties, final RolloutStatusCounter rolloutStatusCounter) {
         this.entityManager = entityManager;
         this.actionRepository = actionRepository;
         this.distributionSetRepository = distributionSetRepository;
@@ -136,11 +145,13 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         this.virtualPropertyReplacer = virtualPropertyReplacer;
         this.txManager = txManager;
         onlineDsAssignmentStrategy = new OnlineDsAssignmentStrategy(targetRepository, afterCommit, eventPublisher,
-                applicationContext, actionRepository, actionStatusRepository);
+                applicationContext, actionRepository, actionStatusRepository, eventOutbox, repositoryProperties);
         offlineDsAssignmentStrategy = new OfflineDsAssignmentStrategy(targetRepository, afterCommit, eventPublisher,
-                applicationContext, actionRepository, actionStatusRepository);
+                applicationContext, actionRepository, actionStatusRepository, eventOutbox, repositoryProperties);
         this.tenantConfigurationManagement = tenantConfigurationManagement;
         this.systemSecurityContext = systemSecurityContext;
+        this.repositoryProperties = repositoryProperties;
+        this.rolloutStatusCounter = rolloutStatusCounter;
     }
 
     @Override
@@ -386,20 +397,48 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         return totalActionsCount;
     }
 
+    @Override
+    @Transactional
+    public long startScheduledActionsByRolloutGroupParent(@NotNull final Long rolloutId,
+            final Long rolloutGroupParentId, final long limit) {
+        long totalActionsCount = 0L;
+        long lastStartedActionsCount;
+        do {
+            final int pageLimit = (int) Math.min(ACTION_PAGE_LIMIT, limit - totalActionsCount);
+            lastStartedActionsCount = startScheduledActionsPage(rolloutId, rolloutGroupParentId, pageLimit);
+            totalActionsCount += lastStartedActionsCount;
+        } while (lastStartedActionsCount > 0 && totalActionsCount < limit);
+
+        return totalActionsCount;
+    }
+
     private long startScheduledActionsByRolloutGroupParentInNewTransaction(final Long rolloutId,
             final Long rolloutGroupParentId, final int limit) {
         final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setName("startScheduledActions-" + rolloutId);
         def.setReadOnly(false);
         def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-        return new TransactionTemplate(txManager, def).execute(status -> {
-            final Page<Action> rolloutGroupActions = findActionsByRolloutAndRolloutGroupParent(rolloutId,
-                    rolloutGroupParentId, limit);
+        return new TransactionTemplate(txManager, def)
+                .execute(status -> startScheduledActionsPage(rolloutId, rolloutGroupParentId, limit));
+    }
 
-            rolloutGroupActions.map(action -> (JpaAction) action).forEach(this::startScheduledAction);
+    private long startScheduledActionsPage(final Long rolloutId, final Long rolloutGroupParentId, final int limit) {
+        final Page<Action> rolloutGroupActions = findActionsByRolloutAndRolloutGroupParent(rolloutId,
+                rolloutGroupParentId, limit);
 
-            return rolloutGroupActions.getTotalElements();
-        });
+        if (repositoryProperties.isSetBasedRolloutActions()) {
+            startScheduledActionsInBulk(rolloutId, rolloutGroupActions.getContent().stream()
+                    .map(JpaAction.class::cast).collect(Collectors.toList()));
+            return rolloutGroupActions.getNumberOfElements();
+        }
+
+        // all actions of a rollout belong to the same distribution set
+        final List<JpaAction> startedActions = rolloutGroupActions.getContent().stream()
+                .map(action -> startScheduledAction((JpaAction) action)).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        onlineDsAssignmentStrategy.sendTargetAssignDistributionSetEvents(startedActions);
+
+        return rolloutGroupActions.getNumberOfElements();
     }
 
     private Page<Action> findActionsByRolloutAndRolloutGroupParent(final Long rolloutId,
@@ -415,7 +454,136 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         }
     }
 
-    private void startScheduledAction(final JpaAction action) {
+    /**
+     * Starts the given scheduled actions with set based statements instead of
+     * saving every action and target. The controllers are notified with one
+     * bulk event and the rollout groups with one {@link BulkActionUpdatedEvent}
+     * each. The actions and their targets are detached afterwards, as the
+     * statements bypass the persistence context, the other entities of the
+     * transaction stay managed.
+     *
+     * @param rolloutId
+     *            the actions belong to
+     * @param actions
+     *            to start, all of the same distribution set
+     */
+    private void startScheduledActionsInBulk(final Long rolloutId, final List<JpaAction> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        final String currentUser;
+        if (auditorProvider != null) {
+            currentUser = auditorProvider.getCurrentAuditor();
+        } else {
+            currentUser = null;
+        }
+        final long now = System.currentTimeMillis();
+        final String tenant = actions.get(0).getTenant();
+        final Map<Long, Long> actionsPerGroup = actions.stream()
+                .collect(Collectors.groupingBy(action -> action.getRolloutGroup().getId(), Collectors.counting()));
+
+        // the target has already the distribution set assigned, we don't need
+        // to start the scheduled action, just finish it.
+        final Map<Boolean, List<JpaAction>> alreadyAssigned = actions.stream()
+                .collect(Collectors.partitioningBy(JpaDeploymentManagement::isDistributionSetAssigned));
+
+        final List<JpaAction> skippedActions = alreadyAssigned.get(true);
+        if (!skippedActions.isEmpty()) {
+            actionStatusRepository.save(
+                    skippedActions.stream().map(JpaDeploymentManagement::createSkipActionStatus)
+                            .collect(Collectors.toList()));
+            Lists.partition(skippedActions.stream().map(Action::getId).collect(Collectors.toList()),
+                    Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(ids -> actionRepository.switchStatusAndActive(Status.FINISHED, false, now, currentUser,
+                            ids, Status.SCHEDULED));
+            moveRolloutStatusCount(rolloutId, skippedActions, Status.FINISHED);
+        }
+
+        final List<JpaAction> startedActions = alreadyAssigned.get(false);
+        if (!startedActions.isEmpty()) {
+            final List<Long> targetIds = startedActions.stream().map(action -> action.getTarget().getId())
+                    .collect(Collectors.toList());
+
+            // check if we need to override running update actions
+            final Set<Long> overriddenTargetIds = new HashSet<>(
+                    onlineDsAssignmentStrategy.overrideObsoleteUpdateActions(targetIds));
+
+            actionStatusRepository.save(startedActions.stream()
+                    .map(action -> onlineDsAssignmentStrategy.createActionStatus(action, null))
+                    .collect(Collectors.toList()));
+            Lists.partition(startedActions.stream().map(Action::getId).collect(Collectors.toList()),
+                    Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(ids -> actionRepository.switchStatusAndActive(Status.RUNNING, true, now, currentUser,
+                            ids, Status.SCHEDULED));
+            moveRolloutStatusCount(rolloutId, startedActions, Status.RUNNING);
+
+            final JpaDistributionSet set = (JpaDistributionSet) startedActions.get(0).getDistributionSet();
+            Lists.partition(targetIds, Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(ids -> targetRepository.setAssignedDistributionSetAndUpdateStatus(
+                            TargetUpdateStatus.PENDING, set, now, currentUser, ids));
+
+            // the managed actions and targets are outdated, so the events are
+            // created from the reloaded ones
+            final List<Long> startedActionIds = startedActions.stream().map(Action::getId)
+                    .collect(Collectors.toList());
+            detach(actions);
+            final List<JpaAction> reloadedActions = new ArrayList<>(startedActionIds.size());
+            Lists.partition(startedActionIds, Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(ids -> actionRepository.findAll(ids).forEach(reloadedActions::add));
+
+            onlineDsAssignmentStrategy.sendTargetUpdatedEvents(reloadedActions.stream()
+                    .map(action -> (JpaTarget) action.getTarget()).collect(Collectors.toList()));
+            // in case we canceled an action before for this target, then don't
+            // fire assignment event
+            onlineDsAssignmentStrategy.sendTargetAssignDistributionSetEvents(reloadedActions.stream()
+                    .filter(action -> !overriddenTargetIds.contains(action.getTarget().getId()))
+                    .collect(Collectors.toList()));
+        } else {
+            detach(actions);
+        }
+
+        afterCommit.afterCommit(() -> actionsPerGroup.forEach((groupId, count) -> eventPublisher.publishEvent(
+                new BulkActionUpdatedEvent(tenant, rolloutId, groupId, count, applicationContext.getId()))));
+    }
+
+    private void detach(final List<JpaAction> actions) {
+        entityManager.flush();
+        actions.forEach(action -> {
+            entityManager.detach(action.getTarget());
+            entityManager.detach(action);
+        });
+    }
+
+    /**
+     * The bulk statements bypass the entity listeners, so the status counters
+     * of the rollout groups are moved here.
+     */
+    private void moveRolloutStatusCount(final Long rolloutId, final List<JpaAction> actions, final Status to) {
+        if (rolloutStatusCounter == null) {
+            return;
+        }
+
+        actions.stream()
+                .collect(Collectors.groupingBy(action -> action.getRolloutGroup().getId(), Collectors.counting()))
+                .forEach((groupId, count) -> rolloutStatusCounter.move(rolloutId, groupId, Status.SCHEDULED, to,
+                        count));
+    }
+
+    private static boolean isDistributionSetAssigned(final JpaAction action) {
+        final DistributionSet assignedSet = ((JpaTarget) action.getTarget()).getAssignedDistributionSet();
+        return assignedSet != null && action.getDistributionSet().getId().equals(assignedSet.getId());
+    }
+
+    /**
+     * Starts a scheduled action.
+     *
+     * @param action
+     *            to start
+     * @return the started action if the controller has to be notified,
+     *         otherwise <code>null</code>
+     */
+    private JpaAction startScheduledAction(final JpaAction action) {
         JpaTarget target = (JpaTarget) action.getTarget();
 
         if (target.getAssignedDistributionSet() != null
@@ -424,9 +592,9 @@ public class JpaDeploymentManagement implements DeploymentManagement {
             // need to start the scheduled action, just finish it.
             action.setStatus(Status.FINISHED);
             action.setActive(false);
-            setSkipActionStatus(action);
+            actionStatusRepository.save(createSkipActionStatus(action));
             actionRepository.save(action);
-            return;
+            return null;
         }
 
         // check if we need to override running update actions
@@ -447,20 +615,20 @@ public class JpaDeploymentManagement implements DeploymentManagement {
 
         // in case we canceled an action before for this target, then don't fire
         // assignment event
-        if (!overrideObsoleteUpdateActions.contains(savedAction.getId())) {
-            afterCommit.afterCommit(() -> eventPublisher
-                    .publishEvent(new TargetAssignDistributionSetEvent(savedAction, applicationContext.getId())));
+        if (overrideObsoleteUpdateActions.contains(savedAction.getId())) {
+            return null;
         }
+        return savedAction;
     }
 
-    private void setSkipActionStatus(final JpaAction action) {
+    private static JpaActionStatus createSkipActionStatus(final JpaAction action) {
         final JpaActionStatus actionStatus = new JpaActionStatus();
         actionStatus.setAction(action);
         actionStatus.setOccurredAt(action.getCreatedAt());
         actionStatus.setStatus(Status.RUNNING);
         actionStatus.addMessage(RepositoryConstants.SERVER_MESSAGE_PREFIX
                 + "Distribution Set is already assigned. Skipping this action.");
-        actionStatusRepository.save(actionStatus);
+        return actionStatus;
     }
 
     @Override
@@ -37,6 +37,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup_;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
@@ -84,6 +85,9 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
     @Autowired
     private RolloutStatusCache rolloutStatusCache;
 
+    @Autowired(required = false)
+    private RolloutStatusCounter rolloutStatusCounter;
+
     @Override
     public Optional<RolloutGroup> get(final Long rolloutGroupId) {
         return Optional.ofNullable(rolloutGroupRepository.findOne(rolloutGroupId));
@@ -168,7 +172,9 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
                 .getRolloutGroupStatus(rolloutGroupId);
 
         if (CollectionUtils.isEmpty(rolloutStatusCountItems)) {
-            rolloutStatusCountItems = actionRepository.getStatusCountByRolloutGroupId(rolloutGroupId);
+            rolloutStatusCountItems = rolloutStatusCounter != null
+                    ? rolloutStatusCounter.getStatusCountByRolloutGroupId(Collections.singletonList(rolloutGroupId))
+                    : actionRepository.getStatusCountByRolloutGroupId(rolloutGroupId);
             rolloutStatusCache.putRolloutGroupStatus(rolloutGroupId, rolloutStatusCountItems);
         }
 
@@ -187,8 +193,9 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
                 .collect(Collectors.toList());
 
         if (!rolloutGroupIds.isEmpty()) {
-            final List<TotalTargetCountActionStatus> resultList = actionRepository
-                    .getStatusCountByRolloutGroupId(rolloutGroupIds);
+            final List<TotalTargetCountActionStatus> resultList = rolloutStatusCounter != null
+                    ? rolloutStatusCounter.getStatusCountByRolloutGroupId(rolloutGroupIds)
+                    : actionRepository.getStatusCountByRolloutGroupId(rolloutGroupIds);
             final Map<Long, List<TotalTargetCountActionStatus>> fromDb = resultList.stream()
                     .collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId));
 
@@ -10,14 +10,24 @@ package org.eclipse.hawkbit.repository.jpa;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 import javax.validation.ConstraintDeclarationException;
 import javax.validation.ValidationException;
 
@@ -25,16 +35,19 @@ import org.eclipse.hawkbit.repository.AbstractRolloutManagement;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.DistributionSetManagement;
 import org.eclipse.hawkbit.repository.QuotaManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.RolloutFields;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.RolloutHelper;
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.RolloutStatusCache;
+import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.builder.GenericRolloutUpdate;
 import org.eclipse.hawkbit.repository.builder.RolloutCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutGroupCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutUpdate;
+import org.eclipse.hawkbit.repository.event.remote.BulkActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutGroupDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
@@ -46,12 +59,17 @@ import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecuto
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
-import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutPurger;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutThrottle;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.RolloutSpecification;
 import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
+import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.Action.Status;
@@ -77,6 +95,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -98,6 +117,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 /**
@@ -148,6 +168,21 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    @Autowired(required = false)
+    private RolloutStatusCounter rolloutStatusCounter;
+
+    @Autowired
+    private RolloutThrottle rolloutThrottle;
+
+    @Autowired(required = false)
+    private RolloutPurger rolloutPurger;
+
     JpaRolloutManagement(final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
             final RolloutGroupManagement rolloutGroupManagement,
             final DistributionSetManagement distributionSetManagement, final ApplicationContext context,
@@ -363,12 +398,14 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             groupTargetFilter = baseFilter + ";" + group.getTargetFilterQuery();
         }
 
-        final List<Long> readyGroups = RolloutHelper.getGroupsByStatusIncludingGroup(rollout.getRolloutGroups(),
-                RolloutGroupStatus.READY, group);
+        // the targets already assigned by an aborted filling are counted, too
+        final List<Long> readyGroups = rollout.getRolloutGroups().stream()
+                .filter(innerGroup -> innerGroup.getStatus() == RolloutGroupStatus.READY && !innerGroup.equals(group))
+                .map(RolloutGroup::getId).collect(Collectors.toList());
 
         final long targetsInGroupFilter = runInNewTransaction("countAllTargetsByTargetFilterQueryAndNotInRolloutGroups",
-                count -> targetManagement.countByRsqlAndNotInRolloutGroups(readyGroups,
-                        groupTargetFilter));
+                count -> readyGroups.isEmpty() ? targetManagement.countByRsql(groupTargetFilter)
+                        : targetManagement.countByRsqlAndNotInRolloutGroups(readyGroups, groupTargetFilter));
         final long expectedInGroup = Math.round(group.getTargetPercentage() / 100 * (double) targetsInGroupFilter);
         final long currentlyInGroup = runInNewTransaction("countRolloutTargetGroupByRolloutGroup",
                 count -> rolloutTargetGroupRepository.countByRolloutGroup(group));
@@ -380,15 +417,24 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             return rolloutGroupRepository.save(group);
         }
 
-        long targetsLeftToAdd = expectedInGroup - currentlyInGroup;
-
         try {
+            // continue after the highest target ID of the group, all targets
+            // with lower IDs have been assigned or excluded already
+            final AtomicLong checkpoint = new AtomicLong(runInNewTransaction("findMaxTargetIdOfRolloutGroup",
+                    status -> rolloutTargetGroupRepository.findMaxTargetIdByRolloutGroup(group.getId())
+                            .orElse(0L)));
+            final AtomicLong targetsLeft = new AtomicLong(expectedInGroup - currentlyInGroup);
+            boolean pageFound;
             do {
                 // Add up to TRANSACTION_TARGETS of the left targets
                 // In case a TransactionException is thrown this loop aborts
-                targetsLeftToAdd -= assignTargetsToGroupInNewTransaction(rollout, group, groupTargetFilter,
-                        Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
-            } while (targetsLeftToAdd > 0);
+                pageFound = assignTargetsToGroupInNewTransaction(rollout, group, groupTargetFilter, checkpoint,
+                        targetsLeft);
+                LOGGER.debug("Assigned targets to rollout group {} up to target {}, {} left", group.getId(),
+                        checkpoint.get(), targetsLeft.get());
+                // a page whose targets have been deleted in the meantime adds
+                // nothing, but the selection continues after it
+            } while (targetsLeft.get() > 0 && pageFound);
 
             group.setStatus(RolloutGroupStatus.READY);
             group.setTotalTargets(runInNewTransaction("countRolloutTargetGroupByRolloutGroup",
@@ -401,24 +447,80 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
     }
 
-    private Long assignTargetsToGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
-            final String targetFilter, final long limit) {
+    /**
+     * Assigns the next page of targets after the checkpoint to the group.
+     *
+     * @return <code>false</code> if no targets are left after the checkpoint
+     */
+    private boolean assignTargetsToGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
+            final String targetFilter, final AtomicLong checkpoint, final AtomicLong targetsLeft) {
 
         return runInNewTransaction("assignTargetsToRolloutGroup", status -> {
-            final PageRequest pageRequest = new PageRequest(0, Math.toIntExact(limit));
             final List<Long> readyGroups = RolloutHelper.getGroupsByStatusIncludingGroup(rollout.getRolloutGroups(),
                     RolloutGroupStatus.READY, group);
-            final Page<Target> targets = targetManagement
-                    .findByTargetFilterQueryAndNotInRolloutGroups(pageRequest, readyGroups, targetFilter);
-
-            createAssignmentOfTargetsToGroup(targets, group);
+            final List<Long> targetIds = findTargetIdsNotInRolloutGroups(targetFilter, readyGroups, checkpoint.get(),
+                    Math.toIntExact(Math.min(TRANSACTION_TARGETS, targetsLeft.get())));
+            if (targetIds.isEmpty()) {
+                return false;
+            }
 
-            return Long.valueOf(targets.getNumberOfElements());
+            targetsLeft.addAndGet(-createAssignmentOfTargetsToGroup(targetIds, group));
+            checkpoint.set(targetIds.get(targetIds.size() - 1));
+            return true;
         });
     }
 
-    private void createAssignmentOfTargetsToGroup(final Page<Target> targets, final RolloutGroup group) {
-        targets.forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(group, target)));
+    private List<Long> findTargetIdsNotInRolloutGroups(final String targetFilter, final List<Long> groups,
+            final long afterTargetId, final int limit) {
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilter, TargetFields.class,
+                virtualPropertyReplacer);
+
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final Root<JpaTarget> root = query.from(JpaTarget.class);
+        query.select(root.get(JpaTarget_.id))
+                .where(cb.and(spec.toPredicate(root, query, cb),
+                        TargetSpecifications.isNotInRolloutGroups(groups).toPredicate(root, query, cb),
+                        cb.greaterThan(root.get(JpaTarget_.id), afterTargetId)))
+                .orderBy(cb.asc(root.get(JpaTarget_.id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Assigns the targets with one INSERT ... SELECT statement per
+     * {@link Constants#MAX_ENTRIES_IN_STATEMENT} targets instead of persisting
+     * an entity per target. Selecting from the target table skips targets
+     * that have been deleted in the meantime.
+     */
+    private long createAssignmentOfTargetsToGroup(final List<Long> targetIds, final RolloutGroup group) {
+        long assigned = 0;
+        for (final List<Long> ids : Lists.partition(targetIds, Constants.MAX_ENTRIES_IN_STATEMENT)) {
+            final Query insert = entityManager
+                    .createNativeQuery(createInsertTargetsIntoRolloutGroupStatement(ids.size()))
+                    .setParameter(1, group.getId());
+            for (int i = 0; i < ids.size(); i++) {
+                insert.setParameter(i + 2, ids.get(i));
+            }
+            assigned += insert.executeUpdate();
+        }
+        return assigned;
+    }
+
+    /**
+     * Creates the INSERT ... SELECT statement that assigns targets to a
+     * rollout group. The statement has the group as first parameter followed
+     * by one parameter per target, as collection parameters are not expanded
+     * in native queries.
+     *
+     * @param targetCount
+     *            number of targets
+     * @return the statement
+     */
+    static String createInsertTargetsIntoRolloutGroupStatement(final int targetCount) {
+        return IntStream.rangeClosed(2, targetCount + 1).mapToObj(parameter -> "?" + parameter)
+                .collect(Collectors.joining(", ", "INSERT INTO sp_rollouttargetgroup (rolloutGroup_Id, target_id)"
+                        + " SELECT ?1, id FROM sp_target WHERE id IN (", ")"));
     }
 
     @Override
@@ -461,7 +563,7 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             throw new RolloutIllegalStateException("First Group is not the first group.");
         }
 
-        deploymentManagement.startScheduledActionsByRolloutGroupParent(rollout.getId(), null);
+        rolloutThrottle.startScheduledActions(jpaRollout, null);
 
         rolloutGroup.setStatus(RolloutGroupStatus.RUNNING);
         rolloutGroupRepository.save(rolloutGroup);
@@ -506,6 +608,10 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     private long createActionsForRolloutGroup(final Rollout rollout, final RolloutGroup group) {
         long totalActionsCreated = 0;
         try {
+            if (repositoryProperties.isSetBasedRolloutActions()) {
+                return createScheduledActionsInNewTransaction(rollout.getId(), group.getId());
+            }
+
             long actionsCreated;
             do {
                 actionsCreated = createActionsForTargetsInNewTransaction(rollout.getId(), group.getId(),
@@ -540,6 +646,53 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         });
     }
 
+    /**
+     * Creates the scheduled actions for all targets of the group that have no
+     * action in the group yet with one set based insert. Existing scheduled
+     * actions of these targets are canceled before. As the entity listeners
+     * are bypassed one {@link BulkActionCreatedEvent} is published instead of
+     * an event per action.
+     */
+    private Long createScheduledActionsInNewTransaction(final long rolloutId, final long groupId) {
+        return runInNewTransaction("createScheduledActions", status -> {
+            final Rollout rollout = rolloutRepository.findOne(rolloutId);
+
+            entityManager.createNativeQuery("UPDATE sp_action SET status = ?1 WHERE active = ?2 AND status = ?3"
+                    + " AND (rolloutgroup IS NULL OR rolloutgroup <> ?4)"
+                    + " AND target IN (SELECT target_id FROM sp_rollouttargetgroup WHERE rolloutGroup_Id = ?4)"
+                    + " AND distribution_set IN (SELECT id FROM sp_distribution_set WHERE required_migration_step = ?2)")
+                    .setParameter(1, Status.CANCELED.ordinal()).setParameter(2, false)
+                    .setParameter(3, Status.SCHEDULED.ordinal()).setParameter(4, groupId).executeUpdate();
+
+            final long now = System.currentTimeMillis();
+            final String auditor = auditorProvider.getCurrentAuditor();
+            final int created = entityManager.createNativeQuery("INSERT INTO sp_action (tenant, created_at, created_by,"
+                    + " last_modified_at, last_modified_by, optlock_revision, distribution_set, target, active,"
+                    + " action_type, forced_time, status, rollout, rolloutgroup)"
+                    + " SELECT ?1, ?2, ?3, ?2, ?3, 1, ?4, rtg.target_id, ?5, ?6, ?7, ?8, ?9, ?10"
+                    + " FROM sp_rollouttargetgroup rtg WHERE rtg.rolloutGroup_Id = ?10 AND NOT EXISTS"
+                    + " (SELECT a.id FROM sp_action a WHERE a.target = rtg.target_id AND a.rolloutgroup = ?10)")
+                    .setParameter(1, tenantAware.getCurrentTenant().toUpperCase()).setParameter(2, now)
+                    .setParameter(3, auditor).setParameter(4, rollout.getDistributionSet().getId())
+                    .setParameter(5, false).setParameter(6, rollout.getActionType().name())
+                    .setParameter(7, rollout.getForcedTime()).setParameter(8, Status.SCHEDULED.ordinal())
+                    .setParameter(9, rolloutId).setParameter(10, groupId).executeUpdate();
+
+            if (created > 0) {
+                // the set based insert bypasses the entity listeners
+                if (rolloutStatusCounter != null) {
+                    rolloutStatusCounter.change(rolloutId, groupId, Status.SCHEDULED, created);
+                }
+
+                final String tenant = tenantAware.getCurrentTenant();
+                afterCommit.afterCommit(() -> eventPublisher.publishEvent(new BulkActionCreatedEvent(tenant,
+                        rolloutId, groupId, created, applicationContext.getId())));
+            }
+
+            return Long.valueOf(created);
+        });
+    }
+
     /**
      * Creates an action entry into the action repository. In case of existing
      * scheduled actions the scheduled actions gets canceled. A scheduled action
@@ -618,6 +771,33 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             executeRolloutGroups(rollout, rolloutGroupsRunning);
         }
 
+        finishRolloutIfComplete(rollout);
+    }
+
+    /**
+     * @return number of the given groups that have been finished
+     */
+    private long handleRunningRolloutGroups(final Long rolloutId, final Set<Long> rolloutGroupIds) {
+        final JpaRollout rollout = rolloutRepository.findOne(rolloutId);
+        if (rollout == null || !RolloutStatus.RUNNING.equals(rollout.getStatus())) {
+            return 0;
+        }
+
+        // the groups might have been finished in the meantime
+        final List<JpaRolloutGroup> rolloutGroupsRunning = rolloutGroupRepository
+                .findByRolloutAndStatus(rollout, RolloutGroupStatus.RUNNING).stream()
+                .filter(rolloutGroup -> rolloutGroupIds.contains(rolloutGroup.getId())).collect(Collectors.toList());
+        if (rolloutGroupsRunning.isEmpty()) {
+            return 0;
+        }
+
+        LOGGER.debug("Rollout {} has {} changed running groups", rolloutId, rolloutGroupsRunning.size());
+        final long finishedGroups = executeRolloutGroups(rollout, rolloutGroupsRunning);
+        finishRolloutIfComplete(rollout);
+        return finishedGroups;
+    }
+
+    private void finishRolloutIfComplete(final JpaRollout rollout) {
         if (isRolloutComplete(rollout)) {
             LOGGER.info("Rollout {} is finished, setting FINISHED status", rollout);
             rollout.setStatus(RolloutStatus.FINISHED);
@@ -625,12 +805,27 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
     }
 
-    private void executeRolloutGroups(final JpaRollout rollout, final List<JpaRolloutGroup> rolloutGroups) {
+    /**
+     * @return number of groups that have been finished
+     */
+    private long executeRolloutGroups(final JpaRollout rollout, final List<JpaRolloutGroup> rolloutGroups) {
+        long finishedGroups = 0;
         for (final JpaRolloutGroup rolloutGroup : rolloutGroups) {
 
-            final long targetCount = countTargetsFrom(rolloutGroup);
-            if (rolloutGroup.getTotalTargets() != targetCount) {
-                updateTotalTargetCount(rolloutGroup, targetCount);
+            // a throttled group starts its remaining actions step by step
+            if (RolloutThrottle.isThrottled(rollout)) {
+                rolloutThrottle.startScheduledActions(rollout,
+                        rolloutGroup.getParent() == null ? null : rolloutGroup.getParent().getId());
+            }
+
+            // the stored total is recounted once the group has no actions
+            // left, deleted targets can only hold the group back until then
+            final boolean complete = isRolloutGroupComplete(rollout, rolloutGroup);
+            if (complete) {
+                final long targetCount = countTargetsFrom(rolloutGroup);
+                if (rolloutGroup.getTotalTargets() != targetCount) {
+                    updateTotalTargetCount(rolloutGroup, targetCount);
+                }
             }
 
             // error state check, do we need to stop the whole
@@ -644,12 +839,14 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
                 // start the next group?
                 final RolloutGroupSuccessCondition finishedCondition = rolloutGroup.getSuccessCondition();
                 checkFinishCondition(rollout, rolloutGroup, finishedCondition);
-                if (isRolloutGroupComplete(rollout, rolloutGroup)) {
+                if (complete) {
                     rolloutGroup.setStatus(RolloutGroupStatus.FINISHED);
                     rolloutGroupRepository.save(rolloutGroup);
+                    finishedGroups++;
                 }
             }
         }
+        return finishedGroups;
     }
 
     private void updateTotalTargetCount(final JpaRolloutGroup rolloutGroup, final long countTargetsOfRolloutGroup) {
@@ -694,10 +891,20 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     }
 
     private boolean isRolloutGroupComplete(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
-        final Long actionsLeftForRollout = actionRepository
-                .countByRolloutAndRolloutGroupAndStatusNotAndStatusNotAndStatusNot(rollout, rolloutGroup,
-                        Action.Status.ERROR, Action.Status.FINISHED, Action.Status.CANCELED);
-        return actionsLeftForRollout == 0;
+        if (rolloutStatusCounter != null) {
+            // a group without counters falls back to the actions
+            return rolloutStatusCounter
+                    .countNotIn(rolloutGroup.getId(),
+                            Arrays.asList(Action.Status.ERROR, Action.Status.FINISHED, Action.Status.CANCELED))
+                    .orElseGet(() -> countActionsLeft(rollout, rolloutGroup)) == 0;
+        }
+
+        return countActionsLeft(rollout, rolloutGroup) == 0;
+    }
+
+    private long countActionsLeft(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
+        return actionRepository.countByRolloutAndRolloutGroupAndStatusNotAndStatusNotAndStatusNot(rollout,
+                rolloutGroup, Action.Status.ERROR, Action.Status.FINISHED, Action.Status.CANCELED);
     }
 
     private boolean checkErrorState(final Rollout rollout, final RolloutGroup rolloutGroup) {
@@ -770,6 +977,35 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
     }
 
+    @Override
+    // No transaction, will be created per handled rollout
+    @Transactional(propagation = Propagation.NEVER)
+    public boolean handleRolloutGroups(final Collection<Long> rolloutGroupIds) {
+        final String handlerId = tenantAware.getCurrentTenant() + "-rollout";
+        final Lock lock = lockRegistry.obtain(handlerId);
+        if (!lock.tryLock()) {
+            return false;
+        }
+
+        try {
+            final Map<Long, Set<Long>> runningGroupsPerRollout = new HashMap<>();
+            Iterables.partition(rolloutGroupIds, Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(ids -> rolloutGroupRepository.findAll(ids).forEach(rolloutGroup -> {
+                        if (RolloutGroupStatus.RUNNING.equals(rolloutGroup.getStatus())) {
+                            runningGroupsPerRollout.computeIfAbsent(rolloutGroup.getRollout().getId(),
+                                    rolloutId -> new HashSet<>()).add(rolloutGroup.getId());
+                        }
+                    }));
+
+            runningGroupsPerRollout.forEach((rolloutId, groupIds) -> runInNewTransaction(handlerId + "-" + rolloutId,
+                    status -> handleRunningRolloutGroups(rolloutId, groupIds)));
+        } finally {
+            lock.unlock();
+        }
+
+        return true;
+    }
+
     private long executeFittingHandler(final Long rolloutId) {
         LOGGER.debug("handle rollout {}", rolloutId);
         final JpaRollout rollout = rolloutRepository.findOne(rolloutId);
@@ -837,6 +1073,17 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     private void handleDeleteRollout(final JpaRollout rollout) {
         LOGGER.debug("handleDeleteRollout called for {}", rollout.getId());
 
+        if (rolloutPurger != null) {
+            // hide the rollout right away and leave the deletion of its
+            // actions and targets to the purge
+            rollout.setStatus(RolloutStatus.DELETED);
+            rollout.setDeleted(true);
+            rolloutRepository.save(rollout);
+            rolloutPurger.schedule(rollout);
+            sendRolloutGroupDeletedEvents(rollout);
+            return;
+        }
+
         // check if there are actions beyond schedule
         boolean hardDeleteRolloutGroups = !actionRepository.existsByRolloutIdAndStatusNotIn(rollout.getId(),
                 Status.SCHEDULED);
@@ -952,6 +1199,8 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         update.getActionType().ifPresent(rollout::setActionType);
         update.getForcedTime().ifPresent(rollout::setForcedTime);
         update.getStartAt().ifPresent(rollout::setStartAt);
+        update.getActivationsPerMinute().ifPresent(rollout::setActivationsPerMinute);
+        update.getMaxRunningActions().ifPresent(rollout::setMaxRunningActions);
         update.getSet().ifPresent(setId -> {
             final DistributionSet set = distributionSetManagement.get(setId)
                     .orElseThrow(() -> new EntityNotFoundException(DistributionSet.class, setId));
@@ -993,7 +1242,9 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         List<TotalTargetCountActionStatus> rolloutStatusCountItems = rolloutStatusCache.getRolloutStatus(rolloutId);
 
         if (CollectionUtils.isEmpty(rolloutStatusCountItems)) {
-            rolloutStatusCountItems = actionRepository.getStatusCountByRolloutId(rolloutId);
+            rolloutStatusCountItems = rolloutStatusCounter != null
+                    ? rolloutStatusCounter.getStatusCountByRolloutId(Collections.singletonList(rolloutId))
+                    : actionRepository.getStatusCountByRolloutId(rolloutId);
             rolloutStatusCache.putRolloutStatus(rolloutId, rolloutStatusCountItems);
         }
 
@@ -1014,8 +1265,9 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
                 .collect(Collectors.toList());
 
         if (!rolloutIds.isEmpty()) {
-            final List<TotalTargetCountActionStatus> resultList = actionRepository
-                    .getStatusCountByRolloutId(rolloutIds);
+            final List<TotalTargetCountActionStatus> resultList = rolloutStatusCounter != null
+                    ? rolloutStatusCounter.getStatusCountByRolloutId(rolloutIds)
+                    : actionRepository.getStatusCountByRolloutId(rolloutIds);
             final Map<Long, List<TotalTargetCountActionStatus>> fromDb = resultList.stream()
                     .collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId));
 
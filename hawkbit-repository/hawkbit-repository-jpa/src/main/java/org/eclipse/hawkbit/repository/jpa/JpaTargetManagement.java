@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,11 +28,13 @@ import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.repository.FilterParams;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TimestampCalculator;
 import org.eclipse.hawkbit.repository.builder.TargetCreate;
 import org.eclipse.hawkbit.repository.builder.TargetUpdate;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetCreate;
@@ -115,6 +118,9 @@ public class JpaTargetManagement implements TargetManagement {
     @Autowired
     private VirtualPropertyReplacer virtualPropertyReplacer;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @Override
     public Optional<Target> getByControllerID(final String controllerId) {
         return targetRepository.findByControllerId(controllerId);
@@ -187,12 +193,32 @@ public class JpaTargetManagement implements TargetManagement {
 
         targetRepository.deleteByIdIn(targetIDs);
 
+        if (repositoryProperties.isPublishBulkEvents()) {
+            sendBulkTargetDeletedEvent(targets);
+            return;
+        }
+
         afterCommit.afterCommit(() -> targets.forEach(target -> eventPublisher.publishEvent(
                 new TargetDeletedEvent(tenantAware.getCurrentTenant(), target.getId(), target.getControllerId(),
                         Optional.ofNullable(target.getAddress()).map(URI::toString).orElse(null),
                         JpaTarget.class.getName(), applicationContext.getId()))));
     }
 
+    private void sendBulkTargetDeletedEvent(final List<JpaTarget> targets) {
+        final Map<Long, String> controllerIds = new HashMap<>(targets.size());
+        final Map<String, String> targetAddresses = new HashMap<>();
+        targets.forEach(target -> {
+            controllerIds.put(target.getId(), target.getControllerId());
+            if (target.getAddress() != null) {
+                targetAddresses.put(target.getControllerId(), target.getAddress().toString());
+            }
+        });
+
+        final String tenant = tenantAware.getCurrentTenant();
+        afterCommit.afterCommit(() -> eventPublisher.publishEvent(
+                new BulkTargetDeletedEvent(tenant, controllerIds, targetAddresses, applicationContext.getId())));
+    }
+
     @Override
     @Transactional
     @Retryable(include = {
@@ -16,7 +16,9 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.RepositoryConstants;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutbox;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
@@ -42,19 +44,18 @@ public class OfflineDsAssignmentStrategy extends AbstractDsAssignmentStrategy {
     OfflineDsAssignmentStrategy(final TargetRepository targetRepository,
             final AfterTransactionCommitExecutor afterCommit, final ApplicationEventPublisher eventPublisher,
             final ApplicationContext applicationContext, final ActionRepository actionRepository,
-            final ActionStatusRepository actionStatusRepository) {
+            final ActionStatusRepository actionStatusRepository, final EventOutbox eventOutbox,
+            final RepositoryProperties repositoryProperties) {
         super(targetRepository, afterCommit, eventPublisher, applicationContext, actionRepository,
-                actionStatusRepository);
+                actionStatusRepository, eventOutbox, repositoryProperties);
     }
 
     @Override
     void sendAssignmentEvents(final List<JpaTarget> targets, final Set<Long> targetIdsCancellList,
             final Map<String, JpaAction> targetIdsToActions) {
 
-        targets.forEach(target -> {
-            target.setUpdateStatus(TargetUpdateStatus.IN_SYNC);
-            sendTargetUpdatedEvent(target);
-        });
+        targets.forEach(target -> target.setUpdateStatus(TargetUpdateStatus.IN_SYNC));
+        sendTargetUpdatedEvents(targets);
     }
 
     @Override
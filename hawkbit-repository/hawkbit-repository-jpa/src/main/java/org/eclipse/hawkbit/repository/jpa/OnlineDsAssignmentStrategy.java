@@ -14,7 +14,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutbox;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
@@ -38,24 +40,22 @@ public class OnlineDsAssignmentStrategy extends AbstractDsAssignmentStrategy {
     OnlineDsAssignmentStrategy(final TargetRepository targetRepository,
             final AfterTransactionCommitExecutor afterCommit, final ApplicationEventPublisher eventPublisher,
             final ApplicationContext applicationContext, final ActionRepository actionRepository,
-            final ActionStatusRepository actionStatusRepository) {
+            final ActionStatusRepository actionStatusRepository, final EventOutbox eventOutbox,
+            final RepositoryProperties repositoryProperties) {
         super(targetRepository, afterCommit, eventPublisher, applicationContext, actionRepository,
-                actionStatusRepository);
+                actionStatusRepository, eventOutbox, repositoryProperties);
     }
 
     @Override
     void sendAssignmentEvents(final List<JpaTarget> targets, final Set<Long> targetIdsCancellList,
             final Map<String, JpaAction> targetIdsToActions) {
 
-        targets.forEach(target -> {
-            target.setUpdateStatus(TargetUpdateStatus.PENDING);
-            sendTargetUpdatedEvent(target);
-            if (targetIdsCancellList.contains(target.getId())) {
-                return;
-            }
+        targets.forEach(target -> target.setUpdateStatus(TargetUpdateStatus.PENDING));
+        sendTargetUpdatedEvents(targets);
 
-            sendTargetAssignDistributionSetEvent(targetIdsToActions.get(target.getControllerId()));
-        });
+        sendTargetAssignDistributionSetEvents(
+                targets.stream().filter(target -> !targetIdsCancellList.contains(target.getId()))
+                        .map(target -> targetIdsToActions.get(target.getControllerId())).collect(Collectors.toList()));
     }
 
     @Override
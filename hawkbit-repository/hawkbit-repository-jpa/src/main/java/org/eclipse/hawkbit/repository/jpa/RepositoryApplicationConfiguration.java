@@ -41,6 +41,7 @@ import org.eclipse.hawkbit.repository.builder.RolloutBuilder;
 import org.eclipse.hawkbit.repository.builder.SoftwareModuleBuilder;
 import org.eclipse.hawkbit.repository.builder.TargetFilterQueryBuilder;
 import org.eclipse.hawkbit.repository.event.ApplicationEventFilter;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetPollEvent;
 import org.eclipse.hawkbit.repository.event.remote.EventEntityManager;
 import org.eclipse.hawkbit.repository.event.remote.EventEntityManagerHolder;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
@@ -53,14 +54,29 @@ import org.eclipse.hawkbit.repository.jpa.builder.JpaRolloutBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaSoftwareModuleBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetFilterQueryBuilder;
 import org.eclipse.hawkbit.repository.jpa.configuration.MultiTenantJpaTransactionManager;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutbox;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutboxProperties;
+import org.eclipse.hawkbit.repository.jpa.event.EventOutboxRelay;
 import org.eclipse.hawkbit.repository.jpa.event.JpaEventEntityManager;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.repository.jpa.executor.TenantSchedulingProperties;
+import org.eclipse.hawkbit.repository.jpa.executor.TenantTaskExecutor;
+import org.eclipse.hawkbit.repository.jpa.lock.ClusterLockProperties;
+import org.eclipse.hawkbit.repository.jpa.lock.TenantOwnership;
 import org.eclipse.hawkbit.repository.jpa.model.helper.AfterTransactionCommitExecutorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.EntityInterceptorHolder;
+import org.eclipse.hawkbit.repository.jpa.model.helper.RolloutStatusCounterHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SystemSecurityContextHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutEngine;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutEngineProperties;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutPurgeProperties;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutPurger;
 import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounterProperties;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutThrottle;
 import org.eclipse.hawkbit.repository.jpa.rsql.RsqlParserValidationOracle;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
@@ -82,6 +98,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaBaseConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.orm.jpa.EntityScan;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
@@ -122,6 +139,9 @@ import com.google.common.collect.Maps;
 @EnableRetry
 @EntityScan("org.eclipse.hawkbit.repository.jpa.model")
 @PropertySource("classpath:/hawkbit-jpa-defaults.properties")
+@EnableConfigurationProperties({ EventOutboxProperties.class, RolloutStatusCounterProperties.class,
+        RolloutEngineProperties.class, TenantSchedulingProperties.class, ClusterLockProperties.class,
+        RolloutPurgeProperties.class })
 @Import({ RepositoryDefaultConfiguration.class })
 public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
 
@@ -151,7 +171,8 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @Bean
     @ConditionalOnMissingBean
     ApplicationEventFilter applicationEventFilter(final RepositoryProperties repositoryProperties) {
-        return e -> (e instanceof TargetPollEvent) && !repositoryProperties.isPublishTargetPollEvent();
+        return e -> (e instanceof TargetPollEvent || e instanceof BulkTargetPollEvent)
+                && !repositoryProperties.isPublishTargetPollEvent();
     }
 
     /**
@@ -282,6 +303,16 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return AfterTransactionCommitExecutorHolder.getInstance();
     }
 
+    /**
+     *
+     * @return the singleton instance of the
+     *         {@link RolloutStatusCounterHolder}
+     */
+    @Bean
+    RolloutStatusCounterHolder rolloutStatusCounterHolder() {
+        return RolloutStatusCounterHolder.getInstance();
+    }
+
     /**
      * Defines the validation processor bean.
      *
@@ -533,10 +564,135 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
             final AfterTransactionCommitExecutor afterCommit, final VirtualPropertyReplacer virtualPropertyReplacer,
             final PlatformTransactionManager txManager,
             final TenantConfigurationManagement tenantConfigurationManagement,
-            final SystemSecurityContext systemSecurityContext) {
+            final SystemSecurityContext systemSecurityContext, final ObjectProvider<EventOutbox> eventOutbox,
+            final RepositoryProperties repositoryProperties,
+            final ObjectProvider<RolloutStatusCounter> rolloutStatusCounter) {
         return new JpaDeploymentManagement(entityManager, actionRepository, distributionSetRepository, targetRepository,
                 actionStatusRepository, targetManagement, auditorProvider, eventPublisher, applicationContext,
-                afterCommit, virtualPropertyReplacer, txManager, tenantConfigurationManagement, systemSecurityContext);
+                afterCommit, virtualPropertyReplacer, txManager, tenantConfigurationManagement, systemSecurityContext,
+                eventOutbox.getIfAvailable(), repositoryProperties, rolloutStatusCounter.getIfAvailable());
+    }
+
+    /**
+     * {@link RolloutStatusCounter} bean.
+     *
+     * @param properties
+     *            of the counter
+     * @param entityManager
+     *            to execute the statements
+     * @param txManager
+     *            to run the reconciliation
+     * @param lockRegistry
+     *            to reconcile on one node at a time
+     * @return a new {@link RolloutStatusCounter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.rollout.status-counter", name = "enabled")
+    RolloutStatusCounter rolloutStatusCounter(final RolloutStatusCounterProperties properties,
+            final EntityManager entityManager, final PlatformTransactionManager txManager,
+            final LockRegistry lockRegistry) {
+        return new RolloutStatusCounter(properties, entityManager, txManager, lockRegistry);
+    }
+
+    /**
+     * {@link RolloutThrottle} bean.
+     *
+     * @param deploymentManagement
+     *            to start the actions
+     * @param actionRepository
+     *            to count the actions
+     * @param txManager
+     *            to count the running actions
+     * @param rolloutStatusCounter
+     *            to count the running actions if enabled
+     * @return a new {@link RolloutThrottle}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RolloutThrottle rolloutThrottle(final DeploymentManagement deploymentManagement,
+            final ActionRepository actionRepository, final PlatformTransactionManager txManager,
+            final ObjectProvider<RolloutStatusCounter> rolloutStatusCounter) {
+        return new RolloutThrottle(deploymentManagement, actionRepository, txManager,
+                rolloutStatusCounter.getIfAvailable());
+    }
+
+    /**
+     * {@link RolloutPurger} bean.
+     *
+     * @param properties
+     *            of the purge
+     * @param entityManager
+     *            to execute the statements
+     * @param txManager
+     *            to run the chunks
+     * @param lockRegistry
+     *            to purge a rollout on one node at a time
+     * @param eventPublisher
+     *            to publish the deletion of the rollouts
+     * @param applicationContext
+     *            to get the application ID of this node
+     * @return a new {@link RolloutPurger}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.rollout.purge", name = "enabled")
+    RolloutPurger rolloutPurger(final RolloutPurgeProperties properties, final EntityManager entityManager,
+            final PlatformTransactionManager txManager, final LockRegistry lockRegistry,
+            final ApplicationEventPublisher eventPublisher, final ApplicationContext applicationContext) {
+        return new RolloutPurger(properties, entityManager, txManager, lockRegistry, eventPublisher,
+                applicationContext.getId());
+    }
+
+    /**
+     * {@link EventOutboxRelay} bean.
+     *
+     * @param properties
+     *            of the outbox
+     * @param eventOutboxRepository
+     *            to read and delete the entries
+     * @param actionRepository
+     *            to reload the assigned software modules
+     * @param eventPublisher
+     *            to publish the events
+     * @param systemSecurityContext
+     *            to publish the events as tenant
+     * @param txManager
+     *            to run transactions
+     * @param applicationContext
+     *            to get the application ID of this node
+     * @return a new {@link EventOutboxRelay}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.outbox", name = "enabled")
+    EventOutboxRelay eventOutboxRelay(final EventOutboxProperties properties,
+            final EventOutboxRepository eventOutboxRepository, final ActionRepository actionRepository,
+            final ApplicationEventPublisher eventPublisher, final SystemSecurityContext systemSecurityContext,
+            final PlatformTransactionManager txManager, final ApplicationContext applicationContext) {
+        return new EventOutboxRelay(properties, eventOutboxRepository, actionRepository, eventPublisher,
+                systemSecurityContext, txManager, applicationContext.getId());
+    }
+
+    /**
+     * {@link EventOutbox} bean.
+     *
+     * @param eventOutboxRepository
+     *            to write the entries
+     * @param entityManager
+     *            to flush the changes before the events are created
+     * @param relay
+     *            to trigger after the commit
+     * @param eventPublisher
+     *            to publish events directly if no transaction is active
+     * @return a new {@link EventOutbox}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.outbox", name = "enabled")
+    EventOutbox eventOutbox(final EventOutboxRepository eventOutboxRepository, final EntityManager entityManager,
+            final EventOutboxRelay relay, final ApplicationEventPublisher eventPublisher) {
+        return new EventOutbox(eventOutboxRepository, entityManager, relay, eventPublisher);
     }
 
     /**
@@ -634,6 +790,10 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *            to run a check as tenant
      * @param lockRegistry
      *            to lock the tenant for auto assignment
+     * @param tenantTaskExecutor
+     *            to check the tenants in parallel
+     * @param tenantOwnership
+     *            to check only the tenants of this node
      * @return a new {@link AutoAssignChecker}
      */
     @Bean
@@ -644,8 +804,35 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @ConditionalOnProperty(prefix = "hawkbit.autoassign.scheduler", name = "enabled", matchIfMissing = true)
     AutoAssignScheduler autoAssignScheduler(final TenantAware tenantAware, final SystemManagement systemManagement,
             final SystemSecurityContext systemSecurityContext, final AutoAssignChecker autoAssignChecker,
-            final LockRegistry lockRegistry) {
-        return new AutoAssignScheduler(systemManagement, systemSecurityContext, autoAssignChecker, lockRegistry);
+            final LockRegistry lockRegistry, final ObjectProvider<TenantTaskExecutor> tenantTaskExecutor,
+            final ObjectProvider<TenantOwnership> tenantOwnership) {
+        return new AutoAssignScheduler(systemManagement, systemSecurityContext, autoAssignChecker, lockRegistry,
+                tenantTaskExecutor.getIfAvailable(), tenantOwnership.getIfAvailable());
+    }
+
+    /**
+     * {@link TenantTaskExecutor} bean.
+     *
+     * @param properties
+     *            of the executor
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run as tenant
+     * @param lockRegistry
+     *            to lock the jobs per tenant
+     * @param tenantOwnership
+     *            to run only the tenants of this node
+     * @return a new {@link TenantTaskExecutor}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.scheduler.tenant", name = "enabled")
+    TenantTaskExecutor tenantTaskExecutor(final TenantSchedulingProperties properties,
+            final SystemManagement systemManagement, final SystemSecurityContext systemSecurityContext,
+            final LockRegistry lockRegistry, final ObjectProvider<TenantOwnership> tenantOwnership) {
+        return new TenantTaskExecutor(properties, systemManagement, systemSecurityContext, lockRegistry,
+                tenantOwnership.getIfAvailable());
     }
 
     /**
@@ -660,6 +847,10 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *            to run the rollout handler
      * @param systemSecurityContext
      *            to run as system
+     * @param tenantTaskExecutor
+     *            to handle the tenants in parallel
+     * @param tenantOwnership
+     *            to handle only the tenants of this node
      * @return a new {@link RolloutScheduler} bean.
      */
     @Bean
@@ -667,7 +858,29 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @Profile("!test")
     @ConditionalOnProperty(prefix = "hawkbit.rollout.scheduler", name = "enabled", matchIfMissing = true)
     RolloutScheduler rolloutScheduler(final TenantAware tenantAware, final SystemManagement systemManagement,
-            final RolloutManagement rolloutManagement, final SystemSecurityContext systemSecurityContext) {
-        return new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext);
+            final RolloutManagement rolloutManagement, final SystemSecurityContext systemSecurityContext,
+            final ObjectProvider<TenantTaskExecutor> tenantTaskExecutor,
+            final ObjectProvider<TenantOwnership> tenantOwnership) {
+        return new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext,
+                tenantTaskExecutor.getIfAvailable(), tenantOwnership.getIfAvailable());
+    }
+
+    /**
+     * {@link RolloutEngine} bean.
+     * 
+     * @param properties
+     *            of the engine
+     * @param rolloutManagement
+     *            to evaluate the rollout groups
+     * @param systemSecurityContext
+     *            to run as system
+     * @return a new {@link RolloutEngine} bean.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.rollout.engine", name = "enabled")
+    RolloutEngine rolloutEngine(final RolloutEngineProperties properties, final RolloutManagement rolloutManagement,
+            final SystemSecurityContext systemSecurityContext, final ApplicationContext applicationContext) {
+        return new RolloutEngine(properties, rolloutManagement, systemSecurityContext, applicationContext.getId());
     }
 }
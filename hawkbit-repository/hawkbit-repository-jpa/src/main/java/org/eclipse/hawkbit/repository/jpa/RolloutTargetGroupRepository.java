@@ -8,11 +8,15 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Optional;
+
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroupId;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -31,4 +35,15 @@ public interface RolloutTargetGroupRepository
      * @return count of targets in the group
      */
     Long countByRolloutGroup(final JpaRolloutGroup rolloutGroup);
+
+    /**
+     * Retrieves the highest ID of the targets in the rollout group, which is
+     * the checkpoint for continuing to fill the group.
+     * 
+     * @param rolloutGroup
+     *            the ID of the group
+     * @return the highest target ID or empty if the group has no targets
+     */
+    @Query("SELECT MAX(r.target.id) FROM RolloutTargetGroup r WHERE r.rolloutGroup.id = :rolloutGroup")
+    Optional<Long> findMaxTargetIdByRolloutGroup(@Param("rolloutGroup") Long rolloutGroup);
 }
@@ -90,6 +90,30 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
      */
     Optional<Target> findByControllerId(String controllerID);
 
+    /**
+     * Loads {@link Target}s by given IDs.
+     *
+     * @param controllerIDs
+     *            to search for
+     * @return found {@link Target}s
+     */
+    List<JpaTarget> findByControllerIdIn(Collection<String> controllerIDs);
+
+    /**
+     * Sets {@link JpaTarget#getLastTargetQuery()} and increments the optimistic
+     * lock revision, so concurrent updates of the targets fail.
+     *
+     * @param lastTargetQuery
+     *            time of the last query
+     * @param targets
+     *            to update
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaTarget t SET t.lastTargetQuery = :lastTargetQuery, t.optLockRevision = t.optLockRevision + 1 WHERE t.id IN :targets")
+    void setLastTargetQuery(@Param("lastTargetQuery") long lastTargetQuery,
+            @Param("targets") Collection<Long> targets);
+
     @Query("SELECT t.controllerAttributes FROM JpaTarget t WHERE t.controllerId=:controllerId")
     Map<String, String> getControllerAttributes(@Param("controllerId") String controllerId);
 
@@ -11,6 +11,8 @@ package org.eclipse.hawkbit.repository.jpa.autoassign;
 import java.util.concurrent.locks.Lock;
 
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.jpa.executor.TenantTaskExecutor;
+import org.eclipse.hawkbit.repository.jpa.lock.TenantOwnership;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +35,10 @@ public class AutoAssignScheduler {
 
     private final LockRegistry lockRegistry;
 
+    private final TenantTaskExecutor tenantTaskExecutor;
+
+    private final TenantOwnership tenantOwnership;
+
     /**
      * Instantiates a new AutoAssignScheduler
      * 
@@ -43,15 +49,25 @@ public class AutoAssignScheduler {
      * @param autoAssignChecker
      *            to run a check as tenant
      * @param lockRegistry
-     *            to acquire a lock per tenant
+     *            to acquire a lock for all tenants or, with tenant ownership,
+     *            per tenant
+     * @param tenantTaskExecutor
+     *            to check the tenants in parallel, <code>null</code> to check
+     *            one tenant after the other
+     * @param tenantOwnership
+     *            to check only the tenants of this node, <code>null</code> to
+     *            check all tenants
      */
     public AutoAssignScheduler(final SystemManagement systemManagement,
             final SystemSecurityContext systemSecurityContext, final AutoAssignChecker autoAssignChecker,
-            final LockRegistry lockRegistry) {
+            final LockRegistry lockRegistry, final TenantTaskExecutor tenantTaskExecutor,
+            final TenantOwnership tenantOwnership) {
         this.systemManagement = systemManagement;
         this.systemSecurityContext = systemSecurityContext;
         this.autoAssignChecker = autoAssignChecker;
         this.lockRegistry = lockRegistry;
+        this.tenantTaskExecutor = tenantTaskExecutor;
+        this.tenantOwnership = tenantOwnership;
     }
 
     /**
@@ -69,23 +85,43 @@ public class AutoAssignScheduler {
     }
 
     private Object executeAutoAssign() {
+        if (tenantTaskExecutor != null) {
+            // locks every tenant on its own
+            tenantTaskExecutor.execute("autoassign", tenant -> autoAssignChecker.check());
+            return null;
+        }
+
         // workaround eclipselink that is currently not possible to
         // execute a query without multitenancy if MultiTenant
         // annotation is used.
         // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
         // iterate through all tenants and execute the rollout check for
         // each tenant separately.
-        final Lock lock = lockRegistry.obtain("autoassign");
-        if (!lock.tryLock()) {
+        if (tenantOwnership != null) {
+            // the nodes share the tenants, a global lock would let only one
+            // node check its tenants at a time
+            systemManagement.forEachTenant(tenant -> {
+                if (tenantOwnership.owns(tenant)) {
+                    runLocked("autoassign-" + tenant, autoAssignChecker::check);
+                }
+            });
             return null;
         }
 
+        runLocked("autoassign", () -> systemManagement.forEachTenant(tenant -> autoAssignChecker.check()));
+        return null;
+    }
+
+    private void runLocked(final String lockKey, final Runnable check) {
+        final Lock lock = lockRegistry.obtain(lockKey);
+        if (!lock.tryLock()) {
+            return;
+        }
+
         try {
-            systemManagement.forEachTenant(tenant -> autoAssignChecker.check());
+            check.run();
         } finally {
             lock.unlock();
         }
-
-        return null;
     }
 }
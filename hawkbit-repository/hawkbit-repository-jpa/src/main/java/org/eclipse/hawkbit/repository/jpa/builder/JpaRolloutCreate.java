@@ -31,6 +31,8 @@ public class JpaRolloutCreate extends AbstractRolloutUpdateCreate<RolloutCreate>
         rollout.setDistributionSet(findDistributionSetAndThrowExceptionIfNotFound(set));
         rollout.setTargetFilterQuery(targetFilterQuery);
         rollout.setStartAt(startAt);
+        rollout.setActivationsPerMinute(activationsPerMinute);
+        rollout.setMaxRunningActions(maxRunningActions);
 
         if (actionType != null) {
             rollout.setActionType(actionType);
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.event.BusProtoStuffMessageConverter;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
+import org.eclipse.hawkbit.repository.jpa.EventOutboxRepository;
+import org.eclipse.hawkbit.repository.jpa.model.JpaEventOutboxEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transactional outbox for remote events. Instead of publishing an event after
+ * the commit on the calling thread the event is written into the outbox table
+ * in the same transaction as the change it notifies about. After the commit
+ * the {@link EventOutboxRelay} publishes it asynchronously, so neither the
+ * bus nor the DMF broker are part of the transaction and an event gets not
+ * lost if the node fails after the commit.
+ */
+public class EventOutbox {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutbox.class);
+
+    private static final BusProtoStuffMessageConverter CONVERTER = new BusProtoStuffMessageConverter();
+
+    private final EventOutboxRepository eventOutboxRepository;
+
+    private final EntityManager entityManager;
+
+    private final EventOutboxRelay relay;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructor.
+     *
+     * @param eventOutboxRepository
+     *            to write the entries
+     * @param entityManager
+     *            to flush the changes before the events are created
+     * @param relay
+     *            to trigger after the commit
+     * @param eventPublisher
+     *            to publish events directly if no transaction is active
+     */
+    public EventOutbox(final EventOutboxRepository eventOutboxRepository, final EntityManager entityManager,
+            final EventOutboxRelay relay, final ApplicationEventPublisher eventPublisher) {
+        this.eventOutboxRepository = eventOutboxRepository;
+        this.entityManager = entityManager;
+        this.relay = relay;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Adds an event to the outbox of the current transaction. The event is
+     * created right before the commit so that the IDs of new entities are
+     * available.
+     *
+     * @param event
+     *            supplier of the event
+     */
+    public void publish(final Supplier<? extends RemoteTenantAwareEvent> event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            LOGGER.info("Transaction synchronization is NOT ACTIVE/ INACTIVE. Publishing event right now.");
+            eventPublisher.publishEvent(event.get());
+            return;
+        }
+
+        getOrRegisterSynchronization().events.add(event);
+    }
+
+    private OutboxSynchronization getOrRegisterSynchronization() {
+        // synchronizations are bound to the current transaction, i.e. a
+        // suspended outer transaction keeps its own events
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager
+                .getSynchronizations()) {
+            if (synchronization instanceof OutboxSynchronization) {
+                return (OutboxSynchronization) synchronization;
+            }
+        }
+
+        final OutboxSynchronization synchronization = new OutboxSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization;
+    }
+
+    static byte[] serialize(final RemoteApplicationEvent event) {
+        return (byte[]) CONVERTER.toMessage(event, new MessageHeaders(null)).getPayload();
+    }
+
+    static RemoteApplicationEvent deserialize(final byte[] payload) {
+        return (RemoteApplicationEvent) CONVERTER.fromMessage(MessageBuilder.withPayload(payload).build(),
+                RemoteApplicationEvent.class);
+    }
+
+    private final class OutboxSynchronization extends TransactionSynchronizationAdapter {
+        private final List<Supplier<? extends RemoteTenantAwareEvent>> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            // assigns the IDs of the new entities
+            entityManager.flush();
+
+            final List<JpaEventOutboxEntry> entries = events.stream().map(Supplier::get)
+                    .map(event -> new JpaEventOutboxEntry(event.getTenant(), event.getOriginService(),
+                            relay.getOwner(), relay.getLeaseUntil(), serialize(event)))
+                    .collect(Collectors.toList());
+            eventOutboxRepository.save(entries);
+            LOGGER.debug("Written {} events into the outbox", entries.size());
+        }
+
+        @Override
+        public void afterCommit() {
+            relay.trigger();
+        }
+    }
+}
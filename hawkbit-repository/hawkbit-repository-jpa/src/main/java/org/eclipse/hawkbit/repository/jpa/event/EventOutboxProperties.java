@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the transactional event outbox.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.repository.outbox")
+public class EventOutboxProperties {
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    /**
+     * Set to <code>true</code> to write the assignment and cancellation events
+     * into an outbox table in the same transaction as the action. The events
+     * are published asynchronously by a relay which guarantees at-least-once
+     * delivery, i.e. receivers have to tolerate duplicates.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of events the relay publishes in one batch.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Time in milliseconds after which the relay checks the outbox even if no
+     * transaction has written to it, e.g. for events left by a restart.
+     */
+    private long interval = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Time in milliseconds a relay owns the events it has written or claimed.
+     * Afterwards any node can claim them, e.g. if the owner has crashed. Has
+     * to be longer than the publication of a batch takes.
+     */
+    private long lease = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Time in milliseconds the relay waits for the participants of an event,
+     * e.g. the DMF publisher, to confirm its delivery. Events that are not
+     * confirmed in time are retried. Has to be shorter than the
+     * {@link #lease}.
+     */
+    private long deliveryTimeout = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Number of failed publication attempts after which an event is parked
+     * in the outbox and not retried anymore.
+     */
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * Delay in milliseconds before the first retry of an event whose
+     * publication failed. The delay doubles with every further attempt.
+     */
+    private long retryDelay = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * Maximum delay in milliseconds between two attempts to publish an event.
+     */
+    private long maxRetryDelay = TimeUnit.MINUTES.toMillis(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final long interval) {
+        this.interval = interval;
+    }
+
+    public long getLease() {
+        return lease;
+    }
+
+    public void setLease(final long lease) {
+        this.lease = lease;
+    }
+
+    public long getDeliveryTimeout() {
+        return deliveryTimeout;
+    }
+
+    public void setDeliveryTimeout(final long deliveryTimeout) {
+        this.deliveryTimeout = deliveryTimeout;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(final long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public long getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(final long maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+}
@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.EventDeliveryTracker;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.jpa.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.EventOutboxRepository;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaEventOutboxEntry;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Publishes the events of the {@link EventOutbox} in batches on an own thread
+ * and deletes them afterwards. The relay is triggered by every commit that has
+ * written events and additionally runs in a fixed interval to publish events
+ * that are left from a restart.
+ *
+ * Every relay owns the events its node has written for the configured lease.
+ * Events whose lease has expired, e.g. because their owner has crashed or was
+ * scaled away, are claimed by the next relay that runs. The claimed
+ * assignment events are published with the application ID of the claiming
+ * node, as only the origin node forwards events to the bus and to the DMF
+ * broker.
+ *
+ * An event is deleted only after it has been delivered, i.e. after every
+ * participant that registered for its type at the {@link EventDeliveryTracker}
+ * has confirmed the delivery, e.g. the DMF publisher after the broker has
+ * confirmed the messages of the event. An event whose publication or delivery
+ * failed or was not confirmed in time is released with a lease that doubles
+ * with every attempt and is parked in the outbox after the configured number
+ * of attempts. The delivery is at-least-once: if the node fails between
+ * publishing and deleting a batch, the batch is published again.
+ */
+@ManagedResource(description = "Event outbox relay")
+public class EventOutboxRelay implements EventDeliveryTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutboxRelay.class);
+
+    private final EventOutboxProperties properties;
+
+    private final EventOutboxRepository eventOutboxRepository;
+
+    private final ActionRepository actionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final String origin;
+
+    private final String owner;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean triggered = new AtomicBoolean();
+
+    private final ConcurrentMap<Class<?>, AtomicInteger> participants = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Delivery> deliveries = new ConcurrentHashMap<>();
+
+    private final AtomicLong relayedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the outbox
+     * @param eventOutboxRepository
+     *            to read and delete the entries
+     * @param actionRepository
+     *            to reload the assigned software modules
+     * @param eventPublisher
+     *            to publish the events
+     * @param systemSecurityContext
+     *            to publish the events as tenant
+     * @param transactionManager
+     *            to run transactions
+     * @param origin
+     *            application ID of this node
+     */
+    public EventOutboxRelay(final EventOutboxProperties properties, final EventOutboxRepository eventOutboxRepository,
+            final ActionRepository actionRepository, final ApplicationEventPublisher eventPublisher,
+            final SystemSecurityContext systemSecurityContext, final PlatformTransactionManager transactionManager,
+            final String origin) {
+        this.properties = properties;
+        this.eventOutboxRepository = eventOutboxRepository;
+        this.actionRepository = actionRepository;
+        this.eventPublisher = eventPublisher;
+        this.systemSecurityContext = systemSecurityContext;
+        this.origin = origin;
+        // unique per instance, as several nodes may share an application ID
+        this.owner = origin + "-" + UUID.randomUUID();
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("relayEventOutbox");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("event-outbox-relay-%d").build());
+        executor.scheduleWithFixedDelay(this::relay, properties.getInterval(), properties.getInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Triggers the relay after events have been written. Triggers are
+     * coalesced until the relay runs.
+     */
+    public void trigger() {
+        if (triggered.compareAndSet(false, true)) {
+            executor.execute(this::relay);
+        }
+    }
+
+    /**
+     * @return the owner of the events written by this node
+     */
+    String getOwner() {
+        return owner;
+    }
+
+    /**
+     * @return the end of a lease that starts now
+     */
+    long getLeaseUntil() {
+        return System.currentTimeMillis() + properties.getLease();
+    }
+
+    void relay() {
+        triggered.set(false);
+        try {
+            List<JpaEventOutboxEntry> batch;
+            do {
+                batch = claim();
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                final Set<Long> delivered = awaitDeliveries(publish(batch));
+                final List<JpaEventOutboxEntry> failed = batch.stream()
+                        .filter(entry -> !delivered.contains(entry.getId())).collect(Collectors.toList());
+                transactionTemplate.execute(status -> {
+                    if (!delivered.isEmpty()) {
+                        eventOutboxRepository.deleteByIdIn(delivered);
+                    }
+                    failed.forEach(this::release);
+                    return null;
+                });
+                relayedCount.addAndGet(delivered.size());
+                failedCount.addAndGet(failed.size());
+            } while (batch.size() >= properties.getBatchSize());
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to relay the event outbox, retrying in the next run", e);
+        }
+    }
+
+    private List<JpaEventOutboxEntry> claim() {
+        return transactionTemplate.execute(status -> {
+            final long now = System.currentTimeMillis();
+            final List<Long> ids = eventOutboxRepository.findClaimableIds(owner, now,
+                    new PageRequest(0, properties.getBatchSize()));
+            if (ids.isEmpty()) {
+                return Collections.<JpaEventOutboxEntry> emptyList();
+            }
+
+            // entries claimed by another relay in the meantime are skipped
+            eventOutboxRepository.claim(ids, owner, now + properties.getLease(), now);
+            return eventOutboxRepository.findByIdInAndOwnerOrderByIdAsc(ids, owner);
+        });
+    }
+
+    private void release(final JpaEventOutboxEntry entry) {
+        final int attempts = entry.getAttempts() + 1;
+        final boolean parked = attempts >= properties.getMaxAttempts();
+        if (parked) {
+            LOGGER.warn("Publication of event {} of the outbox failed {} times, event is parked", entry.getId(),
+                    attempts);
+        }
+        eventOutboxRepository.release(entry.getId(), attempts, System.currentTimeMillis() + getRetryDelay(attempts),
+                parked);
+    }
+
+    private long getRetryDelay(final int attempts) {
+        final long delay = properties.getRetryDelay() << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(delay, properties.getMaxRetryDelay());
+    }
+
+    /**
+     * @return the deliveries of the published events by entry ID
+     */
+    private Map<Long, Delivery> publish(final List<JpaEventOutboxEntry> batch) {
+        // keeps the order of the events per tenant
+        final Map<String, List<JpaEventOutboxEntry>> byTenant = batch.stream().collect(
+                Collectors.groupingBy(JpaEventOutboxEntry::getTenant, LinkedHashMap::new, Collectors.toList()));
+
+        final Map<Long, Delivery> published = new LinkedHashMap<>(batch.size());
+        byTenant.forEach((tenant, entries) -> {
+            final Map<Long, Delivery> tenantDeliveries = new LinkedHashMap<>(entries.size());
+            try {
+                systemSecurityContext.runAsSystemAsTenant(() -> transactionTemplate.execute(status -> {
+                    entries.forEach(entry -> publish(entry).ifPresent(delivery -> tenantDeliveries.put(entry.getId(),
+                            delivery)));
+                    return null;
+                }), tenant);
+                published.putAll(tenantDeliveries);
+            } catch (final RuntimeException e) {
+                // the events may have been published, but are retried to be
+                // on the safe side
+                LOGGER.error("Failed to publish the events of tenant {} of the outbox", tenant, e);
+                tenantDeliveries.values().forEach(this::untrack);
+            }
+        });
+        return published;
+    }
+
+    /**
+     * @return the delivery of the event or empty if the publication failed
+     */
+    private Optional<Delivery> publish(final JpaEventOutboxEntry entry) {
+        Delivery delivery = null;
+        try {
+            final RemoteApplicationEvent event = reload(EventOutbox.deserialize(entry.getPayload()));
+            if (event == null) {
+                return Optional.of(new Delivery(null, 0));
+            }
+            delivery = track(event);
+            eventPublisher.publishEvent(event);
+            return Optional.of(delivery);
+        } catch (final RuntimeException e) {
+            // a failing listener must not block the outbox
+            LOGGER.error("Failed to publish event {} of the outbox", entry.getId(), e);
+            if (delivery != null) {
+                untrack(delivery);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Delivery track(final RemoteApplicationEvent event) {
+        final int count = participants.entrySet().stream()
+                .filter(participant -> participant.getKey().isInstance(event))
+                .mapToInt(participant -> participant.getValue().get()).sum();
+        final Delivery delivery = new Delivery(event.getId(), count);
+        if (count > 0) {
+            deliveries.put(event.getId(), delivery);
+        }
+        return delivery;
+    }
+
+    private void untrack(final Delivery delivery) {
+        if (delivery.eventId != null) {
+            deliveries.remove(delivery.eventId);
+        }
+    }
+
+    /**
+     * Waits until the participants have confirmed the delivery of the
+     * published events or the delivery timeout has expired.
+     *
+     * @return the IDs of the delivered entries
+     */
+    private Set<Long> awaitDeliveries(final Map<Long, Delivery> published) {
+        final long deadline = System.currentTimeMillis() + properties.getDeliveryTimeout();
+        final Set<Long> delivered = new HashSet<>(published.size());
+        try {
+            published.forEach((entryId, delivery) -> {
+                if (delivery.await(deadline)) {
+                    delivered.add(entryId);
+                } else {
+                    LOGGER.warn("Delivery of event {} of the outbox failed or was not confirmed in time", entryId);
+                }
+            });
+        } finally {
+            published.values().forEach(this::untrack);
+        }
+        return delivered;
+    }
+
+    @Override
+    public void addParticipant(final Class<? extends RemoteApplicationEvent> eventType) {
+        participants.computeIfAbsent(eventType, type -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Override
+    public void reportDelivery(final RemoteApplicationEvent event, final CompletionStage<Boolean> delivery) {
+        final Delivery tracked = deliveries.get(event.getId());
+        if (tracked != null) {
+            tracked.report(delivery);
+        }
+    }
+
+    private RemoteApplicationEvent reload(final RemoteApplicationEvent event) {
+        if (event instanceof BulkTargetAssignDistributionSetEvent) {
+            return reloadBulk((BulkTargetAssignDistributionSetEvent) event);
+        }
+
+        if (!(event instanceof TargetAssignDistributionSetEvent)) {
+            return event;
+        }
+
+        // the assigned software modules are not serialized
+        final JpaAction action = actionRepository.findOne(((TargetAssignDistributionSetEvent) event).getActionId());
+        if (action == null) {
+            LOGGER.debug("Action {} has been deleted, assignment event is skipped",
+                    ((TargetAssignDistributionSetEvent) event).getActionId());
+            return null;
+        }
+        return new TargetAssignDistributionSetEvent(action, origin);
+    }
+
+    private RemoteApplicationEvent reloadBulk(final BulkTargetAssignDistributionSetEvent event) {
+        final List<JpaAction> actions = new ArrayList<>(event.getActions().size());
+        Iterables.partition(event.getActions().values(), Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(actionIds -> actionRepository.findAll(actionIds).forEach(actions::add));
+        if (actions.isEmpty()) {
+            LOGGER.debug("Actions of distribution set {} have been deleted, assignment event is skipped",
+                    event.getDistributionSetId());
+            return null;
+        }
+        return new BulkTargetAssignDistributionSetEvent(actions.get(0).getDistributionSet(), actions, origin);
+    }
+
+    /**
+     * Delivery of a published event, which is complete once every
+     * participant has confirmed it.
+     */
+    private static final class Delivery {
+        private final String eventId;
+        private final AtomicInteger outstanding;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Delivery(final String eventId, final int participants) {
+            this.eventId = eventId;
+            this.outstanding = new AtomicInteger(participants);
+            if (participants == 0) {
+                result.complete(Boolean.TRUE);
+            }
+        }
+
+        private void report(final CompletionStage<Boolean> delivery) {
+            delivery.whenComplete((delivered, error) -> {
+                if (error != null || !Boolean.TRUE.equals(delivered)) {
+                    result.complete(Boolean.FALSE);
+                } else if (outstanding.decrementAndGet() == 0) {
+                    result.complete(Boolean.TRUE);
+                }
+            });
+        }
+
+        private boolean await(final long deadline) {
+            try {
+                return result.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (final ExecutionException | TimeoutException e) {
+                LOGGER.debug("Delivery of event {} not confirmed", eventId, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stops the relay.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Total number of relayed events")
+    public long getRelayedCount() {
+        return relayedCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of failed attempts to publish an event")
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of events in the outbox that still have to be relayed")
+    public long getPendingCount() {
+        return eventOutboxRepository.countByParked(false);
+    }
+
+    @ManagedAttribute(description = "Number of events in the outbox that are parked after too many attempts")
+    public long getParkedCount() {
+        return eventOutboxRepository.countByParked(true);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the parallel execution of the scheduled tenant
+ * jobs, i.e. the rollout handling and the auto assignment.
+ *
+ */
+@ConfigurationProperties("hawkbit.scheduler.tenant")
+public class TenantSchedulingProperties {
+
+    private static final int DEFAULT_WORKERS = 4;
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Set to <code>true</code> to run the scheduled jobs of the tenants in
+     * parallel on a bounded worker pool instead of one tenant after the other
+     * on the scheduler thread.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of workers that run tenant jobs in parallel.
+     */
+    private int workers = DEFAULT_WORKERS;
+
+    /**
+     * Maximum number of tenant jobs that wait for a worker. Tenants that do not
+     * fit are served first in the next run.
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Time in milliseconds a tenant job is expected to take at most. It only
+     * orders the tenants, tenants that exceed it are served after all other
+     * tenants in the next run.
+     */
+    private long budget = TimeUnit.SECONDS.toMillis(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(final int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public void setBudget(final long budget) {
+        this.budget = budget;
+    }
+}
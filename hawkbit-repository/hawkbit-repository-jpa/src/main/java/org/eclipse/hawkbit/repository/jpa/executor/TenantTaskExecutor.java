@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.jpa.lock.TenantOwnership;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs a scheduled job for every tenant on a bounded worker pool, so a tenant
+ * with a long running job does not delay the other tenants.
+ *
+ * Every tenant job runs under a lock of the {@link LockRegistry} per job and
+ * tenant and is skipped as long as the previous run of the tenant is still in
+ * progress, skipped runs are not recorded.
+ *
+ * Tenants are served in the order of their last run. The time budget only
+ * orders the tenants: a tenant whose last run took longer than the budget is
+ * served after the other tenants, its run is neither interrupted nor skipped.
+ */
+@ManagedResource(description = "Tenant task executor")
+public class TenantTaskExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantTaskExecutor.class);
+
+    private final TenantSchedulingProperties properties;
+
+    private final SystemManagement systemManagement;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final LockRegistry lockRegistry;
+
+    private final TenantOwnership tenantOwnership;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, TenantRun> runs = new ConcurrentHashMap<>();
+
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong overrunCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the executor
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run the jobs as tenant
+     * @param lockRegistry
+     *            to lock the job per tenant
+     * @param tenantOwnership
+     *            to run only the tenants of this node, <code>null</code> to
+     *            run all tenants
+     */
+    public TenantTaskExecutor(final TenantSchedulingProperties properties, final SystemManagement systemManagement,
+            final SystemSecurityContext systemSecurityContext, final LockRegistry lockRegistry,
+            final TenantOwnership tenantOwnership) {
+        this.properties = properties;
+        this.systemManagement = systemManagement;
+        this.systemSecurityContext = systemSecurityContext;
+        this.lockRegistry = lockRegistry;
+        this.tenantOwnership = tenantOwnership;
+
+        executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("tenant-task-executor-%d").build());
+    }
+
+    /**
+     * Submits the given job for all tenants and returns without waiting for
+     * the jobs.
+     *
+     * @param job
+     *            name of the job, used for the locks and the metrics
+     * @param task
+     *            to run in the context of the tenant
+     */
+    public void execute(final String job, final Consumer<String> task) {
+        final List<String> tenants = new ArrayList<>();
+        systemManagement.forEachTenant(tenant -> {
+            if (tenantOwnership == null || tenantOwnership.owns(tenant)) {
+                tenants.add(tenant);
+            }
+        });
+
+        final long now = System.currentTimeMillis();
+        tenants.stream().filter(tenant -> !inProgress.contains(key(job, tenant)))
+                .sorted(Comparator.comparing(tenant -> runs.getOrDefault(key(job, tenant), TenantRun.NEVER)))
+                .forEach(tenant -> submit(job, tenant, task, now));
+    }
+
+    private void submit(final String job, final String tenant, final Consumer<String> task, final long submitted) {
+        final String key = key(job, tenant);
+        inProgress.add(key);
+        try {
+            executor.execute(() -> run(job, tenant, task, submitted));
+        } catch (final RejectedExecutionException e) {
+            inProgress.remove(key);
+            rejectedCount.incrementAndGet();
+            LOGGER.debug("No capacity left to run {} for tenant {}, retrying in the next run", job, tenant, e);
+        }
+    }
+
+    private void run(final String job, final String tenant, final Consumer<String> task, final long submitted) {
+        final String key = key(job, tenant);
+        try {
+            final Lock lock = lockRegistry.obtain(key);
+            if (!lock.tryLock()) {
+                LOGGER.debug("{} for tenant {} is running elsewhere, skipped", job, tenant);
+                return;
+            }
+
+            final long started = System.currentTimeMillis();
+            try {
+                systemSecurityContext.runAsSystemAsTenant(() -> {
+                    task.accept(tenant);
+                    return null;
+                }, tenant);
+            } finally {
+                recordRun(job, tenant, submitted, started);
+                lock.unlock();
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to run {} for tenant {}", job, tenant, e);
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    private void recordRun(final String job, final String tenant, final long submitted, final long started) {
+        final long finished = System.currentTimeMillis();
+        final boolean overrun = finished - started > properties.getBudget();
+        if (overrun) {
+            overrunCount.incrementAndGet();
+            LOGGER.warn("Running {} for tenant {} took {} ms and exceeded the budget of {} ms", job, tenant,
+                    finished - started, properties.getBudget());
+        }
+        runs.put(key(job, tenant), new TenantRun(started - submitted, finished, overrun));
+    }
+
+    private static String key(final String job, final String tenant) {
+        return job + "-" + tenant;
+    }
+
+    /**
+     * Stops the workers.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Time in milliseconds the last run per job and tenant waited for a worker")
+    public Map<String, Long> getSchedulingLag() {
+        final Map<String, Long> lag = new HashMap<>();
+        runs.forEach((key, run) -> lag.put(key, run.lag));
+        return Collections.unmodifiableMap(lag);
+    }
+
+    @ManagedAttribute(description = "Maximum time in milliseconds the last runs waited for a worker")
+    public long getMaxSchedulingLag() {
+        return runs.values().stream().mapToLong(run -> run.lag).max().orElse(0);
+    }
+
+    @ManagedAttribute(description = "Total number of tenant runs that exceeded the budget")
+    public long getOverrunCount() {
+        return overrunCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of tenant runs that have been skipped for lack of capacity")
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of tenant runs that wait for a worker")
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Last run of a job for a tenant, ordered by the service priority of the
+     * tenant in the next run.
+     */
+    // exception squid:S1210 - runs are only sorted, never compared for
+    // equality
+    @SuppressWarnings("squid:S1210")
+    private static final class TenantRun implements Comparable<TenantRun> {
+        private static final TenantRun NEVER = new TenantRun(0, 0, false);
+
+        private final long lag;
+        private final long finished;
+        private final boolean overrun;
+
+        private TenantRun(final long lag, final long finished, final boolean overrun) {
+            this.lag = lag;
+            this.finished = finished;
+            this.overrun = overrun;
+        }
+
+        @Override
+        public int compareTo(final TenantRun other) {
+            if (overrun != other.overrun) {
+                return overrun ? 1 : -1;
+            }
+            return Long.compare(finished, other.finished);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.lock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the locks that are shared by all nodes of a
+ * cluster through the database.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.repository.cluster-lock")
+public class ClusterLockProperties {
+
+    /**
+     * Set to <code>true</code> to lock the scheduled jobs through the database
+     * for all nodes of the cluster instead of within this node only.
+     */
+    private boolean enabled;
+
+    /**
+     * Time in milliseconds after which a lock expires if its node stops
+     * renewing it, e.g. because the node crashed. Has to be large compared to
+     * the clock difference of the nodes.
+     */
+    private long leaseTime = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Time in milliseconds between two renewals of the held locks.
+     */
+    private long heartbeatInterval = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Set to <code>true</code> to split the tenants between the live nodes, so
+     * every node runs the scheduled jobs only for its own share of tenants.
+     */
+    private boolean tenantSharding;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getLeaseTime() {
+        return leaseTime;
+    }
+
+    public void setLeaseTime(final long leaseTime) {
+        this.leaseTime = leaseTime;
+    }
+
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(final long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public boolean isTenantSharding() {
+        return tenantSharding;
+    }
+
+    public void setTenantSharding(final boolean tenantSharding) {
+        this.tenantSharding = tenantSharding;
+    }
+}
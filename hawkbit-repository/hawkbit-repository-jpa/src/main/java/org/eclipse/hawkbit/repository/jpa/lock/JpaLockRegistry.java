@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.lock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link LockRegistry} that shares the locks between all nodes of a cluster
+ * through the database. A lock is a row with a lease that is renewed by a
+ * heartbeat as long as the lock is held, so the locks of a crashed node
+ * expire after the lease time.
+ *
+ * With tenant sharding every node additionally keeps a membership row alive
+ * and runs the scheduled jobs only for the tenants whose hash falls into its
+ * position among the live nodes. During a change of the membership two nodes
+ * might consider themselves owner of a tenant for one heartbeat, the locks
+ * still prevent that both run a job at the same time.
+ */
+@ManagedResource(description = "Cluster lock registry")
+public class JpaLockRegistry implements LockRegistry, TenantOwnership {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaLockRegistry.class);
+
+    private static final String TABLE = "sp_lock";
+
+    private static final String NODE_PREFIX = "node:";
+
+    private static final long RETRY_DELAY = 100;
+
+    private final ClusterLockProperties properties;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Map<String, JpaLock> locks = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor;
+
+    private volatile List<String> liveNodes = Collections.emptyList();
+
+    private final AtomicLong lostCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the locks
+     * @param entityManager
+     *            to execute the statements
+     * @param transactionManager
+     *            to run every statement in its own transaction
+     */
+    public JpaLockRegistry(final ClusterLockProperties properties, final EntityManager entityManager,
+            final PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.entityManager = entityManager;
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("clusterLock");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("cluster-lock-heartbeat-%d").build());
+        executor.scheduleWithFixedDelay(this::heartbeat, 0, properties.getHeartbeatInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        return locks.computeIfAbsent(lockKey.toString(), JpaLock::new);
+    }
+
+    @Override
+    public boolean owns(final String tenant) {
+        final List<String> nodes = liveNodes;
+        // as long as the membership is unknown every node runs every tenant
+        if (!properties.isTenantSharding() || !nodes.contains(NODE_PREFIX + owner)) {
+            return true;
+        }
+
+        return nodes.indexOf(NODE_PREFIX + owner) == Math.floorMod(tenant.toUpperCase().hashCode(), nodes.size());
+    }
+
+    void heartbeat() {
+        try {
+            final List<String> held = locks.values().stream().filter(JpaLock::isHeldInDatabase)
+                    .map(lock -> lock.key).collect(Collectors.toList());
+            held.forEach(key -> {
+                if (!renew(key)) {
+                    lostCount.incrementAndGet();
+                    LOGGER.warn("Lease of lock {} has expired before it has been renewed", key);
+                }
+            });
+
+            if (properties.isTenantSharding()) {
+                final String node = NODE_PREFIX + owner;
+                if (!renew(node)) {
+                    acquire(node);
+                }
+                liveNodes = findLiveNodes();
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to renew the cluster locks, retrying in the next run", e);
+        }
+    }
+
+    private boolean acquire(final String key) {
+        try {
+            return execute(() -> {
+                final long now = System.currentTimeMillis();
+                final int updated = entityManager
+                        .createNativeQuery("UPDATE " + TABLE + " SET owner = ?1, expires_at = ?2"
+                                + " WHERE lock_key = ?3 AND (owner = ?4 OR expires_at < ?5)")
+                        .setParameter(1, owner).setParameter(2, now + properties.getLeaseTime()).setParameter(3, key)
+                        .setParameter(4, owner).setParameter(5, now).executeUpdate();
+                if (updated > 0) {
+                    return true;
+                }
+
+                // the insert fails if another node holds the lock
+                entityManager
+                        .createNativeQuery(
+                                "INSERT INTO " + TABLE + " (lock_key, owner, expires_at) VALUES (?1, ?2, ?3)")
+                        .setParameter(1, key).setParameter(2, owner).setParameter(3, now + properties.getLeaseTime())
+                        .executeUpdate();
+                return true;
+            });
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Lock {} is held by another node", key, e);
+            return false;
+        }
+    }
+
+    private boolean renew(final String key) {
+        return execute(() -> entityManager
+                .createNativeQuery("UPDATE " + TABLE + " SET expires_at = ?1 WHERE lock_key = ?2 AND owner = ?3")
+                .setParameter(1, System.currentTimeMillis() + properties.getLeaseTime()).setParameter(2, key)
+                .setParameter(3, owner).executeUpdate() > 0);
+    }
+
+    private void release(final String key) {
+        try {
+            execute(() -> entityManager
+                    .createNativeQuery("DELETE FROM " + TABLE + " WHERE lock_key = ?1 AND owner = ?2")
+                    .setParameter(1, key).setParameter(2, owner).executeUpdate());
+        } catch (final RuntimeException e) {
+            // the lease expires anyway
+            LOGGER.warn("Failed to release lock {}", key, e);
+        }
+    }
+
+    private List<String> findLiveNodes() {
+        return execute(() -> entityManager
+                .createNativeQuery("SELECT lock_key FROM " + TABLE
+                        + " WHERE lock_key LIKE ?1 AND expires_at >= ?2 ORDER BY lock_key")
+                .setParameter(1, NODE_PREFIX + "%").setParameter(2, System.currentTimeMillis()).getResultList())
+                .stream().map(String.class::cast).collect(Collectors.toList());
+    }
+
+    private <T> T execute(final Supplier<T> statement) {
+        return transactionTemplate.execute(status -> statement.get());
+    }
+
+    /**
+     * Stops the heartbeat and removes the membership of this node.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        if (properties.isTenantSharding()) {
+            release(NODE_PREFIX + owner);
+        }
+    }
+
+    @ManagedAttribute(description = "ID of this node in the lock table")
+    public String getOwner() {
+        return owner;
+    }
+
+    @ManagedAttribute(description = "Number of live nodes that share the tenants")
+    public int getLiveNodeCount() {
+        return liveNodes.size();
+    }
+
+    @ManagedAttribute(description = "Total number of held locks whose lease expired before renewal")
+    public long getLostCount() {
+        return lostCount.get();
+    }
+
+    /**
+     * Lock that is held by at most one thread of one node. Threads of this
+     * node are serialized by a local lock, so only the first acquisition of a
+     * thread goes to the database.
+     */
+    private final class JpaLock implements Lock {
+        private final String key;
+
+        private final ReentrantLock local = new ReentrantLock();
+
+        private volatile boolean held;
+
+        private JpaLock(final String key) {
+            this.key = key;
+        }
+
+        private boolean isHeldInDatabase() {
+            return held;
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!local.tryLock()) {
+                return false;
+            }
+
+            if (local.getHoldCount() > 1) {
+                return true;
+            }
+
+            if (acquire(key)) {
+                held = true;
+                return true;
+            }
+
+            local.unlock();
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + unit.toMillis(time);
+            while (!tryLock()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(RETRY_DELAY);
+            }
+            return true;
+        }
+
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (!tryLock()) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(RETRY_DELAY);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (!tryLock()) {
+                TimeUnit.MILLISECONDS.sleep(RETRY_DELAY);
+            }
+        }
+
+        @Override
+        public void unlock() {
+            if (local.getHoldCount() == 1) {
+                held = false;
+                release(key);
+            }
+            local.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by cluster locks");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.lock;
+
+/**
+ * Decides which node of a cluster runs the scheduled jobs of a tenant.
+ *
+ */
+@FunctionalInterface
+public interface TenantOwnership {
+
+    /**
+     * @param tenant
+     *            to check
+     * @return <code>true</code> if this node runs the scheduled jobs of the
+     *         given tenant
+     */
+    boolean owns(String tenant);
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+/**
+ * Entry of the event outbox, i.e. a serialized remote event that has been
+ * written in the same transaction as the change it notifies about and that
+ * still has to be published. The entries are not tenant aware as they are
+ * relayed for all tenants.
+ *
+ * An entry is relayed by the node that owns it until its lease ends. After
+ * that any node can claim it, e.g. if the owner has crashed. An entry whose
+ * publication failed is released with a lease that delays the next attempt
+ * and is parked after too many attempts.
+ */
+@Entity
+@Table(name = "sp_event_outbox", indexes = {
+        @Index(name = "sp_idx_event_outbox_01", columnList = "parked,lease_until,id") })
+public class JpaEventOutboxEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "tenant", nullable = false, updatable = false, length = 40)
+    private String tenant;
+
+    @Column(name = "origin", nullable = false, updatable = false, length = 128)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private long createdAt;
+
+    @Column(name = "owner", length = 128)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private long leaseUntil;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "parked", nullable = false)
+    private boolean parked;
+
+    @Lob
+    @Basic(fetch = FetchType.EAGER)
+    @Column(name = "payload", nullable = false, updatable = false)
+    private byte[] payload;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public JpaEventOutboxEntry() {
+        // JPA constructor
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the event belongs to
+     * @param origin
+     *            application ID of the node that has written the event
+     * @param owner
+     *            of the lease, i.e. the relay that publishes the event
+     * @param leaseUntil
+     *            time in milliseconds until no other relay may claim the
+     *            event
+     * @param payload
+     *            the serialized event
+     */
+    public JpaEventOutboxEntry(final String tenant, final String origin, final String owner, final long leaseUntil,
+            final byte[] payload) {
+        this.tenant = tenant;
+        this.origin = origin;
+        this.owner = owner;
+        this.leaseUntil = leaseUntil;
+        this.payload = payload;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public boolean isParked() {
+        return parked;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
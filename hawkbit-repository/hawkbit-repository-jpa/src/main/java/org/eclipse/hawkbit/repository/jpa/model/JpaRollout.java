@@ -25,6 +25,7 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -116,6 +117,17 @@ public class JpaRollout extends AbstractJpaNamedEntity implements Rollout, Event
     @Column(name = "start_at")
     private Long startAt;
 
+    @Column(name = "activations_per_minute")
+    @Min(1)
+    private Integer activationsPerMinute;
+
+    @Column(name = "max_running_actions")
+    @Min(1)
+    private Integer maxRunningActions;
+
+    @Column(name = "activated_until")
+    private Long activatedUntil;
+
     @Transient
     private transient TotalTargetCountStatus totalTargetCountStatus;
 
@@ -171,6 +183,37 @@ public class JpaRollout extends AbstractJpaNamedEntity implements Rollout, Event
         this.startAt = startAt;
     }
 
+    @Override
+    public Integer getActivationsPerMinute() {
+        return activationsPerMinute;
+    }
+
+    public void setActivationsPerMinute(final Integer activationsPerMinute) {
+        this.activationsPerMinute = activationsPerMinute;
+    }
+
+    @Override
+    public Integer getMaxRunningActions() {
+        return maxRunningActions;
+    }
+
+    public void setMaxRunningActions(final Integer maxRunningActions) {
+        this.maxRunningActions = maxRunningActions;
+    }
+
+    /**
+     * @return time up to which the activation rate has been used up by the
+     *         started actions, <code>null</code> if no action has been started
+     *         under the rate yet
+     */
+    public Long getActivatedUntil() {
+        return activatedUntil;
+    }
+
+    public void setActivatedUntil(final Long activatedUntil) {
+        this.activatedUntil = activatedUntil;
+    }
+
     @Override
     public ActionType getActionType() {
         return actionType;
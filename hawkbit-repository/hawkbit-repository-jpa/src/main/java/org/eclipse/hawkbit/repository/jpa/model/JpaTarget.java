@@ -40,6 +40,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.MapKeyColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -160,6 +161,13 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     @Column(name = "request_controller_attributes", nullable = false)
     private boolean requestControllerAttributes = true;
 
+    /**
+     * <code>true</code> if the creation or update of this instance is
+     * published by a bulk event instead of a per target event.
+     */
+    @Transient
+    private transient boolean publishedInBulk;
+
     /**
      * Constructor.
      *
@@ -374,8 +382,19 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
         this.requestControllerAttributes = requestControllerAttributes;
     }
 
+    /**
+     * Suppresses the {@link TargetCreatedEvent} and {@link TargetUpdatedEvent}
+     * of this instance as the caller publishes a bulk event instead.
+     */
+    public void setPublishedInBulk() {
+        this.publishedInBulk = true;
+    }
+
     @Override
     public void fireCreateEvent(final DescriptorEvent descriptorEvent) {
+        if (publishedInBulk) {
+            return;
+        }
         EventPublisherHolder.getInstance().getEventPublisher()
                 .publishEvent(new TargetCreatedEvent(this, EventPublisherHolder.getInstance().getApplicationId()));
     }
@@ -387,6 +406,9 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
 
     @Override
     public void fireUpdateEvent(final DescriptorEvent descriptorEvent) {
+        if (publishedInBulk) {
+            return;
+        }
         EventPublisherHolder.getInstance().getEventPublisher()
                 .publishEvent(new TargetUpdatedEvent(this, EventPublisherHolder.getInstance().getApplicationId()));
     }
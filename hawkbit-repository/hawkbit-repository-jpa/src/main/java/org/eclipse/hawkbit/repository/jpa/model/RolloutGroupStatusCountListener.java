@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import org.eclipse.hawkbit.repository.jpa.model.helper.RolloutStatusCounterHolder;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.queries.DataModifyQuery;
+import org.eclipse.persistence.queries.SQLCall;
+
+/**
+ * Creates the {@link RolloutStatusCounter} rows of a new
+ * {@link JpaRolloutGroup} in the same transaction, so the
+ * {@link RolloutStatusCountListener} of its actions only has to update
+ * existing rows.
+ *
+ */
+public class RolloutGroupStatusCountListener extends DescriptorEventAdapter {
+
+    @Override
+    public void postInsert(final DescriptorEvent event) {
+        final RolloutStatusCounter counter = RolloutStatusCounterHolder.getInstance().getRolloutStatusCounter();
+        final JpaRolloutGroup group = (JpaRolloutGroup) event.getObject();
+        if (counter == null || group.getRollout() == null) {
+            return;
+        }
+
+        counter.create(
+                sql -> ((Number) event.getSession().executeQuery(new DataModifyQuery(new SQLCall(sql)))).intValue(),
+                group.getRollout().getId(), group.getId());
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import org.eclipse.hawkbit.repository.jpa.model.helper.RolloutStatusCounterHolder;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.internal.sessions.DirectToFieldChangeRecord;
+import org.eclipse.persistence.queries.DataModifyQuery;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.queries.UpdateObjectQuery;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Listens to status changes of rollout {@link JpaAction}s and updates the
+ * {@link RolloutStatusCounter} in the same transaction. The statements are
+ * executed with the session of the flush as the entity manager cannot be used
+ * while it is flushed.
+ *
+ */
+public class RolloutStatusCountListener extends DescriptorEventAdapter {
+
+    @Override
+    public void postInsert(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        change(event.getSession(), action, action.getStatus(), 1);
+    }
+
+    @Override
+    public void postUpdate(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        final Object record = ((UpdateObjectQuery) event.getQuery()).getObjectChangeSet()
+                .getChangesForAttributeNamed("status");
+        if (!(record instanceof DirectToFieldChangeRecord)) {
+            return;
+        }
+
+        final Object oldStatus = ((DirectToFieldChangeRecord) record).getOldValue();
+        if (oldStatus instanceof Status) {
+            change(event.getSession(), action, (Status) oldStatus, -1);
+        }
+        change(event.getSession(), action, action.getStatus(), 1);
+    }
+
+    @Override
+    public void postDelete(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        change(event.getSession(), action, action.getStatus(), -1);
+    }
+
+    private static void change(final Session session, final JpaAction action, final Status status,
+            final long delta) {
+        final RolloutStatusCounter counter = RolloutStatusCounterHolder.getInstance().getRolloutStatusCounter();
+        if (counter == null || action.getRollout() == null || action.getRolloutGroup() == null || status == null) {
+            return;
+        }
+
+        counter.change(sql -> ((Number) session.executeQuery(new DataModifyQuery(new SQLCall(sql)))).intValue(),
+                action.getRollout().getId(), action.getRolloutGroup().getId(), status, delta);
+    }
+}
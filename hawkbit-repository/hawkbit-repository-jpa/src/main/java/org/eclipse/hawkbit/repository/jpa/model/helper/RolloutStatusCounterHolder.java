@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model.helper;
+
+import org.eclipse.hawkbit.repository.jpa.model.RolloutGroupStatusCountListener;
+import org.eclipse.hawkbit.repository.jpa.model.RolloutStatusCountListener;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A singleton bean which holds the {@link RolloutStatusCounter} to have it in
+ * the {@link RolloutStatusCountListener} and the
+ * {@link RolloutGroupStatusCountListener} which cannot be autowired. The
+ * counter is <code>null</code> if it is not enabled.
+ *
+ */
+public final class RolloutStatusCounterHolder {
+
+    private static final RolloutStatusCounterHolder SINGLETON = new RolloutStatusCounterHolder();
+
+    @Autowired(required = false)
+    private RolloutStatusCounter rolloutStatusCounter;
+
+    private RolloutStatusCounterHolder() {
+
+    }
+
+    /**
+     * @return the rollout status counter holder singleton instance
+     */
+    public static RolloutStatusCounterHolder getInstance() {
+        return SINGLETON;
+    }
+
+    /**
+     * @return the rolloutStatusCounter or <code>null</code> if not enabled
+     */
+    public RolloutStatusCounter getRolloutStatusCounter() {
+        return rolloutStatusCounter;
+    }
+
+    /**
+     * @param rolloutStatusCounter
+     *            the rolloutStatusCounter to set
+     */
+    public void setRolloutStatusCounter(final RolloutStatusCounter rolloutStatusCounter) {
+        this.rolloutStatusCounter = rolloutStatusCounter;
+    }
+
+}
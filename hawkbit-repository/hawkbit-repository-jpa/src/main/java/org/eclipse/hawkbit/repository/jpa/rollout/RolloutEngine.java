@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.event.remote.AbstractBulkActionEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Evaluates running {@link RolloutGroup}s when the status of their actions
+ * changes, instead of waiting for the next run of the {@link RolloutScheduler}
+ * that evaluates all running groups of all tenants.
+ *
+ * The groups of changed actions are marked as dirty and evaluated together on
+ * an own thread after a short delay, so a burst of status changes results in
+ * one evaluation per group. Only the changes made on this node are evaluated,
+ * the changes of the other nodes are evaluated by their own engine. If the
+ * rollouts of a tenant are handled elsewhere the evaluation of its groups is
+ * retried with an exponential backoff.
+ */
+@ManagedResource(description = "Rollout engine")
+public class RolloutEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutEngine.class);
+
+    private final RolloutEngineProperties properties;
+
+    private final RolloutManagement rolloutManagement;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final String applicationId;
+
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, Set<Long>> dirtyGroups = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> retries = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean triggered = new AtomicBoolean();
+
+    private final AtomicLong evaluatedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the engine
+     * @param rolloutManagement
+     *            to evaluate the groups
+     * @param systemSecurityContext
+     *            to evaluate the groups as tenant
+     * @param applicationId
+     *            of this node to ignore the events of the other nodes
+     */
+    public RolloutEngine(final RolloutEngineProperties properties, final RolloutManagement rolloutManagement,
+            final SystemSecurityContext systemSecurityContext, final String applicationId) {
+        this.properties = properties;
+        this.rolloutManagement = rolloutManagement;
+        this.systemSecurityContext = systemSecurityContext;
+        this.applicationId = applicationId;
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("rollout-engine-%d").build());
+    }
+
+    @EventListener(classes = AbstractActionEvent.class)
+    void onActionChange(final AbstractActionEvent event) {
+        if (event.getRolloutGroupId() != null && applicationId.equals(event.getOriginService())) {
+            markDirty(event.getTenant(), Collections.singleton(event.getRolloutGroupId()));
+        }
+    }
+
+    @EventListener(classes = AbstractBulkActionEvent.class)
+    void onBulkActionChange(final AbstractBulkActionEvent event) {
+        if (applicationId.equals(event.getOriginService())) {
+            markDirty(event.getTenant(), Collections.singleton(event.getRolloutGroupId()));
+        }
+    }
+
+    private void markDirty(final String tenant, final Collection<Long> rolloutGroupIds) {
+        dirtyGroups.computeIfAbsent(tenant, key -> ConcurrentHashMap.newKeySet()).addAll(rolloutGroupIds);
+        trigger();
+    }
+
+    private void trigger() {
+        if (triggered.compareAndSet(false, true)) {
+            executor.schedule(this::evaluate, properties.getDelay(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void evaluate() {
+        triggered.set(false);
+        dirtyGroups.forEach(this::evaluate);
+    }
+
+    private void evaluate(final String tenant, final Set<Long> dirty) {
+        // groups that are marked while draining stay for the next run
+        final List<Long> rolloutGroupIds = new ArrayList<>();
+        final Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            rolloutGroupIds.add(iterator.next());
+            iterator.remove();
+        }
+        if (rolloutGroupIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            final boolean handled = systemSecurityContext
+                    .runAsSystemAsTenant(() -> rolloutManagement.handleRolloutGroups(rolloutGroupIds), tenant);
+            if (handled) {
+                retries.remove(tenant);
+                evaluatedCount.addAndGet(rolloutGroupIds.size());
+            } else {
+                final int attempt = retries.computeIfAbsent(tenant, key -> new AtomicInteger()).incrementAndGet();
+                final long retryDelay = Math.min(properties.getDelay() << Math.min(attempt, 20),
+                        properties.getMaxRetryDelay());
+                LOGGER.debug("Rollouts of tenant {} are handled elsewhere, retrying groups {} in {} ms", tenant,
+                        rolloutGroupIds, retryDelay);
+                executor.schedule(() -> markDirty(tenant, rolloutGroupIds), retryDelay, TimeUnit.MILLISECONDS);
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to evaluate rollout groups {} of tenant {}, left to the rollout scheduler",
+                    rolloutGroupIds, tenant, e);
+        }
+    }
+
+    /**
+     * Stops the evaluation.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Total number of evaluated rollout groups")
+    public long getEvaluatedCount() {
+        return evaluatedCount.get();
+    }
+}
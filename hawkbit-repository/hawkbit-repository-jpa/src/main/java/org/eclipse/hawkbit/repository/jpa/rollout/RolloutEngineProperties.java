@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the event driven evaluation of running rollout
+ * groups.
+ *
+ */
+@ConfigurationProperties("hawkbit.rollout.engine")
+public class RolloutEngineProperties {
+
+    /**
+     * Set to <code>true</code> to evaluate running rollout groups as soon as
+     * the status of their actions changes. The {@link RolloutScheduler} still
+     * creates, starts and deletes the rollouts and evaluates all running
+     * groups as a safety net, so its delay can be increased.
+     */
+    private boolean enabled;
+
+    /**
+     * Time in milliseconds to collect action status changes before the
+     * affected rollout groups are evaluated together.
+     */
+    private long delay = 50;
+
+    /**
+     * Maximum time in milliseconds to wait before the evaluation of the groups
+     * of a tenant whose rollouts are handled elsewhere is retried. The wait
+     * starts with twice the delay and doubles with every retry.
+     */
+    private long maxRetryDelay = 5_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+
+    public void setDelay(final long delay) {
+        this.delay = delay;
+    }
+
+    public long getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(final long maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+}
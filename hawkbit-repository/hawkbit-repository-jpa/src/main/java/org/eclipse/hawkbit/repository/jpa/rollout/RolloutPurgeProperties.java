@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the background purge of deleted rollouts.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.repository.rollout.purge")
+public class RolloutPurgeProperties {
+
+    /**
+     * Set to <code>true</code> to hide deleted rollouts right away and to
+     * delete their actions and targets in the background instead of in the
+     * {@link RolloutScheduler}.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of rows that are deleted in one transaction.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Time in milliseconds to pause between two chunks, to leave capacity of
+     * the database to the active rollouts.
+     */
+    private long chunkDelay = 100;
+
+    /**
+     * Time in milliseconds between two runs of the purge.
+     */
+    private long interval = TimeUnit.SECONDS.toMillis(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getChunkDelay() {
+        return chunkDelay;
+    }
+
+    public void setChunkDelay(final long chunkDelay) {
+        this.chunkDelay = chunkDelay;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(final long interval) {
+        this.interval = interval;
+    }
+}
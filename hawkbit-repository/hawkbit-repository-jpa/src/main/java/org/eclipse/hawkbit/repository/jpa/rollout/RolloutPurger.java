@@ -0,0 +1,323 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.repository.event.remote.RolloutDeletedEvent;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Deletes the actions and targets of deleted rollouts in the background. The
+ * rollout is hidden when it is deleted and registered in the purge table,
+ * the purge then deletes the scheduled actions and the targets of the groups
+ * in chunks, every chunk in an own transaction followed by a pause. The last
+ * deleted ID is stored with every chunk, so a restarted purge continues where
+ * it stopped.
+ *
+ * As in the {@link RolloutScheduler} a rollout that has actions beyond
+ * scheduled keeps them, its groups and its targets as history. All other
+ * rollouts are deleted with their groups in the end.
+ *
+ * The statements are not tenant aware as rollout, action and target IDs are
+ * unique over all tenants.
+ */
+@ManagedResource(description = "Rollout purge")
+public class RolloutPurger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutPurger.class);
+
+    private static final String TABLE = "sp_rollout_purge";
+
+    private final RolloutPurgeProperties properties;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final LockRegistry lockRegistry;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String applicationId;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong purgedActionCount = new AtomicLong();
+
+    private final AtomicLong purgedTargetCount = new AtomicLong();
+
+    private final AtomicLong purgedRolloutCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the purge
+     * @param entityManager
+     *            to execute the statements
+     * @param transactionManager
+     *            to run every chunk in its own transaction
+     * @param lockRegistry
+     *            to purge a rollout on one node at a time
+     * @param eventPublisher
+     *            to publish the deletion of the rollouts
+     * @param applicationId
+     *            of this node
+     */
+    public RolloutPurger(final RolloutPurgeProperties properties, final EntityManager entityManager,
+            final PlatformTransactionManager transactionManager, final LockRegistry lockRegistry,
+            final ApplicationEventPublisher eventPublisher, final String applicationId) {
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.lockRegistry = lockRegistry;
+        this.eventPublisher = eventPublisher;
+        this.applicationId = applicationId;
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("purgeRollout");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("rollout-purge-%d").build());
+        executor.scheduleWithFixedDelay(this::purge, properties.getInterval(), properties.getInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers the given rollout for the purge in the current transaction.
+     * The rollout has to be hidden by the caller.
+     *
+     * @param rollout
+     *            to purge
+     */
+    public void schedule(final Rollout rollout) {
+        final Number registered = (Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM " + TABLE + " WHERE rollout = ?1")
+                .setParameter(1, rollout.getId()).getSingleResult();
+        if (registered.longValue() > 0) {
+            return;
+        }
+
+        entityManager
+                .createNativeQuery("INSERT INTO " + TABLE
+                        + " (rollout, tenant, action_cursor, target_cursor) VALUES (?1, ?2, ?3, ?4)")
+                .setParameter(1, rollout.getId()).setParameter(2, rollout.getTenant()).setParameter(3, 0L)
+                .setParameter(4, 0L).executeUpdate();
+    }
+
+    /**
+     * Purges all registered rollouts.
+     */
+    void purge() {
+        try {
+            final List<?> rollouts = transactionTemplate.execute(status -> entityManager
+                    .createNativeQuery("SELECT rollout, tenant, action_cursor, target_cursor FROM " + TABLE
+                            + " ORDER BY rollout")
+                    .getResultList());
+
+            for (final Object row : rollouts) {
+                final Object[] rollout = (Object[]) row;
+                if (!purge(((Number) rollout[0]).longValue(), (String) rollout[1], ((Number) rollout[2]).longValue(),
+                        ((Number) rollout[3]).longValue())) {
+                    return;
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to purge the deleted rollouts, retrying in the next run", e);
+        }
+    }
+
+    private boolean purge(final long rolloutId, final String tenant, final long actionCursor,
+            final long targetCursor) {
+        final Lock lock = lockRegistry.obtain("rollout-purge-" + rolloutId);
+        if (!lock.tryLock()) {
+            return true;
+        }
+
+        try {
+            if (!purgeScheduledActions(rolloutId, actionCursor)) {
+                return false;
+            }
+
+            if (hasActions(rolloutId)) {
+                LOGGER.debug("Rollout {} keeps its actions, groups and targets as history", rolloutId);
+                execute(() -> unregister(rolloutId));
+                return true;
+            }
+
+            if (!purgeTargets(rolloutId, targetCursor)) {
+                return false;
+            }
+
+            execute(() -> {
+                entityManager.createNativeQuery("DELETE FROM sp_rollout WHERE id = ?1").setParameter(1, rolloutId)
+                        .executeUpdate();
+                return unregister(rolloutId);
+            });
+            purgedRolloutCount.incrementAndGet();
+            eventPublisher.publishEvent(
+                    new RolloutDeletedEvent(tenant, rolloutId, JpaRollout.class.getName(), applicationId));
+            LOGGER.debug("Rollout {} has been purged", rolloutId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean purgeScheduledActions(final long rolloutId, final long actionCursor) {
+        long cursor = actionCursor;
+        List<Long> actionIds;
+        while (!(actionIds = findIds("SELECT id FROM sp_action WHERE rollout = ?1 AND status = ?2 AND id > ?3"
+                + " ORDER BY id", rolloutId, Status.SCHEDULED.ordinal(), cursor)).isEmpty()) {
+            final List<Long> ids = actionIds;
+            cursor = ids.get(ids.size() - 1);
+            final long nextCursor = cursor;
+            execute(() -> {
+                entityManager.createNativeQuery("DELETE FROM sp_action WHERE id IN (" + join(ids) + ")")
+                        .executeUpdate();
+                return updateCursor("action_cursor", rolloutId, nextCursor);
+            });
+            purgedActionCount.addAndGet(ids.size());
+
+            if (!pause()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean purgeTargets(final long rolloutId, final long targetCursor) {
+        long cursor = targetCursor;
+        List<Long> targetIds;
+        while (!(targetIds = findIds("SELECT t.target_id FROM sp_rollouttargetgroup t"
+                + " INNER JOIN sp_rolloutgroup g ON t.rolloutGroup_Id = g.id"
+                + " WHERE g.rollout = ?1 AND t.target_id > ?2 ORDER BY t.target_id", rolloutId, cursor))
+                        .isEmpty()) {
+            final List<Long> ids = targetIds;
+            cursor = ids.get(ids.size() - 1);
+            final long nextCursor = cursor;
+            execute(() -> {
+                entityManager
+                        .createNativeQuery("DELETE FROM sp_rollouttargetgroup WHERE rolloutGroup_Id IN"
+                                + " (SELECT id FROM sp_rolloutgroup WHERE rollout = ?1) AND target_id IN ("
+                                + join(ids) + ")")
+                        .setParameter(1, rolloutId).executeUpdate();
+                return updateCursor("target_cursor", rolloutId, nextCursor);
+            });
+            purgedTargetCount.addAndGet(ids.size());
+
+            if (!pause()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Long> findIds(final String sql, final Object... parameters) {
+        return execute(() -> {
+            final Query query = entityManager.createNativeQuery(sql)
+                    .setMaxResults(properties.getChunkSize());
+            for (int i = 0; i < parameters.length; i++) {
+                query.setParameter(i + 1, parameters[i]);
+            }
+            return ((List<?>) query.getResultList()).stream().map(id -> ((Number) id).longValue())
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private boolean hasActions(final long rolloutId) {
+        return execute(() -> !entityManager.createNativeQuery("SELECT id FROM sp_action WHERE rollout = ?1")
+                .setParameter(1, rolloutId).setMaxResults(1).getResultList().isEmpty());
+    }
+
+    private int updateCursor(final String column, final long rolloutId, final long cursor) {
+        return entityManager.createNativeQuery("UPDATE " + TABLE + " SET " + column + " = ?1 WHERE rollout = ?2")
+                .setParameter(1, cursor).setParameter(2, rolloutId).executeUpdate();
+    }
+
+    private int unregister(final long rolloutId) {
+        return entityManager.createNativeQuery("DELETE FROM " + TABLE + " WHERE rollout = ?1")
+                .setParameter(1, rolloutId).executeUpdate();
+    }
+
+    private boolean pause() {
+        if (properties.getChunkDelay() <= 0) {
+            return true;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.getChunkDelay());
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> T execute(final Supplier<T> statement) {
+        return transactionTemplate.execute(status -> statement.get());
+    }
+
+    private static String join(final List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Stops the purge.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Number of deleted rollouts that wait for the purge")
+    public long getPendingCount() {
+        return execute(() -> ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + TABLE)
+                .getSingleResult()).longValue());
+    }
+
+    @ManagedAttribute(description = "Total number of purged scheduled actions")
+    public long getPurgedActionCount() {
+        return purgedActionCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of purged rollout group targets")
+    public long getPurgedTargetCount() {
+        return purgedTargetCount.get();
+    }
+
+    @ManagedAttribute(description = "Total number of purged rollouts")
+    public long getPurgedRolloutCount() {
+        return purgedRolloutCount.get();
+    }
+}
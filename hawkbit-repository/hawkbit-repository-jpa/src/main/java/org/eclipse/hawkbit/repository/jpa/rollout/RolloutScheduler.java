@@ -10,6 +10,8 @@ package org.eclipse.hawkbit.repository.jpa.rollout;
 
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.jpa.executor.TenantTaskExecutor;
+import org.eclipse.hawkbit.repository.jpa.lock.TenantOwnership;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,10 @@ public class RolloutScheduler {
 
     private final SystemSecurityContext systemSecurityContext;
 
+    private final TenantTaskExecutor tenantTaskExecutor;
+
+    private final TenantOwnership tenantOwnership;
+
     /**
      * Constructor.
      * 
@@ -41,12 +47,21 @@ public class RolloutScheduler {
      *            to run the rollout handler
      * @param systemSecurityContext
      *            to run as system
+     * @param tenantTaskExecutor
+     *            to handle the tenants in parallel, <code>null</code> to
+     *            handle one tenant after the other
+     * @param tenantOwnership
+     *            to handle only the tenants of this node, <code>null</code>
+     *            to handle all tenants
      */
     public RolloutScheduler(final SystemManagement systemManagement, final RolloutManagement rolloutManagement,
-            final SystemSecurityContext systemSecurityContext) {
+            final SystemSecurityContext systemSecurityContext, final TenantTaskExecutor tenantTaskExecutor,
+            final TenantOwnership tenantOwnership) {
         this.systemManagement = systemManagement;
         this.rolloutManagement = rolloutManagement;
         this.systemSecurityContext = systemSecurityContext;
+        this.tenantTaskExecutor = tenantTaskExecutor;
+        this.tenantOwnership = tenantOwnership;
     }
 
     /**
@@ -69,7 +84,15 @@ public class RolloutScheduler {
             // iterate through all tenants and execute the rollout check for
             // each tenant seperately.
 
-            systemManagement.forEachTenant(tenant -> rolloutManagement.handleRollouts());
+            if (tenantTaskExecutor != null) {
+                tenantTaskExecutor.execute("rollout", tenant -> rolloutManagement.handleRollouts());
+            } else {
+                systemManagement.forEachTenant(tenant -> {
+                    if (tenantOwnership == null || tenantOwnership.owns(tenant)) {
+                        rolloutManagement.handleRollouts();
+                    }
+                });
+            }
 
             return null;
         });
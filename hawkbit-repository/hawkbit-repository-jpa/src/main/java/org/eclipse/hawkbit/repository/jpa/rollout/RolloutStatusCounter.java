@@ -0,0 +1,550 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.eclipse.persistence.annotations.ConversionValue;
+import org.eclipse.persistence.annotations.ObjectTypeConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Maintains the number of actions per {@link RolloutGroup} and
+ * {@link Status} in a counter table, so the status of rollouts and rollout
+ * groups is read with a lookup instead of counting the actions.
+ *
+ * The counters of a group are created with the group and changed in the
+ * transaction of the action status transition. The changes of a transaction
+ * are summed up per counter and applied right before the commit, ordered by
+ * group and status, so every counter row is updated once per transaction and
+ * concurrent transactions lock the rows in the same order. Changes that
+ * bypass the entity listeners, e.g. actions that are deleted together with
+ * their target, are repaired by a reconciliation of the active groups that
+ * runs in a fixed interval on an own thread once the application is ready,
+ * on one node at a time.
+ *
+ * The statements are not tenant aware as rollout and rollout group IDs are
+ * unique over all tenants.
+ */
+@ManagedResource(description = "Rollout status counter")
+public class RolloutStatusCounter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutStatusCounter.class);
+
+    private static final String TABLE = "sp_rollout_status_count";
+
+    private static final String RECONCILE_LOCK = "rollout-status-counter-reconcile";
+
+    /**
+     * Groups of the rollouts in CREATING, READY, PAUSED, STARTING, RUNNING or
+     * DELETING that are READY, SCHEDULED or RUNNING, with the data values of
+     * the status converters of {@link JpaRollout} and {@link JpaRolloutGroup}.
+     */
+    private static final String ACTIVE_GROUPS = "SELECT g.id, g.rollout FROM sp_rolloutgroup g"
+            + " INNER JOIN sp_rollout r ON g.rollout = r.id WHERE r.deleted = ?1 AND r.status IN ("
+            + dataValues(JpaRollout.class, RolloutStatus.CREATING, RolloutStatus.READY, RolloutStatus.PAUSED,
+                    RolloutStatus.STARTING, RolloutStatus.RUNNING, RolloutStatus.DELETING)
+            + ") AND g.status IN (" + dataValues(JpaRolloutGroup.class, RolloutGroupStatus.READY,
+                    RolloutGroupStatus.SCHEDULED, RolloutGroupStatus.RUNNING)
+            + ")";
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final LockRegistry lockRegistry;
+
+    private final long reconcileInterval;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final AtomicLong repairedCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            of the counter
+     * @param entityManager
+     *            to execute the statements
+     * @param transactionManager
+     *            to run the reconciliation
+     * @param lockRegistry
+     *            to reconcile on one node at a time
+     */
+    public RolloutStatusCounter(final RolloutStatusCounterProperties properties, final EntityManager entityManager,
+            final PlatformTransactionManager transactionManager, final LockRegistry lockRegistry) {
+        this.entityManager = entityManager;
+        this.lockRegistry = lockRegistry;
+        this.reconcileInterval = properties.getReconcileInterval();
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("reconcileRolloutStatusCounter");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("rollout-status-counter-%d").build());
+    }
+
+    /**
+     * Starts the reconciliation once the application is ready.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (started.compareAndSet(false, true)) {
+            executor.scheduleWithFixedDelay(this::reconcile, reconcileInterval, reconcileInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates the counters of a new group with the given executor, e.g. the
+     * session of an entity listener in the middle of a flush.
+     *
+     * @param executor
+     *            executes an insert statement and returns the number of
+     *            inserted rows
+     * @param rolloutId
+     *            of the {@link Rollout} the group belongs to
+     * @param rolloutGroupId
+     *            of the new {@link RolloutGroup}
+     */
+    public void create(final ToIntFunction<String> executor, final long rolloutId, final long rolloutGroupId) {
+        executor.applyAsInt(insertCounters(rolloutId, rolloutGroupId, Collections.emptyMap()));
+    }
+
+    /**
+     * Changes the counter of the given status in the current transaction.
+     * The change is applied before the commit.
+     *
+     * @param rolloutId
+     *            of the {@link Rollout} the actions belong to
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup} the actions belong to
+     * @param status
+     *            of the actions
+     * @param delta
+     *            number of actions that have been added (positive) or removed
+     *            (negative) from the status
+     */
+    public void change(final long rolloutId, final long rolloutGroupId, final Status status, final long delta) {
+        change(sql -> entityManager.createNativeQuery(sql).executeUpdate(), rolloutId, rolloutGroupId, status,
+                delta);
+    }
+
+    /**
+     * Changes the counter of the given status with the given executor, e.g.
+     * the session of an entity listener in the middle of a flush. Within a
+     * transaction the change is collected and applied before the commit, the
+     * executor is only used for changes after that point.
+     *
+     * @param executor
+     *            executes an update statement and returns the number of
+     *            changed rows
+     * @param rolloutId
+     *            of the {@link Rollout} the actions belong to
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup} the actions belong to
+     * @param status
+     *            of the actions
+     * @param delta
+     *            number of actions that have been added (positive) or removed
+     *            (negative) from the status
+     */
+    public void change(final ToIntFunction<String> executor, final long rolloutId, final long rolloutGroupId,
+            final Status status, final long delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        final PendingChanges pendingChanges = getPendingChanges();
+        if (pendingChanges != null) {
+            pendingChanges.add(rolloutGroupId, status, delta);
+            return;
+        }
+
+        update(executor, rolloutGroupId, status, delta);
+    }
+
+    private static void update(final ToIntFunction<String> executor, final long rolloutGroupId, final Status status,
+            final long delta) {
+        final int updated = executor.applyAsInt("UPDATE " + TABLE + " SET action_count = action_count + " + delta
+                + " WHERE rolloutgroup = " + rolloutGroupId + " AND status = " + status.ordinal());
+
+        // the counters are created with the group, the counters of groups
+        // that have been created while the counter was disabled are created
+        // by the reconciliation
+        if (updated == 0) {
+            LOGGER.debug("No status counters of rollout group {} found, left to the reconciliation",
+                    rolloutGroupId);
+        }
+    }
+
+    /**
+     * Moves actions from one status counter to another in the current
+     * transaction.
+     *
+     * @param rolloutId
+     *            of the {@link Rollout} the actions belong to
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup} the actions belong to
+     * @param from
+     *            previous status of the actions
+     * @param to
+     *            new status of the actions
+     * @param count
+     *            number of actions
+     */
+    public void move(final long rolloutId, final long rolloutGroupId, final Status from, final Status to,
+            final long count) {
+        change(rolloutId, rolloutGroupId, from, -count);
+        change(rolloutId, rolloutGroupId, to, count);
+    }
+
+    /**
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup}
+     * @param status
+     *            of the actions
+     * @return number of actions of the group in the given status
+     */
+    public long count(final long rolloutGroupId, final Status status) {
+        applyPendingChanges();
+        final List<?> result = entityManager.createNativeQuery("SELECT action_count FROM " + TABLE
+                + " WHERE rolloutgroup = " + rolloutGroupId + " AND status = " + status.ordinal()).getResultList();
+        return result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+    }
+
+    /**
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup}
+     * @return number of actions of the group
+     */
+    public long count(final long rolloutGroupId) {
+        applyPendingChanges();
+        final Object result = entityManager
+                .createNativeQuery("SELECT SUM(action_count) FROM " + TABLE + " WHERE rolloutgroup = " + rolloutGroupId)
+                .getSingleResult();
+        return result == null ? 0 : ((Number) result).longValue();
+    }
+
+    /**
+     * @param rolloutGroupId
+     *            of the {@link RolloutGroup}
+     * @param statuses
+     *            to exclude
+     * @return number of actions of the group that are in none of the given
+     *         statuses or empty if the group has no counters (yet), e.g.
+     *         before the reconciliation created them
+     */
+    public OptionalLong countNotIn(final long rolloutGroupId, final Collection<Status> statuses) {
+        applyPendingChanges();
+        final Object result = entityManager.createNativeQuery("SELECT SUM(action_count) FROM " + TABLE
+                + " WHERE rolloutgroup = " + rolloutGroupId + " AND status NOT IN ("
+                + statuses.stream().map(status -> String.valueOf(status.ordinal())).collect(Collectors.joining(","))
+                + ")").getSingleResult();
+        return result == null ? OptionalLong.empty() : OptionalLong.of(((Number) result).longValue());
+    }
+
+    /**
+     * @param rolloutIds
+     *            of the {@link Rollout}s
+     * @return the number of actions per rollout and status, statuses without
+     *         actions are omitted
+     */
+    public List<TotalTargetCountActionStatus> getStatusCountByRolloutId(final List<Long> rolloutIds) {
+        applyPendingChanges();
+        return Lists.partition(rolloutIds, Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(ids -> toStatusCounts(entityManager
+                        .createNativeQuery("SELECT rollout, status, SUM(action_count) FROM " + TABLE
+                                + " WHERE rollout IN (" + join(ids)
+                                + ") GROUP BY rollout, status HAVING SUM(action_count) > 0")
+                        .getResultList()).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param rolloutGroupIds
+     *            of the {@link RolloutGroup}s
+     * @return the number of actions per rollout group and status, statuses
+     *         without actions are omitted
+     */
+    public List<TotalTargetCountActionStatus> getStatusCountByRolloutGroupId(final List<Long> rolloutGroupIds) {
+        applyPendingChanges();
+        return Lists.partition(rolloutGroupIds, Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(ids -> toStatusCounts(entityManager
+                        .createNativeQuery("SELECT rolloutgroup, status, action_count FROM " + TABLE
+                                + " WHERE rolloutgroup IN (" + join(ids) + ") AND action_count > 0")
+                        .getResultList()).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recounts the actions of the active groups of all active rollouts and
+     * repairs the counters that differ, unless another node is reconciling.
+     */
+    void reconcile() {
+        final Lock lock = lockRegistry.obtain(RECONCILE_LOCK);
+        if (!lock.tryLock()) {
+            return;
+        }
+
+        try {
+            reconcileActiveGroups();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reconcileActiveGroups() {
+        final List<?> groups;
+        try {
+            groups = transactionTemplate.execute(
+                    status -> entityManager.createNativeQuery(ACTIVE_GROUPS).setParameter(1, false).getResultList());
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to reconcile the rollout status counters, retrying in the next run", e);
+            return;
+        }
+
+        groups.stream().map(Object[].class::cast).forEach(group -> {
+            final long rolloutGroupId = ((Number) group[0]).longValue();
+            try {
+                reconcile(((Number) group[1]).longValue(), rolloutGroupId);
+            } catch (final RuntimeException e) {
+                LOGGER.error("Failed to reconcile the status counters of rollout group {}, retrying in the next run",
+                        rolloutGroupId, e);
+            }
+        });
+    }
+
+    /**
+     * Locks the counters of the group before the actions are counted, so
+     * concurrent changes of the counters either are committed before and
+     * counted or wait and are applied on top of the repaired counters. The
+     * repair is applied as delta to the locked counters.
+     */
+    private void reconcile(final long rolloutId, final long rolloutGroupId) {
+        transactionTemplate.execute(status -> {
+            final Map<Status, Long> counted = toCounts(entityManager.createNativeQuery("SELECT status, action_count"
+                    + " FROM " + TABLE + " WHERE rolloutgroup = " + rolloutGroupId + " FOR UPDATE").getResultList());
+            final Map<Status, Long> actual = toCounts(entityManager.createNativeQuery(
+                    "SELECT status, COUNT(id) FROM sp_action WHERE rolloutgroup = " + rolloutGroupId
+                            + " GROUP BY status")
+                    .getResultList());
+
+            if (counted.isEmpty()) {
+                LOGGER.info("Creating status counters of rollout group {} with counts {}", rolloutGroupId, actual);
+                entityManager.createNativeQuery(insertCounters(rolloutId, rolloutGroupId, actual)).executeUpdate();
+                return null;
+            }
+
+            boolean repaired = false;
+            for (final Status actionStatus : Status.values()) {
+                final long count = actual.getOrDefault(actionStatus, 0L);
+                if (!counted.containsKey(actionStatus)) {
+                    entityManager.createNativeQuery("INSERT INTO " + TABLE
+                            + " (rollout, rolloutgroup, status, action_count) VALUES (" + rolloutId + ", "
+                            + rolloutGroupId + ", " + actionStatus.ordinal() + ", " + count + ")").executeUpdate();
+                    repaired = true;
+                } else if (counted.get(actionStatus) != count) {
+                    LOGGER.warn("Repairing status counter {} of rollout group {} from {} to {}", actionStatus,
+                            rolloutGroupId, counted.get(actionStatus), count);
+                    entityManager.createNativeQuery("UPDATE " + TABLE + " SET action_count = action_count + "
+                            + (count - counted.get(actionStatus)) + " WHERE rolloutgroup = " + rolloutGroupId
+                            + " AND status = " + actionStatus.ordinal()).executeUpdate();
+                    repaired = true;
+                }
+            }
+
+            if (repaired) {
+                repairedCount.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return the changes collected in the current transaction or
+     *         <code>null</code> if the changes have to be applied immediately
+     */
+    private PendingChanges getPendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        // the synchronizations are suspended with their transaction, so
+        // changes of a nested transaction are collected separately
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager
+                .getSynchronizations()) {
+            if (synchronization instanceof PendingChanges && ((PendingChanges) synchronization).isOf(this)) {
+                return ((PendingChanges) synchronization).isApplied() ? null : (PendingChanges) synchronization;
+            }
+        }
+
+        final PendingChanges pendingChanges = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        return pendingChanges;
+    }
+
+    /**
+     * Applies the changes collected in the current transaction, so they are
+     * visible to the reads of the transaction.
+     */
+    private void applyPendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(synchronization -> synchronization instanceof PendingChanges
+                        && ((PendingChanges) synchronization).isOf(this))
+                .findFirst().ifPresent(synchronization -> ((PendingChanges) synchronization).apply());
+    }
+
+    /**
+     * The counter changes of a transaction, summed up per group and status.
+     */
+    private final class PendingChanges extends TransactionSynchronizationAdapter {
+        private final Map<Long, long[]> deltas = new TreeMap<>();
+        private boolean applied;
+
+        private boolean isOf(final RolloutStatusCounter counter) {
+            return RolloutStatusCounter.this == counter;
+        }
+
+        private boolean isApplied() {
+            return applied;
+        }
+
+        private void add(final long rolloutGroupId, final Status status, final long delta) {
+            deltas.computeIfAbsent(rolloutGroupId, id -> new long[Status.values().length])[status.ordinal()] += delta;
+        }
+
+        private void apply() {
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            final ToIntFunction<String> executor = sql -> entityManager.createNativeQuery(sql).executeUpdate();
+            deltas.forEach((rolloutGroupId, statusDeltas) -> {
+                for (final Status status : Status.values()) {
+                    if (statusDeltas[status.ordinal()] != 0) {
+                        update(executor, rolloutGroupId, status, statusDeltas[status.ordinal()]);
+                    }
+                }
+            });
+            deltas.clear();
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            if (!readOnly) {
+                // the entity listeners add the changes of the flushed actions
+                entityManager.flush();
+            }
+            apply();
+            applied = true;
+        }
+    }
+
+    private static String insertCounters(final long rolloutId, final long rolloutGroupId,
+            final Map<Status, Long> counts) {
+        return Arrays.stream(Status.values())
+                .map(status -> "(" + rolloutId + ", " + rolloutGroupId + ", " + status.ordinal() + ", "
+                        + counts.getOrDefault(status, 0L) + ")")
+                .collect(Collectors.joining(", ",
+                        "INSERT INTO " + TABLE + " (rollout, rolloutgroup, status, action_count) VALUES ", ""));
+    }
+
+    private static List<TotalTargetCountActionStatus> toStatusCounts(final List<?> rows) {
+        return rows.stream().map(Object[].class::cast)
+                .map(row -> new TotalTargetCountActionStatus(((Number) row[0]).longValue(), toStatus(row[1]),
+                        ((Number) row[2]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Status, Long> toCounts(final List<?> rows) {
+        final Map<Status, Long> counts = new EnumMap<>(Status.class);
+        rows.stream().map(Object[].class::cast)
+                .forEach(row -> counts.put(toStatus(row[0]), ((Number) row[1]).longValue()));
+        return counts;
+    }
+
+    private static String dataValues(final Class<?> entityClass, final Enum<?>... statuses) {
+        final Set<String> names = Arrays.stream(statuses).map(Enum::name).collect(Collectors.toSet());
+        return Arrays.stream(entityClass.getAnnotation(ObjectTypeConverter.class).conversionValues())
+                .filter(value -> names.contains(value.objectValue())).map(ConversionValue::dataValue)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Status toStatus(final Object ordinal) {
+        return Status.values()[((Number) ordinal).intValue()];
+    }
+
+    private static String join(final List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Stops the reconciliation.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @ManagedAttribute(description = "Total number of rollout groups whose counters have been repaired")
+    public long getRepairedCount() {
+        return repairedCount.get();
+    }
+}
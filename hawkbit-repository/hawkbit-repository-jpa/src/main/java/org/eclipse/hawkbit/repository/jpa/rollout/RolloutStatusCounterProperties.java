@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the maintained action status counters of
+ * rollouts and rollout groups.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.repository.rollout.status-counter")
+public class RolloutStatusCounterProperties {
+
+    /**
+     * Set to <code>true</code> to maintain the number of actions per rollout
+     * group and status in a counter table that is updated with the action
+     * status transitions, instead of counting the actions on every request.
+     */
+    private boolean enabled;
+
+    /**
+     * Time in milliseconds between two runs of the reconciliation that repairs
+     * counters which have drifted, e.g. by targets that have been deleted
+     * together with their actions.
+     */
+    private long reconcileInterval = TimeUnit.MINUTES.toMillis(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    public void setReconcileInterval(final long reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.jpa.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Starts the scheduled actions of a {@link RolloutGroup} within the limits of
+ * {@link Rollout#getActivationsPerMinute()} and
+ * {@link Rollout#getMaxRunningActions()}. Actions that exceed the limits stay
+ * scheduled and are started by the next evaluations of the running group, so
+ * the load of a large group is spread over time.
+ *
+ * The rate is a token bucket that holds the activations of one minute at most.
+ * The time up to which the bucket has been used is stored in the rollout and
+ * updated in the transaction of the caller, which also starts the actions.
+ */
+public class RolloutThrottle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutThrottle.class);
+
+    private static final long RATE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Statuses of the actions that do not count as running, i.e. of the
+     * actions that are not active.
+     */
+    private static final Set<Status> NOT_RUNNING = EnumSet.of(Status.SCHEDULED, Status.FINISHED, Status.ERROR,
+            Status.CANCELED);
+
+    private final DeploymentManagement deploymentManagement;
+
+    private final ActionRepository actionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RolloutStatusCounter rolloutStatusCounter;
+
+    /**
+     * Constructor.
+     *
+     * @param deploymentManagement
+     *            to start the actions
+     * @param actionRepository
+     *            to count the actions
+     * @param transactionManager
+     *            to count the running actions including the ones started by
+     *            other transactions
+     * @param rolloutStatusCounter
+     *            to look up the running actions, <code>null</code> counts the
+     *            actions
+     */
+    public RolloutThrottle(final DeploymentManagement deploymentManagement, final ActionRepository actionRepository,
+            final PlatformTransactionManager transactionManager, final RolloutStatusCounter rolloutStatusCounter) {
+        this.deploymentManagement = deploymentManagement;
+        this.actionRepository = actionRepository;
+        this.rolloutStatusCounter = rolloutStatusCounter;
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("rolloutThrottle");
+        def.setReadOnly(true);
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+    }
+
+    /**
+     * @param rollout
+     *            to check
+     * @return <code>true</code> if the actions of the rollout are started
+     *         within limits
+     */
+    public static boolean isThrottled(final Rollout rollout) {
+        return rollout.getActivationsPerMinute() != null || rollout.getMaxRunningActions() != null;
+    }
+
+    /**
+     * Starts the scheduled actions of the group that follows the given parent
+     * group as far as the limits of the rollout allow.
+     *
+     * @param rollout
+     *            the actions belong to
+     * @param rolloutGroupParentId
+     *            the parent rollout group the actions should reference.
+     *            <code>null</code> references the first group
+     * @return the number of started actions
+     */
+    public long startScheduledActions(final JpaRollout rollout, final Long rolloutGroupParentId) {
+        if (!isThrottled(rollout)) {
+            return deploymentManagement.startScheduledActionsByRolloutGroupParent(rollout.getId(),
+                    rolloutGroupParentId);
+        }
+
+        final long now = System.currentTimeMillis();
+        final long rateStart = getRateStart(rollout, now);
+
+        long limit = Long.MAX_VALUE;
+        if (rollout.getActivationsPerMinute() != null) {
+            limit = (now - rateStart) * rollout.getActivationsPerMinute() / RATE_INTERVAL;
+        }
+        if (rollout.getMaxRunningActions() != null) {
+            limit = Math.min(limit, rollout.getMaxRunningActions() - countRunningActions(rollout.getId()));
+        }
+
+        if (limit <= 0) {
+            LOGGER.debug("Rollout {} has reached its limits, no actions started", rollout.getId());
+            return 0;
+        }
+
+        // the actions are started in this transaction, so the activations
+        // are recorded together with them
+        final long started = deploymentManagement.startScheduledActionsByRolloutGroupParent(rollout.getId(),
+                rolloutGroupParentId, limit);
+
+        if (started > 0 && rollout.getActivationsPerMinute() != null) {
+            final int rate = rollout.getActivationsPerMinute();
+            rollout.setActivatedUntil(rateStart + (started * RATE_INTERVAL + rate - 1) / rate);
+        }
+        LOGGER.debug("{} of at most {} actions started for rollout {}", started, limit, rollout.getId());
+
+        return started;
+    }
+
+    /**
+     * @param rollout
+     *            the actions belong to
+     * @param rolloutGroupParentId
+     *            the parent rollout group the actions should reference
+     * @return <code>true</code> if the group that follows the given parent
+     *         group has actions that wait to be started
+     */
+    public boolean hasScheduledActions(final Rollout rollout, final Long rolloutGroupParentId) {
+        return actionRepository.countByRolloutIdAndRolloutGroupParentIdAndStatus(rollout.getId(),
+                rolloutGroupParentId, Status.SCHEDULED) > 0;
+    }
+
+    private static long getRateStart(final JpaRollout rollout, final long now) {
+        // unused activations are kept for one minute at most
+        final long oldest = now - RATE_INTERVAL;
+        if (rollout.getActivatedUntil() == null) {
+            return oldest;
+        }
+        return Math.max(rollout.getActivatedUntil(), oldest);
+    }
+
+    private long countRunningActions(final Long rolloutId) {
+        if (rolloutStatusCounter == null) {
+            return transactionTemplate
+                    .execute(status -> actionRepository.countByRolloutIdAndActive(rolloutId, true));
+        }
+
+        return transactionTemplate.execute(status -> rolloutStatusCounter
+                .getStatusCountByRolloutId(Collections.singletonList(rolloutId)).stream()
+                .filter(count -> !NOT_RUNNING.contains(count.getStatus()))
+                .mapToLong(TotalTargetCountActionStatus::getCount).sum());
+    }
+}
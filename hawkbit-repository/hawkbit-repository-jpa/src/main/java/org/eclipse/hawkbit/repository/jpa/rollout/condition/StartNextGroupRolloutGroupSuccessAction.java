@@ -10,9 +10,10 @@ package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
 import java.util.List;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.jpa.RolloutGroupRepository;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutThrottle;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
@@ -34,7 +35,7 @@ public class StartNextGroupRolloutGroupSuccessAction implements RolloutGroupActi
     private RolloutGroupRepository rolloutGroupRepository;
 
     @Autowired
-    private DeploymentManagement deploymentManagement;
+    private RolloutThrottle rolloutThrottle;
 
     @Autowired
     private SystemSecurityContext systemSecurityContext;
@@ -55,12 +56,14 @@ public class StartNextGroupRolloutGroupSuccessAction implements RolloutGroupActi
     private void startNextGroup(final Rollout rollout, final RolloutGroup rolloutGroup) {
         // retrieve all actions according to the parent group of the finished
         // rolloutGroup, so retrieve all child-group actions which need to be
-        // started.
-        final long countOfStartedActions = deploymentManagement
-                .startScheduledActionsByRolloutGroupParent(rollout.getId(), rolloutGroup.getId());
+        // started. A throttled rollout might not start any action right now,
+        // the running group starts them later on.
+        final long countOfStartedActions = rolloutThrottle.startScheduledActions((JpaRollout) rollout,
+                rolloutGroup.getId());
         logger.debug("{} Next actions started for rollout {} and parent group {}", countOfStartedActions, rollout,
                 rolloutGroup);
-        if (countOfStartedActions > 0) {
+        if (countOfStartedActions > 0 || (RolloutThrottle.isThrottled(rollout)
+                && rolloutThrottle.hasScheduledActions(rollout, rolloutGroup.getId()))) {
             // get all next scheduled groups and set them in state running
             rolloutGroupRepository.setStatusForCildren(RolloutGroupStatus.RUNNING, rolloutGroup);
         } else {
@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 import org.eclipse.hawkbit.repository.jpa.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -30,12 +31,22 @@ public class ThresholdRolloutGroupErrorCondition implements RolloutGroupConditio
     @Autowired
     private ActionRepository actionRepository;
 
+    @Autowired(required = false)
+    private RolloutStatusCounter rolloutStatusCounter;
+
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
-        final Long totalGroup = actionRepository.countByRolloutAndRolloutGroup((JpaRollout) rollout,
-                (JpaRolloutGroup) rolloutGroup);
-        final Long error = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.ERROR);
+        final long totalGroup;
+        final long error;
+        if (rolloutStatusCounter != null) {
+            totalGroup = rolloutStatusCounter.count(rolloutGroup.getId());
+            error = rolloutStatusCounter.count(rolloutGroup.getId(), Action.Status.ERROR);
+        } else {
+            totalGroup = actionRepository.countByRolloutAndRolloutGroup((JpaRollout) rollout,
+                    (JpaRolloutGroup) rolloutGroup);
+            error = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
+                    rolloutGroup.getId(), Action.Status.ERROR);
+        }
         try {
             final Integer threshold = Integer.valueOf(expression);
 
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
 import org.eclipse.hawkbit.repository.jpa.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -28,6 +29,9 @@ public class ThresholdRolloutGroupSuccessCondition implements RolloutGroupCondit
     @Autowired
     private ActionRepository actionRepository;
 
+    @Autowired(required = false)
+    private RolloutStatusCounter rolloutStatusCounter;
+
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
 
@@ -38,8 +42,10 @@ public class ThresholdRolloutGroupSuccessCondition implements RolloutGroupCondit
             return true;
         }
 
-        final long finished = this.actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.FINISHED);
+        final long finished = rolloutStatusCounter != null
+                ? rolloutStatusCounter.count(rolloutGroup.getId(), Action.Status.FINISHED)
+                : actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(), rolloutGroup.getId(),
+                        Action.Status.FINISHED);
         try {
             final Integer threshold = Integer.valueOf(expression);
             // calculate threshold
@@ -0,0 +1,9 @@
+CREATE TABLE sp_event_outbox (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+  tenant VARCHAR(40) NOT NULL,
+  origin VARCHAR(128) NOT NULL,
+  created_at BIGINT NOT NULL,
+  payload BLOB NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX sp_idx_event_outbox_01 ON sp_event_outbox (origin, id);
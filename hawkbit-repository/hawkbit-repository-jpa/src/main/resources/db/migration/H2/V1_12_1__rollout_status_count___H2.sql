@@ -0,0 +1,11 @@
+CREATE TABLE sp_rollout_status_count (
+  rollout BIGINT NOT NULL,
+  rolloutgroup BIGINT NOT NULL,
+  status INTEGER NOT NULL,
+  action_count BIGINT NOT NULL,
+  PRIMARY KEY (rolloutgroup, status)
+);
+CREATE INDEX sp_idx_rollout_status_count_01 ON sp_rollout_status_count (rollout);
+ALTER TABLE sp_rollout_status_count ADD CONSTRAINT fk_rollout_status_count_group FOREIGN KEY (rolloutgroup) REFERENCES sp_rolloutgroup (id) ON DELETE CASCADE;
+INSERT INTO sp_rollout_status_count (rollout, rolloutgroup, status, action_count)
+  SELECT rollout, rolloutgroup, status, COUNT(id) FROM sp_action WHERE rolloutgroup IS NOT NULL GROUP BY rollout, rolloutgroup, status;
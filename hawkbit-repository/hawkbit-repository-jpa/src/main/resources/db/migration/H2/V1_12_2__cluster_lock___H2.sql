@@ -0,0 +1,6 @@
+CREATE TABLE sp_lock (
+  lock_key VARCHAR(128) NOT NULL,
+  owner VARCHAR(64) NOT NULL,
+  expires_at BIGINT NOT NULL,
+  PRIMARY KEY (lock_key)
+);
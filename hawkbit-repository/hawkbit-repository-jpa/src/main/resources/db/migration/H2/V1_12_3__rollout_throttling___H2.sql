@@ -0,0 +1,6 @@
+ALTER TABLE sp_rollout
+  ADD COLUMN activations_per_minute INTEGER;
+ALTER TABLE sp_rollout
+  ADD COLUMN max_running_actions INTEGER;
+ALTER TABLE sp_rollout
+  ADD COLUMN activated_until BIGINT;
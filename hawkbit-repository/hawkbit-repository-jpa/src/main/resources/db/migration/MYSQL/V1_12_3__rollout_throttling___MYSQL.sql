@@ -0,0 +1,4 @@
+ALTER TABLE sp_rollout
+  ADD COLUMN activations_per_minute INT,
+  ADD COLUMN max_running_actions INT,
+  ADD COLUMN activated_until BIGINT;
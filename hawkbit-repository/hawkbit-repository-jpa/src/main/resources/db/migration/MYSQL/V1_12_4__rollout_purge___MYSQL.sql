@@ -0,0 +1,7 @@
+CREATE TABLE sp_rollout_purge (
+  rollout BIGINT NOT NULL,
+  tenant VARCHAR(40) NOT NULL,
+  action_cursor BIGINT NOT NULL,
+  target_cursor BIGINT NOT NULL,
+  PRIMARY KEY (rollout)
+);
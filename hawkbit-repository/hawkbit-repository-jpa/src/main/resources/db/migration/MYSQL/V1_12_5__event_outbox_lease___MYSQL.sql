@@ -0,0 +1,6 @@
+ALTER TABLE sp_event_outbox ADD COLUMN owner VARCHAR(128);
+ALTER TABLE sp_event_outbox ADD COLUMN lease_until BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE sp_event_outbox ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sp_event_outbox ADD COLUMN parked BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE sp_event_outbox DROP INDEX sp_idx_event_outbox_01;
+CREATE INDEX sp_idx_event_outbox_01 ON sp_event_outbox (parked, lease_until, id);
@@ -0,0 +1,5 @@
+INSERT INTO sp_rollout_status_count (rollout, rolloutgroup, status, action_count)
+  SELECT g.rollout, g.id, s.status, 0 FROM sp_rolloutgroup g CROSS JOIN
+  (SELECT 0 AS status UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+   UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) s
+  WHERE NOT EXISTS (SELECT c.rolloutgroup FROM sp_rollout_status_count c WHERE c.rolloutgroup = g.id AND c.status = s.status);
@@ -10,9 +10,13 @@ package org.eclipse.hawkbit.repository.event.remote.entity;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.junit.Test;
 
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
@@ -47,6 +51,53 @@ public class TargetEventTest extends AbstractRemoteEntityEventTest<Target> {
         assertThat(underTest.getActionId()).isNotNull();
     }
 
+    @Test
+    @Description("Verifies that the target snapshot of a remote event is serialized")
+    public void testTargetSnapshotIsSerialized() {
+        final Target target = testdataFactory.createTarget("snapshot");
+        final TargetUpdatedEvent event = new TargetUpdatedEvent(target, "node");
+
+        assertSnapshot(target, (TargetUpdatedEvent) createProtoStuffEvent(event));
+        assertSnapshot(target, (TargetUpdatedEvent) createJacksonEvent(event));
+    }
+
+    @Test
+    @Description("Verifies that the snapshot fields are appended to the protostuff fields of the target events so "
+            + "that older nodes can read them")
+    public void testSnapshotFieldsAreAppended() {
+        final int lastIdEventField = RuntimeSchema.getSchema(RemoteIdEvent.class).getFieldNumber("entityClass");
+
+        final Schema<CancelTargetAssignmentEvent> cancelSchema = RuntimeSchema
+                .getSchema(CancelTargetAssignmentEvent.class);
+        assertThat(cancelSchema.getFieldNumber("actionId")).isEqualTo(lastIdEventField + 1);
+        assertThat(cancelSchema.getFieldNumber("controllerId")).isEqualTo(lastIdEventField + 2);
+        assertThat(cancelSchema.getFieldNumber("address")).isEqualTo(lastIdEventField + 3);
+
+        assertThat(RuntimeSchema.getSchema(TargetUpdatedEvent.class).getFieldNumber("controllerId"))
+                .isEqualTo(lastIdEventField + 1);
+        assertThat(RuntimeSchema.getSchema(TargetCreatedEvent.class).getFieldNumber("controllerId"))
+                .isEqualTo(lastIdEventField + 1);
+    }
+
+    @Test
+    @Description("Verifies that the target snapshot of a cancel event is serialized")
+    public void testCancelTargetAssignmentSnapshotIsSerialized() {
+        final Target target = testdataFactory.createTarget("cancel");
+        final CancelTargetAssignmentEvent event = new CancelTargetAssignmentEvent(target, 1L, "node");
+
+        final CancelTargetAssignmentEvent underTest = (CancelTargetAssignmentEvent) createProtoStuffEvent(event);
+        assertThat(underTest.hasSnapshot()).isTrue();
+        assertThat(underTest.getActionId()).isEqualTo(1L);
+        assertThat(underTest.getControllerId()).isEqualTo(target.getControllerId());
+    }
+
+    private static void assertSnapshot(final Target target, final TargetUpdatedEvent underTest) {
+        assertThat(underTest.hasSnapshot()).isTrue();
+        assertThat(underTest.getControllerId()).isEqualTo(target.getControllerId());
+        assertThat(underTest.getName()).isEqualTo(target.getName());
+        assertThat(underTest.getUpdateStatus()).isEqualTo(target.getUpdateStatus());
+    }
+
     @Override
     protected Target createEntity() {
         return testdataFactory.createTarget("12345");
@@ -14,6 +14,7 @@ import static org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpre
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +23,9 @@ import javax.validation.ConstraintViolationException;
 
 import org.apache.commons.lang3.RandomUtils;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
@@ -34,6 +38,7 @@ import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.QuotaExceededException;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
@@ -432,6 +437,35 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
                 .as("register target with empty controllerId should fail");
     }
 
+    @Test
+    @Description("Register many controllers at once. Known controllers with unchanged address are only marked as "
+            + "polled and the batch is published with bulk events.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 2),
+            @Expect(type = TargetUpdatedEvent.class, count = 0), @Expect(type = TargetPollEvent.class, count = 2),
+            @Expect(type = BulkTargetCreatedEvent.class, count = 1),
+            @Expect(type = BulkTargetUpdatedEvent.class, count = 1),
+            @Expect(type = BulkTargetPollEvent.class, count = 1) })
+    public void findOrRegisterTargetsIfTheyDoNotExist() {
+        controllerManagement.findOrRegisterTargetIfItDoesNotexist("AA", LOCALHOST);
+        controllerManagement.findOrRegisterTargetIfItDoesNotexist("DD", URI.create("http://10.0.0.1"));
+        final int knownRevision = ((JpaTarget) targetManagement.getByControllerID("AA").get()).getOptLockRevision();
+        final long beforeRegistration = System.currentTimeMillis();
+
+        final Map<String, URI> addresses = Maps.newHashMap();
+        addresses.put("AA", LOCALHOST);
+        addresses.put("BB", LOCALHOST);
+        addresses.put("CC", LOCALHOST);
+        addresses.put("DD", LOCALHOST);
+        final List<Target> targets = controllerManagement.findOrRegisterTargetsIfTheyDoNotExist(addresses);
+
+        assertThat(targets).extracting(Target::getControllerId).containsOnly("AA", "BB", "CC", "DD");
+        assertThat(targetRepository.count()).as("4 targets should be registred").isEqualTo(4L);
+        final JpaTarget polled = (JpaTarget) targetManagement.getByControllerID("AA").get();
+        assertThat(polled.getLastTargetQuery()).isGreaterThanOrEqualTo(beforeRegistration);
+        assertThat(polled.getOptLockRevision()).isEqualTo(knownRevision + 1);
+        assertThat(targetManagement.getByControllerID("DD").get().getAddress()).isEqualTo(LOCALHOST);
+    }
+
     @Test
     @Description("Verify that controller registration does not result in a TargetPollEvent if feature is disabled")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
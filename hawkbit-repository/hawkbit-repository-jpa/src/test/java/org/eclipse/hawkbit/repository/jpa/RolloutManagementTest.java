@@ -11,6 +11,12 @@ package org.eclipse.hawkbit.repository.jpa;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -44,6 +50,7 @@ import org.eclipse.hawkbit.repository.exception.EntityReadOnlyException;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.jpa.utils.MultipleInvokeHelper;
 import org.eclipse.hawkbit.repository.jpa.utils.SuccessCondition;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -1322,6 +1329,73 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verify that the filling of a rollout group that was aborted resumes after the last assigned target "
+            + "without duplicating or skipping targets.")
+    public void abortedRolloutGroupFillingIsResumed() {
+        final String rolloutName = "resumeFilling";
+        final int amountTargets = 20;
+        final int amountTargetsInGroup = 10;
+        final int amountTargetsAssigned = 4;
+
+        final RolloutCreate rolloutCreate = generateTargetsAndRollout(rolloutName, amountTargets);
+        final Rollout rollout = rolloutManagement.create(rolloutCreate, 2,
+                new RolloutGroupConditionBuilder().withDefaults().build());
+        final List<RolloutGroup> groups = rolloutGroupManagement.findByRollout(PAGE, rollout.getId()).getContent();
+        final List<Long> targetIds = targetManagement.findByRsql(PAGE, "controllerId==" + rolloutName + "-*")
+                .getContent().stream().map(Target::getId).collect(Collectors.toList());
+
+        // simulate a filling of the first group that was aborted after the
+        // targets with the lowest IDs
+        targetManagement.get(targetIds.subList(0, amountTargetsAssigned)).forEach(
+                target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(groups.get(0), target)));
+
+        rolloutManagement.handleRollouts();
+
+        assertThat(rolloutManagement.get(rollout.getId()).get().getStatus()).isEqualTo(RolloutStatus.READY);
+        assertThat(rolloutGroupManagement.findTargetsOfRolloutGroup(PAGE, groups.get(0).getId()).getContent())
+                .extracting(Target::getId).containsExactlyElementsOf(targetIds.subList(0, amountTargetsInGroup));
+        assertThat(rolloutGroupManagement.findTargetsOfRolloutGroup(PAGE, groups.get(1).getId()).getContent())
+                .extracting(Target::getId)
+                .containsExactlyElementsOf(targetIds.subList(amountTargetsInGroup, amountTargets));
+        assertThat(rolloutTargetGroupRepository.count()).isEqualTo(amountTargets);
+    }
+
+    @Test
+    @Description("Verify that the statement that assigns targets to a rollout group is valid in the MySQL dialect and "
+            + "skips targets that do not exist.")
+    public void insertTargetsIntoRolloutGroupStatementIsValidMySql() throws SQLException {
+        final String statement = JpaRolloutManagement.createInsertTargetsIntoRolloutGroupStatement(3);
+        assertThat(statement).endsWith("WHERE id IN (?2, ?3, ?4)");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:mysql-syntax;MODE=MySQL");
+                Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE sp_target (id BIGINT NOT NULL PRIMARY KEY)");
+            ddl.execute("CREATE TABLE sp_rollouttargetgroup (rolloutGroup_Id BIGINT NOT NULL, "
+                    + "target_id BIGINT NOT NULL, PRIMARY KEY (rolloutGroup_Id, target_id))");
+            ddl.execute("INSERT INTO sp_target (id) VALUES (1), (2), (4)");
+
+            // JDBC binds the numbered parameters of JPA by their position
+            try (PreparedStatement insert = connection.prepareStatement(statement.replaceAll("\\?\\d+", "?"))) {
+                insert.setLong(1, 7L);
+                insert.setLong(2, 1L);
+                insert.setLong(3, 3L);
+                insert.setLong(4, 4L);
+                assertThat(insert.executeUpdate()).isEqualTo(2);
+            }
+
+            try (ResultSet assigned = ddl
+                    .executeQuery("SELECT target_id FROM sp_rollouttargetgroup WHERE rolloutGroup_Id = 7 "
+                            + "ORDER BY target_id")) {
+                final List<Long> targetIds = new ArrayList<>();
+                while (assigned.next()) {
+                    targetIds.add(assigned.getLong(1));
+                }
+                assertThat(targetIds).containsExactly(1L, 4L);
+            }
+        }
+    }
+
     @Test
     @Description("Verify Exception when a Rollout with Group definition is created that does not address all targets")
     public void createRolloutWithGroupsNotMatchingTargets() throws Exception {
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.autoassign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.lock.ClusterLockProperties;
+import org.eclipse.hawkbit.repository.jpa.lock.JpaLockRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test class for {@link AutoAssignScheduler}.
+ *
+ */
+@Features("Component Tests - Repository")
+@Stories("Auto assign scheduler")
+public class AutoAssignSchedulerTest extends AbstractJpaIntegrationTest {
+
+    private static final List<String> TENANTS = Arrays.asList("tenant1", "tenant2", "tenant3", "tenant4");
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private final ThreadLocal<String> currentTenant = new ThreadLocal<>();
+
+    private final List<String> checkedTenants = new CopyOnWriteArrayList<>();
+
+    private JpaLockRegistry node1;
+
+    private JpaLockRegistry node2;
+
+    @After
+    public void tearDown() {
+        node1.shutdown();
+        node2.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that with tenant sharding every node checks its own tenants under a lock per tenant, so a "
+            + "long running check on one node does not block the checks of the other node.")
+    public void shardedNodesCheckTheirTenantsInParallel() throws InterruptedException {
+        final ClusterLockProperties properties = new ClusterLockProperties();
+        properties.setHeartbeatInterval(100);
+        properties.setTenantSharding(true);
+        node1 = new JpaLockRegistry(properties, entityManager, txManager);
+        node2 = new JpaLockRegistry(properties, entityManager, txManager);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> node1.getLiveNodeCount() == 2 && node2.getLiveNodeCount() == 2);
+
+        final String blockedTenant = TENANTS.stream().filter(node1::owns).findFirst().get();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AutoAssignChecker checker1 = mock(AutoAssignChecker.class);
+        doAnswer(invocation -> {
+            checkedTenants.add(currentTenant.get());
+            if (blockedTenant.equals(currentTenant.get())) {
+                blocked.countDown();
+                release.await();
+            }
+            return null;
+        }).when(checker1).check();
+        final AutoAssignChecker checker2 = mock(AutoAssignChecker.class);
+        doAnswer(invocation -> checkedTenants.add(currentTenant.get())).when(checker2).check();
+
+        final Thread checkOfNode1 = new Thread(createScheduler(node1, checker1)::autoAssignScheduler);
+        checkOfNode1.start();
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        createScheduler(node2, checker2).autoAssignScheduler();
+        assertThat(checkedTenants)
+                .containsAll(TENANTS.stream().filter(node2::owns).collect(Collectors.toList()));
+
+        release.countDown();
+        checkOfNode1.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(checkedTenants).containsExactlyInAnyOrder(TENANTS.toArray(new String[TENANTS.size()]));
+    }
+
+    private AutoAssignScheduler createScheduler(final JpaLockRegistry node, final AutoAssignChecker checker) {
+        return new AutoAssignScheduler(createSystemManagement(), systemSecurityContext, checker, node, null, node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SystemManagement createSystemManagement() {
+        final SystemManagement tenants = mock(SystemManagement.class);
+        doAnswer(invocation -> {
+            final Consumer<String> consumer = (Consumer<String>) invocation.getArguments()[0];
+            TENANTS.forEach(tenant -> {
+                currentTenant.set(tenant);
+                consumer.accept(tenant);
+            });
+            currentTenant.remove();
+            return null;
+        }).when(tenants).forEachTenant(any());
+        return tenants;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.remote.BulkActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.test.matcher.Expect;
+import org.eclipse.hawkbit.repository.test.matcher.ExpectEvents;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Bulk Events")
+@TestPropertySource(properties = { "hawkbit.server.repository.publishBulkEvents=true",
+        "hawkbit.server.repository.setBasedRolloutActions=true" })
+public class BulkEventTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Test
+    @Description("Verifies that an assignment to many targets publishes one bulk update and one bulk assignment event "
+            + "with all targets instead of the events per target.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 10),
+            @Expect(type = ActionCreatedEvent.class, count = 10),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3),
+            @Expect(type = TargetUpdatedEvent.class, count = 0),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = 0),
+            @Expect(type = BulkTargetUpdatedEvent.class, count = 1),
+            @Expect(type = BulkTargetAssignDistributionSetEvent.class, count = 1) })
+    public void assignmentPublishesBulkEvents() {
+        final List<ApplicationEvent> bulkEvents = new CopyOnWriteArrayList<>();
+        final ApplicationListener<ApplicationEvent> bulkEventCaptor = event -> {
+            if (event instanceof BulkTargetUpdatedEvent || event instanceof BulkTargetAssignDistributionSetEvent) {
+                bulkEvents.add(event);
+            }
+        };
+        applicationContext.addApplicationListener(bulkEventCaptor);
+
+        try {
+            final DistributionSet ds = testdataFactory.createDistributionSet();
+            final List<Target> targets = testdataFactory.createTargets(10);
+            assignDistributionSet(ds, targets);
+
+            Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> bulkEvents.size() == 2);
+            assertThat(bulkEvents).filteredOn(BulkTargetAssignDistributionSetEvent.class::isInstance).hasSize(1)
+                    .extracting(event -> ((BulkTargetAssignDistributionSetEvent) event).getActions().keySet())
+                    .containsExactly(targets.stream().map(Target::getControllerId).collect(Collectors.toSet()));
+            assertThat(bulkEvents).filteredOn(BulkTargetUpdatedEvent.class::isInstance).hasSize(1)
+                    .flatExtracting(event -> ((BulkTargetUpdatedEvent) event).getTargetIds())
+                    .containsOnlyElementsOf(targets.stream().map(Target::getId).collect(Collectors.toList()))
+                    .hasSize(10);
+        } finally {
+            applicationContext.getBean(ApplicationEventMulticaster.class).removeApplicationListener(bulkEventCaptor);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the deletion of many targets publishes one bulk deletion event.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 3),
+            @Expect(type = BulkTargetDeletedEvent.class, count = 1) })
+    public void deletionPublishesBulkEvent() {
+        targetManagement.delete(
+                testdataFactory.createTargets(3).stream().map(Target::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @Description("Verifies that the scheduled actions of a rollout are created in bulk with one event per group.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 10),
+            @Expect(type = ActionCreatedEvent.class, count = 0),
+            @Expect(type = BulkActionCreatedEvent.class, count = 10),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3),
+            @Expect(type = RolloutGroupCreatedEvent.class, count = 10),
+            @Expect(type = RolloutGroupUpdatedEvent.class, count = 10),
+            @Expect(type = RolloutUpdatedEvent.class, count = 1) })
+    public void rolloutCreationCreatesScheduledActionsInBulk() {
+        final Rollout rollout = testdataFactory.createRollout("bulk");
+
+        assertThat(rollout.getStatus()).isEqualTo(RolloutStatus.READY);
+        final List<JpaAction> actions = actionRepository
+                .findByRolloutIdAndStatus(new PageRequest(0, 100), rollout.getId(), Status.SCHEDULED).getContent();
+        assertThat(actions).hasSize(10);
+        assertThat(actions).allMatch(action -> !action.isActive() && action.getRolloutGroup() != null
+                && rollout.getDistributionSet().getId().equals(action.getDistributionSet().getId())
+                && rollout.getActionType() == action.getActionType());
+    }
+
+    @Test
+    @Description("Verifies that the scheduled actions of a rollout group are started in bulk.")
+    public void rolloutGroupStartStartsScheduledActionsInBulk() {
+        final Rollout rollout = testdataFactory.createRollout("bulkstart");
+
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        final List<JpaAction> running = actionRepository
+                .findByRolloutIdAndStatus(new PageRequest(0, 100), rollout.getId(), Status.RUNNING).getContent();
+        assertThat(running).hasSize(1);
+        final JpaAction action = running.get(0);
+        assertThat(action.isActive()).isTrue();
+        // the scheduled action has been created with revision 1
+        assertThat(action.getOptLockRevision()).isEqualTo(2);
+        assertThat(actionStatusRepository.countByAction(action)).isEqualTo(1);
+
+        final JpaTarget target = targetRepository.findOne(action.getTarget().getId());
+        assertThat(target.getUpdateStatus()).isEqualTo(TargetUpdateStatus.PENDING);
+        assertThat(target.getAssignedDistributionSet().getId()).isEqualTo(rollout.getDistributionSet().getId());
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.SCHEDULED)).isEqualTo(9);
+    }
+
+    @Test
+    @Description("Verifies that a bulk assignment event keeps its content when it is serialized and read again.")
+    public void serializedBulkEventKeepsContent() {
+        final Map<String, Long> actions = new LinkedHashMap<>();
+        actions.put("controller1", 1L);
+        actions.put("controller2", 2L);
+        final BulkTargetAssignDistributionSetEvent event = new BulkTargetAssignDistributionSetEvent("tenant", 3L,
+                actions, "origin");
+
+        final BulkTargetAssignDistributionSetEvent read = (BulkTargetAssignDistributionSetEvent) EventOutbox
+                .deserialize(EventOutbox.serialize(event));
+
+        assertThat(read.getTenant()).isEqualTo("tenant");
+        assertThat(read.getDistributionSetId()).isEqualTo(3L);
+        assertThat(read.getActions()).isEqualTo(actions);
+        assertThat(read.getOriginService()).isEqualTo("origin");
+    }
+}
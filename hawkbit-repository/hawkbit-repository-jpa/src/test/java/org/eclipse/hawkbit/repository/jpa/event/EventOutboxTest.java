@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.EventOutboxRepository;
+import org.eclipse.hawkbit.repository.jpa.model.JpaEventOutboxEntry;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.test.matcher.Expect;
+import org.eclipse.hawkbit.repository.test.matcher.ExpectEvents;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Event Outbox")
+// the relay of the context only runs after commits
+@TestPropertySource(properties = { "hawkbit.server.repository.outbox.enabled=true",
+        "hawkbit.server.repository.outbox.interval=3600000" })
+public class EventOutboxTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private EventOutboxRepository eventOutboxRepository;
+
+    @Autowired
+    private EventOutboxRelay eventOutboxRelay;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private final ApplicationEventPublisher eventPublisherMock = mock(ApplicationEventPublisher.class);
+
+    private EventOutboxRelay relay;
+
+    @After
+    public void shutdownRelay() {
+        if (relay != null) {
+            relay.shutdown();
+        }
+        eventOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @Description("Verifies that the assignment events are written into the outbox and relayed after the commit.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 10),
+            @Expect(type = TargetUpdatedEvent.class, count = 10), @Expect(type = ActionCreatedEvent.class, count = 10),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = 10) })
+    public void assignmentEventsAreRelayed() {
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        assignDistributionSet(ds, testdataFactory.createTargets(10));
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> eventOutboxRepository.count() == 0);
+        assertThat(eventOutboxRelay.getRelayedCount()).isGreaterThanOrEqualTo(10);
+        assertThat(eventOutboxRelay.getFailedCount()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that an event keeps its content when it is written into the outbox and read again.")
+    public void serializedEventKeepsContent() {
+        final TargetAssignDistributionSetEvent event = new TargetAssignDistributionSetEvent("tenant", 1L, 2L,
+                "controller", "origin");
+
+        final TargetAssignDistributionSetEvent read = (TargetAssignDistributionSetEvent) EventOutbox
+                .deserialize(EventOutbox.serialize(event));
+
+        assertThat(read.getTenant()).isEqualTo("tenant");
+        assertThat(read.getActionId()).isEqualTo(1L);
+        assertThat(read.getDistributionSetId()).isEqualTo(2L);
+        assertThat(read.getControllerId()).isEqualTo("controller");
+        assertThat(read.getOriginService()).isEqualTo("origin");
+    }
+
+    @Test
+    @Description("Verifies that an event whose publication failed is kept in the outbox, retried and parked after "
+            + "the maximum number of attempts.")
+    public void failedEventIsRetriedAndParked() throws InterruptedException {
+        doThrow(new IllegalStateException("listener failed")).when(eventPublisherMock)
+                .publishEvent(any(ApplicationEvent.class));
+        final EventOutboxProperties properties = new EventOutboxProperties();
+        properties.setMaxAttempts(2);
+        properties.setRetryDelay(0);
+        relay = createRelay(properties);
+        final JpaEventOutboxEntry entry = writeEntry(null, 0);
+
+        relay.relay();
+        assertThat(eventOutboxRepository.findOne(entry.getId()).getAttempts()).isEqualTo(1);
+        assertThat(relay.getPendingCount()).isEqualTo(1);
+
+        // the lease of the retry ends now
+        TimeUnit.MILLISECONDS.sleep(10);
+        relay.relay();
+        assertThat(eventOutboxRepository.findOne(entry.getId()).isParked()).isTrue();
+        assertThat(relay.getParkedCount()).isEqualTo(1);
+
+        TimeUnit.MILLISECONDS.sleep(10);
+        relay.relay();
+        verify(eventPublisherMock, times(2)).publishEvent(any(ApplicationEvent.class));
+        assertThat(relay.getFailedCount()).isEqualTo(2);
+        assertThat(relay.getRelayedCount()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that an event is kept in the outbox and retried if a participant reports that the broker "
+            + "did not accept its messages.")
+    public void eventWithFailedBrokerSendIsKept() {
+        final EventOutboxProperties properties = new EventOutboxProperties();
+        properties.setRetryDelay(0);
+        relay = createRelay(properties);
+        relay.addParticipant(TargetDeletedEvent.class);
+        doAnswer(invocation -> {
+            relay.reportDelivery((RemoteApplicationEvent) invocation.getArguments()[0],
+                    CompletableFuture.completedFuture(Boolean.FALSE));
+            return null;
+        }).when(eventPublisherMock).publishEvent(any(ApplicationEvent.class));
+        final JpaEventOutboxEntry entry = writeEntry(null, 0);
+
+        relay.relay();
+
+        verify(eventPublisherMock).publishEvent(any(ApplicationEvent.class));
+        assertThat(eventOutboxRepository.findOne(entry.getId()).getAttempts()).isEqualTo(1);
+        assertThat(relay.getFailedCount()).isEqualTo(1);
+        assertThat(relay.getRelayedCount()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that an event is deleted only after its participant has confirmed the delivery and is kept "
+            + "if the confirmation is missing.")
+    public void eventIsDeletedAfterConfirmedDelivery() {
+        final EventOutboxProperties properties = new EventOutboxProperties();
+        properties.setRetryDelay(0);
+        properties.setDeliveryTimeout(100);
+        relay = createRelay(properties);
+        relay.addParticipant(TargetDeletedEvent.class);
+        final JpaEventOutboxEntry unconfirmed = writeEntry(null, 0);
+
+        relay.relay();
+        assertThat(eventOutboxRepository.findOne(unconfirmed.getId()).getAttempts()).isEqualTo(1);
+
+        eventOutboxRepository.deleteAll();
+        doAnswer(invocation -> {
+            relay.reportDelivery((RemoteApplicationEvent) invocation.getArguments()[0],
+                    CompletableFuture.supplyAsync(() -> Boolean.TRUE));
+            return null;
+        }).when(eventPublisherMock).publishEvent(any(ApplicationEvent.class));
+        writeEntry(null, 0);
+
+        relay.relay();
+        assertThat(eventOutboxRepository.count()).isZero();
+        assertThat(relay.getRelayedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that a relay takes over the events whose lease has expired, but not the events another "
+            + "relay still owns.")
+    public void eventsWithExpiredLeaseAreTakenOver() {
+        relay = createRelay(new EventOutboxProperties());
+        writeEntry("crashed-node", System.currentTimeMillis() - 1);
+        final JpaEventOutboxEntry leased = writeEntry("running-node", System.currentTimeMillis() + 60_000);
+
+        relay.relay();
+
+        verify(eventPublisherMock).publishEvent(any(ApplicationEvent.class));
+        assertThat(relay.getRelayedCount()).isEqualTo(1);
+        assertThat(eventOutboxRepository.findAll()).extracting(JpaEventOutboxEntry::getId)
+                .containsExactly(leased.getId());
+        assertThat(eventOutboxRepository.findOne(leased.getId()).getOwner()).isEqualTo("running-node");
+    }
+
+    private EventOutboxRelay createRelay(final EventOutboxProperties properties) {
+        properties.setEnabled(true);
+        properties.setInterval(3_600_000);
+        return new EventOutboxRelay(properties, eventOutboxRepository, actionRepository, eventPublisherMock,
+                systemSecurityContext, txManager, "relay-node");
+    }
+
+    private JpaEventOutboxEntry writeEntry(final String owner, final long leaseUntil) {
+        final String tenant = tenantAware.getCurrentTenant();
+        return eventOutboxRepository.save(new JpaEventOutboxEntry(tenant, "origin", owner, leaseUntil,
+                EventOutbox.serialize(new TargetDeletedEvent(tenant, 1L, "controller", null,
+                        JpaTarget.class.getName(), "origin"))));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Tenant Scheduling")
+public class TenantTaskExecutorTest {
+
+    private final CountDownLatch slowTenant = new CountDownLatch(1);
+
+    private final List<String> runs = new CopyOnWriteArrayList<>();
+
+    private SystemManagement systemManagement;
+
+    private SystemSecurityContext systemSecurityContext;
+
+    private TenantTaskExecutor executor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        systemManagement = mock(SystemManagement.class);
+        doAnswer(invocation -> {
+            final Consumer<String> consumer = (Consumer<String>) invocation.getArguments()[0];
+            consumer.accept("slow");
+            consumer.accept("fast");
+            return null;
+        }).when(systemManagement).forEachTenant(any());
+
+        systemSecurityContext = mock(SystemSecurityContext.class);
+        when(systemSecurityContext.runAsSystemAsTenant(any(), anyString()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArguments()[0]).call());
+
+        final TenantSchedulingProperties properties = new TenantSchedulingProperties();
+        properties.setWorkers(2);
+        executor = new TenantTaskExecutor(properties, systemManagement, systemSecurityContext,
+                new DefaultLockRegistry(), null);
+    }
+
+    @After
+    public void tearDown() {
+        slowTenant.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that a tenant with a long running job neither delays the other tenants nor runs twice.")
+    public void slowTenantDoesNotDelayOtherTenants() {
+        executor.execute("job", this::run);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> runs.contains("fast"));
+
+        executor.execute("job", this::run);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> runs.size() == 3);
+
+        assertThat(runs).containsExactlyInAnyOrder("slow", "fast", "fast");
+        assertThat(executor.getSchedulingLag()).containsOnlyKeys("job-fast");
+    }
+
+    @Test
+    @Description("Verifies that a run which is skipped as the job of the tenant is locked elsewhere is not recorded.")
+    public void skippedRunIsNotRecorded() {
+        final Lock lockedElsewhere = mock(Lock.class);
+        when(lockedElsewhere.tryLock()).thenReturn(false);
+        final TenantSchedulingProperties properties = new TenantSchedulingProperties();
+        // one worker runs the tenants one after the other
+        properties.setWorkers(1);
+        final TenantTaskExecutor serialExecutor = new TenantTaskExecutor(properties, systemManagement,
+                systemSecurityContext, key -> "job-slow".equals(key) ? lockedElsewhere : new ReentrantLock(), null);
+
+        try {
+            serialExecutor.execute("job", this::run);
+            Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                    .until(() -> serialExecutor.getSchedulingLag().containsKey("job-fast"));
+
+            assertThat(runs).containsExactly("fast");
+            assertThat(serialExecutor.getSchedulingLag()).containsOnlyKeys("job-fast");
+        } finally {
+            serialExecutor.shutdown();
+        }
+    }
+
+    private void run(final String tenant) {
+        runs.add(tenant);
+        if ("slow".equals(tenant)) {
+            try {
+                slowTenant.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
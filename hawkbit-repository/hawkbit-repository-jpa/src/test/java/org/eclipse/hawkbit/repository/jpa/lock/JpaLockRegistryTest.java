@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Cluster Lock")
+public class JpaLockRegistryTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private JpaLockRegistry node1;
+
+    private JpaLockRegistry node2;
+
+    @After
+    public void tearDown() {
+        node1.shutdown();
+        node2.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that a lock is held by one node at a time and can be taken over after the release.")
+    public void lockIsExclusiveBetweenNodes() {
+        startNodes(properties(TimeUnit.SECONDS.toMillis(30), false));
+
+        final Lock lock1 = node1.obtain("exclusive");
+        final Lock lock2 = node2.obtain("exclusive");
+
+        assertThat(lock1.tryLock()).isTrue();
+        assertThat(lock2.tryLock()).isFalse();
+        // reentrant within the node
+        assertThat(lock1.tryLock()).isTrue();
+        lock1.unlock();
+        assertThat(lock2.tryLock()).isFalse();
+
+        lock1.unlock();
+        assertThat(lock2.tryLock()).isTrue();
+        lock2.unlock();
+    }
+
+    @Test
+    @Description("Verifies that the lock of a node that stopped renewing it expires after the lease time.")
+    public void lockExpiresWithoutHeartbeat() throws InterruptedException {
+        startNodes(properties(100, false));
+        node1.shutdown();
+
+        assertThat(node1.obtain("expiring").tryLock()).isTrue();
+        assertThat(node2.obtain("expiring").tryLock()).isFalse();
+
+        assertThat(node2.obtain("expiring").tryLock(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that every tenant is owned by exactly one of the live nodes.")
+    public void tenantsAreSplitBetweenNodes() {
+        startNodes(properties(TimeUnit.SECONDS.toMillis(30), true));
+        node1.heartbeat();
+        node2.heartbeat();
+        node1.heartbeat();
+
+        assertThat(node1.getLiveNodeCount()).isEqualTo(2);
+        assertThat(node2.getLiveNodeCount()).isEqualTo(2);
+
+        final List<String> tenants = Arrays.asList("tenant1", "tenant2", "tenant3", "tenant4", "tenant5");
+        tenants.forEach(tenant -> assertThat(node1.owns(tenant)).isNotEqualTo(node2.owns(tenant)));
+    }
+
+    private void startNodes(final ClusterLockProperties properties) {
+        node1 = new JpaLockRegistry(properties, entityManager, txManager);
+        node2 = new JpaLockRegistry(properties, entityManager, txManager);
+    }
+
+    private static ClusterLockProperties properties(final long leaseTime, final boolean tenantSharding) {
+        final ClusterLockProperties properties = new ClusterLockProperties();
+        properties.setLeaseTime(leaseTime);
+        properties.setHeartbeatInterval(TimeUnit.HOURS.toMillis(1));
+        properties.setTenantSharding(tenantSharding);
+        return properties;
+    }
+}
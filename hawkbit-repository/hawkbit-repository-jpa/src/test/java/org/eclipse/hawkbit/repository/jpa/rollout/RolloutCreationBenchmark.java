@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutGroupConditionBuilder;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.base.Stopwatch;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Benchmark of the time the creation of a rollout with 20 groups takes over
+ * 1,000,000 targets on H2. The number of targets can be changed with the
+ * system property <code>benchmark.targets</code>.
+ *
+ * The benchmark is not part of the build, run it with
+ * <code>mvn test -Dtest=RolloutCreationBenchmark</code>.
+ */
+@Features("Component Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutCreationBenchmark extends AbstractJpaIntegrationTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutCreationBenchmark.class);
+
+    private static final int TARGETS = Integer.getInteger("benchmark.targets", 1_000_000);
+
+    private static final int GROUPS = 20;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Measures the creation of a rollout with 20 groups over all targets.")
+    public void createRolloutWithTwentyGroups() {
+        final Stopwatch insert = Stopwatch.createStarted();
+        insertTargets(TARGETS);
+        LOGGER.info("Inserted {} targets in {} ms", TARGETS, insert.elapsed(TimeUnit.MILLISECONDS));
+
+        final Stopwatch creation = Stopwatch.createStarted();
+        final Rollout rollout = rolloutManagement.create(
+                entityFactory.rollout().create().name("benchmark").targetFilterQuery("controllerId==benchmark*")
+                        .set(testdataFactory.createDistributionSet("benchmark")),
+                GROUPS, new RolloutGroupConditionBuilder().withDefaults().build());
+
+        int runs = 0;
+        while (rolloutManagement.get(rollout.getId()).get().getStatus() == RolloutStatus.CREATING) {
+            rolloutManagement.handleRollouts();
+            runs++;
+        }
+        final long elapsed = creation.elapsed(TimeUnit.MILLISECONDS);
+
+        assertThat(rolloutManagement.get(rollout.getId()).get().getStatus()).isEqualTo(RolloutStatus.READY);
+        assertThat(rolloutTargetGroupRepository.count()).isEqualTo(TARGETS);
+        LOGGER.info("Created rollout with {} groups over {} targets in {} ms and {} runs", GROUPS, TARGETS, elapsed,
+                runs);
+    }
+
+    /**
+     * Inserts the targets with one statement as the creation through the
+     * management API would take longer than the benchmark itself.
+     */
+    private void insertTargets(final int count) {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        new TransactionTemplate(txManager).execute(status -> entityManager.createNativeQuery(
+                "INSERT INTO sp_target (tenant, name, controller_id, sec_token, update_status,"
+                        + " request_controller_attributes, optlock_revision, created_at, created_by,"
+                        + " last_modified_at, last_modified_by)"
+                        + " SELECT ?1, 'benchmark' || x, 'benchmark' || x, 'token' || x, 'UNKNOWN', FALSE, 1,"
+                        + " ?2, 'bench', ?2, 'bench' FROM SYSTEM_RANGE(1, ?3)")
+                .setParameter(1, tenant).setParameter(2, System.currentTimeMillis()).setParameter(3, count)
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Engine")
+@TestPropertySource(properties = "hawkbit.rollout.engine.enabled=true")
+public class RolloutEngineTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutEngine rolloutEngine;
+
+    @Test
+    @Description("Verifies that the next group is started when an action of the running group is finished, "
+            + "without running the rollout handler.")
+    public void finishedActionStartsNextGroup() {
+        final Rollout rollout = testdataFactory.createRollout("engine");
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        final List<JpaAction> running = runningActions(rollout);
+        assertThat(running).hasSize(1);
+        final long evaluated = rolloutEngine.getEvaluatedCount();
+
+        controllerManagement.addUpdateActionStatus(
+                entityFactory.actionStatus().create(running.get(0).getId()).status(Status.FINISHED));
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> countGroups(rollout, RolloutGroupStatus.FINISHED) == 1
+                        && countGroups(rollout, RolloutGroupStatus.RUNNING) == 1);
+        assertThat(runningActions(rollout)).hasSize(1);
+        assertThat(rolloutEngine.getEvaluatedCount()).isGreaterThan(evaluated);
+    }
+
+    @Test
+    @Description("Verifies that groups which are not running are ignored by the evaluation.")
+    public void groupsThatAreNotRunningAreIgnored() {
+        final Rollout rollout = testdataFactory.createRollout("scheduled");
+        final List<Long> groupIds = rolloutGroupManagement.findByRollout(new PageRequest(0, 100), rollout.getId())
+                .getContent().stream().map(RolloutGroup::getId).collect(Collectors.toList());
+
+        assertThat(rolloutManagement.handleRolloutGroups(groupIds)).isTrue();
+
+        assertThat(countGroups(rollout, RolloutGroupStatus.READY)).isEqualTo(groupIds.size());
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.SCHEDULED))
+                .isEqualTo(groupIds.size());
+    }
+
+    @Test
+    @Description("Verifies that action changes of other nodes are left to the rollout engine of these nodes.")
+    public void actionChangesOfOtherNodesAreIgnored() {
+        final Rollout rollout = testdataFactory.createRollout("remote");
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        final JpaAction running = runningActions(rollout).get(0);
+        // evaluate the changes of the start on this node
+        rolloutEngine.evaluate();
+        final long evaluated = rolloutEngine.getEvaluatedCount();
+
+        rolloutEngine.onActionChange(new ActionUpdatedEvent(running, rollout.getId(),
+                running.getRolloutGroup().getId(), "otherNode"));
+        rolloutEngine.evaluate();
+
+        assertThat(rolloutEngine.getEvaluatedCount()).isEqualTo(evaluated);
+    }
+
+    private List<JpaAction> runningActions(final Rollout rollout) {
+        return actionRepository.findByRolloutIdAndStatus(new PageRequest(0, 100), rollout.getId(), Status.RUNNING)
+                .getContent();
+    }
+
+    private long countGroups(final Rollout rollout, final RolloutGroupStatus status) {
+        return rolloutGroupManagement.findByRollout(new PageRequest(0, 100), rollout.getId()).getContent().stream()
+                .filter(group -> status.equals(group.getStatus())).count();
+    }
+}
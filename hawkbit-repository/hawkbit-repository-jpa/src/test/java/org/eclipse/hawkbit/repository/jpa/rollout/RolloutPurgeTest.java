@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Purge")
+@TestPropertySource(properties = { "hawkbit.server.repository.rollout.purge.enabled=true",
+        "hawkbit.server.repository.rollout.purge.chunk-size=3",
+        "hawkbit.server.repository.rollout.purge.chunk-delay=0",
+        "hawkbit.server.repository.rollout.purge.interval=3600000" })
+public class RolloutPurgeTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutPurger rolloutPurger;
+
+    @Test
+    @Description("Verifies that a deleted rollout is hidden right away and purged in chunks in the background.")
+    public void deletedRolloutIsPurgedInChunks() {
+        final Rollout rollout = testdataFactory.createRollout("purge");
+        final long purgedActions = rolloutPurger.getPurgedActionCount();
+
+        rolloutManagement.delete(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        final JpaRollout hidden = rolloutRepository.findOne(rollout.getId());
+        assertThat(hidden.isDeleted()).isTrue();
+        assertThat(hidden.getStatus()).isEqualTo(RolloutStatus.DELETED);
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.SCHEDULED)).isEqualTo(10);
+        assertThat(rolloutPurger.getPendingCount()).isEqualTo(1);
+
+        rolloutPurger.purge();
+
+        assertThat(rolloutRepository.findOne(rollout.getId())).isNull();
+        assertThat(actionRepository.existsByRolloutId(rollout.getId())).isFalse();
+        assertThat(rolloutTargetGroupRepository.count()).isZero();
+        assertThat(rolloutPurger.getPurgedActionCount() - purgedActions).isEqualTo(10);
+        assertThat(rolloutPurger.getPendingCount()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the purge of a started rollout deletes the scheduled actions only and keeps the "
+            + "rollout with the started actions as history.")
+    public void startedRolloutKeepsHistory() {
+        final Rollout rollout = testdataFactory.createRollout("history");
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        rolloutManagement.delete(rollout.getId());
+        rolloutManagement.handleRollouts();
+        rolloutPurger.purge();
+
+        final JpaRollout deleted = rolloutRepository.findOne(rollout.getId());
+        assertThat(deleted.isDeleted()).isTrue();
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.SCHEDULED)).isZero();
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.RUNNING)).isEqualTo(1);
+        assertThat(rolloutPurger.getPendingCount()).isZero();
+    }
+}
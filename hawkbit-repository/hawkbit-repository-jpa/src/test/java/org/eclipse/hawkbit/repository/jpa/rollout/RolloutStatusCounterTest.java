@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Status Counter")
+@TestPropertySource(properties = "hawkbit.server.repository.rollout.status-counter.enabled=true")
+public class RolloutStatusCounterTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutStatusCounter rolloutStatusCounter;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Verifies that the counters follow the status of the actions when a rollout is created and started.")
+    public void countersFollowActionStatus() {
+        final Rollout rollout = testdataFactory.createRollout("counter");
+        assertThat(countsOfRollout(rollout)).containsOnly(entry(Status.SCHEDULED, 10L));
+
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        assertThat(countsOfRollout(rollout)).containsOnly(entry(Status.SCHEDULED, 9L), entry(Status.RUNNING, 1L));
+        assertThat(rolloutManagement.getWithDetailedStatus(rollout.getId()).get().getTotalTargetCountStatus()
+                .getTotalTargetCountByStatus(TotalTargetCountStatus.Status.RUNNING)).isEqualTo(1L);
+    }
+
+    @Test
+    @Description("Verifies that the reconciliation repairs counters that differ from the actions.")
+    public void reconciliationRepairsDrift() {
+        final Rollout rollout = testdataFactory.createRollout("drift");
+        final RolloutGroup group = rolloutGroupManagement.findByRollout(new PageRequest(0, 1), rollout.getId())
+                .getContent().get(0);
+
+        new TransactionTemplate(txManager).execute(status -> {
+            rolloutStatusCounter.change(rollout.getId(), group.getId(), Status.ERROR, 5);
+            return null;
+        });
+        assertThat(countsOfRollout(rollout)).contains(entry(Status.ERROR, 5L));
+
+        final long repaired = rolloutStatusCounter.getRepairedCount();
+        rolloutStatusCounter.reconcile();
+
+        assertThat(rolloutStatusCounter.getRepairedCount()).isGreaterThan(repaired);
+        assertThat(countsOfRollout(rollout)).containsOnly(entry(Status.SCHEDULED, 10L));
+    }
+
+    @Test
+    @Description("Verifies that the changes of a transaction are summed up per counter, are visible to the reads of "
+            + "the transaction and are applied once.")
+    public void changesAreAppliedOncePerTransaction() {
+        final Rollout rollout = testdataFactory.createRollout("transaction");
+        final RolloutGroup group = rolloutGroupManagement.findByRollout(new PageRequest(0, 1), rollout.getId())
+                .getContent().get(0);
+
+        final long countInTransaction = new TransactionTemplate(txManager).execute(status -> {
+            rolloutStatusCounter.change(rollout.getId(), group.getId(), Status.ERROR, 2);
+            rolloutStatusCounter.change(rollout.getId(), group.getId(), Status.ERROR, 3);
+            rolloutStatusCounter.change(rollout.getId(), group.getId(), Status.CANCELED, 1);
+            rolloutStatusCounter.change(rollout.getId(), group.getId(), Status.CANCELED, -1);
+            return rolloutStatusCounter.count(group.getId(), Status.ERROR);
+        });
+
+        assertThat(countInTransaction).isEqualTo(5L);
+        assertThat(countsOfRollout(rollout)).containsOnly(entry(Status.SCHEDULED, 10L), entry(Status.ERROR, 5L));
+    }
+
+    @Test
+    @Description("Verifies that the counters are created with the group, are reported as missing and are recreated by "
+            + "the reconciliation.")
+    public void countersAreCreatedWithGroup() {
+        final Rollout rollout = testdataFactory.createRollout("create");
+        final RolloutGroup group = rolloutGroupManagement.findByRollout(new PageRequest(0, 1), rollout.getId())
+                .getContent().get(0);
+        assertThat(countCounterRows(group)).isEqualTo(Status.values().length);
+
+        new TransactionTemplate(txManager).execute(status -> entityManager
+                .createNativeQuery("DELETE FROM sp_rollout_status_count WHERE rolloutgroup = " + group.getId())
+                .executeUpdate());
+        assertThat(rolloutStatusCounter.countNotIn(group.getId(), Collections.singletonList(Status.FINISHED))
+                .isPresent()).isFalse();
+        rolloutStatusCounter.reconcile();
+
+        assertThat(countCounterRows(group)).isEqualTo(Status.values().length);
+        assertThat(countsOfRollout(rollout)).containsOnly(entry(Status.SCHEDULED, 10L));
+    }
+
+    private long countCounterRows(final RolloutGroup group) {
+        return ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM sp_rollout_status_count WHERE rolloutgroup = " + group.getId())
+                .getSingleResult()).longValue();
+    }
+
+    private Map<Status, Long> countsOfRollout(final Rollout rollout) {
+        return rolloutStatusCounter.getStatusCountByRolloutId(Collections.singletonList(rollout.getId())).stream()
+                .collect(Collectors.toMap(TotalTargetCountActionStatus::getStatus,
+                        TotalTargetCountActionStatus::getCount));
+    }
+}
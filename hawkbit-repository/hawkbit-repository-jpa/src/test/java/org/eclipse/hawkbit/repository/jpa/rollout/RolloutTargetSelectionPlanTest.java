@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.sql.DataSource;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
+import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutTargetSelectionPlanTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Verifies on H2 that the targets of a rollout group are selected with an anti-join that looks up "
+            + "the group membership by index for every target and that the targets are paged by ID.")
+    public void targetSelectionUsesIndexedAntiJoin() throws SQLException {
+        assumeTrue(isH2());
+
+        final Rollout rollout = testdataFactory.createRollout("plan");
+        final List<Long> groups = rolloutGroupManagement.findByRollout(new PageRequest(0, 100), rollout.getId())
+                .getContent().stream().map(RolloutGroup::getId).collect(Collectors.toList());
+
+        final String sql = new TransactionTemplate(txManager).execute(status -> {
+            final TypedQuery<Long> query = createTargetSelection(groups);
+            assertThat(query.getResultList()).isEmpty();
+
+            final DatabaseQuery databaseQuery = query.unwrap(JpaQuery.class).getDatabaseQuery();
+            databaseQuery.prepareCall(entityManager.unwrap(JpaEntityManager.class).getActiveSession(),
+                    new DatabaseRecord());
+            return databaseQuery.getSQLString();
+        });
+        assertThat(sql.toUpperCase()).contains("EXISTS").doesNotContain("OUTER JOIN");
+
+        final String plan = explain(sql);
+        assertThat(plan).contains("NOT EXISTS");
+        assertThat(getTableAccess(plan, "SP_ROLLOUTTARGETGROUP")).doesNotContain("tableScan");
+        assertThat(getTableAccess(plan, "SP_TARGET")).doesNotContain("tableScan");
+    }
+
+    private TypedQuery<Long> createTargetSelection(final List<Long> groups) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final Root<JpaTarget> root = query.from(JpaTarget.class);
+        query.select(root.get(JpaTarget_.id))
+                .where(cb.and(TargetSpecifications.isNotInRolloutGroups(groups).toPredicate(root, query, cb),
+                        cb.greaterThan(root.get(JpaTarget_.id), 0L)))
+                .orderBy(cb.asc(root.get(JpaTarget_.id)));
+        return entityManager.createQuery(query).setMaxResults(100);
+    }
+
+    private boolean isH2() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    private String explain(final String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            // the values do not change the plan of H2
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setString(i, "0");
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                assertThat(result.next()).isTrue();
+                return result.getString(1);
+            }
+        }
+    }
+
+    /**
+     * @return the index comment that H2 prints behind the given table
+     */
+    private static String getTableAccess(final String plan, final String table) {
+        final int start = plan.indexOf("PUBLIC." + table + " ");
+        assertThat(start).as("table %s in plan %s", table, plan).isNotNegative();
+        return plan.substring(start, plan.indexOf("*/", start));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.builder.RolloutCreate;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroupConditionBuilder;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Throttling")
+public class RolloutThrottleTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Verifies that a group starts no more actions than the running action limit allows and starts "
+            + "further actions when running actions are finished.")
+    public void runningActionsAreLimited() {
+        final Rollout rollout = startRollout("concurrent", entityFactory.rollout().create().maxRunningActions(5));
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(5);
+        assertThat(countActions(rollout, Status.SCHEDULED)).isEqualTo(15);
+
+        rolloutManagement.handleRollouts();
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(5);
+
+        final List<JpaAction> running = actionRepository
+                .findByRolloutIdAndStatus(new PageRequest(0, 2), rollout.getId(), Status.RUNNING).getContent();
+        running.forEach(action -> controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(action.getId()).status(Status.FINISHED)));
+
+        rolloutManagement.handleRollouts();
+        assertThat(countActions(rollout, Status.FINISHED)).isEqualTo(2);
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(5);
+        assertThat(countActions(rollout, Status.SCHEDULED)).isEqualTo(13);
+    }
+
+    @Test
+    @Description("Verifies that a group starts the actions at the activation rate of the rollout.")
+    public void activationsAreLimitedByRate() {
+        final Rollout rollout = startRollout("rate", entityFactory.rollout().create().activationsPerMinute(6));
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(6);
+        // the activations are stored together with the started actions
+        assertThat(entityManager.createNativeQuery("SELECT activated_until FROM sp_rollout WHERE id = ?1")
+                .setParameter(1, rollout.getId()).getSingleResult()).isNotNull();
+
+        rolloutManagement.handleRollouts();
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(6);
+
+        // half a minute later another half of the rate is available
+        new TransactionTemplate(txManager).execute(status -> entityManager
+                .createNativeQuery("UPDATE sp_rollout SET activated_until = ?1 WHERE id = ?2")
+                .setParameter(1, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(30))
+                .setParameter(2, rollout.getId()).executeUpdate());
+
+        rolloutManagement.handleRollouts();
+        assertThat(countActions(rollout, Status.RUNNING)).isEqualTo(9);
+        assertThat(countActions(rollout, Status.SCHEDULED)).isEqualTo(11);
+    }
+
+    private Rollout startRollout(final String prefix, final RolloutCreate create) {
+        testdataFactory.createTargets(20, prefix);
+        final Rollout rollout = rolloutManagement.create(
+                create.name(prefix).targetFilterQuery("controllerId==" + prefix + "*")
+                        .set(testdataFactory.createDistributionSet(prefix)),
+                1, new RolloutGroupConditionBuilder().withDefaults().build());
+        rolloutManagement.handleRollouts();
+
+        rolloutManagement.start(rollout.getId());
+        rolloutManagement.handleRollouts();
+        return rollout;
+    }
+
+    private long countActions(final Rollout rollout, final Status status) {
+        return actionRepository.countByRolloutIdAndStatus(rollout.getId(), status);
+    }
+}
@@ -48,6 +48,8 @@ import org.eclipse.hawkbit.ui.management.targettable.TargetTableLayout;
 import org.eclipse.hawkbit.ui.management.targettag.CreateUpdateTargetTagLayoutWindow;
 import org.eclipse.hawkbit.ui.management.targettag.TargetTagFilterLayout;
 import org.eclipse.hawkbit.ui.menu.DashboardMenuItem;
+import org.eclipse.hawkbit.ui.push.BulkTargetCreatedEventContainer;
+import org.eclipse.hawkbit.ui.push.BulkTargetDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagCreatedEventContainer;
@@ -404,7 +406,9 @@ public class DeploymentView extends AbstractNotificationView implements BrowserW
         final Map<Class<?>, RefreshableContainer> supportedEvents = Maps.newHashMapWithExpectedSize(10);
 
         supportedEvents.put(TargetCreatedEventContainer.class, targetTableLayout.getTable());
+        supportedEvents.put(BulkTargetCreatedEventContainer.class, targetTableLayout.getTable());
         supportedEvents.put(TargetDeletedEventContainer.class, targetTableLayout.getTable());
+        supportedEvents.put(BulkTargetDeletedEventContainer.class, targetTableLayout.getTable());
 
         supportedEvents.put(DistributionSetCreatedEventContainer.class, distributionTableLayout.getTable());
         supportedEvents.put(DistributionSetDeletedEventContainer.class, distributionTableLayout.getTable());
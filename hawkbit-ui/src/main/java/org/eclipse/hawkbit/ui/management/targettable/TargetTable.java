@@ -24,6 +24,7 @@ import org.eclipse.hawkbit.repository.FilterParams;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TargetTagManagement;
 import org.eclipse.hawkbit.repository.event.remote.entity.RemoteEntityEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -47,6 +48,7 @@ import org.eclipse.hawkbit.ui.management.event.TargetTableEvent;
 import org.eclipse.hawkbit.ui.management.event.TargetTableEvent.TargetComponentEvent;
 import org.eclipse.hawkbit.ui.management.state.ManagementUIState;
 import org.eclipse.hawkbit.ui.management.state.TargetTableFilters;
+import org.eclipse.hawkbit.ui.push.BulkTargetUpdatedEventContainer;
 import org.eclipse.hawkbit.ui.push.CancelTargetAssignmentEventContainer;
 import org.eclipse.hawkbit.ui.push.TargetUpdatedEventContainer;
 import org.eclipse.hawkbit.ui.utils.AssignInstalledDSTooltipGenerator;
@@ -152,11 +154,39 @@ public class TargetTable extends AbstractTable<Target> {
             refreshTargets();
         } else {
             eventContainer.getEvents().stream().filter(event -> visibleItemIds.contains(event.getEntityId()))
-                    .filter(Objects::nonNull).forEach(event -> updateVisibleItemOnEvent(event.getEntity()));
+                    .filter(Objects::nonNull).forEach(this::updateVisibleItemOnEvent);
         }
         publishTargetSelectedEntityForRefresh(eventContainer.getEvents().stream());
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    void onBulkTargetUpdatedEvents(final BulkTargetUpdatedEventContainer eventContainer) {
+        final boolean filterEnabled = isFilterEnabled();
+        if (filterEnabled) {
+            refreshTargets();
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<Long> visibleItemIds = (List<Long>) getVisibleItemIds();
+        final List<Long> targetIds = eventContainer.getEvents().stream().flatMap(event -> event.getTargetIds().stream())
+                .filter(targetId -> (!filterEnabled && visibleItemIds.contains(targetId))
+                        || isLastSelectedTarget(targetId))
+                .distinct().collect(Collectors.toList());
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        // only the visible and the selected targets are loaded, at once
+        targetManagement.get(targetIds).forEach(target -> {
+            if (!filterEnabled && visibleItemIds.contains(target.getId())) {
+                updateVisibleItemOnEvent(target);
+            }
+            if (isLastSelectedTarget(target.getId())) {
+                eventBus.publish(this, new TargetTableEvent(BaseEntityEventType.SELECTED_ENTITY, target));
+            }
+        });
+    }
+
     private void publishTargetSelectedEntityForRefresh(
             final Stream<? extends RemoteEntityEvent<Target>> targetEntityEventStream) {
         targetEntityEventStream.filter(event -> isLastSelectedTarget(event.getEntityId())).filter(Objects::nonNull)
@@ -772,6 +802,22 @@ public class TargetTable extends AbstractTable<Target> {
         eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.REFRESH_TARGETS));
     }
 
+    @SuppressWarnings("unchecked")
+    private void updateVisibleItemOnEvent(final TargetUpdatedEvent event) {
+        if (!event.hasSnapshot()) {
+            updateVisibleItemOnEvent(event.getEntity());
+            return;
+        }
+
+        // the snapshot avoids reloading the target, the poll status is kept
+        // as polls do not trigger update events
+        final LazyQueryContainer targetContainer = (LazyQueryContainer) getContainerDataSource();
+        final Item item = targetContainer.getItem(event.getEntityId());
+
+        item.getItemProperty(SPUILabelDefinitions.VAR_TARGET_STATUS).setValue(event.getUpdateStatus());
+        item.getItemProperty(SPUILabelDefinitions.VAR_NAME).setValue(event.getName());
+    }
+
     @SuppressWarnings("unchecked")
     private void updateVisibleItemOnEvent(final Target target) {
         final Long targetId = target.getId();
@@ -10,7 +10,9 @@ package org.eclipse.hawkbit.ui.push;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -20,7 +22,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
+import org.eclipse.hawkbit.repository.event.EventInterestRegistry;
 import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.AbstractBulkActionEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
@@ -30,8 +36,10 @@ import org.eclipse.hawkbit.ui.push.event.RolloutChangedEvent;
 import org.eclipse.hawkbit.ui.push.event.RolloutGroupChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
@@ -39,6 +47,7 @@ import org.vaadin.spring.events.EventBus;
 import org.vaadin.spring.events.EventBus.SessionEventBus;
 import org.vaadin.spring.events.EventBus.UIEventBus;
 
+import com.google.common.collect.ImmutableSet;
 import com.vaadin.server.VaadinSession;
 import com.vaadin.server.VaadinSession.State;
 import com.vaadin.server.WrappedSession;
@@ -65,15 +74,22 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
     private static final Logger LOG = LoggerFactory.getLogger(DelayedEventBusPushStrategy.class);
 
     private static final int BLOCK_SIZE = 10_000;
+
+    private static final Set<Class<? extends RemoteApplicationEvent>> ROLLOUT_EVENTS = ImmutableSet.of(
+            ActionCreatedEvent.class, ActionUpdatedEvent.class, BulkActionCreatedEvent.class,
+            BulkActionUpdatedEvent.class, RolloutUpdatedEvent.class, RolloutGroupCreatedEvent.class,
+            RolloutGroupUpdatedEvent.class);
     private final BlockingDeque<TenantAwareEvent> queue = new LinkedBlockingDeque<>(BLOCK_SIZE);
 
     private final ScheduledExecutorService executorService;
     private final EventBus.UIEventBus eventBus;
     private final UIEventProvider eventProvider;
     private final long delay;
+    private final EventInterestRegistry eventInterestRegistry;
 
     private ScheduledFuture<?> jobHandle;
     private UI vaadinUI;
+    private String subscribedTenant;
 
     /**
      * Constructor.
@@ -90,10 +106,32 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
      */
     public DelayedEventBusPushStrategy(final ScheduledExecutorService executorService, final UIEventBus eventBus,
             final UIEventProvider eventProvider, final long delay) {
+        this(executorService, eventBus, eventProvider, delay, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param executorService
+     *            the general scheduler service
+     * @param eventBus
+     *            the ui event bus
+     * @param eventProvider
+     *            the event provider
+     * @param delay
+     *            the delay for the event forwarding. Every delay millisecond
+     *            the events are forwarded by this strategy
+     * @param eventInterestRegistry
+     *            to register the interest in the events of the tenant of the
+     *            UI, might be <code>null</code>
+     */
+    public DelayedEventBusPushStrategy(final ScheduledExecutorService executorService, final UIEventBus eventBus,
+            final UIEventProvider eventProvider, final long delay, final EventInterestRegistry eventInterestRegistry) {
         this.executorService = executorService;
         this.eventBus = eventBus;
         this.eventProvider = eventProvider;
         this.delay = delay;
+        this.eventInterestRegistry = eventInterestRegistry;
     }
 
     private boolean isEventProvided(final TenantAwareEvent event) {
@@ -110,6 +148,8 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
 
         jobHandle = executorService.scheduleWithFixedDelay(new DispatchRunnable(vaadinUI, vaadinUI.getSession()),
                 10_000, delay, TimeUnit.MILLISECONDS);
+
+        subscribeEvents();
     }
 
     @Override
@@ -117,6 +157,39 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
         LOG.info("Cleanup delayed event push strategy for UI", vaadinUI.getUIId());
         jobHandle.cancel(true);
         queue.clear();
+
+        unsubscribeEvents();
+    }
+
+    private void subscribeEvents() {
+        if (eventInterestRegistry == null) {
+            return;
+        }
+
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof TenantAwareAuthenticationDetails)) {
+            return;
+        }
+
+        subscribedTenant = ((TenantAwareAuthenticationDetails) authentication.getDetails()).getTenant();
+        getSubscribedEvents().forEach(type -> eventInterestRegistry.subscribe(type, subscribedTenant));
+    }
+
+    private void unsubscribeEvents() {
+        if (subscribedTenant == null) {
+            return;
+        }
+
+        getSubscribedEvents().forEach(type -> eventInterestRegistry.unsubscribe(type, subscribedTenant));
+        subscribedTenant = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Class<? extends RemoteApplicationEvent>> getSubscribedEvents() {
+        final Set<Class<? extends RemoteApplicationEvent>> types = new HashSet<>(ROLLOUT_EVENTS);
+        eventProvider.getEvents().keySet().stream().filter(RemoteApplicationEvent.class::isAssignableFrom)
+                .forEach(type -> types.add((Class<? extends RemoteApplicationEvent>) type));
+        return types;
     }
 
     private final class DispatchRunnable implements Runnable {
@@ -278,6 +351,9 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
         if (event instanceof ActionCreatedEvent) {
             rolloutId = ((ActionCreatedEvent) event).getRolloutId();
             rolloutGroupId = ((ActionCreatedEvent) event).getRolloutGroupId();
+        } else if (event instanceof AbstractBulkActionEvent) {
+            rolloutId = ((AbstractBulkActionEvent) event).getRolloutId();
+            rolloutGroupId = ((AbstractBulkActionEvent) event).getRolloutGroupId();
         } else if (event instanceof ActionUpdatedEvent) {
             rolloutId = ((ActionUpdatedEvent) event).getRolloutId();
             rolloutGroupId = ((ActionUpdatedEvent) event).getRolloutGroupId();
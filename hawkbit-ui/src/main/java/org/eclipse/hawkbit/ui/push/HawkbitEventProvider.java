@@ -11,6 +11,9 @@ package org.eclipse.hawkbit.ui.push;
 import java.util.Map;
 
 import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.BulkTargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutDeletedEvent;
@@ -38,7 +41,7 @@ import com.google.common.collect.Maps;
  */
 public class HawkbitEventProvider implements UIEventProvider {
 
-    private static final Map<Class<? extends TenantAwareEvent>, Class<?>> EVENTS = Maps.newHashMapWithExpectedSize(19);
+    private static final Map<Class<? extends TenantAwareEvent>, Class<?>> EVENTS = Maps.newHashMapWithExpectedSize(21);
 
     static {
 
@@ -54,6 +57,9 @@ public class HawkbitEventProvider implements UIEventProvider {
         EVENTS.put(TargetDeletedEvent.class, TargetDeletedEventContainer.class);
         EVENTS.put(TargetUpdatedEvent.class, TargetUpdatedEventContainer.class);
         EVENTS.put(CancelTargetAssignmentEvent.class, CancelTargetAssignmentEventContainer.class);
+        EVENTS.put(BulkTargetUpdatedEvent.class, BulkTargetUpdatedEventContainer.class);
+        EVENTS.put(BulkTargetDeletedEvent.class, BulkTargetDeletedEventContainer.class);
+        EVENTS.put(BulkTargetCreatedEvent.class, BulkTargetCreatedEventContainer.class);
 
         EVENTS.put(DistributionSetUpdatedEvent.class, DistributionSetUpdatedEventContainer.class);
         EVENTS.put(DistributionSetDeletedEvent.class, DistributionSetDeletedEventContainer.class);